@@ -0,0 +1,39 @@
+package com.fy.sqlparam.exec;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 异步SQL执行器, 阻塞的数据库操作在执行器的线程中完成, 调用线程不会被阻塞
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlAsyncExecutor {
+	
+	/**
+	 * 生成查询结果行的发布者, 订阅并请求结果行后才执行查询
+	 * 
+	 * @param mapResult 映射结果, 包含需要执行的SQL语句和参数对象数组, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 结果行的发布者
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> ISqlRowPublisher<T> publish(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper);
+	
+	/**
+	 * 异步执行查询, 把所有结果行映射为结果对象
+	 * 
+	 * @param mapResult 映射结果, 包含需要执行的SQL语句和参数对象数组, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 结果对象列表的异步结果, 执行失败时以异常完成
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> CompletableFuture<List<T>> queryAsync(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper);
+}
@@ -0,0 +1,45 @@
+package com.fy.sqlparam.exec;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * SQL合并加载器
+ * <br/> 把一个时间窗口内并发的同类等值查询合并为一条IN查询执行, 再按键把结果行分发回各个调用方.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlBatchLoader<T> {
+	
+	/**
+	 * 按键加载结果, 加入当前批次等待合并执行
+	 * 
+	 * @param key 等值查询的值, 不能为null
+	 * @return 该键对应结果对象列表的异步结果, 没有结果时为空列表
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	Future<List<T>> load(Object key);
+	
+	/**
+	 * 获取已执行的SQL查询次数
+	 * 
+	 * @return 已执行的SQL查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	long getExecutedCount();
+	
+	/**
+	 * 获取已接收的加载请求次数
+	 * 
+	 * @return 已接收的加载请求次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	long getRequestedCount();
+}
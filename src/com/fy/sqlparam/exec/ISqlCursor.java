@@ -0,0 +1,56 @@
+package com.fy.sqlparam.exec;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * SQL结果游标, 只能向前逐行读取, 读取时才从数据库获取结果行
+ * <br/> 游标持有数据库连接, 读取完所有行后自动关闭, 提前结束读取时必须调用{@link #close()}.
+ * <br/> 读取结果集失败时抛出{@link IllegalStateException}, 原因是对应的{@link java.sql.SQLException}, 游标随之关闭.
+ * <br/> 也可以通过{@link #stream()}作为{@link Stream}逐行处理, 关闭流即关闭游标.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlCursor<T> extends Iterator<T>, AutoCloseable {
+	
+	/**
+	 * 获取已经读取的行数量
+	 * 
+	 * @return 已经读取的行数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	int getReadCount();
+	
+	/**
+	 * 游标是否已经关闭
+	 * 
+	 * @return 已经关闭返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	boolean isClosed();
+	
+	/**
+	 * 把游标的剩余结果行作为顺序流, 读取时才从数据库获取结果行
+	 * <br/> 关闭流时关闭游标, 应在try-with-resources中使用; 流只能使用一次, 使用流后不应再直接读取游标.
+	 * 
+	 * @return 结果行的顺序流
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	Stream<T> stream();
+	
+	/**
+	 * 关闭游标, 释放结果集, 语句和数据库连接, 重复关闭没有影响
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	@Override
+	void close();
+}
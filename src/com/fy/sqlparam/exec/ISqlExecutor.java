@@ -0,0 +1,28 @@
+package com.fy.sqlparam.exec;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * SQL执行器, 执行映射结果中的SQL语句
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlExecutor {
+	
+	/**
+	 * 执行查询, 把所有结果行映射为结果对象
+	 * 
+	 * @param mapResult 映射结果, 包含需要执行的SQL语句和参数对象数组, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 结果对象列表, 没有结果返回空列表
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> List<T> query(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException;
+}
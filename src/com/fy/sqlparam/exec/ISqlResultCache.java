@@ -0,0 +1,114 @@
+package com.fy.sqlparam.exec;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * SQL查询结果缓存, 按映射结果的SQL语句, 参数对象数组和结果行映射器实例缓存结果列表, 并按数据库表失效
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlResultCache {
+	
+	/**
+	 * 获取映射结果对应的缓存结果
+	 * 
+	 * @param mapResult 映射结果, 不能为null
+	 * @return 缓存的结果列表, 没有缓存则返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> List<T> get(ISqlMapResult mapResult);
+	
+	/**
+	 * 获取映射结果通过指定的结果行映射器实例得到的缓存结果
+	 * <br/> 不同的结果行映射器实例缓存的结果互不相同, 不区分映射器的实现默认视为未命中.
+	 * 
+	 * @param mapResult 映射结果, 不能为null
+	 * @param rowMapper 结果行映射器, 按实例比较, 为null时等同于{@link #get(ISqlMapResult)}
+	 * @return 缓存的结果列表, 没有缓存则返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default <T> List<T> get(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) {
+		return rowMapper == null ? this.<T>get(mapResult) : null;
+	}
+	
+	/**
+	 * 缓存映射结果对应的结果列表, 按映射结果实际使用的数据库表记录失效标记
+	 * 
+	 * @param mapResult 映射结果, 不能为null
+	 * @param rows 结果列表, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void put(ISqlMapResult mapResult, List<?> rows);
+	
+	/**
+	 * 缓存映射结果通过指定的结果行映射器实例得到的结果列表
+	 * <br/> 不区分映射器的实现默认不缓存.
+	 * 
+	 * @param mapResult 映射结果, 不能为null
+	 * @param rowMapper 结果行映射器, 按实例比较, 为null时等同于{@link #put(ISqlMapResult, List)}
+	 * @param rows 结果列表, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default void put(ISqlMapResult mapResult, ISqlRowMapper<?> rowMapper, List<?> rows) {
+		if(rowMapper == null) {
+			this.put(mapResult, rows);
+		}
+	}
+	
+	/**
+	 * 优先从缓存获取结果, 没有缓存则通过SQL执行器执行并缓存结果
+	 * <br/> 执行期间如果发生过失效, 则本次结果不会被缓存, 避免缓存过期的结果.
+	 * 
+	 * @param executor SQL执行器, 不能为null
+	 * @param mapResult 映射结果, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null; 缓存按映射结果和映射器实例区分, 重复使用同一个映射器实例才能命中缓存
+	 * @return 结果列表
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> List<T> query(ISqlExecutor executor, ISqlMapResult mapResult, 
+			ISqlRowMapper<T> rowMapper) throws SQLException;
+	
+	/**
+	 * 失效所有使用了指定数据库表的缓存结果
+	 * 
+	 * @param tableName 数据库表名称, 不区分大小写
+	 * @return 失效的缓存结果数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	int invalidate(String tableName);
+	
+	/**
+	 * 失效所有缓存结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void invalidateAll();
+	
+	/**
+	 * 获取当前缓存结果的数量
+	 * 
+	 * @return 缓存结果的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	int size();
+}
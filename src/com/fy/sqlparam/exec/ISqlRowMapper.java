@@ -0,0 +1,27 @@
+package com.fy.sqlparam.exec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * SQL结果行映射器, 把结果集的当前行转换为结果对象
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlRowMapper<T> {
+	
+	/**
+	 * 映射结果集的当前行
+	 * <br/> 不能移动结果集的游标.
+	 * 
+	 * @param resultSet 结果集, 已指向需要映射的行
+	 * @param rowNum 当前行的序号, 从0开始
+	 * @return 映射得到的结果对象
+	 * @throws SQLException 读取结果集失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	T mapRow(ResultSet resultSet, int rowNum) throws SQLException;
+}
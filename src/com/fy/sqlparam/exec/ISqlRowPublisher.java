@@ -0,0 +1,21 @@
+package com.fy.sqlparam.exec;
+
+/**
+ * SQL结果行的发布者, 按订阅者请求的数量推送结果行
+ * <br/> 每次订阅都会重新执行查询.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlRowPublisher<T> {
+	
+	/**
+	 * 订阅结果行
+	 * 
+	 * @param subscriber 订阅者, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void subscribe(ISqlRowSubscriber<? super T> subscriber);
+}
@@ -0,0 +1,49 @@
+package com.fy.sqlparam.exec;
+
+/**
+ * SQL结果行的订阅者, 按请求的数量接收结果行
+ * <br/> 同一个订阅者的所有方法按顺序调用, 不会并发调用.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlRowSubscriber<T> {
+	
+	/**
+	 * 订阅开始, 在请求结果行之前不会执行查询
+	 * 
+	 * @param subscription 订阅
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void onSubscribe(ISqlRowSubscription subscription);
+	
+	/**
+	 * 接收一个结果行
+	 * 
+	 * @param row 映射后的结果对象
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void onNext(T row);
+	
+	/**
+	 * 执行或映射失败, 订阅结束
+	 * 
+	 * @param error 失败的原因
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void onError(Throwable error);
+	
+	/**
+	 * 所有结果行已经推送, 订阅结束
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void onComplete();
+}
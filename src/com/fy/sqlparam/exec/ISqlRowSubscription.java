@@ -0,0 +1,28 @@
+package com.fy.sqlparam.exec;
+
+/**
+ * SQL结果行的订阅, 订阅者通过它请求结果行或取消订阅
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlRowSubscription {
+	
+	/**
+	 * 请求更多的结果行, 发布者最多再推送累计请求数量的结果行
+	 * 
+	 * @param n 请求的数量, 必须大于0, 否则订阅者会收到{@link IllegalArgumentException}错误
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void request(long n);
+	
+	/**
+	 * 取消订阅, 停止推送结果行并关闭语句和数据库连接
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void cancel();
+}
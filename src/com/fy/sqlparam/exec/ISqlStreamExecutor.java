@@ -0,0 +1,27 @@
+package com.fy.sqlparam.exec;
+
+import java.sql.SQLException;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 流式SQL执行器, 以游标的方式逐行读取查询结果, 读取大量结果时内存占用保持不变
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlStreamExecutor {
+	
+	/**
+	 * 执行查询, 返回逐行映射结果对象的游标
+	 * 
+	 * @param mapResult 映射结果, 包含需要执行的SQL语句和参数对象数组, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 结果游标, 使用完后必须关闭
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	<T> ISqlCursor<T> stream(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException;
+}
@@ -0,0 +1,113 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * 作为一个数组参数绑定的参数对象
+ * <br/> 绑定时通过语句所属的数据库连接创建{@link Array}, 见{@link SqlExecutor#bindArgObjs(java.sql.PreparedStatement, Object[])}.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlArrayArg {
+	
+	/**
+	 * 数组元素的数据库类型名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String elementTypeName;
+	
+	/**
+	 * 数组元素
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Object[] elements;
+	
+	/**
+	 * 构造数组参数对象
+	 * 
+	 * @param elementTypeName 数组元素的数据库类型名称, 不能为null或空
+	 * @param elements 数组元素, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlArrayArg(String elementTypeName, Object[] elements) {
+		if(elementTypeName == null || elementTypeName.isEmpty()) {
+			throw new IllegalArgumentException("数组参数的元素类型名称不能为null或空");
+		}
+		if(elements == null) {
+			throw new IllegalArgumentException("数组参数的元素不能为null");
+		}
+		this.elementTypeName = elementTypeName;
+		this.elements = elements;
+	}
+	
+	/**
+	 * 获取数组元素的数据库类型名称
+	 * 
+	 * @return 数组元素的数据库类型名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getElementTypeName() {
+		return this.elementTypeName;
+	}
+	
+	/**
+	 * 获取数组元素
+	 * 
+	 * @return 数组元素
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Object[] getElements() {
+		return this.elements;
+	}
+	
+	/**
+	 * 通过数据库连接创建数组
+	 * 
+	 * @param connection 数据库连接
+	 * @return 数组
+	 * @throws SQLException 创建失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Array createArray(Connection connection) throws SQLException {
+		return connection.createArrayOf(this.elementTypeName, this.elements);
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.elementTypeName.hashCode() * 31 + Arrays.hashCode(this.elements);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(! (obj instanceof SqlArrayArg)) {
+			return false;
+		}
+		SqlArrayArg other = (SqlArrayArg) obj;
+		return this.elementTypeName.equals(other.elementTypeName)
+				&& Arrays.equals(this.elements, other.elements);
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder(this.elementTypeName).append("[").append(this.elements.length).append("]").toString();
+	}
+}
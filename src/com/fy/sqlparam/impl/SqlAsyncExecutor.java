@@ -0,0 +1,380 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.exec.ISqlAsyncExecutor;
+import com.fy.sqlparam.exec.ISqlCursor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.exec.ISqlRowPublisher;
+import com.fy.sqlparam.exec.ISqlRowSubscriber;
+import com.fy.sqlparam.exec.ISqlRowSubscription;
+import com.fy.sqlparam.exec.ISqlStreamExecutor;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 异步SQL执行器实现, 通过流式SQL执行器的游标读取结果
+ * <br/> 发布结果行时只在订阅者有未满足的请求时占用线程, 请求满足后释放线程, 再次请求时重新调度,
+ * 	大量并发订阅不需要同样数量的线程.
+ * <br/> 默认的线程执行器在运行环境支持虚拟线程时为每个任务使用一个虚拟线程, 否则使用按需创建的守护线程.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlAsyncExecutor implements ISqlAsyncExecutor {
+	
+	/**
+	 * 读取结果使用的流式SQL执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlStreamExecutor streamExecutor;
+	
+	/**
+	 * 执行阻塞操作的线程执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Executor executor;
+	
+	/**
+	 * 构造使用默认线程执行器的异步SQL执行器实例
+	 * 
+	 * @param streamExecutor 读取结果使用的流式SQL执行器, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlAsyncExecutor(ISqlStreamExecutor streamExecutor) {
+		this(streamExecutor, DefaultExecutorHolder.EXECUTOR);
+	}
+	
+	/**
+	 * 构造异步SQL执行器实例
+	 * 
+	 * @param streamExecutor 读取结果使用的流式SQL执行器, 不能为null
+	 * @param executor 执行阻塞操作的线程执行器, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlAsyncExecutor(ISqlStreamExecutor streamExecutor, Executor executor) {
+		if(streamExecutor == null || executor == null) {
+			throw new IllegalArgumentException("异步SQL执行器的流式SQL执行器和线程执行器不能为null");
+		}
+		this.streamExecutor = streamExecutor;
+		this.executor = executor;
+	}
+	
+	@Override
+	public <T> ISqlRowPublisher<T> publish(final ISqlMapResult mapResult, final ISqlRowMapper<T> rowMapper) {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		return new ISqlRowPublisher<T>() {
+			
+			@Override
+			public void subscribe(ISqlRowSubscriber<? super T> subscriber) {
+				if(subscriber == null) {
+					throw new IllegalArgumentException("SQL结果行的订阅者不能为null");
+				}
+				subscriber.onSubscribe(new RowSubscription<T>(SqlAsyncExecutor.this, mapResult, rowMapper, subscriber));
+			}
+		};
+	}
+	
+	@Override
+	public <T> CompletableFuture<List<T>> queryAsync(final ISqlMapResult mapResult, final ISqlRowMapper<T> rowMapper) {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		final CompletableFuture<List<T>> future = new CompletableFuture<List<T>>();
+		this.executor.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				if(future.isCancelled()) {
+					return;
+				}
+				try(ISqlCursor<T> cursor = SqlAsyncExecutor.this.streamExecutor.stream(mapResult, rowMapper)) {
+					List<T> rows = new ArrayList<T>();
+					while(cursor.hasNext() && ! future.isCancelled()) {
+						rows.add(cursor.next());
+					}
+					future.complete(rows);
+				} catch (SQLException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+		});
+		return future;
+	}
+	
+	/**
+	 * 获取默认的线程执行器
+	 * <br/> 运行环境支持虚拟线程时为每个任务使用一个虚拟线程, 否则使用按需创建的守护线程.
+	 * 
+	 * @return 默认的线程执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static Executor getDefaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+	
+	/**
+	 * 默认的线程执行器, 首次使用时才创建
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class DefaultExecutorHolder {
+		
+		/**
+		 * 默认的线程执行器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static final Executor EXECUTOR = DefaultExecutorHolder.createExecutor();
+		
+		/**
+		 * 创建默认的线程执行器
+		 * 
+		 * @return 线程执行器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static Executor createExecutor() {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// 运行环境不支持虚拟线程, 使用平台线程
+			}
+			final AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+				
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "sql-async-executor-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+	
+	/**
+	 * 一次订阅, 按请求的数量从游标读取结果行并推送
+	 * <br/> 推送在线程执行器中串行进行, 请求和取消可以在任意线程调用.
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class RowSubscription<T> implements ISqlRowSubscription, Runnable {
+		
+		/**
+		 * 所属的异步SQL执行器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final SqlAsyncExecutor owner;
+		
+		/**
+		 * 映射结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlMapResult mapResult;
+		
+		/**
+		 * 结果行映射器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlRowMapper<T> rowMapper;
+		
+		/**
+		 * 订阅者
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlRowSubscriber<? super T> subscriber;
+		
+		/**
+		 * 未满足的请求数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final AtomicLong demand = new AtomicLong();
+		
+		/**
+		 * 待处理的调度次数, 不为0时表示推送任务正在运行或已经提交
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final AtomicInteger pending = new AtomicInteger();
+		
+		/**
+		 * 非法请求的数量, 为null表示没有非法请求, 否则下次推送时以错误结束订阅
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private volatile Long invalidRequest;
+		
+		/**
+		 * 是否已经取消
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private volatile boolean cancelled;
+		
+		/**
+		 * 是否已经结束, 只在推送任务中访问
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private boolean terminated;
+		
+		/**
+		 * 结果游标, 第一次推送时才执行查询, 只在推送任务中访问
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private ISqlCursor<T> cursor;
+		
+		private RowSubscription(SqlAsyncExecutor owner, ISqlMapResult mapResult,
+				ISqlRowMapper<T> rowMapper, ISqlRowSubscriber<? super T> subscriber) {
+			this.owner = owner;
+			this.mapResult = mapResult;
+			this.rowMapper = rowMapper;
+			this.subscriber = subscriber;
+		}
+		
+		@Override
+		public void request(long n) {
+			if(n <= 0) {
+				this.invalidRequest = Long.valueOf(n);
+			} else {
+				long current;
+				long next;
+				do {
+					current = this.demand.get();
+					next = current + n < 0 ? Long.MAX_VALUE : current + n;
+				} while(! this.demand.compareAndSet(current, next));
+			}
+			this.schedule();
+		}
+		
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+			this.schedule();
+		}
+		
+		@Override
+		public void run() {
+			int missed = 1;
+			while(true) {
+				if(! this.terminated) {
+					this.drain();
+				}
+				missed = this.pending.addAndGet(- missed);
+				if(missed == 0) {
+					return;
+				}
+			}
+		}
+		
+		/**
+		 * 调度推送任务, 任务已经在运行时只记录调度次数, 由正在运行的任务继续处理
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void schedule() {
+			if(this.pending.getAndIncrement() == 0) {
+				this.owner.executor.execute(this);
+			}
+		}
+		
+		/**
+		 * 按未满足的请求数量推送结果行, 取消或结束时关闭游标
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void drain() {
+			if(this.cancelled) {
+				this.terminate();
+				return;
+			}
+			if(this.invalidRequest != null) {
+				this.terminate();
+				this.subscriber.onError(new IllegalArgumentException(
+						String.format("请求的结果行数量必须大于0, 实际为%d", this.invalidRequest)));
+				return;
+			}
+			try {
+				long requested = this.demand.get();
+				if(requested == 0) {
+					return;
+				}
+				if(this.cursor == null) {
+					this.cursor = this.owner.streamExecutor.stream(this.mapResult, this.rowMapper);
+				}
+				long emitted = 0;
+				while(emitted != requested) {
+					if(this.cancelled) {
+						this.terminate();
+						return;
+					}
+					if(! this.cursor.hasNext()) {
+						this.terminate();
+						this.subscriber.onComplete();
+						return;
+					}
+					this.subscriber.onNext(this.cursor.next());
+					emitted ++;
+				}
+				if(requested != Long.MAX_VALUE) {
+					this.demand.addAndGet(- emitted);
+				}
+			} catch (SQLException | RuntimeException e) {
+				this.terminate();
+				this.subscriber.onError(e);
+			}
+		}
+		
+		/**
+		 * 结束订阅, 关闭游标释放语句和数据库连接
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void terminate() {
+			this.terminated = true;
+			if(this.cursor != null) {
+				this.cursor.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,386 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.exec.ISqlBatchLoader;
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * SQL合并加载器实现
+ * <br/> 第一个请求到达时开启一个时间窗口, 窗口结束或批次达到上限时把窗口内所有的键合并为一条IN查询执行.
+ * <br/> 键按{@link String#valueOf(Object)}的结果匹配结果行, 以兼容驱动返回的数值类型与请求的不一致.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBatchLoader<T> implements ISqlBatchLoader<T> {
+	
+	/**
+	 * 执行合并查询的SQL执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlExecutor executor;
+	
+	/**
+	 * 生成合并查询使用的搜索参数上下文
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlParameterContext paramContext;
+	
+	/**
+	 * 生成合并查询使用的源SQL模板
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String rawSql;
+	
+	/**
+	 * 等值查询的属性名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String propertyName;
+	
+	/**
+	 * 结果行中键所在列的名称, 用于把结果行分发回对应的请求
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String keyColumnLabel;
+	
+	/**
+	 * 结果行映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlRowMapper<T> rowMapper;
+	
+	/**
+	 * 合并的时间窗口, 单位毫秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final long windowMillis;
+	
+	/**
+	 * 一个批次最多包含的键的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxBatchSize;
+	
+	/**
+	 * 执行时间窗口调度和合并查询的线程池, 由调用方管理其生命周期
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ScheduledExecutorService scheduler;
+	
+	/**
+	 * 生成合并查询使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 当前正在收集请求的批次, 没有则为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private Batch pendingBatch;
+	
+	/**
+	 * 已执行的SQL查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong executedCount = new AtomicLong();
+	
+	/**
+	 * 已接收的加载请求次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong requestedCount = new AtomicLong();
+	
+	/**
+	 * 构造SQL合并加载器实例
+	 * 
+	 * @param executor 执行合并查询的SQL执行器, 不能为null
+	 * @param paramContext 生成合并查询使用的搜索参数上下文, 不能为null
+	 * @param rawSql 生成合并查询使用的源SQL模板, 不能为null
+	 * @param propertyName 等值查询的属性名称, 不能为null
+	 * @param keyColumnLabel 结果行中键所在列的名称, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @param windowMillis 合并的时间窗口, 单位毫秒, 小于0时按0处理
+	 * @param maxBatchSize 一个批次最多包含的键的数量, 小于1时按1处理
+	 * @param scheduler 执行时间窗口调度和合并查询的线程池, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBatchLoader(ISqlExecutor executor, ISqlParameterContext paramContext,
+			String rawSql, String propertyName, String keyColumnLabel, ISqlRowMapper<T> rowMapper,
+			long windowMillis, int maxBatchSize, ScheduledExecutorService scheduler) {
+		this(executor, paramContext, rawSql, propertyName, keyColumnLabel, rowMapper,
+				windowMillis, maxBatchSize, scheduler, SqlDialect.MYSQL.instance());
+	}
+	
+	/**
+	 * 构造SQL合并加载器实例, 生成合并查询时使用指定的方言
+	 * 
+	 * @param executor 执行合并查询的SQL执行器, 不能为null
+	 * @param paramContext 生成合并查询使用的搜索参数上下文, 不能为null
+	 * @param rawSql 生成合并查询使用的源SQL模板, 不能为null
+	 * @param propertyName 等值查询的属性名称, 不能为null
+	 * @param keyColumnLabel 结果行中键所在列的名称, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @param windowMillis 合并的时间窗口, 单位毫秒, 小于0时按0处理
+	 * @param maxBatchSize 一个批次最多包含的键的数量, 小于1时按1处理
+	 * @param scheduler 执行时间窗口调度和合并查询的线程池, 不能为null
+	 * @param dialect 生成合并查询使用的方言, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBatchLoader(ISqlExecutor executor, ISqlParameterContext paramContext,
+			String rawSql, String propertyName, String keyColumnLabel, ISqlRowMapper<T> rowMapper,
+			long windowMillis, int maxBatchSize, ScheduledExecutorService scheduler, ISqlDialect dialect) {
+		if(executor == null) {
+			throw new IllegalArgumentException("合并加载器的SQL执行器不能为null");
+		}
+		if(paramContext == null || rawSql == null) {
+			throw new IllegalArgumentException("合并加载器的搜索参数上下文和源SQL模板不能为null");
+		}
+		if(propertyName == null || keyColumnLabel == null) {
+			throw new IllegalArgumentException("合并加载器的属性名称和键所在列的名称不能为null");
+		}
+		if(rowMapper == null) {
+			throw new IllegalArgumentException("合并加载器的结果行映射器不能为null");
+		}
+		if(scheduler == null) {
+			throw new IllegalArgumentException("合并加载器的调度线程池不能为null");
+		}
+		if(dialect == null) {
+			throw new IllegalArgumentException("合并加载器的方言不能为null");
+		}
+		this.executor = executor;
+		this.paramContext = paramContext;
+		this.rawSql = rawSql;
+		this.propertyName = propertyName;
+		this.keyColumnLabel = keyColumnLabel;
+		this.rowMapper = rowMapper;
+		this.windowMillis = windowMillis < 0 ? 0 : windowMillis;
+		this.maxBatchSize = maxBatchSize < 1 ? 1 : maxBatchSize;
+		this.scheduler = scheduler;
+		this.dialect = dialect;
+	}
+	
+	@Override
+	public Future<List<T>> load(Object key) {
+		if(key == null) {
+			throw new IllegalArgumentException("合并加载的键不能为null");
+		}
+		this.requestedCount.incrementAndGet();
+		final Batch batch;
+		final CompletableFuture<List<T>> future;
+		boolean isFull = false;
+		synchronized(this) {
+			// 开启新的批次和时间窗口
+			if(this.pendingBatch == null) {
+				this.pendingBatch = new Batch();
+				final Batch scheduledBatch = this.pendingBatch;
+				this.scheduler.schedule(new Runnable() {
+					
+					@Override
+					public void run() {
+						SqlBatchLoader.this.flush(scheduledBatch);
+					}
+				}, this.windowMillis, TimeUnit.MILLISECONDS);
+			}
+			batch = this.pendingBatch;
+			future = batch.join(key);
+			// 达到上限的批次立即执行, 之后的请求进入新的批次
+			if(batch.futures.size() >= this.maxBatchSize) {
+				this.pendingBatch = null;
+				isFull = true;
+			}
+		}
+		if(isFull) {
+			this.scheduler.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					SqlBatchLoader.this.flush(batch);
+				}
+			});
+		}
+		return future;
+	}
+	
+	@Override
+	public long getExecutedCount() {
+		return this.executedCount.get();
+	}
+	
+	@Override
+	public long getRequestedCount() {
+		return this.requestedCount.get();
+	}
+	
+	/**
+	 * 一个批次的请求
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private class Batch {
+		
+		/**
+		 * 请求的键和对应的异步结果, key是键的字符串形式, 相同的键共用一个异步结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Map<String, CompletableFuture<List<T>>> futures =
+				new LinkedHashMap<String, CompletableFuture<List<T>>>();
+		
+		/**
+		 * 请求的键, 按加入的顺序
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final List<Object> keys = new ArrayList<Object>();
+		
+		/**
+		 * 是否已经执行
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private boolean flushed;
+		
+		/**
+		 * 把键加入当前批次
+		 * 
+		 * @param key 请求的键
+		 * @return 键对应的异步结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private CompletableFuture<List<T>> join(Object key) {
+			String keyStr = String.valueOf(key);
+			CompletableFuture<List<T>> future = this.futures.get(keyStr);
+			if(future == null) {
+				future = new CompletableFuture<List<T>>();
+				this.futures.put(keyStr, future);
+				this.keys.add(key);
+			}
+			return future;
+		}
+	}
+	
+	/**
+	 * 执行一个批次的合并查询并把结果行分发回各个请求
+	 * 
+	 * @param batch 需要执行的批次
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void flush(Batch batch) {
+		synchronized(this) {
+			// 时间窗口结束和达到上限可能都会触发执行, 只执行一次
+			if(batch.flushed) {
+				return;
+			}
+			batch.flushed = true;
+			if(this.pendingBatch == batch) {
+				this.pendingBatch = null;
+			}
+		}
+		final Map<String, List<T>> rowsByKey = new HashMap<String, List<T>>();
+		try {
+			this.executedCount.incrementAndGet();
+			this.executor.query(this.generateBatchMapResult(batch.keys), new ISqlRowMapper<T>() {
+				
+				@Override
+				public T mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+					String keyStr = String.valueOf(resultSet.getObject(SqlBatchLoader.this.keyColumnLabel));
+					T row = SqlBatchLoader.this.rowMapper.mapRow(resultSet, rowNum);
+					List<T> rows = rowsByKey.get(keyStr);
+					if(rows == null) {
+						rows = new ArrayList<T>();
+						rowsByKey.put(keyStr, rows);
+					}
+					rows.add(row);
+					return row;
+				}
+			});
+		} catch (SQLException | RuntimeException e) {
+			for(CompletableFuture<List<T>> future : batch.futures.values()) {
+				future.completeExceptionally(e);
+			}
+			return;
+		}
+		for(Map.Entry<String, CompletableFuture<List<T>>> entry : batch.futures.entrySet()) {
+			List<T> rows = rowsByKey.get(entry.getKey());
+			entry.getValue().complete(rows == null ? Collections.<T>emptyList() : rows);
+		}
+	}
+	
+	/**
+	 * 生成一个批次的合并查询的映射结果, 只有一个键时使用等值查询
+	 * 
+	 * @param keys 批次中的所有键
+	 * @return 合并查询的映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlMapResult generateBatchMapResult(List<Object> keys) {
+		SqlParameter parameter = new SqlParameter();
+		if(keys.size() == 1) {
+			parameter.query(Query.to(this.propertyName).eq(keys.get(0)));
+		} else {
+			parameter.query(Query.to(this.propertyName).in(new ArrayList<Object>(keys)));
+		}
+		return parameter.generateMapContext(this.paramContext, new SqlMapper(this.dialect))
+				.generateMapResult(this.rawSql);
+	}
+}
@@ -0,0 +1,528 @@
+package com.fy.sqlparam.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.map.ISqlDialect;
+
+/**
+ * 批量写入执行器
+ * <br/> 按{@link SqlWriteTable}生成参数化的INSERT和UPDATE语句, 同一条预编译语句通过
+ * 	{@link PreparedStatement#addBatch()}添加每行的参数, 每满批量大小执行一次{@link PreparedStatement#executeBatch()}.
+ * <br/> 插入或更新按方言生成多行VALUES的语句, 每个语句包含指定的行数, 不满一个语句的剩余行单独执行.
+ * <br/> 写入的行可以是Map(key是字段名称)或者对象(通过getter或公开属性读取字段值), 一次写入在一个事务中完成.
+ * 	取得的连接已经关闭自动提交时视为由外部管理事务, 写入后不提交, 失败时也不回滚, 由外部负责.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBatchWriter {
+	
+	/**
+	 * 默认的批量大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	
+	/**
+	 * 默认的插入或更新语句包含的行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_ROWS_PER_STATEMENT = 100;
+	
+	/**
+	 * 对象类的属性读取方法缓存, key是对象类, value是属性名称到读取方法的映射
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, MethodHandle>> GETTER_CACHE
+			= new ConcurrentHashMap<Class<?>, ConcurrentMap<String, MethodHandle>>();
+	
+	/**
+	 * 数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final DataSource dataSource;
+	
+	/**
+	 * 写入的数据库表
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlWriteTable writeTable;
+	
+	/**
+	 * 每次执行的批量大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int batchSize;
+	
+	/**
+	 * 生成插入或更新语句使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 插入或更新语句包含的行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int rowsPerStatement;
+	
+	/**
+	 * 构造使用默认批量大小的批量写入执行器
+	 * 
+	 * @param dataSource 数据源, 不能为null
+	 * @param writeTable 写入的数据库表, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBatchWriter(DataSource dataSource, SqlWriteTable writeTable) {
+		this(dataSource, writeTable, DEFAULT_BATCH_SIZE);
+	}
+	
+	/**
+	 * 构造批量写入执行器
+	 * 
+	 * @param dataSource 数据源, 不能为null
+	 * @param writeTable 写入的数据库表, 不能为null
+	 * @param batchSize 每次执行的批量大小, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBatchWriter(DataSource dataSource, SqlWriteTable writeTable, int batchSize) {
+		this(dataSource, writeTable, batchSize, SqlDialect.MYSQL.instance(), DEFAULT_ROWS_PER_STATEMENT);
+	}
+	
+	/**
+	 * 构造指定方言的批量写入执行器
+	 * 
+	 * @param dataSource 数据源, 不能为null
+	 * @param writeTable 写入的数据库表, 不能为null
+	 * @param batchSize 每次执行的批量大小(行数), 不能小于1
+	 * @param dialect 生成插入或更新语句使用的方言, 不能为null
+	 * @param rowsPerStatement 插入或更新语句包含的行数, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBatchWriter(DataSource dataSource, SqlWriteTable writeTable, int batchSize,
+			ISqlDialect dialect, int rowsPerStatement) {
+		if(dataSource == null) {
+			throw new IllegalArgumentException("数据源不能为null");
+		}
+		if(writeTable == null) {
+			throw new IllegalArgumentException("写入的数据库表不能为null");
+		}
+		if(batchSize < 1) {
+			throw new IllegalArgumentException("批量大小不能小于1");
+		}
+		if(dialect == null) {
+			throw new IllegalArgumentException("SQL方言不能为null");
+		}
+		if(rowsPerStatement < 1) {
+			throw new IllegalArgumentException("插入或更新语句包含的行数不能小于1");
+		}
+		this.dataSource = dataSource;
+		this.writeTable = writeTable;
+		this.batchSize = batchSize;
+		this.dialect = dialect;
+		this.rowsPerStatement = rowsPerStatement;
+	}
+	
+	/**
+	 * 获取写入的数据库表
+	 * 
+	 * @return 写入的数据库表
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlWriteTable getWriteTable() {
+		return this.writeTable;
+	}
+	
+	/**
+	 * 获取每次执行的批量大小
+	 * 
+	 * @return 每次执行的批量大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+	
+	/**
+	 * 批量插入
+	 * 
+	 * @param rows 插入的行, 元素是Map或对象, 不能为null
+	 * @param fieldNames 插入的字段名称, 为空时插入所有可写入的字段
+	 * @return 影响的行数, 驱动没有返回具体数量的批次按每行1行计算
+	 * @throws SQLException 执行失败则抛出异常, 已执行的批次会回滚
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long insert(Collection<?> rows, String...fieldNames) throws SQLException {
+		if(fieldNames == null || fieldNames.length == 0) {
+			fieldNames = this.writeTable.getFieldNames();
+		}
+		return this.executeBatch(this.writeTable.generateInsertSql(fieldNames), null, rows, fieldNames, 1);
+	}
+	
+	/**
+	 * 按键字段批量更新
+	 * 
+	 * @param rows 更新的行, 元素是Map或对象, 不能为null
+	 * @param keyFieldName 作为条件的键字段名称, 不能为null
+	 * @param fieldNames 更新的字段名称, 为空时更新除键字段外所有可写入的字段
+	 * @return 影响的行数, 驱动没有返回具体数量的批次按每行1行计算
+	 * @throws SQLException 执行失败则抛出异常, 已执行的批次会回滚
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long update(Collection<?> rows, String keyFieldName, String...fieldNames) throws SQLException {
+		if(keyFieldName == null) {
+			throw new IllegalArgumentException("更新的键字段名称不能为null");
+		}
+		if(fieldNames == null || fieldNames.length == 0) {
+			List<String> updateFieldNames = new ArrayList<String>();
+			for(String fieldName : this.writeTable.getFieldNames()) {
+				if(! fieldName.equals(keyFieldName)) {
+					updateFieldNames.add(fieldName);
+				}
+			}
+			fieldNames = updateFieldNames.toArray(new String[updateFieldNames.size()]);
+		}
+		String sql = this.writeTable.generateUpdateSql(fieldNames, new String[] {keyFieldName});
+		String[] argFieldNames = new String[fieldNames.length + 1];
+		System.arraycopy(fieldNames, 0, argFieldNames, 0, fieldNames.length);
+		argFieldNames[fieldNames.length] = keyFieldName;
+		return this.executeBatch(sql, null, rows, argFieldNames, 1);
+	}
+	
+	/**
+	 * 按键字段批量插入或更新, 键冲突的行更新其余的字段
+	 * <br/> 键字段的值相同的行只写入最后一行, 与逐行执行的最终结果一致;
+	 * 	多行语句中同一个键出现两次时PostgreSQL等数据库会拒绝执行整个语句.
+	 * 
+	 * @param rows 写入的行, 元素是Map或对象, 不能为null
+	 * @param keyFieldName 判断冲突的键字段名称, 不能为null
+	 * @param fieldNames 写入的字段名称, 不包含键字段时自动加上, 为空时写入所有可写入的字段
+	 * @return 影响的行数, 按驱动返回的数量累加(例如MySQL更新的行计为2行)
+	 * @throws SQLException 执行失败则抛出异常, 已执行的批次会回滚
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long upsert(Collection<?> rows, String keyFieldName, String...fieldNames) throws SQLException {
+		if(keyFieldName == null) {
+			throw new IllegalArgumentException("插入或更新的键字段名称不能为null");
+		}
+		if(rows == null) {
+			throw new IllegalArgumentException("写入的行不能为null");
+		}
+		if(fieldNames == null || fieldNames.length == 0) {
+			fieldNames = this.writeTable.getFieldNames();
+		}
+		if(! Arrays.asList(fieldNames).contains(keyFieldName)) {
+			String[] withKeyFieldNames = new String[fieldNames.length + 1];
+			withKeyFieldNames[0] = keyFieldName;
+			System.arraycopy(fieldNames, 0, withKeyFieldNames, 1, fieldNames.length);
+			fieldNames = withKeyFieldNames;
+		}
+		String[] keyFieldNames = new String[] {keyFieldName};
+		rows = SqlBatchWriter.distinctByKey(rows, keyFieldName);
+		int rowsPerStatement = Math.min(this.rowsPerStatement, Math.max(rows.size(), 1));
+		int tailRows = rows.size() % rowsPerStatement;
+		String sql = this.writeTable.generateUpsertSql(this.dialect, fieldNames, keyFieldNames, rowsPerStatement);
+		String tailSql = tailRows == 0 ? null
+				: this.writeTable.generateUpsertSql(this.dialect, fieldNames, keyFieldNames, tailRows);
+		return this.executeBatch(sql, tailSql, rows, fieldNames, rowsPerStatement);
+	}
+	
+	/**
+	 * 按键字段的值去掉重复的行, 保留第一次出现的位置和最后一次出现的行
+	 * 
+	 * @param rows 写入的行, 不能为null
+	 * @param keyFieldName 键字段名称
+	 * @return 去重后的行, 没有重复时返回原集合
+	 * @throws SQLException 读取键字段的值失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Collection<?> distinctByKey(Collection<?> rows, String keyFieldName) throws SQLException {
+		if(rows == null) {
+			throw new IllegalArgumentException("写入的行不能为null");
+		}
+		String[] keyFieldNames = new String[] {keyFieldName};
+		Object[] keyValue = new Object[1];
+		Map<Object, Object> rowsByKey = new LinkedHashMap<Object, Object>(rows.size() * 2);
+		for(Object row : rows) {
+			SqlBatchWriter.readValues(row, keyFieldNames, keyValue, 0);
+			rowsByKey.put(keyValue[0], row);
+		}
+		return rowsByKey.size() == rows.size() ? rows : rowsByKey.values();
+	}
+	
+	/**
+	 * 用同一条预编译语句按批量大小分批执行所有行, 一个语句可以包含多行
+	 * 
+	 * @param sql 参数化的写入语句, 包含<tt>rowsPerStatement</tt>行的参数
+	 * @param tailSql 不满一个语句的剩余行使用的写入语句, 没有剩余行时为null
+	 * @param rows 写入的行, 不能为null
+	 * @param argFieldNames 每行按参数顺序排列的字段名称
+	 * @param rowsPerStatement 一个语句包含的行数
+	 * @return 影响的行数
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long executeBatch(String sql, String tailSql, Collection<?> rows,
+			String[] argFieldNames, int rowsPerStatement) throws SQLException {
+		if(rows == null) {
+			throw new IllegalArgumentException("写入的行不能为null");
+		}
+		if(rows.isEmpty()) {
+			return 0;
+		}
+		try(Connection connection = this.dataSource.getConnection()) {
+			boolean restoreAutoCommit = connection.getAutoCommit();
+			if(restoreAutoCommit) {
+				connection.setAutoCommit(false);
+			}
+			try {
+				long affectedRows = 0;
+				int argCount = argFieldNames.length;
+				int statementsPerBatch = Math.max(this.batchSize / rowsPerStatement, 1);
+				int fullRows = rows.size() - rows.size() % rowsPerStatement;
+				Iterator<?> rowIterator = rows.iterator();
+				if(fullRows > 0) {
+					try(PreparedStatement statement = connection.prepareStatement(sql)) {
+						Object[] argObjs = new Object[argCount * rowsPerStatement];
+						int statementRows = 0;
+						int batchStatements = 0;
+						for(int i = 0; i < fullRows; i ++) {
+							SqlBatchWriter.readValues(rowIterator.next(), argFieldNames, argObjs, statementRows * argCount);
+							if(++ statementRows < rowsPerStatement) {
+								continue;
+							}
+							SqlExecutor.bindArgObjs(statement, argObjs);
+							statement.addBatch();
+							statementRows = 0;
+							if(++ batchStatements == statementsPerBatch) {
+								affectedRows += SqlBatchWriter.countAffectedRows(statement.executeBatch());
+								batchStatements = 0;
+							}
+						}
+						if(batchStatements > 0) {
+							affectedRows += SqlBatchWriter.countAffectedRows(statement.executeBatch());
+						}
+					}
+				}
+				if(rowIterator.hasNext()) {
+					try(PreparedStatement statement = connection.prepareStatement(tailSql)) {
+						Object[] argObjs = new Object[argCount * (rows.size() - fullRows)];
+						for(int offset = 0; rowIterator.hasNext(); offset += argCount) {
+							SqlBatchWriter.readValues(rowIterator.next(), argFieldNames, argObjs, offset);
+						}
+						SqlExecutor.bindArgObjs(statement, argObjs);
+						affectedRows += Math.max(statement.executeUpdate(), 0);
+					}
+				}
+				if(restoreAutoCommit) {
+					connection.commit();
+				}
+				return affectedRows;
+			} catch (SQLException | RuntimeException e) {
+				// 只回滚由本次写入开启的事务
+				if(restoreAutoCommit) {
+					try {
+						connection.rollback();
+					} catch (SQLException rollbackEx) {
+						e.addSuppressed(rollbackEx);
+					}
+				}
+				throw e;
+			} finally {
+				if(restoreAutoCommit) {
+					try {
+						connection.setAutoCommit(true);
+					} catch (SQLException ignored) {
+						// 连接关闭时由连接池或驱动处理
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 统计一批执行影响的行数
+	 * 
+	 * @param updateCounts 批量执行返回的每条语句影响的行数
+	 * @return 影响的行数, {@link Statement#SUCCESS_NO_INFO}按1行计算
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static long countAffectedRows(int[] updateCounts) {
+		long affectedRows = 0;
+		for(int updateCount : updateCounts) {
+			if(updateCount > 0) {
+				affectedRows += updateCount;
+			} else if(updateCount == Statement.SUCCESS_NO_INFO) {
+				affectedRows ++;
+			}
+		}
+		return affectedRows;
+	}
+	
+	/**
+	 * 按字段名称读取写入行的值
+	 * 
+	 * @param row 写入的行, Map或对象, 不能为null
+	 * @param fieldNames 字段名称
+	 * @param values 保存读取到的值
+	 * @param offset 从保存数组的哪个位置开始保存
+	 * @throws SQLException 读取对象属性失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void readValues(Object row, String[] fieldNames, Object[] values, int offset) throws SQLException {
+		if(row == null) {
+			throw new IllegalArgumentException("写入的行不能为null");
+		}
+		if(row instanceof Map) {
+			Map<?, ?> rowMap = (Map<?, ?>) row;
+			for(int i = 0; i < fieldNames.length; i ++) {
+				values[offset + i] = rowMap.get(fieldNames[i]);
+			}
+			return;
+		}
+		for(int i = 0; i < fieldNames.length; i ++) {
+			MethodHandle getter = SqlBatchWriter.getGetter(row.getClass(), fieldNames[i]);
+			try {
+				values[offset + i] = getter.invokeExact(row);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new SQLException(String.format("读取对象类%s的属性%s失败",
+						row.getClass().getName(), fieldNames[i]), e);
+			}
+		}
+	}
+	
+	/**
+	 * 获取对象类的属性读取方法, 优先使用公开的getter, 其次是公开属性
+	 * 
+	 * @param beanClass 对象类
+	 * @param propertyName 属性名称
+	 * @return 统一为(Object)Object的读取方法
+	 * @throws IllegalArgumentException 没有可读取的属性则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static MethodHandle getGetter(Class<?> beanClass, String propertyName) {
+		ConcurrentMap<String, MethodHandle> getters = GETTER_CACHE.get(beanClass);
+		if(getters == null) {
+			getters = new ConcurrentHashMap<String, MethodHandle>();
+			ConcurrentMap<String, MethodHandle> existGetters = GETTER_CACHE.putIfAbsent(beanClass, getters);
+			if(existGetters != null) {
+				getters = existGetters;
+			}
+		}
+		MethodHandle getter = getters.get(propertyName);
+		if(getter == null) {
+			getter = SqlBatchWriter.generateGetter(beanClass, propertyName);
+			getters.put(propertyName, getter);
+		}
+		return getter;
+	}
+	
+	/**
+	 * 生成对象类的属性读取方法
+	 * 
+	 * @param beanClass 对象类
+	 * @param propertyName 属性名称
+	 * @return 统一为(Object)Object的读取方法
+	 * @throws IllegalArgumentException 没有可读取的属性则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static MethodHandle generateGetter(Class<?> beanClass, String propertyName) {
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		String suffix = Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+		MethodHandle getter = null;
+		try {
+			for(Method method : beanClass.getMethods()) {
+				if(method.getParameterTypes().length != 0 || Modifier.isStatic(method.getModifiers())) {
+					continue;
+				}
+				if(method.getName().equals("get" + suffix) || (method.getName().equals("is" + suffix)
+						&& (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class))) {
+					getter = lookup.unreflect(method);
+					break;
+				}
+			}
+			if(getter == null) {
+				for(Field field : beanClass.getFields()) {
+					if(field.getName().equals(propertyName) && ! Modifier.isStatic(field.getModifiers())) {
+						getter = lookup.unreflectGetter(field);
+						break;
+					}
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(String.format("无法访问对象类%s的属性%s",
+					beanClass.getName(), propertyName), e);
+		}
+		if(getter == null) {
+			throw new IllegalArgumentException(String.format("对象类%s没有可读取的属性%s",
+					beanClass.getName(), propertyName));
+		}
+		return getter.asType(MethodType.methodType(Object.class, Object.class));
+	}
+}
@@ -0,0 +1,708 @@
+package com.fy.sqlparam.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 按可输出字段把结果行映射为对象的结果行映射器
+ * <br/> 构造时为每个可输出字段预先生成对象属性的写入方法句柄(公开的setter方法或公开字段)和对应类型的读取方式,
+ * 	每种语句形态只解析一次列的位置, 映射每一行时不再使用反射或按名称查找列.
+ * <br/> 映射计划按线程保存最近一个结果集的, 多个线程共用一个映射器时互不替换对方的映射计划.
+ * <br/> 对象类中没有对应属性的字段和结果集中没有对应列的字段会被忽略.
+ * <br/> 没有专门读取方式的引用类型(例如LocalDate, LocalDateTime, BigInteger)通过{@link ResultSet#getObject(int, Class)}
+ * 	由驱动转换为属性类型, 枚举类型按列的字符串值匹配枚举名称.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBeanRowMapper<T> implements ISqlRowMapper<T> {
+	
+	/**
+	 * 可输出字段与结果集列的对应关系
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlSelectColumns selectColumns;
+	
+	/**
+	 * 创建对象的方法句柄, 类型为()Object
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final MethodHandle constructor;
+	
+	/**
+	 * 按字段顺序的属性写入器, 对象类中没有对应属性的字段为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final PropertyWriter[] writers;
+	
+	/**
+	 * 每个线程最近映射的结果集和其映射计划
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ThreadLocal<MappingPlan> lastPlan = new ThreadLocal<MappingPlan>();
+	
+	/**
+	 * 构造按搜索参数上下文类配置的可输出字段映射的结果行映射器
+	 * 
+	 * @param paramContextClass 搜索参数上下文类, 其构造函数上有{@link com.fy.sqlparam.map.config.MapMetaConfig}注解
+	 * @param beanClass 映射的对象类, 需要有公开的无参构造函数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBeanRowMapper(Class<? extends ISqlParameterContext> paramContextClass, Class<T> beanClass) {
+		this(MapMetaAnnoInitializor.getSelectFields(paramContextClass), beanClass);
+	}
+	
+	/**
+	 * 构造按指定的可输出字段映射的结果行映射器
+	 * 
+	 * @param selectFields 可输出字段, key是字段名称(即对象的属性名称), value是对应的数据库字段名称
+	 * @param beanClass 映射的对象类, 需要有公开的无参构造函数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBeanRowMapper(Map<String, String> selectFields, Class<T> beanClass) {
+		if(beanClass == null) {
+			throw new IllegalArgumentException("映射的对象类不能为null");
+		}
+		this.selectColumns = new SqlSelectColumns(selectFields);
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		try {
+			this.constructor = lookup.findConstructor(beanClass, MethodType.methodType(void.class))
+					.asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException(String.format("映射的对象类%s没有公开的无参构造函数", beanClass.getName()), e);
+		}
+		String[] fieldNames = this.selectColumns.getFieldNames();
+		this.writers = new PropertyWriter[fieldNames.length];
+		for(int i = 0; i < fieldNames.length; i ++) {
+			this.writers[i] = SqlBeanRowMapper.generateWriter(lookup, beanClass, fieldNames[i]);
+		}
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public T mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+		MappingPlan plan = this.lastPlan.get();
+		if(plan == null || plan.resultSet.get() != resultSet) {
+			plan = this.generatePlan(resultSet);
+			this.lastPlan.set(plan);
+		}
+		try {
+			Object bean = (Object) this.constructor.invokeExact();
+			for(int i = 0; i < plan.writers.length; i ++) {
+				plan.writers[i].write(bean, resultSet, plan.columnIndexes[i]);
+			}
+			return (T) bean;
+		} catch (SQLException | RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SQLException("映射结果行到对象失败", e);
+		}
+	}
+	
+	/**
+	 * 生成结果集的映射计划, 只保留对象类中有属性且结果集中有列的字段
+	 * 
+	 * @param resultSet 结果集
+	 * @return 映射计划
+	 * @throws SQLException 读取元信息失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private MappingPlan generatePlan(ResultSet resultSet) throws SQLException {
+		int[] resolvedIndexes = this.selectColumns.resolve(resultSet.getMetaData());
+		List<PropertyWriter> writers = new ArrayList<PropertyWriter>();
+		List<Integer> columnIndexes = new ArrayList<Integer>();
+		for(int i = 0; i < this.writers.length; i ++) {
+			if(this.writers[i] != null && resolvedIndexes[i] > 0) {
+				writers.add(this.writers[i]);
+				columnIndexes.add(Integer.valueOf(resolvedIndexes[i]));
+			}
+		}
+		int[] indexes = new int[columnIndexes.size()];
+		for(int i = 0; i < indexes.length; i ++) {
+			indexes[i] = columnIndexes.get(i).intValue();
+		}
+		return new MappingPlan(resultSet, writers.toArray(new PropertyWriter[writers.size()]), indexes);
+	}
+	
+	/**
+	 * 一个结果集的映射计划
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class MappingPlan {
+		
+		/**
+		 * 对应的结果集, 弱引用以免线程长期持有已关闭的结果集
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final WeakReference<ResultSet> resultSet;
+		
+		/**
+		 * 需要写入的属性写入器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final PropertyWriter[] writers;
+		
+		/**
+		 * 与属性写入器对应的列的位置, 从1开始
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int[] columnIndexes;
+		
+		private MappingPlan(ResultSet resultSet, PropertyWriter[] writers, int[] columnIndexes) {
+			this.resultSet = new WeakReference<ResultSet>(resultSet);
+			this.writers = writers;
+			this.columnIndexes = columnIndexes;
+		}
+	}
+	
+	/**
+	 * 属性写入器, 按属性的类型读取列的值并写入对象
+	 * <br/> 基本类型的属性使用对应的类型读取, 不会装箱; 列的值为NULL时保持属性的默认值.
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static abstract class PropertyWriter {
+		
+		/**
+		 * 写入属性的方法句柄, 类型为(Object, 属性类型)void
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		protected final MethodHandle setter;
+		
+		protected PropertyWriter(MethodHandle setter) {
+			this.setter = setter;
+		}
+		
+		/**
+		 * 读取列的值并写入对象
+		 * 
+		 * @param bean 对象
+		 * @param resultSet 结果集
+		 * @param columnIndex 列的位置, 从1开始
+		 * @throws Throwable 读取或写入失败则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		abstract void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable;
+	}
+	
+	/**
+	 * int类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class IntWriter extends PropertyWriter {
+		
+		private IntWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			int value = resultSet.getInt(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * long类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class LongWriter extends PropertyWriter {
+		
+		private LongWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			long value = resultSet.getLong(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * double类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class DoubleWriter extends PropertyWriter {
+		
+		private DoubleWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			double value = resultSet.getDouble(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * float类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class FloatWriter extends PropertyWriter {
+		
+		private FloatWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			float value = resultSet.getFloat(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * short类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class ShortWriter extends PropertyWriter {
+		
+		private ShortWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			short value = resultSet.getShort(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * byte类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class ByteWriter extends PropertyWriter {
+		
+		private ByteWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			byte value = resultSet.getByte(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * boolean类型的属性写入器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class BooleanWriter extends PropertyWriter {
+		
+		private BooleanWriter(MethodHandle setter) {
+			super(setter);
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			boolean value = resultSet.getBoolean(columnIndex);
+			if(! resultSet.wasNull()) {
+				this.setter.invokeExact(bean, value);
+			}
+		}
+	}
+	
+	/**
+	 * 引用类型的属性写入器, 按属性类型选择读取方式, 列的值为NULL时写入null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class ObjectWriter extends PropertyWriter {
+		
+		/**
+		 * 读取方式
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ColumnReader reader;
+		
+		private ObjectWriter(MethodHandle setter, ColumnReader reader) {
+			super(setter);
+			this.reader = reader;
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			this.setter.invokeExact(bean, this.reader.read(resultSet, columnIndex));
+		}
+	}
+	
+	/**
+	 * 其它引用类型的属性写入器, 通过{@link ResultSet#getObject(int, Class)}由驱动转换为属性类型, 列的值为NULL时写入null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class TypedObjectWriter extends PropertyWriter {
+		
+		/**
+		 * 属性类型
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Class<?> propertyType;
+		
+		private TypedObjectWriter(MethodHandle setter, Class<?> propertyType) {
+			super(setter);
+			this.propertyType = propertyType;
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			Object value = resultSet.getObject(columnIndex, this.propertyType);
+			this.setter.invokeExact(bean, value);
+		}
+	}
+	
+	/**
+	 * 枚举类型的属性写入器, 按列的字符串值匹配枚举名称, 列的值为NULL时写入null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class EnumWriter extends PropertyWriter {
+		
+		/**
+		 * 枚举类型
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Class<?> enumType;
+		
+		/**
+		 * 按名称索引的枚举常量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Map<String, Object> constants = new HashMap<String, Object>();
+		
+		private EnumWriter(MethodHandle setter, Class<?> enumType) {
+			super(setter);
+			this.enumType = enumType;
+			for(Object constant : enumType.getEnumConstants()) {
+				this.constants.put(((Enum<?>) constant).name(), constant);
+			}
+		}
+		
+		@Override
+		void write(Object bean, ResultSet resultSet, int columnIndex) throws Throwable {
+			String name = resultSet.getString(columnIndex);
+			Object value = null;
+			if(name != null) {
+				value = this.constants.get(name);
+				if(value == null) {
+					throw new IllegalArgumentException(String.format("列的值%s不是枚举%s的常量名称", name,
+							this.enumType.getName()));
+				}
+			}
+			this.setter.invokeExact(bean, value);
+		}
+	}
+	
+	/**
+	 * 引用类型的列读取方式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static enum ColumnReader {
+		
+		STRING {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getString(columnIndex);
+			}
+		},
+		INTEGER {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				int value = resultSet.getInt(columnIndex);
+				return resultSet.wasNull() ? null : Integer.valueOf(value);
+			}
+		},
+		LONG {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				long value = resultSet.getLong(columnIndex);
+				return resultSet.wasNull() ? null : Long.valueOf(value);
+			}
+		},
+		DOUBLE {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				double value = resultSet.getDouble(columnIndex);
+				return resultSet.wasNull() ? null : Double.valueOf(value);
+			}
+		},
+		FLOAT {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				float value = resultSet.getFloat(columnIndex);
+				return resultSet.wasNull() ? null : Float.valueOf(value);
+			}
+		},
+		SHORT {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				short value = resultSet.getShort(columnIndex);
+				return resultSet.wasNull() ? null : Short.valueOf(value);
+			}
+		},
+		BYTE {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				byte value = resultSet.getByte(columnIndex);
+				return resultSet.wasNull() ? null : Byte.valueOf(value);
+			}
+		},
+		BOOLEAN {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				boolean value = resultSet.getBoolean(columnIndex);
+				return resultSet.wasNull() ? null : Boolean.valueOf(value);
+			}
+		},
+		BIG_DECIMAL {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getBigDecimal(columnIndex);
+			}
+		},
+		TIMESTAMP {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getTimestamp(columnIndex);
+			}
+		},
+		SQL_DATE {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getDate(columnIndex);
+			}
+		},
+		SQL_TIME {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getTime(columnIndex);
+			}
+		},
+		BYTES {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getBytes(columnIndex);
+			}
+		},
+		OBJECT {
+			@Override
+			Object read(ResultSet resultSet, int columnIndex) throws SQLException {
+				return resultSet.getObject(columnIndex);
+			}
+		};
+		
+		/**
+		 * 读取列的值
+		 * 
+		 * @param resultSet 结果集
+		 * @param columnIndex 列的位置, 从1开始
+		 * @return 列的值, 为NULL时返回null
+		 * @throws SQLException 读取失败则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		abstract Object read(ResultSet resultSet, int columnIndex) throws SQLException;
+		
+		/**
+		 * 按属性类型选择读取方式
+		 * 
+		 * @param propertyType 属性类型, 不能是基本类型
+		 * @return 读取方式
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		static ColumnReader of(Class<?> propertyType) {
+			if(propertyType == String.class) {
+				return STRING;
+			} else if(propertyType == Integer.class) {
+				return INTEGER;
+			} else if(propertyType == Long.class) {
+				return LONG;
+			} else if(propertyType == Double.class) {
+				return DOUBLE;
+			} else if(propertyType == Float.class) {
+				return FLOAT;
+			} else if(propertyType == Short.class) {
+				return SHORT;
+			} else if(propertyType == Byte.class) {
+				return BYTE;
+			} else if(propertyType == Boolean.class) {
+				return BOOLEAN;
+			} else if(propertyType == BigDecimal.class) {
+				return BIG_DECIMAL;
+			} else if(propertyType == java.sql.Timestamp.class || propertyType == java.util.Date.class) {
+				return TIMESTAMP;
+			} else if(propertyType == java.sql.Date.class) {
+				return SQL_DATE;
+			} else if(propertyType == java.sql.Time.class) {
+				return SQL_TIME;
+			} else if(propertyType == byte[].class) {
+				return BYTES;
+			}
+			return OBJECT;
+		}
+	}
+	
+	/**
+	 * 为对象属性生成属性写入器, 优先使用公开的setter方法, 其次是公开的非final字段
+	 * 
+	 * @param lookup 方法句柄查找器
+	 * @param beanClass 对象类
+	 * @param propertyName 属性名称
+	 * @return 属性写入器, 没有对应属性返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static PropertyWriter generateWriter(MethodHandles.Lookup lookup, Class<?> beanClass, String propertyName) {
+		if(propertyName == null || propertyName.isEmpty()) {
+			return null;
+		}
+		String setterName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+		MethodHandle setter = null;
+		Class<?> propertyType = null;
+		try {
+			for(Method method : beanClass.getMethods()) {
+				if(method.getName().equals(setterName) && method.getParameterTypes().length == 1
+						&& ! Modifier.isStatic(method.getModifiers())) {
+					setter = lookup.unreflect(method);
+					propertyType = method.getParameterTypes()[0];
+					break;
+				}
+			}
+			if(setter == null) {
+				for(Field field : beanClass.getFields()) {
+					if(field.getName().equals(propertyName) && ! Modifier.isStatic(field.getModifiers())
+							&& ! Modifier.isFinal(field.getModifiers())) {
+						setter = lookup.unreflectSetter(field);
+						propertyType = field.getType();
+						break;
+					}
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(String.format("无法访问对象类%s的属性%s",
+					beanClass.getName(), propertyName), e);
+		}
+		if(setter == null) {
+			return null;
+		}
+		// 统一为(Object, 属性类型)void, 忽略setter的返回值
+		setter = setter.asType(MethodType.methodType(void.class, Object.class, propertyType));
+		if(propertyType == int.class) {
+			return new IntWriter(setter);
+		} else if(propertyType == long.class) {
+			return new LongWriter(setter);
+		} else if(propertyType == double.class) {
+			return new DoubleWriter(setter);
+		} else if(propertyType == float.class) {
+			return new FloatWriter(setter);
+		} else if(propertyType == short.class) {
+			return new ShortWriter(setter);
+		} else if(propertyType == byte.class) {
+			return new ByteWriter(setter);
+		} else if(propertyType == boolean.class) {
+			return new BooleanWriter(setter);
+		} else if(propertyType == char.class) {
+			throw new IllegalArgumentException(String.format("对象类%s的属性%s的类型char不支持映射",
+					beanClass.getName(), propertyName));
+		}
+		setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		if(propertyType.isEnum()) {
+			return new EnumWriter(setter, propertyType);
+		}
+		ColumnReader reader = ColumnReader.of(propertyType);
+		if(reader == ColumnReader.OBJECT && propertyType != Object.class) {
+			return new TypedObjectWriter(setter, propertyType);
+		}
+		return new ObjectWriter(setter, reader);
+	}
+}
@@ -0,0 +1,352 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.impl.SqlMapContext.SqlMapResult;
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+import com.fy.sqlparam.param.ISqlQuery;
+
+/**
+ * 按搜索参数条件批量更新和删除的执行器
+ * <br/> 源SQL语句与查询一样使用{CONDITIONS}, {BASE_TABLES}, {EXTRA_TABLES}和{#引用}等占位符, 例如
+ * 	<tt>DELETE FROM {BASE_TABLES} WHERE {CONDITIONS}</tt>或<tt>UPDATE {BASE_TABLES} SET status = ? WHERE {CONDITIONS}</tt>,
+ * 	源SQL语句中的参数通过前置参数对象传入, 绑定在条件参数之前.
+ * <br/> 大表上可以分块执行, 每块是一个独立的语句(自动提交), 块之间可以暂停, 避免一个语句长时间持有大量的锁.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBulkExecutor {
+	
+	/**
+	 * 默认的分块大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+	
+	/**
+	 * 执行使用的数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final DataSource dataSource;
+	
+	/**
+	 * 生成语句使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 分块执行时每块最多影响的行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int chunkSize;
+	
+	/**
+	 * 分块执行时块之间暂停的时间, 单位毫秒, 为0时不暂停
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final long throttleMillis;
+	
+	/**
+	 * 构造使用MySQL方言和默认分块大小, 块之间不暂停的执行器
+	 * 
+	 * @param dataSource 数据源, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBulkExecutor(DataSource dataSource) {
+		this(dataSource, SqlDialect.MYSQL.instance(), DEFAULT_CHUNK_SIZE, 0);
+	}
+	
+	/**
+	 * 构造按条件批量更新和删除的执行器
+	 * 
+	 * @param dataSource 数据源, 不能为null
+	 * @param dialect 生成语句使用的方言, 不能为null
+	 * @param chunkSize 分块执行时每块最多影响的行数, 不能小于1
+	 * @param throttleMillis 分块执行时块之间暂停的时间, 单位毫秒, 不能小于0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlBulkExecutor(DataSource dataSource, ISqlDialect dialect, int chunkSize, long throttleMillis) {
+		if(dataSource == null) {
+			throw new IllegalArgumentException("数据源不能为null");
+		}
+		if(dialect == null) {
+			throw new IllegalArgumentException("SQL方言不能为null");
+		}
+		if(chunkSize < 1) {
+			throw new IllegalArgumentException("分块大小不能小于1");
+		}
+		if(throttleMillis < 0) {
+			throw new IllegalArgumentException("分块之间暂停的时间不能小于0");
+		}
+		this.dataSource = dataSource;
+		this.dialect = dialect;
+		this.chunkSize = chunkSize;
+		this.throttleMillis = throttleMillis;
+	}
+	
+	/**
+	 * 按搜索参数的条件生成更新或删除语句的映射结果
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @param leadingArgObjs 源SQL语句中的参数对象, 绑定在条件参数之前
+	 * @return 映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ISqlMapResult generateMapResult(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, Object...leadingArgObjs) {
+		SqlBulkExecutor.checkArgs(parameter, paramContext, rawSql);
+		ISqlMapResult mapResult = parameter.generateMapContext(paramContext, new SqlMapper(this.dialect))
+				.generateMapResult(rawSql);
+		if(leadingArgObjs == null || leadingArgObjs.length == 0) {
+			return mapResult;
+		}
+		Object[] conditionArgObjs = mapResult.getArgObjs();
+		int conditionArgCount = conditionArgObjs == null ? 0 : conditionArgObjs.length;
+		Object[] argObjs = new Object[leadingArgObjs.length + conditionArgCount];
+		System.arraycopy(leadingArgObjs, 0, argObjs, 0, leadingArgObjs.length);
+		if(conditionArgCount > 0) {
+			System.arraycopy(conditionArgObjs, 0, argObjs, leadingArgObjs.length, conditionArgCount);
+		}
+		return new SqlMapResult(mapResult.getSql(), argObjs,
+				mapResult.getMapMetaNames(), mapResult.getTableNames());
+	}
+	
+	/**
+	 * 作为一个语句执行更新或删除
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @param leadingArgObjs 源SQL语句中的参数对象, 绑定在条件参数之前
+	 * @return 影响的行数
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long execute(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, Object...leadingArgObjs) throws SQLException {
+		return this.executeUpdate(this.generateMapResult(parameter, paramContext, rawSql, leadingArgObjs));
+	}
+	
+	/**
+	 * 在语句末尾加上影响行数的限制分块执行, 直到一块影响的行数少于分块大小
+	 * <br/> 只适用于执行后行不再满足条件的语句(例如删除, 或更新了条件中的字段), 否则会重复处理同一批行.
+	 * 	源SQL语句需要以条件结尾, 方言需要支持限制UPDATE和DELETE影响的行数.
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @param leadingArgObjs 源SQL语句中的参数对象, 绑定在条件参数之前
+	 * @return 所有块影响的行数, 暂停时被中断则返回已执行的块影响的行数
+	 * @throws SQLException 执行失败则抛出异常, 已执行的块不会回滚
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long executeByLimit(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, Object...leadingArgObjs) throws SQLException {
+		if(! this.dialect.isWriteLimitSupported()) {
+			throw new IllegalArgumentException(String.format("%s不支持限制UPDATE和DELETE影响的行数, 请使用按键分块执行",
+					this.dialect.getName()));
+		}
+		ISqlMapResult mapResult = this.generateMapResult(parameter, paramContext, rawSql, leadingArgObjs);
+		StringBuilder sql = new StringBuilder(mapResult.getSql().trim()).append(" ");
+		this.dialect.appendWriteLimit(sql, this.chunkSize);
+		ISqlMapResult chunkResult = new SqlMapResult(sql.toString(), mapResult.getArgObjs(),
+				mapResult.getMapMetaNames(), mapResult.getTableNames());
+		long affectedRows = 0;
+		while(true) {
+			long chunkAffectedRows = this.executeUpdate(chunkResult);
+			affectedRows += chunkAffectedRows;
+			if(chunkAffectedRows < this.chunkSize || ! this.throttle()) {
+				return affectedRows;
+			}
+		}
+	}
+	
+	/**
+	 * 按键字段分块执行: 每次按键升序查询下一块满足条件的键, 再对这些键执行语句, 直到没有剩余的键
+	 * <br/> 每块执行时在原有条件上加上键字段的IN条件, 因此执行时仍需满足原有条件; 执行后仍满足条件的行也不会被重复处理.
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @param keyPropertyName 键字段的属性名称, 需要是可比较且唯一的查询字段, 不能为null
+	 * @param leadingArgObjs 源SQL语句中的参数对象, 绑定在条件参数之前
+	 * @return 所有块影响的行数, 暂停时被中断则返回已执行的块影响的行数
+	 * @throws SQLException 执行失败则抛出异常, 已执行的块不会回滚
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long executeByKeyset(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, String keyPropertyName, Object...leadingArgObjs) throws SQLException {
+		SqlBulkExecutor.checkArgs(parameter, paramContext, rawSql);
+		if(keyPropertyName == null) {
+			throw new IllegalArgumentException("分块的键字段名称不能为null");
+		}
+		StringBuilder keySql = new StringBuilder("SELECT {#").append(keyPropertyName)
+				.append("} FROM {BASE_TABLES} {EXTRA_TABLES} WHERE {CONDITIONS} ORDER BY {#")
+				.append(keyPropertyName).append("} ");
+		this.dialect.appendLimit(keySql, 0, this.chunkSize);
+		long affectedRows = 0;
+		Object lastKey = null;
+		while(true) {
+			ISqlQuery afterQuery = lastKey == null ? null : Query.to(keyPropertyName).greaterThan(lastKey);
+			List<Object> keys = this.queryKeys(this.generateChunkMapResult(parameter, paramContext,
+					keySql.toString(), afterQuery, null));
+			if(keys.isEmpty()) {
+				return affectedRows;
+			}
+			affectedRows += this.executeUpdate(this.generateChunkMapResult(parameter, paramContext,
+					rawSql, Query.to(keyPropertyName).in(keys), leadingArgObjs));
+			if(keys.size() < this.chunkSize || ! this.throttle()) {
+				return affectedRows;
+			}
+			lastKey = keys.get(keys.size() - 1);
+		}
+	}
+	
+	/**
+	 * 临时加入条件生成映射结果, 生成后移除条件
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param query 临时加入的条件, 为null时不加入
+	 * @param leadingArgObjs 源SQL语句中的参数对象
+	 * @return 映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlMapResult generateChunkMapResult(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, ISqlQuery query, Object[] leadingArgObjs) {
+		if(query == null) {
+			return this.generateMapResult(parameter, paramContext, rawSql, leadingArgObjs);
+		}
+		parameter.query(query);
+		try {
+			return this.generateMapResult(parameter, paramContext, rawSql, leadingArgObjs);
+		} finally {
+			parameter.deleteQuery(query);
+		}
+	}
+	
+	/**
+	 * 执行键查询, 返回第一列的值
+	 * 
+	 * @param mapResult 键查询的映射结果
+	 * @return 按顺序排列的键
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private List<Object> queryKeys(ISqlMapResult mapResult) throws SQLException {
+		List<Object> keys = new ArrayList<Object>(this.chunkSize);
+		try(Connection connection = this.dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			try(ResultSet resultSet = statement.executeQuery()) {
+				while(resultSet.next()) {
+					keys.add(resultSet.getObject(1));
+				}
+			}
+		}
+		return keys;
+	}
+	
+	/**
+	 * 执行更新或删除语句
+	 * 
+	 * @param mapResult 映射结果
+	 * @return 影响的行数
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long executeUpdate(ISqlMapResult mapResult) throws SQLException {
+		try(Connection connection = this.dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			return statement.executeUpdate();
+		}
+	}
+	
+	/**
+	 * 在块之间暂停
+	 * 
+	 * @return 被中断时返回<tt>false</tt>, 保留中断状态
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private boolean throttle() {
+		if(this.throttleMillis == 0) {
+			return ! Thread.currentThread().isInterrupted();
+		}
+		try {
+			Thread.sleep(this.throttleMillis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * 检查生成语句的参数
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void checkArgs(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql) {
+		if(parameter == null) {
+			throw new IllegalArgumentException("搜索参数不能为null");
+		}
+		if(paramContext == null) {
+			throw new IllegalArgumentException("搜索参数上下文不能为null");
+		}
+		if(rawSql == null) {
+			throw new IllegalArgumentException("源SQL语句不能为null");
+		}
+	}
+}
@@ -0,0 +1,666 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * 按列保存的SQL查询结果
+ * <br/> 可输出字段按列的SQL类型保存到基本类型数组中: 整数和精度不超过18位且没有小数位的定点数保存为long[]或int[],
+ * 	浮点数保存为double[], 其它定点数(保持精度, 值为{@link java.math.BigDecimal}), 无符号的BIGINT和其它类型保存为Object[];
+ * 	每列另有一个NULL位图. 数组按抓取批次的大小增长, 不会为每一行创建对象.
+ * <br/> 通过可输出字段的字段名称获取列的视图.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlColumnarResult {
+	
+	/**
+	 * 默认的批次大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+	
+	/**
+	 * 可以保存为long的定点数的最大精度(位数)
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int MAX_LONG_DECIMAL_PRECISION = 18;
+	
+	/**
+	 * 字段名称数组, 与列数组一一对应
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String[] fieldNames;
+	
+	/**
+	 * 列数组, 结果集中没有对应列的字段为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Column[] columns;
+	
+	/**
+	 * 行数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int rowCount;
+	
+	private SqlColumnarResult(String[] fieldNames, Column[] columns, int rowCount) {
+		this.fieldNames = fieldNames;
+		this.columns = columns;
+		this.rowCount = rowCount;
+	}
+	
+	/**
+	 * 读取结果集剩余的所有行, 按列保存可输出字段的值
+	 * 
+	 * @param resultSet 结果集, 不能为null
+	 * @param selectColumns 可输出字段与结果集列的对应关系, 不能为null
+	 * @param batchSize 批次大小, 列数组每次按批次大小增长, 小于1时使用{@link #DEFAULT_BATCH_SIZE}
+	 * @return 按列保存的查询结果
+	 * @throws SQLException 读取结果集失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlColumnarResult read(ResultSet resultSet, SqlSelectColumns selectColumns, int batchSize)
+			throws SQLException {
+		if(resultSet == null || selectColumns == null) {
+			throw new IllegalArgumentException("读取的结果集和可输出字段不能为null");
+		}
+		if(batchSize < 1) {
+			batchSize = DEFAULT_BATCH_SIZE;
+		}
+		ResultSetMetaData metaData = resultSet.getMetaData();
+		int[] columnIndexes = selectColumns.resolve(metaData);
+		Column[] columns = new Column[columnIndexes.length];
+		for(int i = 0; i < columns.length; i ++) {
+			if(columnIndexes[i] > 0) {
+				columns[i] = SqlColumnarResult.generateColumn(metaData, columnIndexes[i], batchSize);
+			}
+		}
+		int rowCount = 0;
+		while(resultSet.next()) {
+			for(int i = 0; i < columns.length; i ++) {
+				if(columns[i] != null) {
+					columns[i].read(resultSet, columnIndexes[i], rowCount);
+				}
+			}
+			rowCount ++;
+		}
+		return new SqlColumnarResult(selectColumns.getFieldNames(), columns, rowCount);
+	}
+	
+	/**
+	 * 获取行数量
+	 * 
+	 * @return 行数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+	
+	/**
+	 * 是否包含字段的列
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 可输出字段中有该字段且结果集中有对应的列返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public boolean hasColumn(String fieldName) {
+		int index = this.indexOfField(fieldName);
+		return index != -1 && this.columns[index] != null;
+	}
+	
+	/**
+	 * 获取字段的列视图
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 列视图
+	 * @throws IllegalArgumentException 没有该字段的列则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Column getColumn(String fieldName) {
+		int index = this.indexOfField(fieldName);
+		if(index == -1 || this.columns[index] == null) {
+			throw new IllegalArgumentException(String.format("查询结果中没有字段%s的列", fieldName));
+		}
+		return this.columns[index];
+	}
+	
+	/**
+	 * 获取字段的long类型列视图
+	 * 
+	 * @param fieldName 字段名称
+	 * @return long类型列视图
+	 * @throws IllegalArgumentException 没有该字段的列或列不是long类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public LongColumn getLongColumn(String fieldName) {
+		return SqlColumnarResult.castColumn(this.getColumn(fieldName), LongColumn.class, fieldName);
+	}
+	
+	/**
+	 * 获取字段的int类型列视图
+	 * 
+	 * @param fieldName 字段名称
+	 * @return int类型列视图
+	 * @throws IllegalArgumentException 没有该字段的列或列不是int类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public IntColumn getIntColumn(String fieldName) {
+		return SqlColumnarResult.castColumn(this.getColumn(fieldName), IntColumn.class, fieldName);
+	}
+	
+	/**
+	 * 获取字段的double类型列视图
+	 * 
+	 * @param fieldName 字段名称
+	 * @return double类型列视图
+	 * @throws IllegalArgumentException 没有该字段的列或列不是double类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public DoubleColumn getDoubleColumn(String fieldName) {
+		return SqlColumnarResult.castColumn(this.getColumn(fieldName), DoubleColumn.class, fieldName);
+	}
+	
+	/**
+	 * 获取字段的对象类型列视图
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 对象类型列视图
+	 * @throws IllegalArgumentException 没有该字段的列或列不是对象类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ObjectColumn getObjectColumn(String fieldName) {
+		return SqlColumnarResult.castColumn(this.getColumn(fieldName), ObjectColumn.class, fieldName);
+	}
+	
+	/**
+	 * 列视图, 按行的索引读取值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static abstract class Column {
+		
+		/**
+		 * 每次增长的大小
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int batchSize;
+		
+		/**
+		 * NULL位图, 第n位为1表示第n行的值为NULL
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private long[] nulls = new long[0];
+		
+		/**
+		 * 已写入的行数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private int size;
+		
+		private Column(int batchSize) {
+			this.batchSize = batchSize;
+		}
+		
+		/**
+		 * 获取行数量
+		 * 
+		 * @return 行数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public int size() {
+			return this.size;
+		}
+		
+		/**
+		 * 行的值是否为NULL
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 为NULL返回<tt>true</tt>
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public boolean isNull(int row) {
+			this.checkRow(row);
+			return (this.nulls[row >>> 6] & (1L << row)) != 0;
+		}
+		
+		/**
+		 * 获取行的值, 基本类型的值会装箱, 批量读取时应使用具体类型列视图的方法
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 行的值, 为NULL时返回null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public abstract Object getObject(int row);
+		
+		/**
+		 * 检查行的索引
+		 * 
+		 * @param row 行的索引
+		 * @throws IndexOutOfBoundsException 超出范围则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		protected final void checkRow(int row) {
+			if(row < 0 || row >= this.size) {
+				throw new IndexOutOfBoundsException(String.format("行索引%d超出范围, 行数量为%d", row, this.size));
+			}
+		}
+		
+		/**
+		 * 计算写入一行后需要的容量, 按批次大小增长
+		 * 
+		 * @param capacity 当前容量
+		 * @param row 写入的行的索引
+		 * @return 新的容量, 不需要增长时返回当前容量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final int ensureCapacity(int capacity, int row) {
+			if(row < capacity) {
+				return capacity;
+			}
+			int grown = capacity + Math.max(this.batchSize, capacity >>> 1);
+			return (grown + this.batchSize - 1) / this.batchSize * this.batchSize;
+		}
+		
+		/**
+		 * 记录写入一行, 更新NULL位图
+		 * 
+		 * @param row 写入的行的索引
+		 * @param isNull 值是否为NULL
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final void markRow(int row, boolean isNull) {
+			int word = row >>> 6;
+			if(word >= this.nulls.length) {
+				this.nulls = Arrays.copyOf(this.nulls, Math.max(word + 1, this.nulls.length * 2));
+			}
+			if(isNull) {
+				this.nulls[word] |= 1L << row;
+			}
+			this.size = row + 1;
+		}
+		
+		/**
+		 * 从结果集读取当前行的值并写入
+		 * 
+		 * @param resultSet 结果集
+		 * @param columnIndex 列的位置, 从1开始
+		 * @param row 写入的行的索引
+		 * @throws SQLException 读取失败则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		abstract void read(ResultSet resultSet, int columnIndex, int row) throws SQLException;
+	}
+	
+	/**
+	 * long类型列视图
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final class LongColumn extends Column {
+		
+		/**
+		 * 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private long[] values = new long[0];
+		
+		private LongColumn(int batchSize) {
+			super(batchSize);
+		}
+		
+		/**
+		 * 获取行的值
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 行的值, 为NULL时返回0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public long get(int row) {
+			this.checkRow(row);
+			return this.values[row];
+		}
+		
+		/**
+		 * 复制所有行的值
+		 * 
+		 * @return 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public long[] toArray() {
+			return Arrays.copyOf(this.values, this.size());
+		}
+		
+		@Override
+		public Object getObject(int row) {
+			return this.isNull(row) ? null : Long.valueOf(this.values[row]);
+		}
+		
+		@Override
+		void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+			int capacity = this.ensureCapacity(this.values.length, row);
+			if(capacity != this.values.length) {
+				this.values = Arrays.copyOf(this.values, capacity);
+			}
+			this.values[row] = resultSet.getLong(columnIndex);
+			this.markRow(row, resultSet.wasNull());
+		}
+	}
+	
+	/**
+	 * int类型列视图
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final class IntColumn extends Column {
+		
+		/**
+		 * 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private int[] values = new int[0];
+		
+		private IntColumn(int batchSize) {
+			super(batchSize);
+		}
+		
+		/**
+		 * 获取行的值
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 行的值, 为NULL时返回0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public int get(int row) {
+			this.checkRow(row);
+			return this.values[row];
+		}
+		
+		/**
+		 * 复制所有行的值
+		 * 
+		 * @return 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public int[] toArray() {
+			return Arrays.copyOf(this.values, this.size());
+		}
+		
+		@Override
+		public Object getObject(int row) {
+			return this.isNull(row) ? null : Integer.valueOf(this.values[row]);
+		}
+		
+		@Override
+		void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+			int capacity = this.ensureCapacity(this.values.length, row);
+			if(capacity != this.values.length) {
+				this.values = Arrays.copyOf(this.values, capacity);
+			}
+			this.values[row] = resultSet.getInt(columnIndex);
+			this.markRow(row, resultSet.wasNull());
+		}
+	}
+	
+	/**
+	 * double类型列视图
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final class DoubleColumn extends Column {
+		
+		/**
+		 * 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private double[] values = new double[0];
+		
+		private DoubleColumn(int batchSize) {
+			super(batchSize);
+		}
+		
+		/**
+		 * 获取行的值
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 行的值, 为NULL时返回0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public double get(int row) {
+			this.checkRow(row);
+			return this.values[row];
+		}
+		
+		/**
+		 * 复制所有行的值
+		 * 
+		 * @return 值数组, 为NULL的行值为0
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public double[] toArray() {
+			return Arrays.copyOf(this.values, this.size());
+		}
+		
+		@Override
+		public Object getObject(int row) {
+			return this.isNull(row) ? null : Double.valueOf(this.values[row]);
+		}
+		
+		@Override
+		void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+			int capacity = this.ensureCapacity(this.values.length, row);
+			if(capacity != this.values.length) {
+				this.values = Arrays.copyOf(this.values, capacity);
+			}
+			this.values[row] = resultSet.getDouble(columnIndex);
+			this.markRow(row, resultSet.wasNull());
+		}
+	}
+	
+	/**
+	 * 对象类型列视图, 保存不是数值的列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final class ObjectColumn extends Column {
+		
+		/**
+		 * 值数组
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private Object[] values = new Object[0];
+		
+		private ObjectColumn(int batchSize) {
+			super(batchSize);
+		}
+		
+		/**
+		 * 获取行的值
+		 * 
+		 * @param row 行的索引, 从0开始
+		 * @return 行的值, 为NULL时返回null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public Object get(int row) {
+			this.checkRow(row);
+			return this.values[row];
+		}
+		
+		@Override
+		public Object getObject(int row) {
+			return this.get(row);
+		}
+		
+		@Override
+		void read(ResultSet resultSet, int columnIndex, int row) throws SQLException {
+			int capacity = this.ensureCapacity(this.values.length, row);
+			if(capacity != this.values.length) {
+				this.values = Arrays.copyOf(this.values, capacity);
+			}
+			this.values[row] = resultSet.getObject(columnIndex);
+			this.markRow(row, this.values[row] == null);
+		}
+	}
+	
+	/**
+	 * 按列的SQL类型生成列
+	 * <br/> 定点数只有没有小数位且精度不超过18位时保存为long, 否则保存为Object以免丢失精度;
+	 * 	无符号的INTEGER可能超出int的范围, 保存为long, 无符号的BIGINT可能超出long的范围, 保存为驱动返回的对象.
+	 * 
+	 * @param metaData 结果集的元信息
+	 * @param columnIndex 列的位置, 从1开始
+	 * @param batchSize 批次大小
+	 * @return 列
+	 * @throws SQLException 读取元信息失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Column generateColumn(ResultSetMetaData metaData, int columnIndex, int batchSize) throws SQLException {
+		switch(metaData.getColumnType(columnIndex)) {
+		case Types.BIGINT:
+			if(! metaData.isSigned(columnIndex)) {
+				return new ObjectColumn(batchSize);
+			}
+			return new LongColumn(batchSize);
+		case Types.INTEGER:
+			if(! metaData.isSigned(columnIndex)) {
+				return new LongColumn(batchSize);
+			}
+			return new IntColumn(batchSize);
+		case Types.SMALLINT:
+		case Types.TINYINT:
+		case Types.BIT:
+			return new IntColumn(batchSize);
+		case Types.DOUBLE:
+		case Types.FLOAT:
+		case Types.REAL:
+			return new DoubleColumn(batchSize);
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			int precision = metaData.getPrecision(columnIndex);
+			if(metaData.getScale(columnIndex) == 0 && precision > 0 && precision <= MAX_LONG_DECIMAL_PRECISION) {
+				return new LongColumn(batchSize);
+			}
+			return new ObjectColumn(batchSize);
+		default:
+			return new ObjectColumn(batchSize);
+		}
+	}
+	
+	/**
+	 * 转换为具体类型的列视图
+	 * 
+	 * @param column 列
+	 * @param columnClass 具体类型
+	 * @param fieldName 字段名称
+	 * @return 具体类型的列视图
+	 * @throws IllegalArgumentException 列不是该类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static <C extends Column> C castColumn(Column column, Class<C> columnClass, String fieldName) {
+		if(! columnClass.isInstance(column)) {
+			throw new IllegalArgumentException(String.format("字段%s的列是%s, 不是%s",
+					fieldName, column.getClass().getSimpleName(), columnClass.getSimpleName()));
+		}
+		return columnClass.cast(column);
+	}
+	
+	/**
+	 * 查找字段名称的位置
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 字段的位置, 找不到返回-1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private int indexOfField(String fieldName) {
+		for(int i = 0; i < this.fieldNames.length; i ++) {
+			if(this.fieldNames[i].equals(fieldName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
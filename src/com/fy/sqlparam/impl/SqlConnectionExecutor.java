@@ -0,0 +1,82 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 在一个数据库连接上执行的SQL执行器, 复用缓存的预编译语句
+ * <br/> 映射结果的SQL语句由搜索参数确定性地生成, 相同形态的查询得到相同的SQL语句, 可以直接复用预编译语句.
+ * <br/> 同一个实例的执行会串行进行. 关闭执行器只关闭缓存的语句, 数据库连接由调用方管理.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlConnectionExecutor implements ISqlExecutor, AutoCloseable {
+	
+	/**
+	 * 预编译语句缓存
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlStatementCache statementCache;
+	
+	/**
+	 * 构造在一个数据库连接上执行的SQL执行器实例
+	 * 
+	 * @param connection 执行使用的数据库连接, 不能为null
+	 * @param maxStatements 最多缓存的预编译语句数量, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlConnectionExecutor(Connection connection, int maxStatements) {
+		this.statementCache = new SqlStatementCache(connection, maxStatements);
+	}
+	
+	@Override
+	public synchronized <T> List<T> query(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		String sql = mapResult.getSql();
+		PreparedStatement statement = this.statementCache.prepare(sql);
+		try {
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			try(ResultSet resultSet = statement.executeQuery()) {
+				return SqlExecutor.mapRows(resultSet, rowMapper);
+			}
+		} catch (SQLException | RuntimeException e) {
+			this.statementCache.evict(sql);
+			throw e;
+		}
+	}
+	
+	/**
+	 * 获取预编译语句缓存, 可用于查看命中率
+	 * 
+	 * @return 预编译语句缓存
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlStatementCache getStatementCache() {
+		return this.statementCache;
+	}
+	
+	/**
+	 * 关闭所有缓存的预编译语句, 不会关闭数据库连接
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	@Override
+	public synchronized void close() {
+		this.statementCache.close();
+	}
+}
@@ -0,0 +1,214 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fy.sqlparam.exec.ISqlCursor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+
+/**
+ * SQL结果游标实现, 持有结果集, 语句和数据库连接, 关闭时按顺序释放
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlCursor<T> implements ISqlCursor<T> {
+	
+	/**
+	 * 数据库连接, 为null时不由游标释放
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Connection connection;
+	
+	/**
+	 * 执行查询的语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Statement statement;
+	
+	/**
+	 * 结果集
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ResultSet resultSet;
+	
+	/**
+	 * 结果行映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlRowMapper<T> rowMapper;
+	
+	/**
+	 * 关闭时是否需要回滚并恢复连接的自动提交
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final boolean restoreAutoCommit;
+	
+	/**
+	 * 结果集是否已经移动到还未读取的下一行
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private boolean hasFetched;
+	
+	/**
+	 * 已经读取的行数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private int readCount;
+	
+	/**
+	 * 是否已经关闭
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private volatile boolean closed;
+	
+	/**
+	 * 构造SQL结果游标实例
+	 * 
+	 * @param connection 数据库连接, 为null时不由游标释放
+	 * @param statement 执行查询的语句, 不能为null
+	 * @param resultSet 结果集, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @param restoreAutoCommit 关闭时是否需要回滚并恢复连接的自动提交
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlCursor(Connection connection, Statement statement, ResultSet resultSet,
+			ISqlRowMapper<T> rowMapper, boolean restoreAutoCommit) {
+		if(statement == null || resultSet == null || rowMapper == null) {
+			throw new IllegalArgumentException("SQL结果游标的语句, 结果集和结果行映射器不能为null");
+		}
+		this.connection = connection;
+		this.statement = statement;
+		this.resultSet = resultSet;
+		this.rowMapper = rowMapper;
+		this.restoreAutoCommit = restoreAutoCommit;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if(this.closed) {
+			return false;
+		}
+		if(this.hasFetched) {
+			return true;
+		}
+		try {
+			this.hasFetched = this.resultSet.next();
+		} catch (SQLException e) {
+			this.close();
+			throw new IllegalStateException("读取SQL结果集失败", e);
+		}
+		// 读取完所有行后自动关闭
+		if(! this.hasFetched) {
+			this.close();
+		}
+		return this.hasFetched;
+	}
+	
+	@Override
+	public T next() {
+		if(! this.hasNext()) {
+			throw new NoSuchElementException("SQL结果游标没有更多的结果行");
+		}
+		this.hasFetched = false;
+		try {
+			return this.rowMapper.mapRow(this.resultSet, this.readCount ++);
+		} catch (SQLException e) {
+			this.close();
+			throw new IllegalStateException("映射SQL结果行失败", e);
+		}
+	}
+	
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("SQL结果游标不支持移除结果行");
+	}
+	
+	@Override
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+				.onClose(new Runnable() {
+					
+					@Override
+					public void run() {
+						SqlCursor.this.close();
+					}
+				});
+	}
+	
+	@Override
+	public int getReadCount() {
+		return this.readCount;
+	}
+	
+	@Override
+	public boolean isClosed() {
+		return this.closed;
+	}
+	
+	@Override
+	public void close() {
+		if(this.closed) {
+			return;
+		}
+		this.closed = true;
+		SqlCursor.closeQuietly(this.resultSet);
+		SqlCursor.closeQuietly(this.statement);
+		if(this.connection == null) {
+			return;
+		}
+		if(this.restoreAutoCommit) {
+			try {
+				this.connection.rollback();
+				this.connection.setAutoCommit(true);
+			} catch (SQLException e) {
+				// 连接关闭时由连接池或驱动处理
+			}
+		}
+		SqlCursor.closeQuietly(this.connection);
+	}
+	
+	/**
+	 * 关闭资源, 忽略关闭时的异常
+	 * 
+	 * @param resource 需要关闭的资源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void closeQuietly(AutoCloseable resource) {
+		if(resource == null) {
+			return;
+		}
+		try {
+			resource.close();
+		} catch (Exception e) {
+			// 资源已经不再使用, 忽略关闭时的异常
+		}
+	}
+}
@@ -0,0 +1,351 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fy.sqlparam.map.ISqlDialect;
+
+/**
+ * SQL方言实现
+ * <br/>利用enum来单例, 同时减少类文件
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public enum SqlDialect {
+	
+	/**
+	 * MySQL方言, 也是默认的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	MYSQL(new ISqlDialect() {
+		
+		@Override
+		public String getName() {
+			return "MySQL";
+		}
+		
+		@Override
+		public void appendLimit(StringBuilder sqlPiece, int start, int count) {
+			sqlPiece.append("LIMIT ").append(start).append(",").append(count);
+		}
+		
+		@Override
+		public String getTruePredicate() {
+			return "1=1";
+		}
+		
+		@Override
+		public boolean isArrayParameterSupported() {
+			return false;
+		}
+		
+		@Override
+		public boolean isWriteLimitSupported() {
+			return true;
+		}
+		
+		@Override
+		public void appendWriteLimit(StringBuilder sqlPiece, int count) {
+			sqlPiece.append("LIMIT ").append(count);
+		}
+		
+		@Override
+		public String generateUpsertSql(String tableName, String[] columnNames, String[] keyColumnNames, int rowCount) {
+			StringBuilder sql = SqlDialect.generateInsertValuesSql(tableName, columnNames, rowCount)
+					.append(" ON DUPLICATE KEY UPDATE ");
+			List<String> updateColumnNames = SqlDialect.excludeKeyColumnNames(columnNames, keyColumnNames);
+			if(updateColumnNames.isEmpty()) {
+				// 只有键列时更新为自身, 冲突的行保持不变
+				return sql.append(keyColumnNames[0]).append(" = ").append(keyColumnNames[0]).toString();
+			}
+			for(int i = 0; i < updateColumnNames.size(); i ++) {
+				if(i > 0) {
+					sql.append(", ");
+				}
+				sql.append(updateColumnNames.get(i)).append(" = VALUES(").append(updateColumnNames.get(i)).append(")");
+			}
+			return sql.toString();
+		}
+		
+		@Override
+		public String generateCreateTempTableSql(String tableName, String columnDefinitions) {
+			return SqlDialect.generateCreateTempTableSql("CREATE TEMPORARY TABLE ", tableName, columnDefinitions);
+		}
+	}),
+	
+	/**
+	 * PostgreSQL方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	POSTGRESQL(new ISqlDialect() {
+		
+		@Override
+		public String getName() {
+			return "PostgreSQL";
+		}
+		
+		@Override
+		public void appendLimit(StringBuilder sqlPiece, int start, int count) {
+			SqlDialect.appendLimitOffset(sqlPiece, start, count);
+		}
+		
+		@Override
+		public String getTruePredicate() {
+			return "TRUE";
+		}
+		
+		@Override
+		public boolean isArrayParameterSupported() {
+			return true;
+		}
+		
+		@Override
+		public boolean isWriteLimitSupported() {
+			return false;
+		}
+		
+		@Override
+		public void appendWriteLimit(StringBuilder sqlPiece, int count) {
+			throw new IllegalArgumentException("PostgreSQL不支持限制UPDATE和DELETE影响的行数");
+		}
+		
+		@Override
+		public String generateUpsertSql(String tableName, String[] columnNames, String[] keyColumnNames, int rowCount) {
+			StringBuilder sql = SqlDialect.generateInsertValuesSql(tableName, columnNames, rowCount)
+					.append(" ON CONFLICT (");
+			SqlDialect.appendJoined(sql, keyColumnNames);
+			sql.append(")");
+			List<String> updateColumnNames = SqlDialect.excludeKeyColumnNames(columnNames, keyColumnNames);
+			if(updateColumnNames.isEmpty()) {
+				return sql.append(" DO NOTHING").toString();
+			}
+			sql.append(" DO UPDATE SET ");
+			for(int i = 0; i < updateColumnNames.size(); i ++) {
+				if(i > 0) {
+					sql.append(", ");
+				}
+				sql.append(updateColumnNames.get(i)).append(" = EXCLUDED.").append(updateColumnNames.get(i));
+			}
+			return sql.toString();
+		}
+		
+		@Override
+		public String generateCreateTempTableSql(String tableName, String columnDefinitions) {
+			return SqlDialect.generateCreateTempTableSql("CREATE TEMP TABLE ", tableName, columnDefinitions);
+		}
+	}),
+	
+	/**
+	 * H2方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	H2(new ISqlDialect() {
+		
+		@Override
+		public String getName() {
+			return "H2";
+		}
+		
+		@Override
+		public void appendLimit(StringBuilder sqlPiece, int start, int count) {
+			SqlDialect.appendLimitOffset(sqlPiece, start, count);
+		}
+		
+		@Override
+		public String getTruePredicate() {
+			return "TRUE";
+		}
+		
+		@Override
+		public boolean isArrayParameterSupported() {
+			return true;
+		}
+		
+		@Override
+		public boolean isWriteLimitSupported() {
+			return true;
+		}
+		
+		@Override
+		public void appendWriteLimit(StringBuilder sqlPiece, int count) {
+			sqlPiece.append("FETCH FIRST ").append(count).append(" ROWS ONLY");
+		}
+		
+		@Override
+		public String generateUpsertSql(String tableName, String[] columnNames, String[] keyColumnNames, int rowCount) {
+			StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" (");
+			SqlDialect.appendJoined(sql, columnNames);
+			sql.append(") KEY (");
+			SqlDialect.appendJoined(sql, keyColumnNames);
+			sql.append(") VALUES ");
+			SqlDialect.appendValuesRows(sql, columnNames.length, rowCount);
+			return sql.toString();
+		}
+		
+		@Override
+		public String generateCreateTempTableSql(String tableName, String columnDefinitions) {
+			return SqlDialect.generateCreateTempTableSql("CREATE LOCAL TEMPORARY TABLE ", tableName, columnDefinitions);
+		}
+	});
+	
+	/**
+	 * 方言的实例
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 内部构造器: 提供方言的实例
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private SqlDialect(ISqlDialect dialect) {
+		this.dialect = dialect;
+	}
+	
+	/**
+	 * 获取方言的实例
+	 * 
+	 * @return 方言的实例
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ISqlDialect instance() {
+		return this.dialect;
+	}
+	
+	/**
+	 * 获取实际使用的方言, 用于兼容未提供方言的映射器和映射上下文实现
+	 * 
+	 * @param dialect 方言, 可以为null
+	 * @return 方言为null时返回MySQL方言, 否则返回方言本身
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static ISqlDialect orDefault(ISqlDialect dialect) {
+		return dialect != null ? dialect : SqlDialect.MYSQL.instance();
+	}
+	
+	/**
+	 * 辅助函数: 拼接标准的LIMIT ... OFFSET ...分页
+	 * 
+	 * @param sqlPiece 拼接到的SQL片段
+	 * @param start 起点, 从0开始
+	 * @param count 数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void appendLimitOffset(StringBuilder sqlPiece, int start, int count) {
+		sqlPiece.append("LIMIT ").append(count);
+		if(start > 0) {
+			sqlPiece.append(" OFFSET ").append(start);
+		}
+	}
+	
+	/**
+	 * 辅助函数: 生成多行的INSERT ... VALUES语句
+	 * 
+	 * @param tableName 数据库表名称
+	 * @param columnNames 写入的列名称
+	 * @param rowCount 行数
+	 * @return 多行的INSERT语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static StringBuilder generateInsertValuesSql(String tableName, String[] columnNames, int rowCount) {
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+		SqlDialect.appendJoined(sql, columnNames);
+		sql.append(") VALUES ");
+		SqlDialect.appendValuesRows(sql, columnNames.length, rowCount);
+		return sql;
+	}
+	
+	/**
+	 * 辅助函数: 拼接多行的参数占位符, 例如<tt>(?, ?), (?, ?)</tt>
+	 * 
+	 * @param sql 拼接到的SQL
+	 * @param columnCount 每行的列数
+	 * @param rowCount 行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void appendValuesRows(StringBuilder sql, int columnCount, int rowCount) {
+		String rowPlaceholders = SqlWriteTable.generatePlaceholders(columnCount);
+		for(int i = 0; i < rowCount; i ++) {
+			if(i > 0) {
+				sql.append(", ");
+			}
+			sql.append("(").append(rowPlaceholders).append(")");
+		}
+	}
+	
+	/**
+	 * 辅助函数: 拼接以逗号分隔的名称
+	 * 
+	 * @param sql 拼接到的SQL
+	 * @param names 名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void appendJoined(StringBuilder sql, String[] names) {
+		for(int i = 0; i < names.length; i ++) {
+			if(i > 0) {
+				sql.append(", ");
+			}
+			sql.append(names[i]);
+		}
+	}
+	
+	/**
+	 * 辅助函数: 排除键列, 得到冲突时更新的列
+	 * 
+	 * @param columnNames 写入的列名称
+	 * @param keyColumnNames 键列名称
+	 * @return 冲突时更新的列名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static List<String> excludeKeyColumnNames(String[] columnNames, String[] keyColumnNames) {
+		List<String> keyColumnNameList = Arrays.asList(keyColumnNames);
+		List<String> updateColumnNames = new ArrayList<String>(columnNames.length);
+		for(String columnName : columnNames) {
+			if(! keyColumnNameList.contains(columnName)) {
+				updateColumnNames.add(columnName);
+			}
+		}
+		return updateColumnNames;
+	}
+	
+	/**
+	 * 辅助函数: 生成创建会话临时表的SQL语句
+	 * 
+	 * @param prefix 创建临时表的语句开头
+	 * @param tableName 临时表名称
+	 * @param columnDefinitions 列定义
+	 * @return 创建会话临时表的SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static String generateCreateTempTableSql(String prefix, String tableName, String columnDefinitions) {
+		return new StringBuilder(prefix).append(tableName).append(" (").append(columnDefinitions).append(")").toString();
+	}
+}
@@ -0,0 +1,420 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.exec.ISqlCursor;
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.exec.ISqlStreamExecutor;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * SQL执行器实现, 每次执行从数据源获取一个连接, 执行完成后释放
+ * <br/> 流式执行时连接由返回的游标持有, 游标关闭时释放.
+ * 	指定了抓取大小的流式执行会临时关闭连接的自动提交, 使PostgreSQL等数据库使用服务端游标分批返回结果.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlExecutor implements ISqlExecutor, ISqlStreamExecutor {
+	
+	/**
+	 * 执行使用的数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final DataSource dataSource;
+	
+	/**
+	 * 每次从数据库抓取的行数量, 为0时使用驱动的默认值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int fetchSize;
+	
+	/**
+	 * 构造SQL执行器实例
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlExecutor(DataSource dataSource) {
+		this(dataSource, 0);
+	}
+	
+	/**
+	 * 构造指定抓取大小的SQL执行器实例
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param fetchSize 每次从数据库抓取的行数量, 为0时使用驱动的默认值;
+	 * 	MySQL需要传入{@link Integer#MIN_VALUE}才会逐行流式读取
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlExecutor(DataSource dataSource, int fetchSize) {
+		if(dataSource == null) {
+			throw new IllegalArgumentException("SQL执行器的数据源不能为null");
+		}
+		this.dataSource = dataSource;
+		this.fetchSize = fetchSize;
+	}
+	
+	@Override
+	public <T> List<T> query(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		try(Connection connection = this.dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			try(ResultSet resultSet = statement.executeQuery()) {
+				return SqlExecutor.mapRows(resultSet, rowMapper);
+			}
+		}
+	}
+	
+	@Override
+	public <T> ISqlCursor<T> stream(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		Connection connection = this.dataSource.getConnection();
+		PreparedStatement statement = null;
+		boolean restoreAutoCommit = false;
+		try {
+			if(this.fetchSize > 0 && connection.getAutoCommit()) {
+				connection.setAutoCommit(false);
+				restoreAutoCommit = true;
+			}
+			statement = connection.prepareStatement(mapResult.getSql(),
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			if(this.fetchSize != 0) {
+				statement.setFetchSize(this.fetchSize);
+			}
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			return new SqlCursor<T>(connection, statement, statement.executeQuery(), rowMapper, restoreAutoCommit);
+		} catch (SQLException | RuntimeException e) {
+			SqlCursor.closeQuietly(statement);
+			if(restoreAutoCommit) {
+				try {
+					connection.setAutoCommit(true);
+				} catch (SQLException ignored) {
+					// 连接关闭时由连接池或驱动处理
+				}
+			}
+			SqlCursor.closeQuietly(connection);
+			throw e;
+		}
+	}
+	
+	/**
+	 * 执行查询, 把可输出字段的值按列保存到基本类型数组中, 列数组按抓取大小增长
+	 * 
+	 * @param mapResult 映射结果, 包含需要执行的SQL语句和参数对象数组, 不能为null
+	 * @param selectColumns 可输出字段与结果集列的对应关系, 不能为null
+	 * @return 按列保存的查询结果
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlColumnarResult queryColumnar(ISqlMapResult mapResult, SqlSelectColumns selectColumns) throws SQLException {
+		if(mapResult == null) {
+			throw new IllegalArgumentException("执行的SQL映射结果不能为null");
+		}
+		try(Connection connection = this.dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+			if(this.fetchSize != 0) {
+				statement.setFetchSize(this.fetchSize);
+			}
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			try(ResultSet resultSet = statement.executeQuery()) {
+				return SqlColumnarResult.read(resultSet, selectColumns, this.fetchSize);
+			}
+		}
+	}
+	
+	/**
+	 * 获取每次从数据库抓取的行数量
+	 * 
+	 * @return 每次抓取的行数量, 为0时使用驱动的默认值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getFetchSize() {
+		return this.fetchSize;
+	}
+	
+	/**
+	 * 获取执行使用的数据源
+	 * 
+	 * @return 执行使用的数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public DataSource getDataSource() {
+		return this.dataSource;
+	}
+	
+	/**
+	 * SQL结果行, 按列保存一行的值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static class SqlRow {
+		
+		/**
+		 * 列名称数组, 同一个结果集的所有行共用
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final String[] columnLabels;
+		
+		/**
+		 * 按列顺序的值数组
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Object[] values;
+		
+		/**
+		 * 构造SQL结果行实例
+		 * 
+		 * @param columnLabels 列名称数组
+		 * @param values 按列顺序的值数组, 长度与列名称数组相同
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public SqlRow(String[] columnLabels, Object[] values) {
+			this.columnLabels = columnLabels;
+			this.values = values;
+		}
+		
+		/**
+		 * 获取列的数量
+		 * 
+		 * @return 列的数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public int getColumnCount() {
+			return this.values.length;
+		}
+		
+		/**
+		 * 获取列名称
+		 * 
+		 * @param index 列的索引, 从0开始
+		 * @return 列名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public String getColumnLabel(int index) {
+			return this.columnLabels[index];
+		}
+		
+		/**
+		 * 按列的索引获取值
+		 * 
+		 * @param index 列的索引, 从0开始
+		 * @return 列的值, 可能为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public Object get(int index) {
+			return this.values[index];
+		}
+		
+		/**
+		 * 按列名称获取值, 不区分大小写
+		 * 
+		 * @param columnLabel 列名称
+		 * @return 列的值, 找不到该列或值为NULL时返回null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public Object get(String columnLabel) {
+			int index = this.indexOf(columnLabel);
+			if(index == -1) {
+				return null;
+			}
+			return this.values[index];
+		}
+		
+		/**
+		 * 查找列名称对应的列的索引, 不区分大小写
+		 * 
+		 * @param columnLabel 列名称
+		 * @return 列的索引, 找不到返回-1
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public int indexOf(String columnLabel) {
+			for(int i = 0; i < this.columnLabels.length; i ++) {
+				if(this.columnLabels[i].equalsIgnoreCase(columnLabel)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.values);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(! (obj instanceof SqlRow)) {
+				return false;
+			}
+			SqlRow other = (SqlRow) obj;
+			return Arrays.equals(this.columnLabels, other.columnLabels)
+					&& Arrays.equals(this.values, other.values);
+		}
+		
+		@Override
+		public String toString() {
+			return Arrays.toString(this.values);
+		}
+		
+		/**
+		 * 生成一个把结果行映射为SQL结果行实例的映射器
+		 * <br/> 映射器会缓存最近一个结果集的列名称, 同一个结果集的所有行共用.
+		 * 
+		 * @return 结果行映射器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public static ISqlRowMapper<SqlRow> mapper() {
+			return new ISqlRowMapper<SqlRow>() {
+				
+				/**
+				 * 最近映射的结果集和其列名称, 作为整体替换以便在多个线程之间共用
+				 */
+				private volatile Object[] lastResultSetAndLabels = new Object[2];
+				
+				@Override
+				public SqlRow mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+					Object[] resultSetAndLabels = this.lastResultSetAndLabels;
+					if(resultSetAndLabels[0] != resultSet) {
+						resultSetAndLabels = new Object[] {
+								resultSet, SqlExecutor.getColumnLabels(resultSet.getMetaData())};
+						this.lastResultSetAndLabels = resultSetAndLabels;
+					}
+					String[] columnLabels = (String[]) resultSetAndLabels[1];
+					Object[] values = new Object[columnLabels.length];
+					for(int i = 0; i < values.length; i ++) {
+						values[i] = resultSet.getObject(i + 1);
+					}
+					return new SqlRow(columnLabels, values);
+				}
+			};
+		}
+	}
+	
+	/**
+	 * 按顺序绑定参数对象数组到预编译语句, {@link SqlArrayArg}绑定为数组参数
+	 * 
+	 * @param statement 预编译语句
+	 * @param argObjs 参数对象数组, 可以为null
+	 * @throws SQLException 绑定失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static void bindArgObjs(PreparedStatement statement, Object[] argObjs) throws SQLException {
+		if(argObjs == null) {
+			return;
+		}
+		for(int i = 0; i < argObjs.length; i ++) {
+			if(argObjs[i] instanceof SqlArrayArg) {
+				statement.setArray(i + 1, ((SqlArrayArg) argObjs[i]).createArray(statement.getConnection()));
+				continue;
+			}
+			statement.setObject(i + 1, argObjs[i]);
+		}
+	}
+	
+	/**
+	 * 把结果集剩余的所有行映射为结果对象
+	 * 
+	 * @param resultSet 结果集
+	 * @param rowMapper 结果行映射器
+	 * @return 结果对象列表
+	 * @throws SQLException 读取结果集失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static <T> List<T> mapRows(ResultSet resultSet, ISqlRowMapper<T> rowMapper) throws SQLException {
+		List<T> result = new ArrayList<T>();
+		int rowNum = 0;
+		while(resultSet.next()) {
+			result.add(rowMapper.mapRow(resultSet, rowNum ++));
+		}
+		return result;
+	}
+	
+	/**
+	 * 获取结果集元信息中的所有列名称
+	 * 
+	 * @param metaData 结果集元信息
+	 * @return 列名称数组
+	 * @throws SQLException 读取元信息失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static String[] getColumnLabels(ResultSetMetaData metaData) throws SQLException {
+		String[] columnLabels = new String[metaData.getColumnCount()];
+		for(int i = 0; i < columnLabels.length; i ++) {
+			columnLabels[i] = metaData.getColumnLabel(i + 1);
+		}
+		return columnLabels;
+	}
+	
+	/**
+	 * 检查查询的参数
+	 * 
+	 * @param mapResult 映射结果
+	 * @param rowMapper 结果行映射器
+	 * @throws IllegalArgumentException 参数为null则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void checkQueryArgs(ISqlMapResult mapResult, ISqlRowMapper<?> rowMapper) {
+		if(mapResult == null) {
+			throw new IllegalArgumentException("执行的SQL映射结果不能为null");
+		}
+		if(rowMapper == null) {
+			throw new IllegalArgumentException("执行使用的结果行映射器不能为null");
+		}
+	}
+}
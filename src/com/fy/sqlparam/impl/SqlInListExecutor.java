@@ -0,0 +1,450 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.impl.SqlPagedExecutor.RunningQuery;
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+import com.fy.sqlparam.param.ISqlQuery;
+
+/**
+ * 大集合IN查询的执行器
+ * <br/> 集合数量不超过阈值时按普通的IN查询执行; 超过阈值时按指定的方式执行, 避免生成包含大量占位符的SQL语句.
+ * <br/> 分块执行时每个分块单独查询, 结果只按分块顺序合并, 所以搜索参数不能包含排序, 分页和窗口总数量,
+ * 	源SQL语句也只能是逐行输出的查询, 不能包含DISTINCT, GROUP BY, HAVING和聚合函数, 否则抛出异常;
+ * 	集合先去掉重复的值再分块, 同一个值不会出现在多个分块中.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlInListExecutor {
+	
+	/**
+	 * 大集合IN查询的执行方式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public enum InListMode {
+		
+		/**
+		 * 按分块大小拆分为多个IN查询, 在线程执行器中并行执行后按分块顺序合并结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		CHUNK,
+		
+		/**
+		 * 整个集合作为一个数组参数绑定, 生成<tt>= ANY(?)</tt>, 需要数据库和驱动支持数组参数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		ARRAY,
+		
+		/**
+		 * 在同一个数据库连接上先把集合批量写入会话临时表, 再通过<tt>IN (SELECT ...)</tt>查询, 最后删除临时表
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		TEMP_TABLE
+	}
+	
+	/**
+	 * 临时表的序号, 用于生成不重复的临时表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final AtomicLong TEMP_TABLE_SEQUENCE = new AtomicLong();
+	
+	/**
+	 * 匹配不是逐行输出的查询的关键字和聚合函数的正则表达式, 按关键字保守判断, 子查询或字符串中出现也视为匹配
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Pattern REGEXP_NOT_ROW_WISE = Pattern.compile(
+			"(?i)\\b(?:DISTINCT|HAVING|GROUP\\s+BY)\\b|\\b(?:COUNT|SUM|AVG|MIN|MAX)\\s*\\(");
+	
+	/**
+	 * 执行使用的数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final DataSource dataSource;
+	
+	/**
+	 * 并行执行分块查询的线程执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Executor executor;
+	
+	/**
+	 * 超过阈值时的执行方式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final InListMode mode;
+	
+	/**
+	 * 使用执行方式的集合数量阈值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int threshold;
+	
+	/**
+	 * 分块大小, 也是写入临时表的批量大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int chunkSize;
+	
+	/**
+	 * 生成查询使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 构造大集合IN查询的执行器实例
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param executor 并行执行分块查询的线程执行器, 不能为null
+	 * @param mode 超过阈值时的执行方式, 不能为null
+	 * @param threshold 集合数量超过此值时使用执行方式, 不能小于1
+	 * @param chunkSize 分块大小, 也是写入临时表的批量大小, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlInListExecutor(DataSource dataSource, Executor executor, InListMode mode,
+			int threshold, int chunkSize) {
+		this(dataSource, executor, mode, threshold, chunkSize, SqlDialect.MYSQL.instance());
+	}
+	
+	/**
+	 * 构造大集合IN查询的执行器实例, 使用指定的方言生成查询和临时表
+	 * <br/> 方言不支持数组参数时, 数组参数方式按分块方式执行.
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param executor 并行执行分块查询的线程执行器, 不能为null
+	 * @param mode 超过阈值时的执行方式, 不能为null
+	 * @param threshold 集合数量超过此值时使用执行方式, 不能小于1
+	 * @param chunkSize 分块大小, 也是写入临时表的批量大小, 不能小于1
+	 * @param dialect 生成查询使用的方言, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlInListExecutor(DataSource dataSource, Executor executor, InListMode mode,
+			int threshold, int chunkSize, ISqlDialect dialect) {
+		if(dataSource == null || executor == null || mode == null || dialect == null) {
+			throw new IllegalArgumentException("大集合IN查询执行器的数据源, 线程执行器, 执行方式和方言不能为null");
+		}
+		if(threshold < 1 || chunkSize < 1) {
+			throw new IllegalArgumentException("大集合IN查询执行器的阈值和分块大小不能小于1");
+		}
+		this.dataSource = dataSource;
+		this.executor = executor;
+		this.mode = mode;
+		this.threshold = threshold;
+		this.chunkSize = chunkSize;
+		this.dialect = dialect;
+	}
+	
+	/**
+	 * 执行带有属性在集合中条件的查询
+	 * <br/> 条件临时加入到搜索参数中, 执行后移除, 搜索参数的其它条件不变.
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句
+	 * @param propertyName 属性名称, 不能为null
+	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
+	 * @param elementTypeName 集合元素的数据库类型名称, 例如"bigint", 数组参数和临时表方式需要, 不能为null
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 结果对象列表
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public <T> List<T> queryIn(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql,
+			String propertyName, Collection<?> targets, String elementTypeName,
+			ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(parameter == null || paramContext == null) {
+			throw new IllegalArgumentException("大集合IN查询的搜索参数和搜索参数上下文不能为null");
+		}
+		if(targets == null || targets.isEmpty()) {
+			throw new IllegalArgumentException("大集合IN查询的值集合不能为null或空");
+		}
+		if(targets.size() <= this.threshold) {
+			ISqlMapResult mapResult = this.generateMapResult(parameter, paramContext, rawSql,
+					Query.to(propertyName).in(targets));
+			return new SqlExecutor(this.dataSource).query(mapResult, rowMapper);
+		}
+		InListMode usingMode = this.mode;
+		if(usingMode == InListMode.ARRAY && ! this.dialect.isArrayParameterSupported()) {
+			usingMode = InListMode.CHUNK;
+		}
+		switch(usingMode) {
+		case CHUNK:
+			return this.queryInChunks(parameter, paramContext, rawSql, propertyName, targets, rowMapper);
+		case ARRAY:
+			ISqlMapResult mapResult = this.generateMapResult(parameter, paramContext, rawSql,
+					Query.to(propertyName).inArray(targets, elementTypeName));
+			return new SqlExecutor(this.dataSource).query(mapResult, rowMapper);
+		default:
+			return this.queryInTempTable(parameter, paramContext, rawSql, propertyName,
+					targets, elementTypeName, rowMapper);
+		}
+	}
+	
+	/**
+	 * 获取超过阈值时的执行方式
+	 * 
+	 * @return 执行方式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public InListMode getMode() {
+		return this.mode;
+	}
+	
+	/**
+	 * 拆分为多个IN查询并行执行
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param propertyName 属性名称
+	 * @param targets 目标集合
+	 * @param rowMapper 结果行映射器
+	 * @return 按分块顺序合并的结果对象列表
+	 * @throws SQLException 任意一个分块执行失败则抛出异常, 其它分块随之取消
+	 * @throws IllegalArgumentException 搜索参数包含排序, 分页或窗口总数量, 或者源SQL语句不是逐行输出的查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> List<T> queryInChunks(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql,
+			String propertyName, Collection<?> targets, final ISqlRowMapper<T> rowMapper) throws SQLException {
+		// 分块的排序和分页只作用于分块内, 合并后的结果是错误的
+		if(parameter instanceof SqlParameter) {
+			SqlParameter parameterReal = (SqlParameter) parameter;
+			if((parameterReal.getSorts() != null && ! parameterReal.getSorts().getQueries().isEmpty())
+					|| parameterReal.getLimit() != null || parameterReal.getWindowTotal() != null) {
+				throw new IllegalArgumentException("分块执行的大集合IN查询不能包含排序, 分页和窗口总数量");
+			}
+		}
+		// 去重和聚合只作用于分块内, 合并后会重复或者得到多个部分结果
+		if(rawSql != null && REGEXP_NOT_ROW_WISE.matcher(rawSql).find()) {
+			throw new IllegalArgumentException("分块执行的大集合IN查询的源SQL语句不能包含DISTINCT, GROUP BY, HAVING和聚合函数");
+		}
+		// 重复的值分到不同分块时同一行会被查询多次
+		Set<Object> distinctTargets = new LinkedHashSet<Object>(targets);
+		distinctTargets.remove(null);
+		// 搜索参数不是线程安全的, 在调用线程中生成所有分块的映射结果
+		List<ISqlMapResult> mapResults = new ArrayList<ISqlMapResult>();
+		List<Object> chunk = new ArrayList<Object>(this.chunkSize);
+		for(Object target : distinctTargets) {
+			chunk.add(target);
+			if(chunk.size() == this.chunkSize) {
+				mapResults.add(this.generateMapResult(parameter, paramContext, rawSql,
+						Query.to(propertyName).in(chunk)));
+				chunk = new ArrayList<Object>(this.chunkSize);
+			}
+		}
+		if(! chunk.isEmpty()) {
+			mapResults.add(this.generateMapResult(parameter, paramContext, rawSql,
+					Query.to(propertyName).in(chunk)));
+		}
+		final List<RunningQuery> runnings = new ArrayList<RunningQuery>(mapResults.size());
+		for(int i = 0; i < mapResults.size(); i ++) {
+			runnings.add(new RunningQuery());
+		}
+		// 第一个失败的分块的异常, 其它分块因此被取消
+		final AtomicReference<Exception> firstFailure = new AtomicReference<Exception>();
+		List<CompletableFuture<List<T>>> futures = new ArrayList<CompletableFuture<List<T>>>(mapResults.size());
+		try {
+			for(int i = 0; i < mapResults.size(); i ++) {
+				final ISqlMapResult mapResult = mapResults.get(i);
+				final RunningQuery running = runnings.get(i);
+				final CompletableFuture<List<T>> future = new CompletableFuture<List<T>>();
+				futures.add(future);
+				this.executor.execute(new Runnable() {
+					
+					@Override
+					public void run() {
+						try {
+							future.complete(SqlPagedExecutor.runQuery(SqlInListExecutor.this.dataSource,
+									mapResult, rowMapper, running));
+						} catch (SQLException | RuntimeException e) {
+							if(firstFailure.compareAndSet(null, e)) {
+								SqlInListExecutor.cancelAll(runnings);
+							}
+							future.completeExceptionally(e);
+						}
+					}
+				});
+			}
+		} catch (RuntimeException e) {
+			SqlInListExecutor.cancelAll(runnings);
+			throw e;
+		}
+		List<T> result = new ArrayList<T>();
+		for(CompletableFuture<List<T>> future : futures) {
+			try {
+				result.addAll(future.get());
+			} catch (InterruptedException e) {
+				SqlInListExecutor.cancelAll(runnings);
+				Thread.currentThread().interrupt();
+				throw new SQLException("等待分块查询的执行结果时被中断", e);
+			} catch (ExecutionException e) {
+				Throwable cause = firstFailure.get() != null ? firstFailure.get() : e.getCause();
+				if(cause instanceof SQLException) {
+					throw (SQLException) cause;
+				}
+				if(cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new SQLException("分块查询执行失败", cause);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 取消所有分块查询, 已完成的不受影响
+	 * 
+	 * @param runnings 分块查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void cancelAll(List<RunningQuery> runnings) {
+		for(RunningQuery running : runnings) {
+			running.cancel();
+		}
+	}
+	
+	/**
+	 * 写入会话临时表后执行查询
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param propertyName 属性名称
+	 * @param targets 目标集合
+	 * @param elementTypeName 集合元素的数据库类型名称
+	 * @param rowMapper 结果行映射器
+	 * @return 结果对象列表
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> List<T> queryInTempTable(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql,
+			String propertyName, Collection<?> targets, String elementTypeName,
+			ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(elementTypeName == null || ! elementTypeName.matches("[A-Za-z][A-Za-z0-9_ ,()]*")) {
+			throw new IllegalArgumentException(String.format("临时表的元素类型名称%s不合法", elementTypeName));
+		}
+		String tableName = "__in_list_" + TEMP_TABLE_SEQUENCE.incrementAndGet();
+		ISqlMapResult mapResult = this.generateMapResult(parameter, paramContext, rawSql,
+				Query.to(propertyName).inTable(tableName, "v"));
+		try(Connection connection = this.dataSource.getConnection()) {
+			try(Statement statement = connection.createStatement()) {
+				statement.execute(this.dialect.generateCreateTempTableSql(tableName, "v " + elementTypeName));
+			}
+			try {
+				try(PreparedStatement statement = connection.prepareStatement(
+						new StringBuilder("INSERT INTO ").append(tableName).append(" (v) VALUES (?)").toString())) {
+					int batched = 0;
+					for(Object target : targets) {
+						if(target == null) {
+							continue;
+						}
+						statement.setObject(1, target);
+						statement.addBatch();
+						if(++ batched == this.chunkSize) {
+							statement.executeBatch();
+							batched = 0;
+						}
+					}
+					if(batched > 0) {
+						statement.executeBatch();
+					}
+				}
+				try(PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+					SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+					try(ResultSet resultSet = statement.executeQuery()) {
+						return SqlExecutor.mapRows(resultSet, rowMapper);
+					}
+				}
+			} finally {
+				try(Statement statement = connection.createStatement()) {
+					statement.execute("DROP TABLE " + tableName);
+				} catch (SQLException e) {
+					// 临时表会随会话结束删除
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 临时加入条件生成映射结果, 生成后移除条件
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param query 临时加入的条件
+	 * @return 映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlMapResult generateMapResult(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, ISqlQuery query) {
+		parameter.query(query);
+		try {
+			return parameter.generateMapContext(paramContext, new SqlMapper(this.dialect)).generateMapResult(rawSql);
+		} finally {
+			parameter.deleteQuery(query);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.fy.sqlparam.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图
+ * <br/> 按2的幂分段, 每段再线性细分为16个桶, 相对误差不超过1/16; 可以被多个线程并发记录.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlLatencyHistogram {
+	
+	/**
+	 * 每段细分的桶数量的位数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+	
+	/**
+	 * 每段细分的桶数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	
+	/**
+	 * 各个桶的记录次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT);
+	
+	/**
+	 * 记录次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong count = new AtomicLong();
+	
+	/**
+	 * 总耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong totalNanos = new AtomicLong();
+	
+	/**
+	 * 最大耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong maxNanos = new AtomicLong();
+	
+	/**
+	 * 记录一次耗时
+	 * 
+	 * @param nanos 耗时, 单位纳秒, 负数按0记录
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public void record(long nanos) {
+		nanos = nanos < 0 ? 0 : nanos;
+		this.buckets.incrementAndGet(SqlLatencyHistogram.indexOf(nanos));
+		this.count.incrementAndGet();
+		this.totalNanos.addAndGet(nanos);
+		long max;
+		while(nanos > (max = this.maxNanos.get()) && ! this.maxNanos.compareAndSet(max, nanos)) {
+			// 重试直到更新成功或已有更大的值
+		}
+	}
+	
+	/**
+	 * 获取记录次数
+	 * 
+	 * @return 记录次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+	
+	/**
+	 * 获取平均耗时
+	 * 
+	 * @return 平均耗时, 单位纳秒, 没有记录时为0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public double getMeanNanos() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) this.totalNanos.get() / count;
+	}
+	
+	/**
+	 * 获取最大耗时
+	 * 
+	 * @return 最大耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getMaxNanos() {
+		return this.maxNanos.get();
+	}
+	
+	/**
+	 * 获取百分位的耗时
+	 * 
+	 * @param percentile 百分位, 范围(0, 100]
+	 * @return 该百分位所在桶的上界耗时, 单位纳秒, 不超过最大耗时; 没有记录时为0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getPercentileNanos(double percentile) {
+		if(! (percentile > 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("百分位需要在0到100之间");
+		}
+		long total = 0;
+		for(int i = 0; i < this.buckets.length(); i ++) {
+			total += this.buckets.get(i);
+		}
+		if(total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for(int i = 0; i < this.buckets.length(); i ++) {
+			seen += this.buckets.get(i);
+			if(seen >= rank) {
+				return Math.min(SqlLatencyHistogram.upperBoundOf(i), this.maxNanos.get());
+			}
+		}
+		return this.maxNanos.get();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.1fus, p50=%.1fus, p90=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus",
+				this.getCount(), this.getMeanNanos() / 1000,
+				SqlLatencyHistogram.toMicros(this.getPercentileNanos(50)),
+				SqlLatencyHistogram.toMicros(this.getPercentileNanos(90)),
+				SqlLatencyHistogram.toMicros(this.getPercentileNanos(99)),
+				SqlLatencyHistogram.toMicros(this.getPercentileNanos(99.9)),
+				SqlLatencyHistogram.toMicros(this.getMaxNanos()));
+	}
+	
+	/**
+	 * 计算耗时所在的桶
+	 * 
+	 * @param nanos 耗时, 不为负数
+	 * @return 桶的下标
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int indexOf(long nanos) {
+		if(nanos < SUB_BUCKET_COUNT) {
+			return (int) nanos;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) ((nanos >>> shift) - SUB_BUCKET_COUNT);
+	}
+	
+	/**
+	 * 计算桶的上界
+	 * 
+	 * @param index 桶的下标
+	 * @return 桶内的最大耗时
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long upperBoundOf(int index) {
+		if(index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long lower = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+		return lower + (1L << shift) - 1;
+	}
+	
+	/**
+	 * 纳秒转为微秒
+	 * 
+	 * @param nanos 纳秒
+	 * @return 微秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static double toMicros(long nanos) {
+		return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+	}
+}
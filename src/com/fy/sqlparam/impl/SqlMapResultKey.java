@@ -0,0 +1,169 @@
+package com.fy.sqlparam.impl;
+
+import java.util.Arrays;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * SQL映射结果的键, 由SQL语句和参数对象数组组成, 用于按映射结果共享执行或缓存结果
+ * <br/> 可以附带一个所有者(例如结果行映射器), 所有者按实例比较, 相同的映射结果在不同的所有者下是不同的键.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlMapResultKey {
+	
+	/**
+	 * SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String sql;
+	
+	/**
+	 * 参数对象数组
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Object[] argObjs;
+	
+	/**
+	 * 所有者, 按实例比较, 可以为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Object owner;
+	
+	/**
+	 * 预先计算的哈希值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int hash;
+	
+	/**
+	 * 构造SQL映射结果的键
+	 * 
+	 * @param sql SQL语句, 不能为null
+	 * @param argObjs 参数对象数组, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlMapResultKey(String sql, Object[] argObjs) {
+		this(sql, argObjs, null);
+	}
+	
+	/**
+	 * 构造带所有者的SQL映射结果的键
+	 * 
+	 * @param sql SQL语句, 不能为null
+	 * @param argObjs 参数对象数组, 不能为null
+	 * @param owner 所有者, 按实例比较, 可以为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlMapResultKey(String sql, Object[] argObjs, Object owner) {
+		if(sql == null || argObjs == null) {
+			throw new IllegalArgumentException("SQL映射结果的键的SQL语句和参数对象数组不能为null");
+		}
+		this.sql = sql;
+		this.argObjs = argObjs.clone();
+		this.owner = owner;
+		this.hash = 31 * (31 * sql.hashCode() + Arrays.deepHashCode(this.argObjs)) + System.identityHashCode(owner);
+	}
+	
+	/**
+	 * 获取SQL语句
+	 * 
+	 * @return SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getSql() {
+		return this.sql;
+	}
+	
+	/**
+	 * 获取参数对象数组
+	 * 
+	 * @return 参数对象数组的副本
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Object[] getArgObjs() {
+		return this.argObjs.clone();
+	}
+	
+	/**
+	 * 获取所有者
+	 * 
+	 * @return 所有者, 没有则返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Object getOwner() {
+		return this.owner;
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(! (obj instanceof SqlMapResultKey)) {
+			return false;
+		}
+		SqlMapResultKey other = (SqlMapResultKey) obj;
+		return this.hash == other.hash && this.owner == other.owner && this.sql.equals(other.sql)
+				&& Arrays.deepEquals(this.argObjs, other.argObjs);
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder(this.sql).append(" ").append(Arrays.deepToString(this.argObjs)).toString();
+	}
+	
+	/**
+	 * 生成SQL映射结果对应的键
+	 * 
+	 * @param mapResult SQL映射结果, 不能为null
+	 * @return SQL映射结果的键
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlMapResultKey of(ISqlMapResult mapResult) {
+		return SqlMapResultKey.of(mapResult, null);
+	}
+	
+	/**
+	 * 生成SQL映射结果在指定所有者下对应的键
+	 * 
+	 * @param mapResult SQL映射结果, 不能为null
+	 * @param owner 所有者, 按实例比较, 可以为null
+	 * @return SQL映射结果的键
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlMapResultKey of(ISqlMapResult mapResult, Object owner) {
+		if(mapResult == null) {
+			throw new IllegalArgumentException("生成键的SQL映射结果不能为null");
+		}
+		return new SqlMapResultKey(mapResult.getSql(), mapResult.getArgObjs(), owner);
+	}
+}
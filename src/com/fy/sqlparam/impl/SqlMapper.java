@@ -1,391 +1,621 @@
-package com.fy.sqlparam.impl;
-
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import com.fy.sqlparam.impl.SqlParameter.SqlPart;
-import com.fy.sqlparam.map.ISqlMapContext;
-import com.fy.sqlparam.map.ISqlMapEntry;
-import com.fy.sqlparam.map.ISqlMapMeta;
-import com.fy.sqlparam.map.ISqlMapStrategy;
-import com.fy.sqlparam.map.ISqlMapper;
-import com.fy.sqlparam.map.ISqlPart;
-
-/**
- * SQL映射器实现
- * 
- * @author linjie
- * @since 1.0.0
- */
-public class SqlMapper implements ISqlMapper {
-
-	/**
-	 * SQL中匹配插入查询的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static final String REGEXP_SELECT = "\\f(?<=SELECT.{0,100})(?= +FROM)";
-	
-	/**
-	 * SQL中匹配基础关联表的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final String REGEXP_BASE_TABLES = "\\{BASE_TABLES\\}";
-	
-	/**
-	 * SQL中匹配额外关联表的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final String REGEXP_EXTRA_TABLES = "\\{EXTRA_TABLES\\}";
-	
-	/**
-	 * SQL中匹配条件的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final String REGEXP_CONDITIONS = "\\{CONDITIONS\\}";
-	
-	/**
-	 * SQL中匹配排序的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final String REGEXP_ORDER_BY = "\\{ORDER_BY\\}";
-	
-	/**
-	 * SQL中匹配分页的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final String REGEXP_LIMIT = "\\{LIMIT\\}";
-	
-	/**
-	 * SQL中匹配引用的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static final String REGEXP_REFERENCE = "\\{#:?\\w+?\\}";
-	
-	/**
-	 * SQL中匹配判断是否有依赖的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static final String REGEXP_SWITCHDEPENDENT = "\\{.+(\\?(\\w+,?)+:.+)+\\}";
-	
-	/**
-	 * SQL中匹配所有特殊字符串(被'{}'包围的字符串)的映射位置的正则表达式
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static final String REGEXP_ALL = "\\{.*?\\}";
-
-	@Override
-	public void map(ISqlMapContext mapContext, ISqlPart sqlPart) {
-		// 尝试 把待处理的SQL当做无类型的SQL成员, 全部类型尝试处理一次, 顺序为声明顺序
-		for(SqlMapStrategy strategy : SqlMapStrategy.values()) {
-			strategy.instance().handle(mapContext, sqlPart);
-		}
-	}
-	
-	/**
-	 * 映射键值对的实现
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static class SqlMapEntry implements ISqlMapEntry {
-
-		/**
-		 * 映射键的字符串, 是正则表达式字符串
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final String mapStr;
-		
-		/**
-		 * 包含映射的SQL内容的SQL成员
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final ISqlPart sqlPart;
-		
-		/**
-		 * 此映射是否可以重复, 有些映射做一次后失效
-		 * 
-		 * @author linjie
-		 * @since 1.0.3
-		 */
-		private boolean canRepeat = true;
-		
-		/**
-		 * 构造SQL映射关系实例
-		 * 
-		 * @param mapStr 映射键的字符串, 是正则表达式字符串
-		 * @param sqlPart 包含映射的SQL内容的SQL成员
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public SqlMapEntry(String mapStr, ISqlPart sqlPart) {
-			if(mapStr == null) {
-				throw new IllegalArgumentException("映射键值对中映射字符串(键)不能为null");
-			}
-			if(sqlPart == null) {
-				throw new IllegalArgumentException("映射键值对中包含映射的SQL内容的SQL成员(值)不能为null");
-			}
-			this.mapStr = mapStr;
-			this.sqlPart = sqlPart;
-		}
-		
-		@Override
-		public String getMapStr() {
-			return this.mapStr;
-		}
-
-		@Override
-		public ISqlPart getSqlPart() {
-			return this.sqlPart;
-		}
-
-		@Override
-		public boolean actMapping(StringBuilder rawSql) {
-			if(! this.canRepeat) {
-				return false;
-			}
-			boolean result = SqlMapper.findAndReplaceContentByRegExpStr(rawSql, 
-					this.mapStr, this.sqlPart.getContent().toString());
-			if(this.mapStr.startsWith("\\f") && result) {
-				this.canRepeat = false;
-				return result;
-			}
-			return result;
-		}
-		
-		
-	}
-	
-	/**
-	 * SQL映射处理
-	 * <br/>利用enum来单例, 同时减少类文件
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public enum SqlMapStrategy {
-		
-		/**
-		 * 静态占位符的映射处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		MAP_STATIC(new ISqlMapStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
-				String mapStr = sqlPart.getAssignedMapStr();
-				if(mapStr == null) {
-					return;
-				}
-				mapContext.addMapEntry(new SqlMapEntry(mapStr, sqlPart));
-			}
-		}),
-		
-		/**
-		 * 引用占位符的映射处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		MAP_REFRERENCE(new ISqlMapStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
-				StringBuilder sql = new StringBuilder(sqlPart.getContent());
-				Pattern pattern = Pattern.compile(SqlMapper.REGEXP_REFERENCE);
-				Matcher matcher = pattern.matcher(sql);
-				while(matcher.find()) {
-					String refrenceStr = sql.substring(matcher.start(), matcher.end());
-					String refrenceName = refrenceStr.replaceAll("[\\{\\#\\}]", "");
-					if(refrenceName.startsWith(":")) { /* 加上:仅用来提醒需要加入依赖, 本身这个位置不需要被映射 */
-						refrenceName = refrenceName.replaceAll(":", "");
-					}
-					// 先处理依赖
-					ISqlMapMeta mapMeta = mapContext.notifyHandleDependentMapMeta(sqlPart, refrenceName);
-					if(mapMeta == null) {
-						continue;
-					}
-					// 对包含的所有SQL内容生成映射键值对
-					for(ISqlPart includeSqlPart : mapMeta.getSqlParts()) {
-						// 如果是静态映射, 上下文已经加过, 要跳过处理
-						String mapStr = includeSqlPart.getAssignedMapStr();
-						if(mapStr != null) {
-							continue;
-						}
-						// 只会有一个
-						mapContext.addMapEntry(new SqlMapEntry(
-								this.formatRefrenceNameAsMapStr(refrenceName),
-								includeSqlPart));
-						break;
-					}
-				}
-			}
-			
-			/**
-			 * 格式化引用名称为映射字符串
-			 * 
-			 * @param refrenceName 引用名称
-			 * @return 映射字符串
-			 * 
-			 * @author linjie
-			 * @since 1.0.0
-			 */
-			private String formatRefrenceNameAsMapStr(String refrenceName) {
-				return new StringBuilder("\\{#").append(refrenceName).append("\\}").toString();
-			}
-		}),
-		/**
-		 * 引用占位符的映射处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		MAP_IFDEPENDENT(new ISqlMapStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
-				StringBuilder sql = sqlPart.getContent();
-				Pattern pattern = Pattern.compile(SqlMapper.REGEXP_SWITCHDEPENDENT);
-				Matcher matcher = pattern.matcher(sql);
-				while(matcher.find()) {
-					String switchesStr = sql.substring(matcher.start(), matcher.end());
-					String[] switchStrs = switchesStr.replaceAll("\\{|\\}", "").split("\\?");
-					String defaultStr = switchStrs[0];
-					String choiceStr = null;
-					for(int i = 1; i < switchStrs.length; i ++) {
-						String[] conditionAndContent = switchStrs[i].split(":");
-						String[] dependentNames = conditionAndContent[0].split(",");
-						boolean hasHandleDependency = false;
-						for(String dependentName : dependentNames) {
-							if(mapContext.hasHandleDependentMapMeta(dependentName)) {
-								hasHandleDependency = true;
-								break;
-							}
-						}
-						if(hasHandleDependency) {
-							choiceStr = conditionAndContent[1];
-							break;
-						}
-					}
-					if(choiceStr == null) {
-						choiceStr = defaultStr;
-					}
-					mapContext.addMapEntry(new SqlMapEntry(switchesStr, 
-							new SqlPart(null, new StringBuilder(choiceStr))));
-				}
-			}
-		});
-	
-		/**
-		 * 映射处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final ISqlMapStrategy strategy;
-		
-		/**
-		 * 内部构造器: 提供映射处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private SqlMapStrategy(ISqlMapStrategy strategy) {
-			this.strategy = strategy;
-		}
-		
-		/**
-		 * 获取映射处理器的实例
-		 * 
-		 * @return 映射处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public ISqlMapStrategy instance() {
-			return this.strategy;
-		}
-	}
-	
-	/**
-	 * 当没有对应的映射键值对时删除正则表达式匹配的字符串
-	 * 
-	 * @param sql SQL语句
-	 * @param regExpStr 目标正则表达式
-	 * @param entries 映射键值列表
-	 * @return SQL中是否找到了匹配的字符串, 是则返回<tt>true</tt>, 否则返回<tt>false</tt>
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static boolean wipeRegExpStrWhenNoMapEntries(StringBuilder sql,
-			String regExpStr, List<ISqlMapEntry> entries) {
-		if(entries == null || entries.isEmpty()) {
-			SqlMapper.findAndReplaceContentByRegExpStr(sql, regExpStr, "");
-			return true;
-		}
-		return false;
-	}
-	
-	/**
-	 * 在SQL中找到匹配正则表达式的内容并替换为目标内容
-	 * 
-	 * @param sql SQL语句
-	 * @param regExpStr 正则表达式
-	 * @param replaceBy 替换的内容
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static boolean findAndReplaceContentByRegExpStr(StringBuilder sql,
-			String regExpStr, String replaceBy) {
-		boolean isFirst = false;
-		if(regExpStr.startsWith("\\f")) {
-			regExpStr = regExpStr.replace("\\f", "");
-			isFirst = true;
-			if(sql.indexOf(replaceBy) != -1) {
-				return true;
-			}
-		}
-		Pattern pattern = Pattern.compile(regExpStr);
-		Matcher matcher = pattern.matcher(sql);
-		String result = null;
-		if(isFirst) {
-			result = matcher.replaceFirst(replaceBy);
-		} else {
-			result = matcher.replaceAll(replaceBy);
-		}
-		boolean hasReplaced = ! result.equals(sql.toString());
-		if(hasReplaced) {
-			sql.delete(0, sql.length());
-			sql.append(result);
-			return true;
-		}
-		return false;
-	}
-}
+package com.fy.sqlparam.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fy.sqlparam.impl.SqlParameter.SqlPart;
+import com.fy.sqlparam.impl.SqlParameterContext.SqlFrozenMapMetas;
+import com.fy.sqlparam.impl.SqlParameterContext.SqlReferences;
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapContext;
+import com.fy.sqlparam.map.ISqlMapEntry;
+import com.fy.sqlparam.map.ISqlMapMeta;
+import com.fy.sqlparam.map.ISqlMapStrategy;
+import com.fy.sqlparam.map.ISqlMapper;
+import com.fy.sqlparam.map.ISqlPart;
+
+/**
+ * SQL映射器实现
+ * 
+ * @author linjie
+ * @since 1.0.0
+ */
+public class SqlMapper implements ISqlMapper {
+
+	/**
+	 * SQL中匹配插入查询的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static final String REGEXP_SELECT = "\\f(?<=SELECT.{0,100})(?= +FROM)";
+	
+	/**
+	 * SQL中匹配基础关联表的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final String REGEXP_BASE_TABLES = "\\{BASE_TABLES\\}";
+	
+	/**
+	 * SQL中匹配额外关联表的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final String REGEXP_EXTRA_TABLES = "\\{EXTRA_TABLES\\}";
+	
+	/**
+	 * SQL中匹配条件的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final String REGEXP_CONDITIONS = "\\{CONDITIONS\\}";
+	
+	/**
+	 * SQL中匹配排序的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final String REGEXP_ORDER_BY = "\\{ORDER_BY\\}";
+	
+	/**
+	 * SQL中匹配分页的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final String REGEXP_LIMIT = "\\{LIMIT\\}";
+	
+	/**
+	 * SQL中匹配引用的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static final String REGEXP_REFERENCE = "\\{#:?\\w+?\\}";
+	
+	/**
+	 * SQL中匹配判断是否有依赖的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static final String REGEXP_SWITCHDEPENDENT = "\\{.+(\\?(\\w+,?)+:.+)+\\}";
+	
+	/**
+	 * SQL中匹配所有特殊字符串(被'{}'包围的字符串)的映射位置的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static final String REGEXP_ALL = "\\{.*?\\}";
+	
+	/**
+	 * 数据库表名称的位置上可能出现的关键字, 不作为数据库表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Set<String> TABLE_NAME_KEYWORDS = new HashSet<String>(Arrays.asList(
+			"LEFT", "RIGHT", "INNER", "OUTER", "FULL", "CROSS", "NATURAL", "LATERAL", "ONLY", "STRAIGHT_JOIN"));
+	
+	/**
+	 * 结束FROM之后逗号分隔的表列表的关键字, 之后不是数据库表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Set<String> TABLE_LIST_END_KEYWORDS = new HashSet<String>(Arrays.asList(
+			"SELECT", "ON", "USING", "WHERE", "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "WINDOW",
+			"UNION", "EXCEPT", "INTERSECT", "SET", "FOR", "VALUES"));
+	
+	/**
+	 * 生成SQL使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 构造SQL映射器实例, 使用默认的MySQL方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlMapper() {
+		this(SqlDialect.MYSQL.instance());
+	}
+	
+	/**
+	 * 构造SQL映射器实例
+	 * 
+	 * @param dialect 生成SQL使用的方言, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlMapper(ISqlDialect dialect) {
+		if(dialect == null) {
+			throw new IllegalArgumentException("SQL映射器的方言不能为null");
+		}
+		this.dialect = dialect;
+	}
+	
+	@Override
+	public void map(ISqlMapContext mapContext, ISqlPart sqlPart) {
+		// 尝试 把待处理的SQL当做无类型的SQL成员, 全部类型尝试处理一次, 顺序为声明顺序
+		for(SqlMapStrategy strategy : SqlMapStrategy.values()) {
+			strategy.instance().handle(mapContext, sqlPart);
+		}
+	}
+	
+	@Override
+	public ISqlDialect getDialect() {
+		return this.dialect;
+	}
+	
+	/**
+	 * 映射键值对的实现
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static class SqlMapEntry implements ISqlMapEntry {
+
+		/**
+		 * 映射键的字符串, 是正则表达式字符串
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final String mapStr;
+		
+		/**
+		 * 包含映射的SQL内容的SQL成员
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final ISqlPart sqlPart;
+		
+		/**
+		 * 此映射是否可以重复, 有些映射做一次后失效
+		 * 
+		 * @author linjie
+		 * @since 1.0.3
+		 */
+		private boolean canRepeat = true;
+		
+		/**
+		 * 构造SQL映射关系实例
+		 * 
+		 * @param mapStr 映射键的字符串, 是正则表达式字符串
+		 * @param sqlPart 包含映射的SQL内容的SQL成员
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public SqlMapEntry(String mapStr, ISqlPart sqlPart) {
+			if(mapStr == null) {
+				throw new IllegalArgumentException("映射键值对中映射字符串(键)不能为null");
+			}
+			if(sqlPart == null) {
+				throw new IllegalArgumentException("映射键值对中包含映射的SQL内容的SQL成员(值)不能为null");
+			}
+			this.mapStr = mapStr;
+			this.sqlPart = sqlPart;
+		}
+		
+		@Override
+		public String getMapStr() {
+			return this.mapStr;
+		}
+
+		@Override
+		public ISqlPart getSqlPart() {
+			return this.sqlPart;
+		}
+
+		@Override
+		public boolean actMapping(StringBuilder rawSql) {
+			if(! this.canRepeat) {
+				return false;
+			}
+			boolean result = SqlMapper.findAndReplaceContentByRegExpStr(rawSql, 
+					this.mapStr, this.sqlPart.getContent().toString());
+			if(this.mapStr.startsWith("\\f") && result) {
+				this.canRepeat = false;
+				return result;
+			}
+			return result;
+		}
+		
+		
+	}
+	
+	/**
+	 * SQL映射处理
+	 * <br/>利用enum来单例, 同时减少类文件
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public enum SqlMapStrategy {
+		
+		/**
+		 * 静态占位符的映射处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		MAP_STATIC(new ISqlMapStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
+				String mapStr = sqlPart.getAssignedMapStr();
+				if(mapStr == null) {
+					return;
+				}
+				mapContext.addMapEntry(new SqlMapEntry(mapStr, sqlPart));
+			}
+		}),
+		
+		/**
+		 * 引用占位符的映射处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		MAP_REFRERENCE(new ISqlMapStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
+				// 冻结的搜索参数上下文按编号处理, 不需要正则匹配
+				if(mapContext instanceof SqlMapContext) {
+					SqlFrozenMapMetas frozen = ((SqlMapContext) mapContext).getFrozenMapMetas();
+					if(frozen != null) {
+						this.handleByIds((SqlMapContext) mapContext, frozen, sqlPart);
+						return;
+					}
+				}
+				StringBuilder sql = new StringBuilder(sqlPart.getContent());
+				Pattern pattern = Pattern.compile(SqlMapper.REGEXP_REFERENCE);
+				Matcher matcher = pattern.matcher(sql);
+				while(matcher.find()) {
+					String refrenceStr = sql.substring(matcher.start(), matcher.end());
+					String refrenceName = refrenceStr.replaceAll("[\\{\\#\\}]", "");
+					if(refrenceName.startsWith(":")) { /* 加上:仅用来提醒需要加入依赖, 本身这个位置不需要被映射 */
+						refrenceName = refrenceName.replaceAll(":", "");
+					}
+					// 先处理依赖
+					ISqlMapMeta mapMeta = mapContext.notifyHandleDependentMapMeta(sqlPart, refrenceName);
+					if(mapMeta == null) {
+						continue;
+					}
+					// 对包含的所有SQL内容生成映射键值对
+					for(ISqlPart includeSqlPart : mapMeta.getSqlParts()) {
+						// 如果是静态映射, 上下文已经加过, 要跳过处理
+						String mapStr = includeSqlPart.getAssignedMapStr();
+						if(mapStr != null) {
+							continue;
+						}
+						// 只会有一个
+						mapContext.addMapEntry(new SqlMapEntry(
+								this.formatRefrenceNameAsMapStr(refrenceName),
+								includeSqlPart));
+						break;
+					}
+				}
+			}
+			
+			/**
+			 * 按冻结时生成的编号处理引用占位符
+			 * 
+			 * @param mapContext 映射上下文
+			 * @param frozen 冻结后的映射元信息编号
+			 * @param sqlPart SQL成员
+			 * 
+			 * @author linjie
+			 * @since 1.0.4
+			 */
+			private void handleByIds(SqlMapContext mapContext, SqlFrozenMapMetas frozen, ISqlPart sqlPart) {
+				SqlReferences references = frozen.getReferences(sqlPart);
+				for(int i = 0; i < references.count; i ++) {
+					int id = references.ids[i];
+					String refrenceName = references.names[i];
+					// 先处理依赖, 不在冻结的映射元信息中的(临时映射元信息)按名称处理
+					ISqlMapMeta mapMeta = id != -1 ? mapContext.notifyHandleDependentMapMeta(sqlPart, id)
+							: mapContext.notifyHandleDependentMapMeta(sqlPart, refrenceName);
+					if(mapMeta == null) {
+						continue;
+					}
+					for(ISqlPart includeSqlPart : mapMeta.getSqlParts()) {
+						if(includeSqlPart.getAssignedMapStr() != null) {
+							continue;
+						}
+						mapContext.addMapEntry(new SqlMapEntry(id != -1 ? frozen.referenceMapStrs[id]
+								: this.formatRefrenceNameAsMapStr(refrenceName), includeSqlPart));
+						break;
+					}
+				}
+			}
+			
+			/**
+			 * 格式化引用名称为映射字符串
+			 * 
+			 * @param refrenceName 引用名称
+			 * @return 映射字符串
+			 * 
+			 * @author linjie
+			 * @since 1.0.0
+			 */
+			private String formatRefrenceNameAsMapStr(String refrenceName) {
+				return new StringBuilder("\\{#").append(refrenceName).append("\\}").toString();
+			}
+		}),
+		/**
+		 * 引用占位符的映射处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		MAP_IFDEPENDENT(new ISqlMapStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlPart sqlPart, Object...args) {
+				StringBuilder sql = sqlPart.getContent();
+				Pattern pattern = Pattern.compile(SqlMapper.REGEXP_SWITCHDEPENDENT);
+				Matcher matcher = pattern.matcher(sql);
+				while(matcher.find()) {
+					String switchesStr = sql.substring(matcher.start(), matcher.end());
+					String[] switchStrs = switchesStr.replaceAll("\\{|\\}", "").split("\\?");
+					String defaultStr = switchStrs[0];
+					String choiceStr = null;
+					for(int i = 1; i < switchStrs.length; i ++) {
+						String[] conditionAndContent = switchStrs[i].split(":");
+						String[] dependentNames = conditionAndContent[0].split(",");
+						boolean hasHandleDependency = false;
+						for(String dependentName : dependentNames) {
+							if(mapContext.hasHandleDependentMapMeta(dependentName)) {
+								hasHandleDependency = true;
+								break;
+							}
+						}
+						if(hasHandleDependency) {
+							choiceStr = conditionAndContent[1];
+							break;
+						}
+					}
+					if(choiceStr == null) {
+						choiceStr = defaultStr;
+					}
+					mapContext.addMapEntry(new SqlMapEntry(switchesStr, 
+							new SqlPart(null, new StringBuilder(choiceStr))));
+				}
+			}
+		});
+	
+		/**
+		 * 映射处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final ISqlMapStrategy strategy;
+		
+		/**
+		 * 内部构造器: 提供映射处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private SqlMapStrategy(ISqlMapStrategy strategy) {
+			this.strategy = strategy;
+		}
+		
+		/**
+		 * 获取映射处理器的实例
+		 * 
+		 * @return 映射处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public ISqlMapStrategy instance() {
+			return this.strategy;
+		}
+	}
+	
+	/**
+	 * 当没有对应的映射键值对时删除正则表达式匹配的字符串
+	 * 
+	 * @param sql SQL语句
+	 * @param regExpStr 目标正则表达式
+	 * @param entries 映射键值列表
+	 * @return SQL中是否找到了匹配的字符串, 是则返回<tt>true</tt>, 否则返回<tt>false</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static boolean wipeRegExpStrWhenNoMapEntries(StringBuilder sql,
+			String regExpStr, List<ISqlMapEntry> entries) {
+		if(entries == null || entries.isEmpty()) {
+			SqlMapper.findAndReplaceContentByRegExpStr(sql, regExpStr, "");
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 从表关联的SQL语句片段中提取数据库表名称
+	 * <br/> 片段可以直接以表名称开头, 例如: <code>t_user u LEFT JOIN t_order o ON o.uid = u.id</code>
+	 * 
+	 * @param tablesSql 表关联的SQL语句片段
+	 * @return 数据库表名称数组, 按出现顺序且不重复, 没有则返回空数组
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static String[] extractTableNames(String tablesSql) {
+		return SqlMapper.extractTableNames(tablesSql, true);
+	}
+	
+	/**
+	 * 从SQL语句片段中提取数据库表名称
+	 * <br/> 只取FROM和JOIN之后, 以及FROM之后逗号分隔的表列表中的名称, 包括括号中的子查询; 字符串常量和映射字符串中的内容被跳过.
+	 * 	支持带引号的名称(<code>`user`</code>, <code>"order"</code>, <code>[order]</code>), 返回去掉引号的名称, 带模式名称的用点号连接.
+	 * 
+	 * @param sql SQL语句片段
+	 * @param isTablesSql 片段是否为表关联的SQL语句片段, 是则开头的名称和逗号分隔的名称也作为数据库表名称;
+	 * 	查询字段或查询条件的片段为<tt>false</tt>, 只取其中子查询使用的表
+	 * @return 数据库表名称数组, 按出现顺序且不重复, 没有则返回空数组
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static String[] extractTableNames(String sql, boolean isTablesSql) {
+		if(sql == null || sql.trim().isEmpty()) {
+			return new String[0];
+		}
+		Set<String> tableNames = new LinkedHashSet<String>();
+		// 处于FROM之后表列表中的括号层级
+		BitSet tableListDepths = new BitSet();
+		if(isTablesSql) {
+			tableListDepths.set(0);
+		}
+		boolean isExpectingTable = isTablesSql;
+		int depth = 0;
+		int length = sql.length();
+		int i = 0;
+		while(i < length) {
+			char c = sql.charAt(i);
+			if(Character.isWhitespace(c)) {
+				i ++;
+			} else if(c == '\'' || c == '{') {
+				// 跳过字符串常量和映射字符串
+				int end = sql.indexOf(c == '{' ? '}' : '\'', i + 1);
+				i = end == -1 ? length : end + 1;
+				isExpectingTable = false;
+			} else if(c == '(') {
+				tableListDepths.clear(++ depth);
+				isExpectingTable = false;
+				i ++;
+			} else if(c == ')') {
+				tableListDepths.clear(depth);
+				depth = Math.max(depth - 1, 0);
+				isExpectingTable = false;
+				i ++;
+			} else if(c == ',') {
+				isExpectingTable = tableListDepths.get(depth);
+				i ++;
+			} else if(SqlMapper.isNameStart(c)) {
+				// 读取名称, 可能带引号和模式名称
+				StringBuilder name = new StringBuilder();
+				boolean isQuoted = false;
+				while(true) {
+					char nameChar = sql.charAt(i);
+					if(nameChar == '`' || nameChar == '"' || nameChar == '[') {
+						int end = sql.indexOf(nameChar == '[' ? ']' : nameChar, i + 1);
+						end = end == -1 ? length : end;
+						name.append(sql, i + 1, end);
+						i = Math.min(end + 1, length);
+						isQuoted = true;
+					} else {
+						int end = i + 1;
+						while(end < length && (Character.isLetterOrDigit(sql.charAt(end)) 
+								|| sql.charAt(end) == '_' || sql.charAt(end) == '$')) {
+							end ++;
+						}
+						name.append(sql, i, end);
+						i = end;
+					}
+					if(i + 1 >= length || sql.charAt(i) != '.' || ! SqlMapper.isNameStart(sql.charAt(i + 1))) {
+						break;
+					}
+					name.append('.');
+					i ++;
+				}
+				String upperName = isQuoted ? null : name.toString().toUpperCase();
+				if("FROM".equals(upperName) || "JOIN".equals(upperName)) {
+					if("FROM".equals(upperName)) {
+						tableListDepths.set(depth);
+					}
+					isExpectingTable = true;
+				} else if(upperName != null && SqlMapper.TABLE_LIST_END_KEYWORDS.contains(upperName)) {
+					tableListDepths.clear(depth);
+					isExpectingTable = false;
+				} else if(upperName == null || ! SqlMapper.TABLE_NAME_KEYWORDS.contains(upperName)) {
+					if(isExpectingTable) {
+						tableNames.add(name.toString());
+					}
+					isExpectingTable = false;
+				}
+			} else {
+				isExpectingTable = false;
+				i ++;
+			}
+		}
+		return tableNames.toArray(new String[tableNames.size()]);
+	}
+	
+	/**
+	 * 判断字符是否可以作为名称的开头, 包括引号
+	 * 
+	 * @param c 字符
+	 * @return 可以作为名称的开头返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static boolean isNameStart(char c) {
+		return Character.isLetter(c) || c == '_' || c == '`' || c == '"' || c == '[';
+	}
+	
+	/**
+	 * 在SQL中找到匹配正则表达式的内容并替换为目标内容
+	 * 
+	 * @param sql SQL语句
+	 * @param regExpStr 正则表达式
+	 * @param replaceBy 替换的内容
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static boolean findAndReplaceContentByRegExpStr(StringBuilder sql,
+			String regExpStr, String replaceBy) {
+		boolean isFirst = false;
+		if(regExpStr.startsWith("\\f")) {
+			regExpStr = regExpStr.replace("\\f", "");
+			isFirst = true;
+			if(sql.indexOf(replaceBy) != -1) {
+				return true;
+			}
+		}
+		Pattern pattern = Pattern.compile(regExpStr);
+		Matcher matcher = pattern.matcher(sql);
+		String result = null;
+		if(isFirst) {
+			result = matcher.replaceFirst(replaceBy);
+		} else {
+			result = matcher.replaceAll(replaceBy);
+		}
+		boolean hasReplaced = ! result.equals(sql.toString());
+		if(hasReplaced) {
+			sql.delete(0, sql.length());
+			sql.append(result);
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,323 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 名称表, 把一组固定的名称映射为从0开始的连续编号
+ * <br/> 构造时使用哈希和位移(CHD)生成最小完美哈希: 名称先按哈希分入与名称数量相同的桶, 从大到小为每个桶选取位移,
+ * 	使桶中的名称用位移作为种子再次哈希后落到互不冲突的空槽位; 只有一个名称的桶直接记录槽位. 槽位数量等于名称数量.
+ * <br/> 查找时最多计算两次哈希并逐字符比较一次, 不需要创建字符串; 可以直接查找字符序列中的一段, 适合解析时使用.
+ * 	构造后不可变, 可以被多个线程共用.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlNameTable {
+	
+	/**
+	 * 一个桶尝试的最大位移数量, 都冲突时更换分桶的哈希种子重新构造
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int MAX_DISPLACEMENT = 1 << 16;
+	
+	/**
+	 * 尝试的分桶哈希种子数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int SEED_ATTEMPTS = 64;
+	
+	/**
+	 * 名称数组, 下标即编号
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String[] names;
+	
+	/**
+	 * 每个桶的位移: 非负数为桶中名称再次哈希的种子, 负数为只有一个名称的桶直接记录的槽位(-槽位-1)
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int[] displacements;
+	
+	/**
+	 * 槽位对应的编号, 槽位数量等于名称数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int[] slots;
+	
+	/**
+	 * 分桶的哈希种子
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int seed;
+	
+	/**
+	 * 构造名称表
+	 * 
+	 * @param names 名称, 不能为null, 不能包含null; 按遍历顺序编号, 重复的名称只编号一次
+	 * @throws IllegalStateException 无法为名称生成完美哈希则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlNameTable(Collection<String> names) {
+		if(names == null) {
+			throw new IllegalArgumentException("名称表的名称不能为null");
+		}
+		Set<String> distinctNames = new LinkedHashSet<String>(names);
+		if(distinctNames.contains(null)) {
+			throw new IllegalArgumentException("名称表的名称不能包含null");
+		}
+		this.names = distinctNames.toArray(new String[distinctNames.size()]);
+		int size = Math.max(this.names.length, 1);
+		this.displacements = new int[size];
+		this.slots = new int[size];
+		// 依次尝试分桶的哈希种子, 直到每个桶都能找到位移
+		int seed = 0;
+		while(! this.tryBuild(seed)) {
+			if(++ seed >= SEED_ATTEMPTS) {
+				throw new IllegalStateException("无法为名称表生成完美哈希");
+			}
+		}
+		this.seed = seed;
+	}
+	
+	/**
+	 * 查找名称的编号
+	 * 
+	 * @param name 名称
+	 * @return 名称的编号, 不在表中或为null返回-1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getId(CharSequence name) {
+		return name == null ? -1 : this.getId(name, 0, name.length());
+	}
+	
+	/**
+	 * 查找字符序列中一段作为名称的编号
+	 * 
+	 * @param chars 字符序列, 不能为null
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @return 名称的编号, 不在表中返回-1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getId(CharSequence chars, int start, int end) {
+		if(this.names.length == 0) {
+			return -1;
+		}
+		int size = this.slots.length;
+		int displacement = this.displacements[SqlNameTable.indexOf(chars, start, end, this.seed, size)];
+		int id = this.slots[displacement < 0 ? - displacement - 1
+				: SqlNameTable.indexOf(chars, start, end, SqlNameTable.displacementSeed(displacement), size)];
+		String name = this.names[id];
+		if(name.length() != end - start) {
+			return -1;
+		}
+		for(int i = 0; i < name.length(); i ++) {
+			if(name.charAt(i) != chars.charAt(start + i)) {
+				return -1;
+			}
+		}
+		return id;
+	}
+	
+	/**
+	 * 获取编号对应的名称
+	 * 
+	 * @param id 编号
+	 * @return 名称, 即构造时传入的字符串实例
+	 * @throws IllegalArgumentException 编号超出范围则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getName(int id) {
+		if(id < 0 || id >= this.names.length) {
+			throw new IllegalArgumentException(String.format("名称表中没有编号为%d的名称", id));
+		}
+		return this.names[id];
+	}
+	
+	/**
+	 * 获取名称数量, 编号范围为[0, 名称数量)
+	 * 
+	 * @return 名称数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int size() {
+		return this.names.length;
+	}
+	
+	/**
+	 * 使用一个分桶的哈希种子生成位移和槽位
+	 * 
+	 * @param seed 分桶的哈希种子
+	 * @return 每个桶都找到位移返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private boolean tryBuild(int seed) {
+		int size = this.slots.length;
+		List<List<Integer>> buckets = new ArrayList<List<Integer>>(size);
+		for(int i = 0; i < size; i ++) {
+			buckets.add(new ArrayList<Integer>(2));
+		}
+		for(int id = 0; id < this.names.length; id ++) {
+			String name = this.names[id];
+			buckets.get(SqlNameTable.indexOf(name, 0, name.length(), seed, size)).add(id);
+		}
+		List<Integer> bucketIndexes = new ArrayList<Integer>(size);
+		for(int i = 0; i < size; i ++) {
+			bucketIndexes.add(i);
+		}
+		// 名称多的桶先选取位移, 此时空槽位最多
+		final List<List<Integer>> finalBuckets = buckets;
+		Collections.sort(bucketIndexes, new Comparator<Integer>() {
+			
+			@Override
+			public int compare(Integer one, Integer other) {
+				return finalBuckets.get(other).size() - finalBuckets.get(one).size();
+			}
+		});
+		Arrays.fill(this.displacements, 0);
+		Arrays.fill(this.slots, -1);
+		int[] bucketSlots = new int[size];
+		int nextFreeSlot = 0;
+		for(int bucketIndex : bucketIndexes) {
+			List<Integer> bucket = buckets.get(bucketIndex);
+			if(bucket.isEmpty()) {
+				break;
+			}
+			if(bucket.size() == 1) {
+				// 只有一个名称的桶直接放入下一个空槽位
+				while(this.slots[nextFreeSlot] != -1) {
+					nextFreeSlot ++;
+				}
+				this.slots[nextFreeSlot] = bucket.get(0);
+				this.displacements[bucketIndex] = - nextFreeSlot - 1;
+				continue;
+			}
+			int displacement = this.findDisplacement(bucket, bucketSlots);
+			if(displacement < 0) {
+				return false;
+			}
+			for(int i = 0; i < bucket.size(); i ++) {
+				this.slots[bucketSlots[i]] = bucket.get(i);
+			}
+			this.displacements[bucketIndex] = displacement;
+		}
+		return true;
+	}
+	
+	/**
+	 * 为有多个名称的桶选取位移, 使桶中的名称落到互不冲突的空槽位
+	 * 
+	 * @param bucket 桶中名称的编号
+	 * @param bucketSlots 用于返回桶中名称的槽位
+	 * @return 位移, 找不到返回-1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private int findDisplacement(List<Integer> bucket, int[] bucketSlots) {
+		int size = this.slots.length;
+		nextDisplacement:
+		for(int displacement = 0; displacement < MAX_DISPLACEMENT; displacement ++) {
+			int displacementSeed = SqlNameTable.displacementSeed(displacement);
+			for(int i = 0; i < bucket.size(); i ++) {
+				String name = this.names[bucket.get(i)];
+				int slot = SqlNameTable.indexOf(name, 0, name.length(), displacementSeed, size);
+				if(this.slots[slot] != -1) {
+					continue nextDisplacement;
+				}
+				for(int j = 0; j < i; j ++) {
+					if(bucketSlots[j] == slot) {
+						continue nextDisplacement;
+					}
+				}
+				bucketSlots[i] = slot;
+			}
+			return displacement;
+		}
+		return -1;
+	}
+	
+	/**
+	 * 获取位移对应的哈希种子, 与分桶的哈希种子错开
+	 * 
+	 * @param displacement 位移
+	 * @return 哈希种子
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int displacementSeed(int displacement) {
+		return ~ displacement;
+	}
+	
+	/**
+	 * 计算字符序列中一段在指定大小的数组中的下标
+	 * 
+	 * @param chars 字符序列
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param seed 哈希种子
+	 * @param size 数组大小
+	 * @return 下标
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int indexOf(CharSequence chars, int start, int end, int seed, int size) {
+		// 把32位无符号的哈希值按比例缩放到[0, size), 用乘法和位移代替取余
+		return (int) (((SqlNameTable.hash(chars, start, end, seed) & 0xFFFFFFFFL) * size) >>> 32);
+	}
+	
+	/**
+	 * 计算字符序列中一段的哈希值(带种子的FNV-1a, 最后混合高位)
+	 * 
+	 * @param chars 字符序列
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param seed 哈希种子
+	 * @return 哈希值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int hash(CharSequence chars, int start, int end, int seed) {
+		int h = 0x811C9DC5 ^ (seed * 0x9E3779B9);
+		for(int i = start; i < end; i ++) {
+			h = (h ^ chars.charAt(i)) * 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		return h ^ (h >>> 13);
+	}
+}
@@ -0,0 +1,896 @@
+package com.fy.sqlparam.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlResultCache;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.impl.SqlExecutor.SqlRow;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 堆外的SQL查询结果缓存实现
+ * <br/> 只缓存{@link SqlRow}的结果列表, 结果行以紧凑的二进制格式保存在堆外的{@link ByteBuffer}分块中,
+ * 	读取时按行延迟解码, 大的结果集不会长期占用Java堆.
+ * <br/> 结果的键包含结果行映射器实例, 只有缓存时使用的映射器实例才能读取到对应的结果.
+ * <br/> 分块按固定大小从堆外申请, 每个分块切分为同一规格(2的幂)的存储块, 分块中的存储块全部释放后可被其它规格重用.
+ * 	总容量超出时淘汰最久未使用的结果.
+ * <br/> 读取得到的结果列表在对应结果被淘汰或失效后不能再读取, 会抛出{@link IllegalStateException},
+ * 	需要长期持有时应复制为普通列表.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlOffHeapResultCache implements ISqlResultCache {
+	
+	/**
+	 * 编码字符串使用的字符集
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	/**
+	 * 最小的存储块大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int MIN_CHUNK_SIZE = 64;
+	
+	/**
+	 * 一个分块的大小, 也是能缓存的单个结果的最大编码大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int slabSize;
+	
+	/**
+	 * 最多申请的分块数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxSlabs;
+	
+	/**
+	 * 已申请的分块数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private int allocatedSlabCount;
+	
+	/**
+	 * 已申请但未分配规格的分块
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Deque<ByteBuffer> freeSlabBuffers = new ArrayDeque<ByteBuffer>();
+	
+	/**
+	 * 按存储块规格分组的还有空闲存储块的分块, key是存储块大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Map<Integer, Deque<Slab>> availableSlabs = new HashMap<Integer, Deque<Slab>>();
+	
+	/**
+	 * 缓存的结果, 按访问顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final LinkedHashMap<SqlMapResultKey, Entry> entries =
+			new LinkedHashMap<SqlMapResultKey, Entry>(16, 0.75f, true);
+	
+	/**
+	 * 数据库表索引, key是小写的数据库表名称, value是使用了该表的结果的键
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Map<String, Set<SqlMapResultKey>> tableIndex = new HashMap<String, Set<SqlMapResultKey>>();
+	
+	/**
+	 * 已使用的存储块的总大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long usedBytes;
+	
+	/**
+	 * 发生失效的次数, 用于判断执行期间是否发生过失效
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long invalidationCount;
+	
+	/**
+	 * 因类型不支持或超出单个结果大小而未缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long rejectedCount;
+	
+	/**
+	 * 构造堆外的SQL查询结果缓存实例
+	 * 
+	 * @param maxBytes 最多使用的堆外内存大小, 单位字节, 不能小于分块的大小
+	 * @param slabSize 一个分块的大小, 单位字节, 也是能缓存的单个结果的最大编码大小, 不能小于64
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlOffHeapResultCache(long maxBytes, int slabSize) {
+		if(slabSize < MIN_CHUNK_SIZE) {
+			throw new IllegalArgumentException(String.format("堆外缓存的分块大小不能小于%d", MIN_CHUNK_SIZE));
+		}
+		if(maxBytes < slabSize) {
+			throw new IllegalArgumentException("堆外缓存的总容量不能小于分块的大小");
+		}
+		this.slabSize = SqlOffHeapResultCache.floorPowerOfTwo(slabSize);
+		this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, maxBytes / this.slabSize);
+	}
+	
+	@Override
+	public synchronized <T> List<T> get(ISqlMapResult mapResult) {
+		return this.get(mapResult, null);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized <T> List<T> get(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) {
+		Entry entry = this.entries.get(SqlMapResultKey.of(mapResult, rowMapper));
+		if(entry == null) {
+			return null;
+		}
+		return (List<T>) new OffHeapRows(entry);
+	}
+	
+	@Override
+	public synchronized void put(ISqlMapResult mapResult, List<?> rows) {
+		this.put(mapResult, null, rows);
+	}
+	
+	@Override
+	public synchronized void put(ISqlMapResult mapResult, ISqlRowMapper<?> rowMapper, List<?> rows) {
+		if(rows == null) {
+			throw new IllegalArgumentException("缓存的结果列表不能为null");
+		}
+		SqlMapResultKey key = SqlMapResultKey.of(mapResult, rowMapper);
+		this.remove(key);
+		byte[] encoded = SqlOffHeapResultCache.encodeRows(rows);
+		if(encoded == null || encoded.length > this.slabSize) {
+			this.rejectedCount ++;
+			return;
+		}
+		Entry entry = this.allocate(encoded.length, mapResult.getTableNames());
+		if(entry == null) {
+			this.rejectedCount ++;
+			return;
+		}
+		ByteBuffer buffer = entry.buffer.duplicate();
+		buffer.put(encoded);
+		this.entries.put(key, entry);
+		for(String tableName : entry.tableNames) {
+			String indexName = tableName.toLowerCase();
+			Set<SqlMapResultKey> keys = this.tableIndex.get(indexName);
+			if(keys == null) {
+				keys = new HashSet<SqlMapResultKey>();
+				this.tableIndex.put(indexName, keys);
+			}
+			keys.add(key);
+		}
+	}
+	
+	@Override
+	public <T> List<T> query(ISqlExecutor executor, ISqlMapResult mapResult,
+			ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(executor == null) {
+			throw new IllegalArgumentException("执行查询的SQL执行器不能为null");
+		}
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		long lastInvalidationCount;
+		synchronized(this) {
+			List<T> rows = this.get(mapResult, rowMapper);
+			if(rows != null) {
+				return rows;
+			}
+			lastInvalidationCount = this.invalidationCount;
+		}
+		List<T> rows = executor.query(mapResult, rowMapper);
+		synchronized(this) {
+			// 执行期间发生过失效, 结果可能已经过期, 不缓存
+			if(lastInvalidationCount == this.invalidationCount) {
+				this.put(mapResult, rowMapper, rows);
+			}
+		}
+		return rows;
+	}
+	
+	@Override
+	public synchronized int invalidate(String tableName) {
+		if(tableName == null) {
+			return 0;
+		}
+		this.invalidationCount ++;
+		Set<SqlMapResultKey> keys = this.tableIndex.get(tableName.toLowerCase());
+		if(keys == null) {
+			return 0;
+		}
+		int count = 0;
+		for(SqlMapResultKey key : keys.toArray(new SqlMapResultKey[keys.size()])) {
+			if(this.remove(key)) {
+				count ++;
+			}
+		}
+		return count;
+	}
+	
+	@Override
+	public synchronized void invalidateAll() {
+		this.invalidationCount ++;
+		for(SqlMapResultKey key : this.entries.keySet().toArray(new SqlMapResultKey[this.entries.size()])) {
+			this.remove(key);
+		}
+	}
+	
+	@Override
+	public synchronized int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * 获取已使用的存储块的总大小
+	 * 
+	 * @return 已使用的存储块的总大小, 单位字节
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getUsedBytes() {
+		return this.usedBytes;
+	}
+	
+	/**
+	 * 获取已申请的堆外内存大小
+	 * 
+	 * @return 已申请的堆外内存大小, 单位字节
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getAllocatedBytes() {
+		return (long) this.allocatedSlabCount * this.slabSize;
+	}
+	
+	/**
+	 * 获取因类型不支持或超出单个结果大小而未缓存的次数
+	 * 
+	 * @return 未缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getRejectedCount() {
+		return this.rejectedCount;
+	}
+	
+	/**
+	 * 值的类型标记
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final byte TAG_NULL = 0, TAG_TRUE = 1, TAG_FALSE = 2, TAG_INT = 3, TAG_LONG = 4,
+			TAG_SHORT = 5, TAG_BYTE = 6, TAG_DOUBLE = 7, TAG_FLOAT = 8, TAG_STRING = 9, TAG_BYTES = 10,
+			TAG_BIG_DECIMAL = 11, TAG_BIG_INTEGER = 12, TAG_SQL_DATE = 13, TAG_SQL_TIME = 14,
+			TAG_SQL_TIMESTAMP = 15, TAG_DATE = 16;
+	
+	/**
+	 * 分块, 切分为同一规格的存储块
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class Slab {
+		
+		/**
+		 * 分块的堆外内存
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ByteBuffer buffer;
+		
+		/**
+		 * 存储块大小
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int chunkSize;
+		
+		/**
+		 * 空闲的存储块的偏移
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Deque<Integer> freeOffsets = new ArrayDeque<Integer>();
+		
+		private Slab(ByteBuffer buffer, int chunkSize) {
+			this.buffer = buffer;
+			this.chunkSize = chunkSize;
+			for(int offset = 0; offset + chunkSize <= buffer.capacity(); offset += chunkSize) {
+				this.freeOffsets.add(Integer.valueOf(offset));
+			}
+		}
+		
+		/**
+		 * 是否所有存储块都空闲
+		 * 
+		 * @return 所有存储块都空闲返回<tt>true</tt>
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private boolean isEmpty() {
+			return this.freeOffsets.size() * this.chunkSize + this.chunkSize > this.buffer.capacity();
+		}
+	}
+	
+	/**
+	 * 缓存的结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class Entry {
+		
+		/**
+		 * 所在的分块
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Slab slab;
+		
+		/**
+		 * 在分块中的偏移
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int offset;
+		
+		/**
+		 * 存储块的视图, 只使用绝对位置或副本读取
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ByteBuffer buffer;
+		
+		/**
+		 * 结果使用的数据库表名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Set<String> tableNames;
+		
+		/**
+		 * 存储块是否已经释放
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private volatile boolean released;
+		
+		private Entry(Slab slab, int offset, Set<String> tableNames) {
+			this.slab = slab;
+			this.offset = offset;
+			this.tableNames = tableNames;
+			ByteBuffer view = slab.buffer.duplicate();
+			view.position(offset);
+			view.limit(offset + slab.chunkSize);
+			this.buffer = view.slice();
+		}
+	}
+	
+	/**
+	 * 延迟解码的结果列表
+	 * <br/> 编码格式: 列数量, 列名称, 行数量, 每行的偏移表, 按行顺序的值(类型标记+内容).
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class OffHeapRows extends AbstractList<SqlRow> implements RandomAccess {
+		
+		/**
+		 * 缓存的结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Entry entry;
+		
+		/**
+		 * 列名称数组, 所有行共用
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final String[] columnLabels;
+		
+		/**
+		 * 行数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int rowCount;
+		
+		/**
+		 * 行偏移表的位置
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int rowOffsetsPosition;
+		
+		private OffHeapRows(Entry entry) {
+			this.entry = entry;
+			ByteBuffer buffer = entry.buffer.duplicate();
+			this.columnLabels = new String[SqlOffHeapResultCache.readLength(buffer, 1)];
+			for(int i = 0; i < this.columnLabels.length; i ++) {
+				this.columnLabels[i] = SqlOffHeapResultCache.readString(buffer);
+			}
+			this.rowCount = SqlOffHeapResultCache.readLength(buffer, 4);
+			this.rowOffsetsPosition = buffer.position();
+		}
+		
+		@Override
+		public SqlRow get(int index) {
+			if(index < 0 || index >= this.rowCount) {
+				throw new IndexOutOfBoundsException(String.format("行索引%d超出范围, 行数量为%d", index, this.rowCount));
+			}
+			this.checkNotReleased();
+			Object[] values = new Object[this.columnLabels.length];
+			try {
+				ByteBuffer buffer = this.entry.buffer.duplicate();
+				buffer.position(buffer.getInt(this.rowOffsetsPosition + index * 4));
+				for(int i = 0; i < values.length; i ++) {
+					values[i] = SqlOffHeapResultCache.readValue(buffer);
+				}
+			} catch (RuntimeException e) {
+				this.checkNotReleased();
+				throw e;
+			}
+			// 解码期间存储块可能被释放重用, 长度都按存储块剩余大小校验, 解码后再检查一次
+			this.checkNotReleased();
+			return new SqlRow(this.columnLabels, values);
+		}
+		
+		@Override
+		public int size() {
+			return this.rowCount;
+		}
+		
+		/**
+		 * 检查存储块没有被释放
+		 * 
+		 * @throws IllegalStateException 已释放则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void checkNotReleased() {
+			if(this.entry.released) {
+				throw new IllegalStateException("堆外缓存的结果已被淘汰或失效, 不能再读取");
+			}
+		}
+	}
+	
+	/**
+	 * 可增长的编码缓冲区
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class Encoder {
+		
+		/**
+		 * 编码内容
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private byte[] bytes = new byte[256];
+		
+		/**
+		 * 已写入的长度
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private int length;
+		
+		private void ensure(int more) {
+			if(this.length + more > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + more));
+			}
+		}
+		
+		private void writeByte(int b) {
+			this.ensure(1);
+			this.bytes[this.length ++] = (byte) b;
+		}
+		
+		private void writeInt(int position, int value) {
+			this.bytes[position] = (byte) (value >>> 24);
+			this.bytes[position + 1] = (byte) (value >>> 16);
+			this.bytes[position + 2] = (byte) (value >>> 8);
+			this.bytes[position + 3] = (byte) value;
+		}
+		
+		private void writeVarLong(long value) {
+			while((value & ~0x7FL) != 0) {
+				this.writeByte((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			this.writeByte((int) value);
+		}
+		
+		private void writeZigZag(long value) {
+			this.writeVarLong((value << 1) ^ (value >> 63));
+		}
+		
+		private void writeBytes(byte[] value) {
+			this.writeVarLong(value.length);
+			this.ensure(value.length);
+			System.arraycopy(value, 0, this.bytes, this.length, value.length);
+			this.length += value.length;
+		}
+		
+		private void writeString(String value) {
+			this.writeBytes(value.getBytes(UTF_8));
+		}
+	}
+	
+	/**
+	 * 编码结果列表
+	 * 
+	 * @param rows 结果列表
+	 * @return 编码内容, 结果不是{@link SqlRow}列表或包含不支持的值类型时返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static byte[] encodeRows(List<?> rows) {
+		Encoder encoder = new Encoder();
+		String[] columnLabels = new String[0];
+		if(! rows.isEmpty()) {
+			if(! (rows.get(0) instanceof SqlRow)) {
+				return null;
+			}
+			SqlRow firstRow = (SqlRow) rows.get(0);
+			columnLabels = new String[firstRow.getColumnCount()];
+			for(int i = 0; i < columnLabels.length; i ++) {
+				columnLabels[i] = firstRow.getColumnLabel(i);
+			}
+		}
+		encoder.writeVarLong(columnLabels.length);
+		for(String columnLabel : columnLabels) {
+			encoder.writeString(columnLabel);
+		}
+		encoder.writeVarLong(rows.size());
+		// 预留行偏移表
+		int rowOffsetsPosition = encoder.length;
+		encoder.ensure(rows.size() * 4);
+		encoder.length += rows.size() * 4;
+		int rowIndex = 0;
+		for(Object row : rows) {
+			if(! (row instanceof SqlRow) || ((SqlRow) row).getColumnCount() != columnLabels.length) {
+				return null;
+			}
+			encoder.writeInt(rowOffsetsPosition + rowIndex * 4, encoder.length);
+			SqlRow sqlRow = (SqlRow) row;
+			for(int i = 0; i < columnLabels.length; i ++) {
+				if(! SqlOffHeapResultCache.writeValue(encoder, sqlRow.get(i))) {
+					return null;
+				}
+			}
+			rowIndex ++;
+		}
+		return Arrays.copyOf(encoder.bytes, encoder.length);
+	}
+	
+	/**
+	 * 编码一个值
+	 * 
+	 * @param encoder 编码缓冲区
+	 * @param value 值
+	 * @return 是否支持该值的类型
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static boolean writeValue(Encoder encoder, Object value) {
+		if(value == null) {
+			encoder.writeByte(TAG_NULL);
+		} else if(value instanceof Boolean) {
+			encoder.writeByte(((Boolean) value).booleanValue() ? TAG_TRUE : TAG_FALSE);
+		} else if(value instanceof Integer) {
+			encoder.writeByte(TAG_INT);
+			encoder.writeZigZag(((Integer) value).intValue());
+		} else if(value instanceof Long) {
+			encoder.writeByte(TAG_LONG);
+			encoder.writeZigZag(((Long) value).longValue());
+		} else if(value instanceof Short) {
+			encoder.writeByte(TAG_SHORT);
+			encoder.writeZigZag(((Short) value).shortValue());
+		} else if(value instanceof Byte) {
+			encoder.writeByte(TAG_BYTE);
+			encoder.writeByte(((Byte) value).byteValue());
+		} else if(value instanceof Double) {
+			encoder.writeByte(TAG_DOUBLE);
+			encoder.writeVarLong(Long.reverseBytes(Double.doubleToRawLongBits(((Double) value).doubleValue())));
+		} else if(value instanceof Float) {
+			encoder.writeByte(TAG_FLOAT);
+			encoder.writeVarLong(Integer.reverseBytes(Float.floatToRawIntBits(((Float) value).floatValue())) & 0xFFFFFFFFL);
+		} else if(value instanceof String) {
+			encoder.writeByte(TAG_STRING);
+			encoder.writeString((String) value);
+		} else if(value instanceof byte[]) {
+			encoder.writeByte(TAG_BYTES);
+			encoder.writeBytes((byte[]) value);
+		} else if(value instanceof BigDecimal) {
+			encoder.writeByte(TAG_BIG_DECIMAL);
+			encoder.writeZigZag(((BigDecimal) value).scale());
+			encoder.writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+		} else if(value instanceof BigInteger) {
+			encoder.writeByte(TAG_BIG_INTEGER);
+			encoder.writeBytes(((BigInteger) value).toByteArray());
+		} else if(value instanceof java.sql.Date) {
+			encoder.writeByte(TAG_SQL_DATE);
+			encoder.writeZigZag(((java.sql.Date) value).getTime());
+		} else if(value instanceof java.sql.Time) {
+			encoder.writeByte(TAG_SQL_TIME);
+			encoder.writeZigZag(((java.sql.Time) value).getTime());
+		} else if(value instanceof java.sql.Timestamp) {
+			encoder.writeByte(TAG_SQL_TIMESTAMP);
+			encoder.writeZigZag(((java.sql.Timestamp) value).getTime());
+			encoder.writeVarLong(((java.sql.Timestamp) value).getNanos());
+		} else if(value.getClass() == java.util.Date.class) {
+			encoder.writeByte(TAG_DATE);
+			encoder.writeZigZag(((java.util.Date) value).getTime());
+		} else {
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * 解码一个值
+	 * 
+	 * @param buffer 已定位到值的缓冲区
+	 * @return 值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Object readValue(ByteBuffer buffer) {
+		byte tag = buffer.get();
+		switch(tag) {
+		case TAG_NULL:
+			return null;
+		case TAG_TRUE:
+			return Boolean.TRUE;
+		case TAG_FALSE:
+			return Boolean.FALSE;
+		case TAG_INT:
+			return Integer.valueOf((int) SqlOffHeapResultCache.readZigZag(buffer));
+		case TAG_LONG:
+			return Long.valueOf(SqlOffHeapResultCache.readZigZag(buffer));
+		case TAG_SHORT:
+			return Short.valueOf((short) SqlOffHeapResultCache.readZigZag(buffer));
+		case TAG_BYTE:
+			return Byte.valueOf(buffer.get());
+		case TAG_DOUBLE:
+			return Double.valueOf(Double.longBitsToDouble(Long.reverseBytes(SqlOffHeapResultCache.readVarLong(buffer))));
+		case TAG_FLOAT:
+			return Float.valueOf(Float.intBitsToFloat(Integer.reverseBytes((int) SqlOffHeapResultCache.readVarLong(buffer))));
+		case TAG_STRING:
+			return SqlOffHeapResultCache.readString(buffer);
+		case TAG_BYTES:
+			return SqlOffHeapResultCache.readBytes(buffer);
+		case TAG_BIG_DECIMAL:
+			int scale = (int) SqlOffHeapResultCache.readZigZag(buffer);
+			return new BigDecimal(new BigInteger(SqlOffHeapResultCache.readBytes(buffer)), scale);
+		case TAG_BIG_INTEGER:
+			return new BigInteger(SqlOffHeapResultCache.readBytes(buffer));
+		case TAG_SQL_DATE:
+			return new java.sql.Date(SqlOffHeapResultCache.readZigZag(buffer));
+		case TAG_SQL_TIME:
+			return new java.sql.Time(SqlOffHeapResultCache.readZigZag(buffer));
+		case TAG_SQL_TIMESTAMP:
+			java.sql.Timestamp timestamp = new java.sql.Timestamp(SqlOffHeapResultCache.readZigZag(buffer));
+			timestamp.setNanos((int) SqlOffHeapResultCache.readVarLong(buffer));
+			return timestamp;
+		case TAG_DATE:
+			return new java.util.Date(SqlOffHeapResultCache.readZigZag(buffer));
+		default:
+			throw new IllegalStateException(String.format("无法识别的值类型标记%d", tag));
+		}
+	}
+	
+	private static long readVarLong(ByteBuffer buffer) {
+		long result = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			result |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IllegalStateException("堆外缓存的变长整数编码过长");
+	}
+	
+	/**
+	 * 读取长度或数量, 并按存储块剩余的大小校验, 存储块被重用时不会按错误的长度申请数组
+	 * 
+	 * @param buffer 已定位到长度的缓冲区
+	 * @param unitBytes 每个单位至少占用的字节数
+	 * @return 长度或数量
+	 * @throws IllegalStateException 超出存储块剩余的大小则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int readLength(ByteBuffer buffer, int unitBytes) {
+		long length = SqlOffHeapResultCache.readVarLong(buffer);
+		if(length < 0 || length > buffer.remaining() / unitBytes) {
+			throw new IllegalStateException(String.format("堆外缓存的编码长度%d超出存储块剩余的%d字节", length, buffer.remaining()));
+		}
+		return (int) length;
+	}
+	
+	private static long readZigZag(ByteBuffer buffer) {
+		long value = SqlOffHeapResultCache.readVarLong(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	private static byte[] readBytes(ByteBuffer buffer) {
+		byte[] bytes = new byte[SqlOffHeapResultCache.readLength(buffer, 1)];
+		buffer.get(bytes);
+		return bytes;
+	}
+	
+	private static String readString(ByteBuffer buffer) {
+		return new String(SqlOffHeapResultCache.readBytes(buffer), UTF_8);
+	}
+	
+	/**
+	 * 为编码内容分配一个存储块, 空间不足时淘汰最久未使用的结果
+	 * 
+	 * @param length 编码内容的长度
+	 * @param tableNames 结果使用的数据库表名称
+	 * @return 缓存的结果, 无法分配时返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private Entry allocate(int length, Set<String> tableNames) {
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, SqlOffHeapResultCache.ceilPowerOfTwo(length));
+		Integer chunkSizeKey = Integer.valueOf(chunkSize);
+		while(true) {
+			// 同规格的分块中有空闲的存储块
+			Deque<Slab> slabs = this.availableSlabs.get(chunkSizeKey);
+			if(slabs != null && ! slabs.isEmpty()) {
+				Slab slab = slabs.peekFirst();
+				int offset = slab.freeOffsets.pollFirst().intValue();
+				if(slab.freeOffsets.isEmpty()) {
+					slabs.pollFirst();
+				}
+				this.usedBytes += chunkSize;
+				return new Entry(slab, offset, tableNames);
+			}
+			// 使用空闲的分块或申请新的分块
+			ByteBuffer slabBuffer = this.freeSlabBuffers.pollFirst();
+			if(slabBuffer == null && this.allocatedSlabCount < this.maxSlabs) {
+				slabBuffer = ByteBuffer.allocateDirect(this.slabSize);
+				this.allocatedSlabCount ++;
+			}
+			if(slabBuffer != null) {
+				if(slabs == null) {
+					slabs = new LinkedList<Slab>();
+					this.availableSlabs.put(chunkSizeKey, slabs);
+				}
+				slabs.addFirst(new Slab(slabBuffer, chunkSize));
+				continue;
+			}
+			// 淘汰最久未使用的结果后重试
+			if(this.entries.isEmpty()) {
+				return null;
+			}
+			this.remove(this.entries.keySet().iterator().next());
+		}
+	}
+	
+	/**
+	 * 移除缓存的结果并释放其存储块
+	 * 
+	 * @param key 结果的键
+	 * @return 是否存在并移除了该结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private boolean remove(SqlMapResultKey key) {
+		Entry entry = this.entries.remove(key);
+		if(entry == null) {
+			return false;
+		}
+		entry.released = true;
+		for(String tableName : entry.tableNames) {
+			String indexName = tableName.toLowerCase();
+			Set<SqlMapResultKey> keys = this.tableIndex.get(indexName);
+			if(keys == null) {
+				continue;
+			}
+			keys.remove(key);
+			if(keys.isEmpty()) {
+				this.tableIndex.remove(indexName);
+			}
+		}
+		// 归还存储块, 分块全部空闲时归还分块以便其它规格重用
+		Slab slab = entry.slab;
+		Deque<Slab> slabs = this.availableSlabs.get(Integer.valueOf(slab.chunkSize));
+		if(slab.freeOffsets.isEmpty()) {
+			slabs.addLast(slab);
+		}
+		slab.freeOffsets.addFirst(Integer.valueOf(entry.offset));
+		this.usedBytes -= slab.chunkSize;
+		if(slab.isEmpty()) {
+			slabs.remove(slab);
+			slab.buffer.clear();
+			this.freeSlabBuffers.addFirst(slab.buffer);
+		}
+		return true;
+	}
+	
+	private static int ceilPowerOfTwo(int value) {
+		int highest = Integer.highestOneBit(value);
+		return highest == value ? value : highest << 1;
+	}
+	
+	private static int floorPowerOfTwo(int value) {
+		return Integer.highestOneBit(value);
+	}
+}
@@ -0,0 +1,147 @@
+package com.fy.sqlparam.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分页查询的结果, 包括当前页的结果列表和满足条件的总数量
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlPage<T> {
+	
+	/**
+	 * 当前页的结果列表, 不可修改
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final List<T> rows;
+	
+	/**
+	 * 满足条件的总数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final long total;
+	
+	/**
+	 * 第几页, 从1开始
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int page;
+	
+	/**
+	 * 一页包含的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int count;
+	
+	/**
+	 * 构造分页查询的结果
+	 * 
+	 * @param rows 当前页的结果列表, 不能为null
+	 * @param total 满足条件的总数量
+	 * @param page 第几页, 从1开始
+	 * @param count 一页包含的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPage(List<T> rows, long total, int page, int count) {
+		if(rows == null) {
+			throw new IllegalArgumentException("分页查询的结果列表不能为null");
+		}
+		this.rows = Collections.unmodifiableList(rows);
+		this.total = total;
+		this.page = page;
+		this.count = count;
+	}
+	
+	/**
+	 * 获取当前页的结果列表
+	 * 
+	 * @return 当前页的结果列表, 不可修改
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public List<T> getRows() {
+		return this.rows;
+	}
+	
+	/**
+	 * 获取满足条件的总数量
+	 * 
+	 * @return 总数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+	
+	/**
+	 * 获取第几页
+	 * 
+	 * @return 第几页, 从1开始
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getPage() {
+		return this.page;
+	}
+	
+	/**
+	 * 获取一页包含的数量
+	 * 
+	 * @return 一页包含的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getCount() {
+		return this.count;
+	}
+	
+	/**
+	 * 获取总页数
+	 * 
+	 * @return 总页数, 一页包含的数量为0时返回0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getTotalPages() {
+		if(this.count <= 0) {
+			return 0;
+		}
+		return (this.total + this.count - 1) / this.count;
+	}
+	
+	/**
+	 * 是否还有下一页
+	 * 
+	 * @return 有下一页返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public boolean hasNextPage() {
+		return this.page < this.getTotalPages();
+	}
+	
+	@Override
+	public String toString() {
+		return new StringBuilder("page ").append(this.page).append("/").append(this.getTotalPages())
+				.append(", total ").append(this.total).append(", rows ").append(this.rows).toString();
+	}
+}
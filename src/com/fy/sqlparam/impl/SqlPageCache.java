@@ -0,0 +1,314 @@
+package com.fy.sqlparam.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 预取分页结果的缓存
+ * <br/> 按当前页查询的映射结果(SQL语句和参数对象)缓存提前查询的分页结果, 容量有限且只在存活时间内有效.
+ * <br/> 缓存的可以是还在执行的预取, 命中时最多等待指定的时间, 超时按未命中处理; 每个结果只使用一次, 命中后即移除.
+ * <br/> 被淘汰, 替换, 过期或等待超时的预取会被取消({@link CompletableFuture#cancel(boolean)}), 预取方可以据此停止执行.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlPageCache {
+	
+	/**
+	 * 最多缓存的分页结果数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxPages;
+	
+	/**
+	 * 缓存的存活时间, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final long ttlNanos;
+	
+	/**
+	 * 取出时等待还在执行的预取的最长时间, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final long waitNanos;
+	
+	/**
+	 * 缓存的分页结果, 按放入顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final LinkedHashMap<SqlMapResultKey, CacheEntry> entries;
+	
+	/**
+	 * 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long hitCount;
+	
+	/**
+	 * 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long missCount;
+	
+	/**
+	 * 构造预取分页结果的缓存实例, 取出时最多等待预取的时间与存活时间相同
+	 * 
+	 * @param maxPages 最多缓存的分页结果数量, 不能小于1
+	 * @param ttlMillis 缓存的存活时间, 单位毫秒, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPageCache(int maxPages, long ttlMillis) {
+		this(maxPages, ttlMillis, ttlMillis);
+	}
+	
+	/**
+	 * 构造预取分页结果的缓存实例
+	 * 
+	 * @param maxPages 最多缓存的分页结果数量, 不能小于1
+	 * @param ttlMillis 缓存的存活时间, 单位毫秒, 不能小于1
+	 * @param waitMillis 取出时等待还在执行的预取的最长时间, 单位毫秒, 不能小于0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPageCache(int maxPages, long ttlMillis, long waitMillis) {
+		if(maxPages < 1) {
+			throw new IllegalArgumentException("预取分页结果缓存的容量不能小于1");
+		}
+		if(ttlMillis < 1) {
+			throw new IllegalArgumentException("预取分页结果缓存的存活时间不能小于1毫秒");
+		}
+		if(waitMillis < 0) {
+			throw new IllegalArgumentException("预取分页结果缓存的等待时间不能小于0");
+		}
+		this.maxPages = maxPages;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+		this.entries = new LinkedHashMap<SqlMapResultKey, CacheEntry>() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SqlMapResultKey, CacheEntry> eldest) {
+				if(this.size() <= SqlPageCache.this.maxPages) {
+					return false;
+				}
+				eldest.getValue().page.cancel(false);
+				return true;
+			}
+		};
+	}
+	
+	/**
+	 * 取出当前页查询的预取结果, 还在执行时最多等待构造时指定的时间, 超时则取消预取
+	 * 
+	 * @param pageResult 当前页查询的映射结果, 不能为null
+	 * @param rowMapper 结果行映射器, 需要与预取时使用的是同一个
+	 * @return 预取的分页结果, 没有缓存, 已过期, 等待超时或预取失败时返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> SqlPage<T> take(ISqlMapResult pageResult, ISqlRowMapper<T> rowMapper) {
+		SqlMapResultKey key = SqlMapResultKey.of(pageResult);
+		CacheEntry entry;
+		synchronized(this) {
+			entry = this.entries.get(key);
+			if(entry == null || entry.rowMapper != rowMapper) {
+				this.missCount ++;
+				return null;
+			}
+			this.entries.remove(key);
+			if(System.nanoTime() - entry.createNanos > this.ttlNanos) {
+				entry.page.cancel(false);
+				this.missCount ++;
+				return null;
+			}
+		}
+		SqlPage<T> page;
+		try {
+			page = (SqlPage<T>) entry.page.get(this.waitNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			page = null;
+		} catch (TimeoutException e) {
+			entry.page.cancel(false);
+			page = null;
+		} catch (ExecutionException | RuntimeException e) {
+			page = null; /* 包括预取已被取消 */
+		}
+		synchronized(this) {
+			if(page == null) {
+				this.missCount ++;
+			} else {
+				this.hitCount ++;
+			}
+		}
+		return page;
+	}
+	
+	/**
+	 * 放入当前页查询的预取结果
+	 * 
+	 * @param pageResult 当前页查询的映射结果, 不能为null
+	 * @param rowMapper 预取使用的结果行映射器
+	 * @param page 预取的分页结果, 可以还在执行, 不能为null
+	 * @return 已经有未过期的相同预取时返回<tt>false</tt>, 不会放入
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized boolean put(ISqlMapResult pageResult, ISqlRowMapper<?> rowMapper,
+			CompletableFuture<? extends SqlPage<?>> page) {
+		if(page == null) {
+			throw new IllegalArgumentException("预取的分页结果不能为null");
+		}
+		SqlMapResultKey key = SqlMapResultKey.of(pageResult);
+		CacheEntry oldEntry = this.entries.get(key);
+		long now = System.nanoTime();
+		if(oldEntry != null && oldEntry.rowMapper == rowMapper && now - oldEntry.createNanos <= this.ttlNanos) {
+			return false;
+		}
+		if(oldEntry != null) {
+			oldEntry.page.cancel(false);
+			this.entries.remove(key);
+		}
+		this.entries.put(key, new CacheEntry(rowMapper, page, now));
+		return true;
+	}
+	
+	/**
+	 * 移除并取消当前页查询的预取结果
+	 * 
+	 * @param pageResult 当前页查询的映射结果, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized void remove(ISqlMapResult pageResult) {
+		CacheEntry entry = this.entries.remove(SqlMapResultKey.of(pageResult));
+		if(entry != null) {
+			entry.page.cancel(false);
+		}
+	}
+	
+	/**
+	 * 清除并取消所有缓存的分页结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized void clear() {
+		for(CacheEntry entry : this.entries.values()) {
+			entry.page.cancel(false);
+		}
+		this.entries.clear();
+	}
+	
+	/**
+	 * 获取缓存的分页结果数量, 包含已过期还未移除的
+	 * 
+	 * @return 缓存的分页结果数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * 获取命中缓存的次数
+	 * 
+	 * @return 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+	
+	/**
+	 * 获取未命中缓存的次数
+	 * 
+	 * @return 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+	
+	/**
+	 * 缓存的预取结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class CacheEntry {
+		
+		/**
+		 * 预取使用的结果行映射器
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlRowMapper<?> rowMapper;
+		
+		/**
+		 * 预取的分页结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final CompletableFuture<? extends SqlPage<?>> page;
+		
+		/**
+		 * 放入缓存的时间, 单位纳秒
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final long createNanos;
+		
+		/**
+		 * 构造缓存的预取结果
+		 * 
+		 * @param rowMapper 预取使用的结果行映射器
+		 * @param page 预取的分页结果
+		 * @param createNanos 放入缓存的时间, 单位纳秒
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private CacheEntry(ISqlRowMapper<?> rowMapper, CompletableFuture<? extends SqlPage<?>> page, long createNanos) {
+			this.rowMapper = rowMapper;
+			this.page = page;
+			this.createNanos = createNanos;
+		}
+	}
+}
@@ -0,0 +1,594 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 分页查询执行器
+ * <br/> 由同一个搜索参数生成当前页的查询和总数量的查询, 两者在不同的数据库连接上并行执行:
+ * 	总数量的查询在线程执行器中执行, 当前页的查询在调用线程中执行. 任意一个失败时取消另一个正在执行的语句.
+ * <br/> 数据库支持窗口函数时, 也可以通过COUNT(*) OVER()在一次查询中同时得到当前页和总数量.
+ * <br/> 可以指定预取缓存, 执行后在后台预取下一页.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlPagedExecutor {
+	
+	/**
+	 * 执行使用的数据源
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final DataSource dataSource;
+	
+	/**
+	 * 执行总数量查询的线程执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Executor executor;
+	
+	/**
+	 * 预取下一页的缓存, 为null时不预取
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlPageCache prefetchCache;
+	
+	/**
+	 * 生成分页查询使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 构造分页查询执行器实例, 不预取下一页
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param executor 执行总数量查询的线程执行器, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPagedExecutor(DataSource dataSource, Executor executor) {
+		this(dataSource, executor, null);
+	}
+	
+	/**
+	 * 构造分页查询执行器实例
+	 * <br/> 指定预取缓存时, 按搜索参数执行分页查询后会在线程执行器中预取下一页, 紧接着的下一页查询直接从缓存得到结果.
+	 * 	预取的下一页沿用当前页的总数量.
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param executor 执行总数量查询和预取的线程执行器, 不能为null
+	 * @param prefetchCache 预取下一页的缓存, 为null时不预取
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPagedExecutor(DataSource dataSource, Executor executor, SqlPageCache prefetchCache) {
+		this(dataSource, executor, prefetchCache, SqlDialect.MYSQL.instance());
+	}
+	
+	/**
+	 * 构造分页查询执行器实例, 按搜索参数生成查询时使用指定的方言
+	 * 
+	 * @param dataSource 执行使用的数据源, 不能为null
+	 * @param executor 执行总数量查询和预取的线程执行器, 不能为null
+	 * @param prefetchCache 预取下一页的缓存, 为null时不预取
+	 * @param dialect 生成分页查询使用的方言, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPagedExecutor(DataSource dataSource, Executor executor, SqlPageCache prefetchCache,
+			ISqlDialect dialect) {
+		if(dataSource == null || executor == null) {
+			throw new IllegalArgumentException("分页查询执行器的数据源和线程执行器不能为null");
+		}
+		if(dialect == null) {
+			throw new IllegalArgumentException("分页查询执行器的方言不能为null");
+		}
+		this.dataSource = dataSource;
+		this.executor = executor;
+		this.prefetchCache = prefetchCache;
+		this.dialect = dialect;
+	}
+	
+	/**
+	 * 按搜索参数执行分页查询
+	 * <br/> 先去掉分页生成总数量的查询, 再设置分页生成当前页的查询, 执行后搜索参数保留设置的分页.
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 需要包含{LIMIT}等映射字符串
+	 * @param page 第几页, 小于1时按1处理
+	 * @param count 一页包含的数量, 小于0时按10处理
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 分页查询的结果
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public <T> SqlPage<T> queryPage(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql,
+			int page, int count, ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(parameter == null || paramContext == null) {
+			throw new IllegalArgumentException("分页查询的搜索参数和搜索参数上下文不能为null");
+		}
+		page = page < 1 ? 1 : page;
+		count = count < 0 ? 10 : count;
+		ISqlMapResult pageResult = this.generatePageMapResult(parameter, paramContext, rawSql,
+				page, count, false);
+		SqlPage<T> result = this.takePrefetchedPage(pageResult, rowMapper);
+		if(result == null) {
+			ISqlMapResult countResult = this.generateCountMapResult(
+					parameter, paramContext, rawSql, page, count);
+			result = this.queryPage(pageResult, countResult, page, count, rowMapper);
+		}
+		this.prefetchNextPage(parameter, paramContext, rawSql, result, rowMapper, false);
+		return result;
+	}
+	
+	/**
+	 * 按搜索参数执行分页查询, 总数量通过窗口函数COUNT(*) OVER()与当前页在同一次查询中得到
+	 * <br/> 需要数据库支持窗口函数. 当前页没有结果且不是第一页时无法得到总数量, 此时再执行一次总数量的查询.
+	 * <br/> 执行后搜索参数保留设置的分页, 输出总数量的标记会被删除.
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 需要包含{LIMIT}等映射字符串
+	 * @param page 第几页, 小于1时按1处理
+	 * @param count 一页包含的数量, 小于0时按10处理
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 分页查询的结果
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public <T> SqlPage<T> queryPageWithWindowTotal(ISqlParameter parameter, ISqlParameterContext paramContext, 
+			String rawSql, int page, int count, ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(parameter == null || paramContext == null) {
+			throw new IllegalArgumentException("分页查询的搜索参数和搜索参数上下文不能为null");
+		}
+		page = page < 1 ? 1 : page;
+		count = count < 0 ? 10 : count;
+		ISqlMapResult pageResult = this.generatePageMapResult(parameter, paramContext, rawSql,
+				page, count, true);
+		SqlPage<T> result = this.takePrefetchedPage(pageResult, rowMapper);
+		if(result == null) {
+			result = this.queryPageWithWindowTotal(pageResult, page, count, rowMapper);
+			if(page != 1 && result.getRows().isEmpty()) {
+				// 超出范围的页没有结果行, 单独查询总数量
+				ISqlMapResult countResult = this.generateCountMapResult(
+						parameter, paramContext, rawSql, page, count);
+				List<Long> totals = this.runQuery(countResult, COUNT_MAPPER, new RunningQuery());
+				result = new SqlPage<T>(result.getRows(), totals.isEmpty() ? 0 : totals.get(0).longValue(), page, count);
+			}
+		}
+		this.prefetchNextPage(parameter, paramContext, rawSql, result, rowMapper, true);
+		return result;
+	}
+	
+	/**
+	 * 执行输出了窗口函数总数量的当前页查询
+	 * <br/> 总数量从第一行的{@link SqlParameter#WINDOW_TOTAL_LABEL}字段读取, 没有结果行时总数量为0.
+	 * 
+	 * @param pageResult 当前页查询的映射结果, 需要输出{@link SqlParameter#WINDOW_TOTAL_LABEL}字段, 不能为null
+	 * @param page 第几页
+	 * @param count 一页包含的数量
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 分页查询的结果
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public <T> SqlPage<T> queryPageWithWindowTotal(ISqlMapResult pageResult, int page, int count, 
+			final ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(pageResult, rowMapper);
+		final long[] total = new long[1];
+		List<T> rows = this.runQuery(pageResult, new ISqlRowMapper<T>() {
+			
+			@Override
+			public T mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+				if(rowNum == 0) {
+					total[0] = resultSet.getLong(SqlParameter.WINDOW_TOTAL_LABEL);
+				}
+				return rowMapper.mapRow(resultSet, rowNum);
+			}
+		}, new RunningQuery());
+		return new SqlPage<T>(rows, total[0], page, count);
+	}
+	
+	/**
+	 * 并行执行当前页的查询和总数量的查询
+	 * 
+	 * @param pageResult 当前页查询的映射结果, 不能为null
+	 * @param countResult 总数量查询的映射结果, 第一行第一列为总数量, 不能为null
+	 * @param page 第几页
+	 * @param count 一页包含的数量
+	 * @param rowMapper 结果行映射器, 不能为null
+	 * @return 分页查询的结果
+	 * @throws SQLException 任意一个执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public <T> SqlPage<T> queryPage(ISqlMapResult pageResult, final ISqlMapResult countResult,
+			int page, int count, ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(pageResult, rowMapper);
+		if(countResult == null) {
+			throw new IllegalArgumentException("总数量查询的SQL映射结果不能为null");
+		}
+		final RunningQuery pageRunning = new RunningQuery();
+		final RunningQuery countRunning = new RunningQuery();
+		final CompletableFuture<Long> countFuture = new CompletableFuture<Long>();
+		this.executor.execute(new Runnable() {
+			
+			@Override
+			public void run() {
+				try {
+					List<Long> totals = SqlPagedExecutor.this.runQuery(countResult, COUNT_MAPPER, countRunning);
+					countFuture.complete(totals.isEmpty() ? Long.valueOf(0) : totals.get(0));
+				} catch (SQLException | RuntimeException e) {
+					// 先完成再取消, 当前页的查询被取消时总能看到总数量查询的异常
+					countFuture.completeExceptionally(e);
+					pageRunning.cancel();
+				}
+			}
+		});
+		List<T> rows;
+		try {
+			rows = this.runQuery(pageResult, rowMapper, pageRunning);
+		} catch (SQLException | RuntimeException e) {
+			countRunning.cancel();
+			// 当前页的查询是因为总数量的查询失败而被取消的, 抛出总数量查询的异常
+			if(pageRunning.isCancelled() && countFuture.isCompletedExceptionally()) {
+				SqlPagedExecutor.await(countFuture);
+			}
+			throw e;
+		}
+		return new SqlPage<T>(rows, SqlPagedExecutor.await(countFuture).longValue(), page, count);
+	}
+	
+	/**
+	 * 由映射结果生成查询其总数量的映射结果, 原SQL语句作为子查询
+	 * 
+	 * @param mapResult 映射结果, 不能包含分页
+	 * @return 总数量查询的映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static ISqlMapResult generateCountMapResult(ISqlMapResult mapResult) {
+		if(mapResult == null) {
+			throw new IllegalArgumentException("生成总数量查询的SQL映射结果不能为null");
+		}
+		String countSql = new StringBuilder("SELECT COUNT(*) FROM (").append(mapResult.getSql())
+				.append(") __count").toString();
+		return new SqlMapContext.SqlMapResult(countSql, mapResult.getArgObjs(),
+				mapResult.getMapMetaNames(), mapResult.getTableNames());
+	}
+	
+	/**
+	 * 按搜索参数生成当前页查询的映射结果, 搜索参数保留设置的分页
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param page 第几页
+	 * @param count 一页包含的数量
+	 * @param isWindowTotal 是否通过窗口函数输出总数量
+	 * @return 当前页查询的映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlMapResult generatePageMapResult(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, int page, int count, boolean isWindowTotal) {
+		parameter.setPagination(page, count, 0);
+		if(! isWindowTotal) {
+			return parameter.generateMapContext(paramContext, new SqlMapper(this.dialect)).generateMapResult(rawSql);
+		}
+		parameter.markWindowTotal();
+		try {
+			return parameter.generateMapContext(paramContext, new SqlMapper(this.dialect)).generateMapResult(rawSql);
+		} finally {
+			parameter.deleteWindowTotal();
+		}
+	}
+	
+	/**
+	 * 按搜索参数生成总数量查询的映射结果, 搜索参数保留设置的分页
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param page 第几页
+	 * @param count 一页包含的数量
+	 * @return 总数量查询的映射结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlMapResult generateCountMapResult(ISqlParameter parameter, ISqlParameterContext paramContext,
+			String rawSql, int page, int count) {
+		parameter.deletePagination();
+		try {
+			return SqlPagedExecutor.generateCountMapResult(
+					parameter.generateMapContext(paramContext, new SqlMapper(this.dialect)).generateMapResult(rawSql));
+		} finally {
+			parameter.setPagination(page, count, 0);
+		}
+	}
+	
+	/**
+	 * 从预取缓存中取出当前页的结果
+	 * 
+	 * @param pageResult 当前页查询的映射结果
+	 * @param rowMapper 结果行映射器
+	 * @return 预取的结果, 没有预取缓存或未命中时返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> SqlPage<T> takePrefetchedPage(ISqlMapResult pageResult, ISqlRowMapper<T> rowMapper) {
+		if(this.prefetchCache == null) {
+			return null;
+		}
+		return this.prefetchCache.take(pageResult, rowMapper);
+	}
+	
+	/**
+	 * 在线程执行器中预取下一页, 放入预取缓存
+	 * <br/> 下一页的查询在调用线程中生成, 搜索参数保留当前页的分页. 预取的失败不影响当前页, 下一页查询时重新执行.
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param current 当前页的结果
+	 * @param rowMapper 结果行映射器
+	 * @param isWindowTotal 是否通过窗口函数输出总数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> void prefetchNextPage(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql,
+			final SqlPage<T> current, final ISqlRowMapper<T> rowMapper, boolean isWindowTotal) {
+		if(this.prefetchCache == null || ! current.hasNextPage()) {
+			return;
+		}
+		final int page = current.getPage() + 1;
+		final int count = current.getCount();
+		final ISqlMapResult nextResult;
+		try {
+			nextResult = this.generatePageMapResult(parameter, paramContext, rawSql,
+					page, count, isWindowTotal);
+		} finally {
+			parameter.setPagination(current.getPage(), count, 0);
+		}
+		final CompletableFuture<SqlPage<T>> nextPage = new CompletableFuture<SqlPage<T>>();
+		if(! this.prefetchCache.put(nextResult, rowMapper, nextPage)) {
+			return;
+		}
+		// 预取被缓存淘汰或等待超时而取消时, 同时取消执行中的语句
+		final RunningQuery running = new RunningQuery();
+		nextPage.whenComplete(new BiConsumer<SqlPage<T>, Throwable>() {
+			
+			@Override
+			public void accept(SqlPage<T> result, Throwable e) {
+				if(nextPage.isCancelled()) {
+					running.cancel();
+				}
+			}
+		});
+		try {
+			this.executor.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					try {
+						List<T> rows = SqlPagedExecutor.this.runQuery(nextResult, rowMapper, running);
+						nextPage.complete(new SqlPage<T>(rows, current.getTotal(), page, count));
+					} catch (SQLException | RuntimeException e) {
+						nextPage.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			nextPage.completeExceptionally(e);
+			this.prefetchCache.remove(nextResult);
+		}
+	}
+	
+	/**
+	 * 读取第一列为总数量的结果行映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final ISqlRowMapper<Long> COUNT_MAPPER = new ISqlRowMapper<Long>() {
+		
+		@Override
+		public Long mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+			return Long.valueOf(resultSet.getLong(1));
+		}
+	};
+	
+	/**
+	 * 正在执行的查询, 可以从其它线程取消, 也用于{@link SqlInListExecutor}的分块查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static final class RunningQuery {
+		
+		/**
+		 * 正在执行的语句
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private Statement statement;
+		
+		/**
+		 * 是否已经取消
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private boolean cancelled;
+		
+		/**
+		 * 关联正在执行的语句
+		 * 
+		 * @param statement 语句
+		 * @throws SQLException 已经取消则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		synchronized void attach(Statement statement) throws SQLException {
+			if(this.cancelled) {
+				throw new SQLException("查询已被取消");
+			}
+			this.statement = statement;
+		}
+		
+		/**
+		 * 解除关联的语句
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		synchronized void detach() {
+			this.statement = null;
+		}
+		
+		/**
+		 * 取消查询, 正在执行的语句会被取消, 还未开始的查询不再执行
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		synchronized void cancel() {
+			this.cancelled = true;
+			if(this.statement != null) {
+				try {
+					this.statement.cancel();
+				} catch (SQLException e) {
+					// 语句可能已经执行完成
+				}
+			}
+		}
+		
+		/**
+		 * 是否已经取消
+		 * 
+		 * @return 已经取消返回<tt>true</tt>
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		synchronized boolean isCancelled() {
+			return this.cancelled;
+		}
+	}
+	
+	/**
+	 * 在新的数据库连接上执行查询
+	 * 
+	 * @param mapResult 映射结果
+	 * @param rowMapper 结果行映射器
+	 * @param running 正在执行的查询
+	 * @return 结果对象列表
+	 * @throws SQLException 执行失败或被取消则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> List<T> runQuery(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper,
+			RunningQuery running) throws SQLException {
+		return SqlPagedExecutor.runQuery(this.dataSource, mapResult, rowMapper, running);
+	}
+	
+	/**
+	 * 在新的数据库连接上执行查询
+	 * 
+	 * @param dataSource 数据源
+	 * @param mapResult 映射结果
+	 * @param rowMapper 结果行映射器
+	 * @param running 正在执行的查询
+	 * @return 结果对象列表
+	 * @throws SQLException 执行失败或被取消则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static <T> List<T> runQuery(DataSource dataSource, ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper,
+			RunningQuery running) throws SQLException {
+		try(Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(mapResult.getSql())) {
+			running.attach(statement);
+			SqlExecutor.bindArgObjs(statement, mapResult.getArgObjs());
+			try(ResultSet resultSet = statement.executeQuery()) {
+				return SqlExecutor.mapRows(resultSet, rowMapper);
+			}
+		} finally {
+			running.detach();
+		}
+	}
+	
+	/**
+	 * 等待异步执行的结果
+	 * 
+	 * @param future 异步结果
+	 * @return 执行结果
+	 * @throws SQLException 执行失败或等待被中断则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static <V> V await(CompletableFuture<V> future) throws SQLException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("等待分页查询的执行结果时被中断", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new SQLException("分页查询执行失败", cause);
+		}
+	}
+}
@@ -1,1186 +1,2006 @@
-package com.fy.sqlparam.impl;
-
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Set;
-
-import com.fy.sqlparam.impl.SqlMapContext.SqlJoinStrategy;
-import com.fy.sqlparam.impl.SqlMapContext.SqlPartType;
-import com.fy.sqlparam.map.ISqlJoinStrategy;
-import com.fy.sqlparam.map.ISqlMapContext;
-import com.fy.sqlparam.map.ISqlMapper;
-import com.fy.sqlparam.map.ISqlPart;
-import com.fy.sqlparam.param.ISqlParameter;
-import com.fy.sqlparam.param.ISqlParameterContext;
-import com.fy.sqlparam.param.ISqlQuery;
-import com.fy.sqlparam.param.ISqlQueryGroup;
-import com.fy.sqlparam.param.ISqlQueryMethod;
-import com.fy.sqlparam.param.ISqlQueryStrategy;
-import com.fy.sqlparam.util.FormatUtils;
-
-/**
- * SQL搜索参数实现
- * 
- * @author linjie
- * @since 1.0.0
- */
-public class SqlParameter implements ISqlParameter {
-
-	/**
-	 * 输出查询组
-	 * 
-	 * @author linjie
-	 * @since 1.0.2
-	 */
-	private SqlQueryGroup selects = null;
-	
-	/**
-	 * 条件查询组
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	private SqlQueryGroup conditions = null;
-	
-	/**
-	 * 排序查询组
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	private SqlQueryGroup sorts = null;
-	
-	/**
-	 * 分页查询
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	private SqlQuery limit = null;
-	
-	/**
-	 * 空查询条件, 用于需要开始就动态查询的情形
-	 * 
-	 * @author linjie
-	 * @since 1.0.2
-	 */
-	private SqlQuery empty = null;
-	
-	/**
-	 * 查询构建器
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static final class Query {
-		
-		/**
-		 * 对哪个属性进行查询
-		 * 
-		 * @param propertyName 属性名称, 不能为null
-		 * @return 该属性支持的查询方法
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public static ISqlQueryMethod to(String propertyName) {
-			return new QueryMethod(propertyName);
-		}
-		
-		/**
-		 * 静态类不允许实例化
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private Query() {};
-	}
-	
-	/**
-	 * {@inheritDoc}
-	 * <br/> 使用{@link Query}来构建查询条件, 例如: <p><code>parameter.query(Query.to("foo").eq("bar"));</code></p>
-	 */
-	@Override
-	public ISqlQuery query(ISqlQuery query) {
-		if(query == null) {
-			throw new IllegalArgumentException("添加的查询条件不能为null");
-		}
-		SqlQuery queryReal = ((SqlQuery) query);
-		// 未产生第一个条件的情况下
-		if(this.conditions == null) {
-			// 找到传入查询实例的根, 生成查询条件总的组
-			while(queryReal.belongGroup != null) {
-				queryReal = queryReal.belongGroup;
-			}
-			this.conditions = new SqlQueryGroup(queryReal);
-			return this.conditions;
-		}
-		// 不是第一个就直接加入即可
-		this.conditions.and(query); /* 默认使用AND连接 */
-		return this.conditions;
-	}
-	
-	@Override
-	public ISqlQuery query() {
-		if(this.empty == null) {
-			this.empty = (SqlQuery) Query.to("1").eq("1");
-			this.query(this.empty);
-		}
-		return this.empty;
-	}
-	
-	@Override
-	public ISqlQuery markOrderBy(String propertyName, boolean isAsc) {
-		SqlQuery query = new SqlQuery(propertyName, 
-				SqlQueryStrategy.ORDER_BY.instance(),
-				Boolean.valueOf(isAsc));
-		if(this.sorts == null) {
-			this.sorts = new SqlQueryGroup(query);
-			return query;
-		}
-		this.sorts.addQuery(query);
-		return query;
-	}
-	
-	@Override
-	public ISqlQuery markSelect(String propertyName) {
-		SqlQuery query = new SqlQuery(propertyName, 
-				SqlQueryStrategy.SELECT.instance());
-		if(this.selects == null) {
-			this.selects = new SqlQueryGroup(query);
-			return query;
-		}
-		this.selects.addQuery(query);
-		return query;
-	}
-
-	@Override
-	public ISqlQuery setPagination(int page, int count, int offset) {
-		page = page < 1 ? 1 : page;
-		count = count < 0 ? 10 : count;
-		offset = offset < 0 ? 0 : offset;
-				
-		int start = (page - 1) * count + offset;
-		this.limit = new SqlQuery(null,
-				SqlQueryStrategy.LIMIT.instance(),
-				Integer.valueOf(start), Integer.valueOf(count)); /* 只有一个LIMIT */
-		return this.limit;
-	}
-	
-	@Override
-	public void deleteQuery(ISqlQuery query) {
-		if(query == null) {
-			throw new IllegalArgumentException("删除的查询条件不能为null");
-		}
-		SqlQuery queryReal = (SqlQuery) query;
-		if(queryReal.belongGroup == null) {
-			throw new IllegalArgumentException("删除的查询条件未加入此查询上下文");
-		}
-		queryReal.belongGroup.removeQuery(queryReal);
-	}
-	
-	@Override
-	public void deleteConditions() {
-		this.conditions = null;
-	}
-
-	@Override
-	public void deleteSorts() {
-		this.sorts = null;
-	}
-
-	@Override
-	public void deletePagination() {
-		this.limit = null;
-	}
-	
-	@Override
-	public void clear() {
-		this.conditions = null;
-		this.limit = null;
-		this.sorts = null;
-	}
-	
-	@Override
-	public ISqlMapContext generateMapContext(ISqlParameterContext paramContext, ISqlMapper sqlMapper) {
-		if(this.empty != null) {
-			this.deleteQuery(this.empty);
-		}
-		SqlMapContext mapContext = new SqlMapContext(paramContext, sqlMapper);
-		SqlParameter.handleQuery(mapContext, this.selects, false);
-		SqlParameter.handleQuery(mapContext, this.conditions, false);
-		SqlParameter.handleQuery(mapContext, this.sorts, false);
-		SqlParameter.handleQuery(mapContext, this.limit, false);
-		return mapContext;
-	}
-	
-	/**
-	 * SQL成员的实现
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static class SqlPart implements ISqlPart {
-
-		/**
-		 * SQL成员类型字符串
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final String type;
-		
-		/**
-		 * SQL内容
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final StringBuilder content;
-		
-		/**
-		 * 特别指定的映射字符串, 一般为正则表达式, 最终作为映射键值对的值
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private String assignedMapStr;
-		
-		/**
-		 * 使用的拼接处理器类型
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private ISqlJoinStrategy usingJoinStrategy;
-		
-		/**
-		 * SQL中的参数对象数组
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private Object[] argObjs;
-		
-		/**
-		 * 依赖的映射元信息的名称
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private Set<String> dependentMapMetaNames;
-		
-		/**
-		 * 额外参数表
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private Map<String, Object> extras;
-		
-		/**
-		 * 构造SQL成员实例, 默认
-		 * 
-		 * @param type 映射类型
-		 * @param content SQL内容
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public SqlPart(String type, StringBuilder content) {
-			this.type = type;
-			this.content = content;
-		}
-		
-		/**
-		 * 构造SQL成员实例, 通过另一个SQL成员实例来实例化, 其中SQL内容为空.
-		 * 
-		 * @param sqlPart 另一个SQL成员实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public SqlPart(ISqlPart sqlPart) {
-			SqlPart real = (SqlPart) sqlPart;
-			this.type = real.type;
-			this.usingJoinStrategy = real.usingJoinStrategy;
-			this.assignedMapStr = real.assignedMapStr;
-			this.dependentMapMetaNames = real.dependentMapMetaNames;
-			this.extras = real.extras;
-			
-			this.content = new StringBuilder();
-			this.argObjs = null;
-			
-			if(real.usingJoinStrategy == null) {
-				this.content.append(real.content);
-			}
-		}
-		
-		/**
-		 * 设置SQL中的参数对象数组
-		 * 
-		 * @param argObjs SQL中的参数对象数组, 可以为null
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public void setArgObjs(Object[] argObjs) {
-			this.argObjs = argObjs;
-		}
-		
-		@Override
-		public String getType() {
-			return this.type;
-		}
-		
-		@Override
-		public void setAssignedMapStr(String assignedMapStr) {
-			this.assignedMapStr = assignedMapStr;
-		}
-		
-		@Override
-		public String getAssignedMapStr() {
-			return this.assignedMapStr;
-		}
-
-		@Override
-		public StringBuilder getContent() {
-			return this.content;
-		}
-		
-		@Override
-		public Object[] getArgObjs() {
-			return this.argObjs;
-		}
-
-		@Override
-		public Set<String> getDependentMapMetaNames() {
-			return this.dependentMapMetaNames;
-		}
-
-		@Override
-		public void addDependentMapMetaName(String name) {
-			if(this.dependentMapMetaNames == null) {
-				this.dependentMapMetaNames = new LinkedHashSet<String>();
-			}
-			this.dependentMapMetaNames.add(name);
-		}
-
-		@Override
-		public ISqlJoinStrategy getUsingJoinStrategy() {
-			return this.usingJoinStrategy;
-		}
-		
-		@Override
-		public void setUsingJoinStrategy(ISqlJoinStrategy joinStrategy) {
-			this.usingJoinStrategy = joinStrategy;
-		}
-
-		@Override
-		public void putExtra(String name, Object obj) {
-			if(this.extras == null) {
-				this.extras = new HashMap<String, Object>();
-			}
-			this.extras.put(name, obj);
-		}
-
-		@Override
-		public Object getExtra(String name) {
-			if(this.extras == null) {
-				return null;
-			}
-			return this.extras.get(name);
-		}
-		
-		@Override
-		public int hashCode() {
-			return this.content.hashCode();
-		}
-		
-		@Override
-		public String toString() {
-			return this.content.toString();
-		}
-	}
-
-	/**
-	 * SQL查询条件的实现
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static class SqlQuery implements ISqlQuery {
-
-		/**
-		 * 使用的连接逻辑关系是否为AND
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		SqlQueryRelation relation;
-		
-		/**
-		 * 查询的属性名称
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final String propertyName;
-		
-		/**
-		 * 查询参数的对象数组
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final Object[] queryArgs;
-		
-		/**
-		 * 使用的查询处理策略
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final ISqlQueryStrategy usingQueryStrategy;
-		
-		/**
-		 * 所属的查询组
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		private SqlQueryGroup belongGroup;
-		
-		
-		/**
-		 * 构建一个查询实例, 需指定查询处理策略和查询参数
-		 * 
-		 * @param usingQueryStrategy 查询处理策略, 不能为null
-		 * @param queryArgs 查询参数, 可以为null
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private SqlQuery(String propertyName, ISqlQueryStrategy usingQueryStrategy, Object...queryArgs) {
-			this.propertyName = propertyName;
-			this.usingQueryStrategy = usingQueryStrategy;
-			this.queryArgs = queryArgs;
-		}
-		
-		@Override
-		public ISqlQuery and(ISqlQuery query) {
-			return this.joinQuery((SqlQuery) query, SqlQueryRelation.AND);
-		}
-
-		@Override
-		public ISqlQuery or(ISqlQuery query) {
-			return this.joinQuery((SqlQuery) query, SqlQueryRelation.OR);
-		}
-
-		@Override
-		public SqlQueryRelation getRelation() {
-			return this.relation;
-		}
-
-		@Override
-		public String getPropertyName() {
-			return this.propertyName;
-		}
-
-		@Override
-		public ISqlQueryStrategy getUsingStrategy() {
-			return this.usingQueryStrategy;
-		}
-
-		@Override
-		public Object[] getQueryArgs() {
-			return this.queryArgs;
-		}
-		
-		/**
-		 * 连接当前查询条件和指定查询条件
-		 * 
-		 * @param query 指定的查询条件
-		 * @param relation 连接关系
-		 * @return 连接关系的头处查询条件
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private ISqlQuery joinQuery(SqlQuery query, SqlQueryRelation relation) {
-			// 修改关系
-			query.relation = relation;
-			// 如果本身不是查询组则整理成查询组
-			if(this.belongGroup == null && ! (this instanceof SqlQueryGroup)) {
-				this.belongGroup = new SqlQueryGroup(this);
-				this.belongGroup.addQuery(query);
-				return this.belongGroup;
-			}
-			// 否则找到根查询组来加入此查询
-			SqlQuery query1 = this;
-			while(query1.belongGroup != null) {
-				query1 = query1.belongGroup;
-			}
-			((SqlQueryGroup) query1).addQuery(query);
-			return query1;
-		}
-	}
-	
-	/**
-	 * SQL查询条件组
-	 * 
-	 * @author linjie
-	 * @since 1.0.1
-	 */
-	static class SqlQueryGroup extends SqlQuery implements ISqlQueryGroup {
-		
-		/**
-		 * 包含的子查询条件
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		private final Set<ISqlQuery> groupQueries = new LinkedHashSet<ISqlQuery>();
-		
-		/**
-		 * 组的头
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		private final SqlQuery head;
-		
-		/**
-		 * 构造一个SQL查询条件组
-		 * 
-		 * @param query 组的头
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		private SqlQueryGroup(ISqlQuery query) {
-			super(null, query.getUsingStrategy()); /* 处理策略与组的头相同 */
-			SqlQuery queryReal = (SqlQuery) query;
-			this.head = queryReal;
-			this.head.relation = null; /* 组的头的连接关系被组夺取了 */
-			this.addQuery1(queryReal);
-		}
-		
-		/**
-		 * 添加一个查询条件到当前组
-		 * 
-		 * @param query 添加的查询条件实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		@Override
-		public boolean addQuery(ISqlQuery query) {
-			return this.addQuery1((SqlQuery) query);
-		}
-		
-		@Override
-		public boolean removeQuery(ISqlQuery query) {
-			if(! this.groupQueries.contains(query)) {
-				return false;
-			}
-			this.groupQueries.remove((SqlQuery) query);
-			return true;
-		}
-
-		@Override
-		public Collection<ISqlQuery> getQueries() {
-			return Collections.unmodifiableCollection(this.groupQueries);
-		}
-		
-		/**
-		 * 添加一个查询条件到当前组
-		 * 
-		 * @param query 添加的查询条件实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.1
-		 */
-		private boolean addQuery1(SqlQuery query) {
-			if(this.groupQueries.contains(query)) {
-				return false;
-			}
-			this.groupQueries.add(query);
-			query.belongGroup = this;
-			return true;
-		}
-	}
-	
-	/**
-	 * SQL查询处理
-	 * <br/>利用enum来单例, 同时减少类文件
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	enum SqlQueryStrategy {
-		
-		/**
-		 * 等于条件的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		EQ(new ISqlQueryStrategy() {
-			
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" = ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 不等于的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		NOT_EQ(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" <> ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 在集合中的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		IN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-					.append(" IN (")
-					.append(SqlQueryStrategy.generateReplacementArgsPlaceHolderStr(query.getQueryArgs().length))
-					.append(") ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 不在集合中的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		NOT_IN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-					.append(" NOT IN (")
-					.append(SqlQueryStrategy.generateReplacementArgsPlaceHolderStr(query.getQueryArgs().length))
-					.append(") ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 模糊查询的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		LIKE(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" LIKE ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 在范围中的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		BETWEEN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" BETWEEN ? AND ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 小于的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		LESS_THAN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" < ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 不小于的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		NOT_LESS_THAN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" >= ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 大于的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		GREATER_THAN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" > ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 不大于的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		NOT_GREATER_THAN(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" <= ? ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 为NULL的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		IS_NULL(new ISqlQueryStrategy() {
-			
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" IS NULL ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		/**
-		 * 不为NULL的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		IS_NOT_NULL(new ISqlQueryStrategy() {
-			
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()))
-						.append(" IS NOT NULL ");
-				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
-			}
-		}),
-		
-		/**
-		 * 字段输出的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		SELECT(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()));
-				SqlPart sqlPart = new SqlPart(SqlPartType.SELECT.name(), sqlPiece);
-				sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_SELECT.instance());
-				sqlPart.setAssignedMapStr(SqlMapper.REGEXP_SELECT);
-				mapContext.addSqlPart(sqlPart);
-			}
-		}),
-		
-		/**
-		 * 排序的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		ORDER_BY(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				Boolean isAsc = (Boolean) query.getQueryArgs()[0];
-				
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query.getPropertyName()));
-				if(isAsc) {
-					sqlPiece.append(" ASC ");
-				} else {
-					sqlPiece.append(" DESC ");
-				}
-				SqlPart sqlPart = new SqlPart(SqlPartType.ORDER_BY.name(), sqlPiece);
-				sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_ORDERBYS.instance());
-				sqlPart.setAssignedMapStr(SqlMapper.REGEXP_ORDER_BY);
-				mapContext.addSqlPart(sqlPart);
-			}
-		}),
-		
-		/**
-		 * 分页的查询处理方案
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		LIMIT(new ISqlQueryStrategy() {
-
-			@Override
-			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
-				Integer start = (Integer) query.getQueryArgs()[0];
-				Integer limit = (Integer) query.getQueryArgs()[1];
-				
-				StringBuilder sqlPiece = new StringBuilder();
-				sqlPiece.append("LIMIT ").append(start).append(",").append(limit);
-				SqlPart sqlPart = new SqlPart(SqlPartType.LIMIT.name(), sqlPiece);
-				sqlPart.setAssignedMapStr(SqlMapper.REGEXP_LIMIT);
-				mapContext.addSqlPart(sqlPart);
-			}
-		});
-		
-		/**
-		 * 查询处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final ISqlQueryStrategy strategy;
-		
-		/**
-		 * 内部构造器: 提供查询处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private SqlQueryStrategy(ISqlQueryStrategy strategy) {
-			this.strategy = strategy;
-		}
-		
-		/**
-		 * 获取查询处理器的实例
-		 * 
-		 * @return 查询处理器的实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public ISqlQueryStrategy instance() {
-			return strategy;
-		}
-		
-		/**
-		 * 生成属性映射占位字符串
-		 * 
-		 * @param propertyName 属性名称
-		 * @return 属性映射占位字符串
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static String generatePropertyPlaceholder(String propertyName) {
-			return new StringBuilder("{#").append(propertyName).append("}").toString();
-		}
-		
-		/**
-		 * 处理条件类型的SQL成员
-		 * 
-		 * @param mapContext
-		 * @param query SQL查询
-		 * @param sqlPiece SQL片段
-		 * @param args
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static void handleConditionsQuery(ISqlMapContext mapContext,
-				ISqlQuery query, StringBuilder sqlPiece, Object...args) {
-			boolean isNeedGroupFormat = true;
-			if(args.length > 0) {
-				isNeedGroupFormat = (boolean) args[0];
-			}
-			// 如果是成组的条件查询, 则递归处理
-			if(query instanceof SqlQueryGroup) {
-				SqlParameter.handleQuery(mapContext, query, isNeedGroupFormat);
-				return;
-			}
-			// 判断是否包含引用占位符, 如果是则进行格式化
-			int scanningAtIndex = -1;
-			for(int i = 0; i < query.getQueryArgs().length; i ++) {
-				final Object queryArg = query.getQueryArgs()[i];
-				if(! (queryArg instanceof String) || ! ((String) queryArg).matches(SqlMapper.REGEXP_ALL)) {
-					continue;
-				}
-				// 参数中的'?'替换为该占位字符串
-				final String propertyPlaceholder = (String) queryArg;
-				scanningAtIndex = sqlPiece.indexOf("?", scanningAtIndex);
-				sqlPiece.replace(scanningAtIndex, scanningAtIndex + 1, propertyPlaceholder);
-				scanningAtIndex += propertyPlaceholder.length();
-				// 把此参数设置为null
-				query.getQueryArgs()[i] = null;
-			}
-			// 否则直接添加查询条件SQL片段到映射上下文
-			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), sqlPiece);
-			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
-			sqlPart.setArgObjs(FormatUtils.removeNullInArray(query.getQueryArgs()));
-			if(query.getRelation() != null) {
-				sqlPart.putExtra("relation", query.getRelation());
-			}
-			mapContext.addSqlPart(sqlPart);
-		}
-		
-		/**
-		 * 生成指定数量的参数占位字符串
-		 * 
-		 * @param count 数量
-		 * @return 指定数量的参数占位字符串, 例如: ?,?,?...
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static String generateReplacementArgsPlaceHolderStr(int count) {
-			StringBuilder result = new StringBuilder("?");
-			for(int i = 0; i < count - 1; i ++) {
-				result.append(",").append("?");
-			}
-			return result.toString();
-		}
-	}
-	
-	/**
-	 * 查询方法实现
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	static class QueryMethod implements ISqlQueryMethod {
-		
-		/**
-		 * 查询的属性名称
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private final String propertyName;
-		
-		/**
-		 * 构建一个查询方法实例
-		 * 
-		 * @param propertyName 查询的属性名称
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 * 
-		 */
-		public QueryMethod(String propertyName) {
-			this.propertyName = propertyName;
-		}
-		
-		@Override
-		public ISqlQuery eq(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件eq的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.EQ, target);
-		}
-		
-		@Override
-		public ISqlQuery notEq(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件notEq的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.NOT_EQ, target);
-		}
-		
-		@Override
-		public ISqlQuery in(Collection<?> targets) {
-			if(targets == null || FormatUtils.removeNullInCollection(targets).isEmpty()) {
-				throw new IllegalArgumentException("查询条件in的值集合不能为null或空");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.IN, targets.toArray());
-		}
-		
-		@Override
-		public ISqlQuery notIn(Collection<?> targets) {
-			if(targets == null || FormatUtils.removeNullInCollection(targets).isEmpty()) {
-				throw new IllegalArgumentException("查询条件notIn的值集合不能为null或空");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.NOT_IN, targets.toArray());
-		}
-		
-		@Override
-		public ISqlQuery like(String target) {
-			if(target == null || target.isEmpty()) {
-				throw new IllegalArgumentException("查询条件like的值不能为null或空");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.LIKE, target);
-		}
-		
-		@Override
-		public ISqlQuery between(Object from, Object to) {
-			if(from == null) {
-				throw new IllegalArgumentException("查询条件between的范围起点的值不能为null");
-			}
-			if(to == null) {
-				throw new IllegalArgumentException("查询条件between的范围终点的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.BETWEEN, from, to);
-		}
-		
-		@Override
-		public ISqlQuery lessThan(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件lessThan的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.LESS_THAN, target);
-		}
-		
-		@Override
-		public ISqlQuery notLessThan(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件notLessThan的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.NOT_LESS_THAN, target);
-		}
-		
-		@Override
-		public ISqlQuery greaterThan(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件greaterThan的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.GREATER_THAN, target);
-		}
-		
-		@Override
-		public ISqlQuery notGreaterThan(Object target) {
-			if(target == null) {
-				throw new IllegalArgumentException("查询条件notGreaterThan的值不能为null");
-			}
-			return this.getQueryInstance(SqlQueryStrategy.NOT_GREATER_THAN, target);
-		}
-		
-		@Override
-		public ISqlQuery isNull() {
-			return this.getQueryInstance(SqlQueryStrategy.IS_NULL);
-		}
-		
-		@Override
-		public ISqlQuery isNotNull() {
-			return this.getQueryInstance(SqlQueryStrategy.IS_NOT_NULL);
-		}
-		
-		/**
-		 * 生成查询条件实例
-		 * 
-		 * @param strategy 查询策略
-		 * @param args 参数
-		 * @return 查询条件实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private SqlQuery getQueryInstance(SqlQueryStrategy strategy, Object...args) {
-			return new SqlQuery(this.propertyName, strategy.instance(), args);
-		}
-	}
-	
-	/**
-	 * 处理条件类型的查询条件
-	 * 
-	 * @param mapContext 映射上下文
-	 * @param query 查询条件
-	 * @param isNeedGroupFormat 是否需要格式化组
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	private static void handleQuery(ISqlMapContext mapContext,
-			ISqlQuery query, boolean isNeedGroupFormat) {
-		if(query == null) {
-			return;
-		}
-		// 判断是否是成组查询, 若不是成组查询直接让查询策略处理为SQL内容
-		if(! (query instanceof SqlQueryGroup)) {
-			query.getUsingStrategy().handle(mapContext, query);
-			return;
-		}
-		// 是成组查询
-		SqlQueryGroup queryGroup = (SqlQueryGroup) query;
-		Set<ISqlQuery> groupQueries = queryGroup.groupQueries;
-		boolean isSingleInGroup = groupQueries.size() == 1;
-		// 先加入 '('
-		if(isNeedGroupFormat && ! isSingleInGroup) {
-			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder("("));
-			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
-			sqlPart.putExtra("relation", queryGroup.getRelation());
-			mapContext.addSqlPart(sqlPart);
-		}
-		// 处理同组的查询
-		for(ISqlQuery groupQuery : groupQueries) {
-			SqlParameter.handleQuery(mapContext, groupQuery, ! isSingleInGroup);
-		}
-		// 最后加入 ')'
-		if(isNeedGroupFormat && ! isSingleInGroup) {
-			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder(")"));
-			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
-			mapContext.addSqlPart(sqlPart);
-		}
-	}
-}
+package com.fy.sqlparam.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fy.sqlparam.impl.SqlMapContext.SqlJoinStrategy;
+import com.fy.sqlparam.impl.SqlMapContext.SqlPartType;
+import com.fy.sqlparam.impl.SqlParameterContext.SqlFrozenMapMetas;
+import com.fy.sqlparam.impl.SqlParameterContext.SqlReferences;
+import com.fy.sqlparam.map.ISqlJoinStrategy;
+import com.fy.sqlparam.map.ISqlMapContext;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.map.ISqlMapper;
+import com.fy.sqlparam.map.ISqlPart;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+import com.fy.sqlparam.param.ISqlQuery;
+import com.fy.sqlparam.param.ISqlQuery.SqlQueryRelation;
+import com.fy.sqlparam.param.ISqlQueryGroup;
+import com.fy.sqlparam.param.ISqlQueryMethod;
+import com.fy.sqlparam.param.ISqlQueryStrategy;
+import com.fy.sqlparam.util.FormatUtils;
+
+/**
+ * SQL搜索参数实现
+ * 
+ * @author linjie
+ * @since 1.0.0
+ */
+public class SqlParameter implements ISqlParameter {
+	
+	/**
+	 * 窗口函数输出的总数量的字段名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final String WINDOW_TOTAL_LABEL = "__total";
+	
+	/**
+	 * 结构哈希的初始值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final long SHAPE_SEED = 0x5DEECE66DL;
+	
+	/**
+	 * 查询组按顺序组合子查询结构哈希使用的乘数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final long SHAPE_PRIME = 0x100000001B3L;
+	
+	/**
+	 * 输出查询组
+	 * 
+	 * @author linjie
+	 * @since 1.0.2
+	 */
+	private SqlQueryGroup selects = null;
+	
+	/**
+	 * 条件查询组
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	private SqlQueryGroup conditions = null;
+	
+	/**
+	 * 排序查询组
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	private SqlQueryGroup sorts = null;
+	
+	/**
+	 * 分页查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	private SqlQuery limit = null;
+	
+	/**
+	 * 输出总数量的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private SqlQuery windowTotal = null;
+	
+	/**
+	 * 空查询条件, 用于需要开始就动态查询的情形
+	 * 
+	 * @author linjie
+	 * @since 1.0.2
+	 */
+	private SqlQuery empty = null;
+	
+	/**
+	 * 查询构建器
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static final class Query {
+		
+		/**
+		 * 对哪个属性进行查询
+		 * 
+		 * @param propertyName 属性名称, 不能为null
+		 * @return 该属性支持的查询方法
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public static ISqlQueryMethod to(String propertyName) {
+			return new QueryMethod(propertyName);
+		}
+		
+		/**
+		 * 对哪个属性进行查询, 使用属性引用
+		 * 
+		 * @param propertyRef 属性引用, 不能为null
+		 * @return 该属性支持的查询方法
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public static ISqlQueryMethod to(SqlPropertyRef propertyRef) {
+			if(propertyRef == null) {
+				throw new IllegalArgumentException("查询的属性引用不能为null");
+			}
+			return new QueryMethod(propertyRef);
+		}
+		
+		/**
+		 * 静态类不允许实例化
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private Query() {};
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <br/> 使用{@link Query}来构建查询条件, 例如: <p><code>parameter.query(Query.to("foo").eq("bar"));</code></p>
+	 */
+	@Override
+	public ISqlQuery query(ISqlQuery query) {
+		if(query == null) {
+			throw new IllegalArgumentException("添加的查询条件不能为null");
+		}
+		SqlQuery queryReal = ((SqlQuery) query);
+		// 未产生第一个条件的情况下
+		if(this.conditions == null) {
+			// 找到传入查询实例的根, 生成查询条件总的组
+			while(queryReal.belongGroup != null) {
+				queryReal = queryReal.belongGroup;
+			}
+			this.conditions = new SqlQueryGroup(queryReal);
+			return this.conditions;
+		}
+		// 不是第一个就直接加入即可
+		this.conditions.and(query); /* 默认使用AND连接 */
+		return this.conditions;
+	}
+	
+	@Override
+	public ISqlQuery query() {
+		if(this.empty == null) {
+			this.empty = (SqlQuery) Query.to("1").eq("1");
+			this.query(this.empty);
+		}
+		return this.empty;
+	}
+	
+	@Override
+	public ISqlQuery markOrderBy(String propertyName, boolean isAsc) {
+		return this.addSort(new SqlQuery(propertyName, 
+				SqlQueryStrategy.ORDER_BY.instance(),
+				Boolean.valueOf(isAsc)));
+	}
+	
+	/**
+	 * 标记排序, 使用属性引用
+	 * 
+	 * @param propertyRef 属性引用, 不能为null
+	 * @param isAsc 是否升序
+	 * @return 排序的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ISqlQuery markOrderBy(SqlPropertyRef propertyRef, boolean isAsc) {
+		if(propertyRef == null) {
+			throw new IllegalArgumentException("排序的属性引用不能为null");
+		}
+		return this.addSort(new SqlQuery(propertyRef.getName(), propertyRef,
+				SqlQueryStrategy.ORDER_BY.instance(), new Object[] {Boolean.valueOf(isAsc)}));
+	}
+	
+	@Override
+	public ISqlQuery markSelect(String propertyName) {
+		return this.addSelect(new SqlQuery(propertyName, 
+				SqlQueryStrategy.SELECT.instance()));
+	}
+	
+	/**
+	 * 标记输出字段, 使用属性引用
+	 * 
+	 * @param propertyRef 属性引用, 不能为null
+	 * @return 输出的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ISqlQuery markSelect(SqlPropertyRef propertyRef) {
+		if(propertyRef == null) {
+			throw new IllegalArgumentException("输出的属性引用不能为null");
+		}
+		return this.addSelect(new SqlQuery(propertyRef.getName(), propertyRef,
+				SqlQueryStrategy.SELECT.instance(), new Object[0]));
+	}
+	
+	/**
+	 * 加入排序的查询
+	 * 
+	 * @param query 排序的查询
+	 * @return 排序的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlQuery addSort(SqlQuery query) {
+		if(this.sorts == null) {
+			this.sorts = new SqlQueryGroup(query);
+			return query;
+		}
+		this.sorts.addQuery(query);
+		return query;
+	}
+	
+	/**
+	 * 加入输出的查询
+	 * 
+	 * @param query 输出的查询
+	 * @return 输出的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private ISqlQuery addSelect(SqlQuery query) {
+		if(this.selects == null) {
+			this.selects = new SqlQueryGroup(query);
+			return query;
+		}
+		this.selects.addQuery(query);
+		return query;
+	}
+
+	@Override
+	public ISqlQuery setPagination(int page, int count, int offset) {
+		page = page < 1 ? 1 : page;
+		count = count < 0 ? 10 : count;
+		offset = offset < 0 ? 0 : offset;
+		
+		long start = (long) (page - 1) * count + offset;
+		if(start > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("分页的偏移量超出范围");
+		}
+		this.limit = new SqlQuery(null,
+				SqlQueryStrategy.LIMIT.instance(),
+				Integer.valueOf((int) start), Integer.valueOf(count)); /* 只有一个LIMIT */
+		return this.limit;
+	}
+	
+	@Override
+	public ISqlQuery markWindowTotal() {
+		if(this.windowTotal == null) {
+			this.windowTotal = new SqlQuery(null,
+					SqlQueryStrategy.WINDOW_TOTAL.instance()); /* 只有一个总数量 */
+		}
+		return this.windowTotal;
+	}
+	
+	@Override
+	public void deleteQuery(ISqlQuery query) {
+		if(query == null) {
+			throw new IllegalArgumentException("删除的查询条件不能为null");
+		}
+		SqlQuery queryReal = (SqlQuery) query;
+		if(queryReal.belongGroup == null) {
+			throw new IllegalArgumentException("删除的查询条件未加入此查询上下文");
+		}
+		queryReal.belongGroup.removeQuery(queryReal);
+	}
+	
+	@Override
+	public void deleteConditions() {
+		this.conditions = null;
+	}
+
+	@Override
+	public void deleteSorts() {
+		this.sorts = null;
+	}
+
+	@Override
+	public void deletePagination() {
+		this.limit = null;
+	}
+	
+	@Override
+	public void deleteWindowTotal() {
+		this.windowTotal = null;
+	}
+	
+	/**
+	 * 获取输出查询组
+	 * 
+	 * @return 输出查询组, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQueryGroup getSelects() {
+		return this.selects;
+	}
+	
+	/**
+	 * 获取输出总数量的查询
+	 * 
+	 * @return 输出总数量的查询, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQuery getWindowTotal() {
+		return this.windowTotal;
+	}
+	
+	/**
+	 * 获取条件查询组
+	 * 
+	 * @return 条件查询组, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQueryGroup getConditions() {
+		return this.conditions;
+	}
+	
+	/**
+	 * 获取排序查询组
+	 * 
+	 * @return 排序查询组, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQueryGroup getSorts() {
+		return this.sorts;
+	}
+	
+	/**
+	 * 获取分页查询
+	 * 
+	 * @return 分页查询, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQuery getLimit() {
+		return this.limit;
+	}
+	
+	/**
+	 * 获取空查询条件
+	 * 
+	 * @return 空查询条件, 没有时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlQuery getEmpty() {
+		return this.empty;
+	}
+	
+	/**
+	 * 由各部分的查询组装搜索参数, 用于反序列化
+	 * 
+	 * @param selects 输出查询组, 可以为null
+	 * @param windowTotal 输出总数量的查询, 可以为null
+	 * @param conditions 条件查询组, 可以为null
+	 * @param sorts 排序查询组, 可以为null
+	 * @param limit 分页查询, 可以为null
+	 * @param empty 空查询条件, 可以为null
+	 * @return 搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static SqlParameter assemble(SqlQueryGroup selects, SqlQuery windowTotal, SqlQueryGroup conditions,
+			SqlQueryGroup sorts, SqlQuery limit, SqlQuery empty) {
+		SqlParameter parameter = new SqlParameter();
+		parameter.selects = selects;
+		parameter.windowTotal = windowTotal;
+		parameter.conditions = conditions;
+		parameter.sorts = sorts;
+		parameter.limit = limit;
+		parameter.empty = empty;
+		return parameter;
+	}
+	
+	/**
+	 * 生成一个查询, 用于反序列化
+	 * 
+	 * @param propertyName 属性名称, 可以为null
+	 * @param strategy 查询策略
+	 * @param relation 连接关系, 可以为null
+	 * @param queryArgs 查询参数
+	 * @return 查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static SqlQuery newQuery(String propertyName, SqlQueryStrategy strategy,
+			SqlQueryRelation relation, Object[] queryArgs) {
+		SqlQuery query = new SqlQuery(propertyName, strategy.instance(), queryArgs);
+		query.changeRelation(relation);
+		return query;
+	}
+	
+	/**
+	 * 生成一个查询组, 用于反序列化
+	 * 
+	 * @param strategy 查询组的策略
+	 * @param relation 查询组的连接关系, 可以为null
+	 * @param queries 按顺序排列的子查询, 其连接关系保持不变
+	 * @return 查询组
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static SqlQueryGroup newQueryGroup(SqlQueryStrategy strategy, SqlQueryRelation relation,
+			List<SqlQuery> queries) {
+		// 用临时的头构造组以保持组的策略, 再按顺序加入子查询
+		SqlQuery head = new SqlQuery(null, strategy.instance());
+		SqlQueryGroup queryGroup = new SqlQueryGroup(head);
+		queryGroup.removeQuery(head);
+		for(SqlQuery query : queries) {
+			queryGroup.addQuery1(query);
+		}
+		queryGroup.changeRelation(relation);
+		return queryGroup;
+	}
+	
+	@Override
+	public void clear() {
+		this.conditions = null;
+		this.limit = null;
+		this.sorts = null;
+	}
+	
+	@Override
+	public long getShapeHash() {
+		long shape = SHAPE_SEED;
+		shape = SqlParameter.mixShape(shape, SqlParameter.partShapeOf(this.selects));
+		shape = SqlParameter.mixShape(shape, SqlParameter.partShapeOf(this.windowTotal));
+		shape = SqlParameter.mixShape(shape, SqlParameter.partShapeOf(this.conditions));
+		shape = SqlParameter.mixShape(shape, SqlParameter.partShapeOf(this.sorts));
+		shape = SqlParameter.mixShape(shape, SqlParameter.partShapeOf(this.limit));
+		return shape;
+	}
+	
+	@Override
+	public ISqlMapContext generateMapContext(ISqlParameterContext paramContext, ISqlMapper sqlMapper) {
+		if(this.empty != null) {
+			this.deleteQuery(this.empty);
+		}
+		SqlMapContext mapContext = new SqlMapContext(paramContext, sqlMapper);
+		SqlParameter.handleQuery(mapContext, this.selects, false);
+		SqlParameter.handleQuery(mapContext, this.windowTotal, false);
+		SqlParameter.handleQuery(mapContext, this.conditions, false);
+		SqlParameter.handleQuery(mapContext, this.sorts, false);
+		SqlParameter.handleQuery(mapContext, this.limit, false);
+		return mapContext;
+	}
+	
+	/**
+	 * SQL成员的实现
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static class SqlPart implements ISqlPart {
+
+		/**
+		 * SQL成员类型字符串
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final String type;
+		
+		/**
+		 * SQL内容
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final StringBuilder content;
+		
+		/**
+		 * 特别指定的映射字符串, 一般为正则表达式, 最终作为映射键值对的值
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private String assignedMapStr;
+		
+		/**
+		 * 使用的拼接处理器类型
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private ISqlJoinStrategy usingJoinStrategy;
+		
+		/**
+		 * SQL中的参数对象数组
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private Object[] argObjs;
+		
+		/**
+		 * 依赖的映射元信息的名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private Set<String> dependentMapMetaNames;
+		
+		/**
+		 * 额外参数表
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private Map<String, Object> extras;
+		
+		/**
+		 * 已解析的引用占位符, 为null时映射时解析SQL内容; 复制时不保留
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		SqlReferences references;
+		
+		/**
+		 * 构造SQL成员实例, 默认
+		 * 
+		 * @param type 映射类型
+		 * @param content SQL内容
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public SqlPart(String type, StringBuilder content) {
+			this.type = type;
+			this.content = content;
+		}
+		
+		/**
+		 * 构造SQL成员实例, 通过另一个SQL成员实例来实例化, 其中SQL内容为空.
+		 * 
+		 * @param sqlPart 另一个SQL成员实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public SqlPart(ISqlPart sqlPart) {
+			SqlPart real = (SqlPart) sqlPart;
+			this.type = real.type;
+			this.usingJoinStrategy = real.usingJoinStrategy;
+			this.assignedMapStr = real.assignedMapStr;
+			this.dependentMapMetaNames = real.dependentMapMetaNames;
+			this.extras = real.extras;
+			
+			this.content = new StringBuilder();
+			this.argObjs = null;
+			
+			if(real.usingJoinStrategy == null) {
+				this.content.append(real.content);
+			}
+		}
+		
+		/**
+		 * 设置SQL中的参数对象数组
+		 * 
+		 * @param argObjs SQL中的参数对象数组, 可以为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public void setArgObjs(Object[] argObjs) {
+			this.argObjs = argObjs;
+		}
+		
+		@Override
+		public String getType() {
+			return this.type;
+		}
+		
+		@Override
+		public void setAssignedMapStr(String assignedMapStr) {
+			this.assignedMapStr = assignedMapStr;
+		}
+		
+		@Override
+		public String getAssignedMapStr() {
+			return this.assignedMapStr;
+		}
+
+		@Override
+		public StringBuilder getContent() {
+			return this.content;
+		}
+		
+		@Override
+		public Object[] getArgObjs() {
+			return this.argObjs;
+		}
+
+		@Override
+		public Set<String> getDependentMapMetaNames() {
+			return this.dependentMapMetaNames;
+		}
+
+		@Override
+		public void addDependentMapMetaName(String name) {
+			if(this.dependentMapMetaNames == null) {
+				this.dependentMapMetaNames = new LinkedHashSet<String>();
+			}
+			this.dependentMapMetaNames.add(name);
+		}
+
+		@Override
+		public ISqlJoinStrategy getUsingJoinStrategy() {
+			return this.usingJoinStrategy;
+		}
+		
+		@Override
+		public void setUsingJoinStrategy(ISqlJoinStrategy joinStrategy) {
+			this.usingJoinStrategy = joinStrategy;
+		}
+
+		@Override
+		public void putExtra(String name, Object obj) {
+			if(this.extras == null) {
+				this.extras = new HashMap<String, Object>();
+			}
+			this.extras.put(name, obj);
+		}
+
+		@Override
+		public Object getExtra(String name) {
+			if(this.extras == null) {
+				return null;
+			}
+			return this.extras.get(name);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.content.hashCode();
+		}
+		
+		@Override
+		public String toString() {
+			return this.content.toString();
+		}
+	}
+
+	/**
+	 * SQL查询条件的实现
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static class SqlQuery implements ISqlQuery {
+
+		/**
+		 * 使用的连接逻辑关系是否为AND
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		SqlQueryRelation relation;
+		
+		/**
+		 * 查询的属性名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final String propertyName;
+		
+		/**
+		 * 查询的属性引用, 使用属性名称构建时为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final SqlPropertyRef propertyRef;
+		
+		/**
+		 * 查询参数的对象数组
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final Object[] queryArgs;
+		
+		/**
+		 * 使用的查询处理策略
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final ISqlQueryStrategy usingQueryStrategy;
+		
+		/**
+		 * 所属的查询组
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		private SqlQueryGroup belongGroup;
+		
+		/**
+		 * 查询自身的结构哈希, 不包含连接关系, 连接关系在所属的查询组中组合
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		long shape;
+		
+		/**
+		 * 结构哈希是否依赖子查询的搜索参数, 是则在获取时重新计算, 见{@link #currentShape()}
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		boolean isShapeDynamic;
+		
+		/**
+		 * 构建一个查询实例, 需指定查询处理策略和查询参数
+		 * 
+		 * @param usingQueryStrategy 查询处理策略, 不能为null
+		 * @param queryArgs 查询参数, 可以为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private SqlQuery(String propertyName, ISqlQueryStrategy usingQueryStrategy, Object...queryArgs) {
+			this(propertyName, null, usingQueryStrategy, queryArgs);
+		}
+		
+		/**
+		 * 构建一个查询实例, 可以指定属性引用
+		 * 
+		 * @param propertyName 属性名称
+		 * @param propertyRef 属性引用, 可以为null
+		 * @param usingQueryStrategy 查询处理策略, 不能为null
+		 * @param queryArgs 查询参数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private SqlQuery(String propertyName, SqlPropertyRef propertyRef,
+				ISqlQueryStrategy usingQueryStrategy, Object[] queryArgs) {
+			this.propertyName = propertyName;
+			this.propertyRef = propertyRef;
+			this.usingQueryStrategy = usingQueryStrategy;
+			this.queryArgs = queryArgs;
+			this.shape = SqlParameter.computeQueryShape(propertyName, usingQueryStrategy, queryArgs);
+			if(queryArgs != null) {
+				for(Object queryArg : queryArgs) {
+					if(queryArg instanceof ISqlParameter) {
+						this.isShapeDynamic = true;
+						break;
+					}
+				}
+			}
+		}
+		
+		@Override
+		public ISqlQuery and(ISqlQuery query) {
+			return this.joinQuery((SqlQuery) query, SqlQueryRelation.AND);
+		}
+
+		@Override
+		public ISqlQuery or(ISqlQuery query) {
+			return this.joinQuery((SqlQuery) query, SqlQueryRelation.OR);
+		}
+
+		@Override
+		public SqlQueryRelation getRelation() {
+			return this.relation;
+		}
+
+		@Override
+		public String getPropertyName() {
+			return this.propertyName;
+		}
+
+		@Override
+		public ISqlQueryStrategy getUsingStrategy() {
+			return this.usingQueryStrategy;
+		}
+
+		@Override
+		public Object[] getQueryArgs() {
+			return this.queryArgs;
+		}
+		
+		/**
+		 * 连接当前查询条件和指定查询条件
+		 * 
+		 * @param query 指定的查询条件
+		 * @param relation 连接关系
+		 * @return 连接关系的头处查询条件
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private ISqlQuery joinQuery(SqlQuery query, SqlQueryRelation relation) {
+			// 修改关系
+			query.changeRelation(relation);
+			// 如果本身不是查询组则整理成查询组
+			if(this.belongGroup == null && ! (this instanceof SqlQueryGroup)) {
+				this.belongGroup = new SqlQueryGroup(this);
+				this.belongGroup.addQuery(query);
+				return this.belongGroup;
+			}
+			// 否则找到根查询组来加入此查询
+			SqlQuery query1 = this;
+			while(query1.belongGroup != null) {
+				query1 = query1.belongGroup;
+			}
+			((SqlQueryGroup) query1).addQuery(query);
+			return query1;
+		}
+		
+		/**
+		 * 修改连接关系, 已在查询组中时更新查询组的结构哈希
+		 * 
+		 * @param relation 连接关系, 可以为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		void changeRelation(SqlQueryRelation relation) {
+			if(this.relation == relation) {
+				return;
+			}
+			this.relation = relation;
+			this.notifyShapeChanged();
+		}
+		
+		/**
+		 * 获取当前的结构哈希, 依赖子查询的搜索参数时按子查询当前的结构重新计算
+		 * 
+		 * @return 结构哈希, 不包含连接关系
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		long currentShape() {
+			if(! this.isShapeDynamic) {
+				return this.shape;
+			}
+			return SqlParameter.computeQueryShape(this.propertyName, this.usingQueryStrategy, this.queryArgs);
+		}
+		
+		/**
+		 * 结构哈希或连接关系变化后, 通知所属的查询组重新计算
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		void notifyShapeChanged() {
+			if(this.belongGroup != null && this.belongGroup.groupQueries.contains(this)) {
+				this.belongGroup.refreshShape();
+			}
+		}
+	}
+	
+	/**
+	 * SQL查询条件组
+	 * 
+	 * @author linjie
+	 * @since 1.0.1
+	 */
+	static class SqlQueryGroup extends SqlQuery implements ISqlQueryGroup {
+		
+		/**
+		 * 包含的子查询条件
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		private final Set<ISqlQuery> groupQueries = new LinkedHashSet<ISqlQuery>();
+		
+		/**
+		 * 组的头
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		private final SqlQuery head;
+		
+		/**
+		 * 按顺序组合的子查询结构哈希, 每个子查询的结构哈希与其连接关系组合
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private long childrenShape;
+		
+		/**
+		 * 构造一个SQL查询条件组
+		 * 
+		 * @param query 组的头
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		private SqlQueryGroup(ISqlQuery query) {
+			super(null, query.getUsingStrategy()); /* 处理策略与组的头相同 */
+			SqlQuery queryReal = (SqlQuery) query;
+			this.head = queryReal;
+			this.head.changeRelation(null); /* 组的头的连接关系被组夺取了 */
+			this.addQuery1(queryReal);
+		}
+		
+		/**
+		 * 添加一个查询条件到当前组
+		 * 
+		 * @param query 添加的查询条件实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		@Override
+		public boolean addQuery(ISqlQuery query) {
+			return this.addQuery1((SqlQuery) query);
+		}
+		
+		@Override
+		public boolean removeQuery(ISqlQuery query) {
+			if(! this.groupQueries.contains(query)) {
+				return false;
+			}
+			this.groupQueries.remove((SqlQuery) query);
+			this.refreshShape();
+			return true;
+		}
+
+		@Override
+		public Collection<ISqlQuery> getQueries() {
+			return Collections.unmodifiableCollection(this.groupQueries);
+		}
+		
+		/**
+		 * 添加一个查询条件到当前组
+		 * 
+		 * @param query 添加的查询条件实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.1
+		 */
+		private boolean addQuery1(SqlQuery query) {
+			if(this.groupQueries.contains(query)) {
+				return false;
+			}
+			this.groupQueries.add(query);
+			query.belongGroup = this;
+			// 追加在末尾, 只需在已有的组合上再组合一次
+			this.childrenShape = this.childrenShape * SHAPE_PRIME + SqlParameter.childShapeOf(query, query.shape);
+			this.updateShape(this.isShapeDynamic || query.isShapeDynamic);
+			return true;
+		}
+		
+		/**
+		 * 按当前的子查询重新计算结构哈希, 用于删除子查询或子查询的结构哈希变化后
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void refreshShape() {
+			long childrenShape = 0;
+			boolean isShapeDynamic = false;
+			for(ISqlQuery groupQuery : this.groupQueries) {
+				SqlQuery query = (SqlQuery) groupQuery;
+				childrenShape = childrenShape * SHAPE_PRIME + SqlParameter.childShapeOf(query, query.shape);
+				isShapeDynamic |= query.isShapeDynamic;
+			}
+			this.childrenShape = childrenShape;
+			this.updateShape(isShapeDynamic);
+		}
+		
+		/**
+		 * 由子查询的组合计算查询组的结构哈希, 有变化时通知所属的查询组
+		 * 
+		 * @param isShapeDynamic 是否有子查询的结构哈希依赖子查询的搜索参数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void updateShape(boolean isShapeDynamic) {
+			long shape = SqlParameter.mixShape(SqlParameter.mixShape(SHAPE_SEED, this.childrenShape),
+					this.groupQueries.size());
+			if(shape == this.shape && isShapeDynamic == this.isShapeDynamic) {
+				return;
+			}
+			this.shape = shape;
+			this.isShapeDynamic = isShapeDynamic;
+			this.notifyShapeChanged();
+		}
+		
+		@Override
+		long currentShape() {
+			if(! this.isShapeDynamic) {
+				return this.shape;
+			}
+			// 只重新计算依赖子查询的搜索参数的分支, 其它子查询使用维护的结构哈希
+			long childrenShape = 0;
+			for(ISqlQuery groupQuery : this.groupQueries) {
+				SqlQuery query = (SqlQuery) groupQuery;
+				childrenShape = childrenShape * SHAPE_PRIME + SqlParameter.childShapeOf(query, query.currentShape());
+			}
+			return SqlParameter.mixShape(SqlParameter.mixShape(SHAPE_SEED, childrenShape), this.groupQueries.size());
+		}
+	}
+	
+	/**
+	 * SQL查询处理
+	 * <br/>利用enum来单例, 同时减少类文件
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	enum SqlQueryStrategy {
+		
+		/**
+		 * 等于条件的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		EQ(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" = ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 不等于的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		NOT_EQ(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" <> ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 在集合中的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		IN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+					.append(" IN (")
+					.append(SqlQueryStrategy.generateReplacementArgsPlaceHolderStr(query.getQueryArgs().length))
+					.append(") ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 不在集合中的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		NOT_IN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+					.append(" NOT IN (")
+					.append(SqlQueryStrategy.generateReplacementArgsPlaceHolderStr(query.getQueryArgs().length))
+					.append(") ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 在数组参数中的查询处理方案, 查询参数为{@link SqlArrayArg}
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		IN_ARRAY(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+					.append(" = ANY(?) ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 在某张表的某一列中的查询处理方案, 查询参数依次为表名称和列名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		IN_TABLE(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+					.append(" IN (SELECT ")
+					.append(query.getQueryArgs()[1])
+					.append(" FROM ")
+					.append(query.getQueryArgs()[0])
+					.append(") ");
+				SqlQueryStrategy.addConditionsSqlPart(mapContext, query, sqlPiece, null, null, true);
+			}
+		}),
+		
+		/**
+		 * 模糊查询的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		LIKE(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" LIKE ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 在范围中的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		BETWEEN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" BETWEEN ? AND ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 小于的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		LESS_THAN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" < ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 不小于的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		NOT_LESS_THAN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" >= ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 大于的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		GREATER_THAN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" > ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 不大于的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		NOT_GREATER_THAN(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" <= ? ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 为NULL的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		IS_NULL(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" IS NULL ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		/**
+		 * 不为NULL的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		IS_NOT_NULL(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" IS NOT NULL ");
+				SqlQueryStrategy.handleConditionsQuery(mapContext, query, sqlPiece, args);
+			}
+		}),
+		
+		/**
+		 * 在子查询结果中的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		IN_SUB_QUERY(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				ISqlMapResult subMapResult = SqlQueryStrategy.generateSubQueryMapResult(mapContext, query);
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query))
+						.append(" IN (")
+						.append(subMapResult.getSql())
+						.append(") ");
+				SqlQueryStrategy.addConditionsSqlPart(mapContext, query, sqlPiece, 
+						subMapResult.getArgObjs(), subMapResult.getTableNames(), true);
+			}
+		}),
+		
+		/**
+		 * 子查询存在结果的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		EXISTS(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				ISqlMapResult subMapResult = SqlQueryStrategy.generateSubQueryMapResult(mapContext, query);
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append("EXISTS (")
+						.append(subMapResult.getSql())
+						.append(") ");
+				SqlQueryStrategy.addConditionsSqlPart(mapContext, query, sqlPiece, 
+						subMapResult.getArgObjs(), subMapResult.getTableNames(), true);
+			}
+		}),
+		
+		/**
+		 * 字段输出的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		SELECT(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query));
+				SqlPart sqlPart = new SqlPart(SqlPartType.SELECT.name(), sqlPiece);
+				sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_SELECT.instance());
+				SqlQueryStrategy.resolvePropertyReference(mapContext, query, sqlPart);
+				mapContext.addSqlPart(sqlPart);
+			}
+		}),
+		
+		/**
+		 * 窗口函数输出总数量的查询处理方案
+		 * <br/> 与字段输出放在同一个位置, 窗口函数在分页之前计算, 所以是满足条件的总数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		WINDOW_TOTAL(new ISqlQueryStrategy() {
+			
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				StringBuilder sqlPiece = new StringBuilder("COUNT(*) OVER() AS ")
+						.append(SqlParameter.WINDOW_TOTAL_LABEL);
+				SqlPart sqlPart = new SqlPart(SqlPartType.SELECT.name(), sqlPiece);
+				sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_SELECT.instance());
+				mapContext.addSqlPart(sqlPart);
+			}
+		}),
+		
+		/**
+		 * 排序的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		ORDER_BY(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				Boolean isAsc = (Boolean) query.getQueryArgs()[0];
+				
+				StringBuilder sqlPiece = new StringBuilder();
+				sqlPiece.append(SqlQueryStrategy.generatePropertyPlaceholder(query));
+				if(isAsc) {
+					sqlPiece.append(" ASC ");
+				} else {
+					sqlPiece.append(" DESC ");
+				}
+				SqlPart sqlPart = new SqlPart(SqlPartType.ORDER_BY.name(), sqlPiece);
+				sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_ORDERBYS.instance());
+				sqlPart.setAssignedMapStr(SqlMapper.REGEXP_ORDER_BY);
+				SqlQueryStrategy.resolvePropertyReference(mapContext, query, sqlPart);
+				mapContext.addSqlPart(sqlPart);
+			}
+		}),
+		
+		/**
+		 * 分页的查询处理方案
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		LIMIT(new ISqlQueryStrategy() {
+
+			@Override
+			public void handle(ISqlMapContext mapContext, ISqlQuery query, Object...args) {
+				Integer start = (Integer) query.getQueryArgs()[0];
+				Integer limit = (Integer) query.getQueryArgs()[1];
+				
+				StringBuilder sqlPiece = new StringBuilder();
+				SqlDialect.orDefault(mapContext.getDialect()).appendLimit(sqlPiece, start.intValue(), limit.intValue());
+				SqlPart sqlPart = new SqlPart(SqlPartType.LIMIT.name(), sqlPiece);
+				sqlPart.setAssignedMapStr(SqlMapper.REGEXP_LIMIT);
+				mapContext.addSqlPart(sqlPart);
+			}
+		});
+		
+		/**
+		 * 查询处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final ISqlQueryStrategy strategy;
+		
+		/**
+		 * 内部构造器: 提供查询处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private SqlQueryStrategy(ISqlQueryStrategy strategy) {
+			this.strategy = strategy;
+		}
+		
+		/**
+		 * 按查询策略实例索引的枚举
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static final Map<ISqlQueryStrategy, SqlQueryStrategy> BY_INSTANCE =
+				new IdentityHashMap<ISqlQueryStrategy, SqlQueryStrategy>();
+		
+		static {
+			for(SqlQueryStrategy element : SqlQueryStrategy.values()) {
+				BY_INSTANCE.put(element.strategy, element);
+			}
+		}
+		
+		/**
+		 * 查找查询策略实例对应的枚举
+		 * 
+		 * @param strategy 查询策略实例
+		 * @return 查询策略枚举, 不是内置的查询策略返回null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		static SqlQueryStrategy of(ISqlQueryStrategy strategy) {
+			return BY_INSTANCE.get(strategy);
+		}
+		
+		/**
+		 * 获取查询处理器的实例
+		 * 
+		 * @return 查询处理器的实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public ISqlQueryStrategy instance() {
+			return strategy;
+		}
+		
+		/**
+		 * 生成属性映射占位字符串, 使用属性引用构建的查询直接使用属性引用的占位字符串
+		 * 
+		 * @param query SQL查询
+		 * @return 属性映射占位字符串
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static String generatePropertyPlaceholder(ISqlQuery query) {
+			if(query instanceof SqlQuery && ((SqlQuery) query).propertyRef != null) {
+				return ((SqlQuery) query).propertyRef.getPlaceholder();
+			}
+			return new StringBuilder("{#").append(query.getPropertyName()).append("}").toString();
+		}
+		
+		/**
+		 * 为只引用了查询属性的SQL成员设置已解析的引用占位符, 映射时不需要再解析SQL内容
+		 * <br/> 只有查询使用属性引用, 且属性引用来自映射上下文所属的冻结的搜索参数上下文时才设置.
+		 * 
+		 * @param mapContext 映射上下文
+		 * @param query SQL查询
+		 * @param sqlPart 由查询生成的SQL成员, SQL内容中只有查询属性的引用占位符
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static void resolvePropertyReference(ISqlMapContext mapContext, ISqlQuery query, SqlPart sqlPart) {
+			if(! (query instanceof SqlQuery) || ! (mapContext instanceof SqlMapContext)) {
+				return;
+			}
+			SqlPropertyRef propertyRef = ((SqlQuery) query).propertyRef;
+			SqlFrozenMapMetas frozen = ((SqlMapContext) mapContext).getFrozenMapMetas();
+			if(propertyRef != null && frozen != null && frozen == propertyRef.getParamContext().getFrozenOrNull()) {
+				sqlPart.references = frozen.propertyReferences[propertyRef.getId()];
+			}
+		}
+		
+		/**
+		 * 处理条件类型的SQL成员
+		 * 
+		 * @param mapContext
+		 * @param query SQL查询
+		 * @param sqlPiece SQL片段
+		 * @param args
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static void handleConditionsQuery(ISqlMapContext mapContext,
+				ISqlQuery query, StringBuilder sqlPiece, Object...args) {
+			boolean isNeedGroupFormat = true;
+			if(args.length > 0) {
+				isNeedGroupFormat = (boolean) args[0];
+			}
+			// 如果是成组的条件查询, 则递归处理
+			if(query instanceof SqlQueryGroup) {
+				SqlParameter.handleQuery(mapContext, query, isNeedGroupFormat);
+				return;
+			}
+			// 判断是否包含引用占位符, 如果是则进行格式化
+			int scanningAtIndex = -1;
+			Object[] argObjs = query.getQueryArgs().clone(); /* 在副本上处理, 查询条件可以被重复渲染 */
+			for(int i = 0; i < argObjs.length; i ++) {
+				final Object queryArg = argObjs[i];
+				if(! (queryArg instanceof String) || ! ((String) queryArg).matches(SqlMapper.REGEXP_ALL)) {
+					continue;
+				}
+				// 参数中的'?'替换为该占位字符串
+				final String propertyPlaceholder = (String) queryArg;
+				scanningAtIndex = sqlPiece.indexOf("?", scanningAtIndex);
+				sqlPiece.replace(scanningAtIndex, scanningAtIndex + 1, propertyPlaceholder);
+				scanningAtIndex += propertyPlaceholder.length();
+				// 把此参数设置为null
+				argObjs[i] = null;
+			}
+			// 否则直接添加查询条件SQL片段到映射上下文
+			SqlQueryStrategy.addConditionsSqlPart(mapContext, query, sqlPiece, 
+					FormatUtils.removeNullInArray(argObjs), null, scanningAtIndex == -1);
+		}
+		
+		/**
+		 * 把查询条件SQL片段作为条件类型的SQL成员添加到映射上下文
+		 * 
+		 * @param mapContext 映射上下文
+		 * @param query SQL查询
+		 * @param sqlPiece SQL片段
+		 * @param argObjs SQL片段中的参数对象数组, 可以为null
+		 * @param tableNames SQL片段中额外使用的数据库表名称, 例如子查询使用的, 可以为null
+		 * @param isOnlyPropertyReferenced SQL片段中的引用占位符是否只有查询的属性
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static void addConditionsSqlPart(ISqlMapContext mapContext, ISqlQuery query,
+				StringBuilder sqlPiece, Object[] argObjs, Set<String> tableNames, boolean isOnlyPropertyReferenced) {
+			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), sqlPiece);
+			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
+			sqlPart.setArgObjs(argObjs);
+			if(tableNames != null && ! tableNames.isEmpty()) {
+				sqlPart.putExtra("tableNames", tableNames.toArray(new String[tableNames.size()]));
+			}
+			if(query.getRelation() != null) {
+				sqlPart.putExtra("relation", query.getRelation());
+			}
+			if(isOnlyPropertyReferenced) {
+				SqlQueryStrategy.resolvePropertyReference(mapContext, query, sqlPart);
+			}
+			mapContext.addSqlPart(sqlPart);
+		}
+		
+		/**
+		 * 通过子查询自身的搜索参数上下文生成子查询的映射结果, 使用与外部查询相同的方言
+		 * 
+		 * @param mapContext 外部查询的映射上下文
+		 * @param query 子查询类型的SQL查询, 查询参数依次为子查询的搜索参数, 搜索参数上下文和源SQL模板
+		 * @return 子查询的映射结果
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static ISqlMapResult generateSubQueryMapResult(ISqlMapContext mapContext, ISqlQuery query) {
+			ISqlParameter subParameter = (ISqlParameter) query.getQueryArgs()[0];
+			ISqlParameterContext subParamContext = (ISqlParameterContext) query.getQueryArgs()[1];
+			String rawSql = (String) query.getQueryArgs()[2];
+			return subParameter.generateMapContext(subParamContext, new SqlMapper(SqlDialect.orDefault(mapContext.getDialect())))
+					.generateMapResult(rawSql);
+		}
+		
+		/**
+		 * 生成指定数量的参数占位字符串
+		 * 
+		 * @param count 数量
+		 * @return 指定数量的参数占位字符串, 例如: ?,?,?...
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static String generateReplacementArgsPlaceHolderStr(int count) {
+			StringBuilder result = new StringBuilder("?");
+			for(int i = 0; i < count - 1; i ++) {
+				result.append(",").append("?");
+			}
+			return result.toString();
+		}
+	}
+	
+	/**
+	 * 查询方法实现
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	static class QueryMethod implements ISqlQueryMethod {
+		
+		/**
+		 * 查询的属性名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private final String propertyName;
+		
+		/**
+		 * 查询的属性引用, 使用属性名称构建时为null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final SqlPropertyRef propertyRef;
+		
+		/**
+		 * 构建一个查询方法实例
+		 * 
+		 * @param propertyName 查询的属性名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 * 
+		 */
+		public QueryMethod(String propertyName) {
+			this.propertyName = propertyName;
+			this.propertyRef = null;
+		}
+		
+		/**
+		 * 构建一个使用属性引用的查询方法实例
+		 * 
+		 * @param propertyRef 查询的属性引用
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public QueryMethod(SqlPropertyRef propertyRef) {
+			this.propertyName = propertyRef.getName();
+			this.propertyRef = propertyRef;
+		}
+		
+		@Override
+		public ISqlQuery eq(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件eq的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.EQ, target);
+		}
+		
+		@Override
+		public ISqlQuery notEq(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件notEq的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.NOT_EQ, target);
+		}
+		
+		@Override
+		public ISqlQuery in(Collection<?> targets) {
+			if(targets == null || FormatUtils.removeNullInCollection(targets).isEmpty()) {
+				throw new IllegalArgumentException("查询条件in的值集合不能为null或空");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.IN, targets.toArray());
+		}
+		
+		@Override
+		public ISqlQuery notIn(Collection<?> targets) {
+			if(targets == null || FormatUtils.removeNullInCollection(targets).isEmpty()) {
+				throw new IllegalArgumentException("查询条件notIn的值集合不能为null或空");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.NOT_IN, targets.toArray());
+		}
+		
+		@Override
+		public ISqlQuery inArray(Collection<?> targets, String elementTypeName) {
+			if(targets == null || FormatUtils.removeNullInCollection(targets).isEmpty()) {
+				throw new IllegalArgumentException("查询条件inArray的值集合不能为null或空");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.IN_ARRAY, 
+					new SqlArrayArg(elementTypeName, targets.toArray()));
+		}
+		
+		@Override
+		public ISqlQuery inTable(String tableName, String columnName) {
+			if(tableName == null || ! tableName.matches("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?")) {
+				throw new IllegalArgumentException(String.format("查询条件inTable的表名称%s不合法", tableName));
+			}
+			if(columnName == null || ! columnName.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+				throw new IllegalArgumentException(String.format("查询条件inTable的列名称%s不合法", columnName));
+			}
+			return this.getQueryInstance(SqlQueryStrategy.IN_TABLE, tableName, columnName);
+		}
+		
+		@Override
+		public ISqlQuery like(String target) {
+			if(target == null || target.isEmpty()) {
+				throw new IllegalArgumentException("查询条件like的值不能为null或空");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.LIKE, target);
+		}
+		
+		@Override
+		public ISqlQuery between(Object from, Object to) {
+			if(from == null) {
+				throw new IllegalArgumentException("查询条件between的范围起点的值不能为null");
+			}
+			if(to == null) {
+				throw new IllegalArgumentException("查询条件between的范围终点的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.BETWEEN, from, to);
+		}
+		
+		@Override
+		public ISqlQuery lessThan(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件lessThan的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.LESS_THAN, target);
+		}
+		
+		@Override
+		public ISqlQuery notLessThan(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件notLessThan的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.NOT_LESS_THAN, target);
+		}
+		
+		@Override
+		public ISqlQuery greaterThan(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件greaterThan的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.GREATER_THAN, target);
+		}
+		
+		@Override
+		public ISqlQuery notGreaterThan(Object target) {
+			if(target == null) {
+				throw new IllegalArgumentException("查询条件notGreaterThan的值不能为null");
+			}
+			return this.getQueryInstance(SqlQueryStrategy.NOT_GREATER_THAN, target);
+		}
+		
+		@Override
+		public ISqlQuery isNull() {
+			return this.getQueryInstance(SqlQueryStrategy.IS_NULL);
+		}
+		
+		@Override
+		public ISqlQuery isNotNull() {
+			return this.getQueryInstance(SqlQueryStrategy.IS_NOT_NULL);
+		}
+		
+		@Override
+		public ISqlQuery inSubQuery(ISqlParameter subParameter, 
+				ISqlParameterContext subParamContext, String rawSql) {
+			QueryMethod.checkSubQueryArgs("inSubQuery", subParameter, subParamContext, rawSql);
+			return this.getQueryInstance(SqlQueryStrategy.IN_SUB_QUERY, 
+					subParameter, subParamContext, rawSql);
+		}
+		
+		@Override
+		public ISqlQuery exists(ISqlParameter subParameter, 
+				ISqlParameterContext subParamContext, String rawSql) {
+			QueryMethod.checkSubQueryArgs("exists", subParameter, subParamContext, rawSql);
+			return this.getQueryInstance(SqlQueryStrategy.EXISTS, 
+					subParameter, subParamContext, rawSql);
+		}
+		
+		/**
+		 * 生成查询条件实例
+		 * 
+		 * @param strategy 查询策略
+		 * @param args 参数
+		 * @return 查询条件实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private SqlQuery getQueryInstance(SqlQueryStrategy strategy, Object...args) {
+			return new SqlQuery(this.propertyName, this.propertyRef, strategy.instance(), args);
+		}
+		
+		/**
+		 * 检查子查询的查询参数
+		 * 
+		 * @param methodName 查询方法名称
+		 * @param subParameter 子查询的搜索参数
+		 * @param subParamContext 子查询使用的搜索参数上下文
+		 * @param rawSql 子查询的源SQL模板
+		 * @throws IllegalArgumentException 查询参数不符合要求则抛出异常
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static void checkSubQueryArgs(String methodName, ISqlParameter subParameter,
+				ISqlParameterContext subParamContext, String rawSql) {
+			if(subParameter == null) {
+				throw new IllegalArgumentException(String.format("查询条件%s的子查询搜索参数不能为null", methodName));
+			}
+			if(subParamContext == null) {
+				throw new IllegalArgumentException(String.format("查询条件%s的子查询搜索参数上下文不能为null", methodName));
+			}
+			if(rawSql == null || rawSql.isEmpty()) {
+				throw new IllegalArgumentException(String.format("查询条件%s的子查询SQL模板不能为null或空", methodName));
+			}
+		}
+	}
+	
+	/**
+	 * 处理条件类型的查询条件
+	 * 
+	 * @param mapContext 映射上下文
+	 * @param query 查询条件
+	 * @param isNeedGroupFormat 是否需要格式化组
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	private static void handleQuery(ISqlMapContext mapContext,
+			ISqlQuery query, boolean isNeedGroupFormat) {
+		if(query == null) {
+			return;
+		}
+		// 判断是否是成组查询, 若不是成组查询直接让查询策略处理为SQL内容
+		if(! (query instanceof SqlQueryGroup)) {
+			query.getUsingStrategy().handle(mapContext, query);
+			return;
+		}
+		// 是成组查询
+		SqlQueryGroup queryGroup = (SqlQueryGroup) query;
+		Set<ISqlQuery> groupQueries = queryGroup.groupQueries;
+		boolean isSingleInGroup = groupQueries.size() == 1;
+		// 先加入 '('
+		if(isNeedGroupFormat && ! isSingleInGroup) {
+			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder("("));
+			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
+			sqlPart.putExtra("relation", queryGroup.getRelation());
+			mapContext.addSqlPart(sqlPart);
+		}
+		// 处理同组的查询
+		for(ISqlQuery groupQuery : groupQueries) {
+			SqlParameter.handleQuery(mapContext, groupQuery, ! isSingleInGroup);
+		}
+		// 最后加入 ')'
+		if(isNeedGroupFormat && ! isSingleInGroup) {
+			SqlPart sqlPart = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder(")"));
+			sqlPart.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
+			mapContext.addSqlPart(sqlPart);
+		}
+	}
+	
+	/**
+	 * 计算单个查询的结构哈希
+	 * <br/> 包含查询策略, 属性名称和参数个数; 参数值只在会直接写入SQL语句时包含,
+	 * 	即排序方向, 表名称, 引用占位符, 子查询的搜索参数结构, 上下文类和源SQL语句.
+	 * <br/> 子查询的搜索参数按调用时的结构计算, 包含子查询的查询在获取结构哈希时重新计算, 见{@link SqlQuery#currentShape()}.
+	 * 
+	 * @param propertyName 属性名称, 可以为null
+	 * @param strategy 查询策略
+	 * @param queryArgs 查询参数, 可以为null
+	 * @return 结构哈希
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long computeQueryShape(String propertyName, ISqlQueryStrategy strategy, Object[] queryArgs) {
+		SqlQueryStrategy strategyEnum = SqlQueryStrategy.of(strategy);
+		// 按枚举名称计算, 不依赖枚举的声明顺序
+		long shape = SqlParameter.mixShape(SHAPE_SEED, strategyEnum == null ? -1 : strategyEnum.name().hashCode());
+		shape = SqlParameter.mixShape(shape, propertyName == null ? 0 : propertyName.hashCode());
+		if(queryArgs == null) {
+			return shape;
+		}
+		shape = SqlParameter.mixShape(shape, queryArgs.length);
+		boolean isArgsInSql = strategyEnum == SqlQueryStrategy.ORDER_BY || strategyEnum == SqlQueryStrategy.IN_TABLE
+				|| strategyEnum == SqlQueryStrategy.IN_SUB_QUERY || strategyEnum == SqlQueryStrategy.EXISTS;
+		for(int i = 0; i < queryArgs.length; i ++) {
+			Object queryArg = queryArgs[i];
+			long argShape;
+			if(queryArg instanceof ISqlParameter) {
+				argShape = ((ISqlParameter) queryArg).getShapeHash();
+			} else if(queryArg instanceof ISqlParameterContext) {
+				argShape = queryArg.getClass().getName().hashCode();
+			} else if(isArgsInSql) {
+				argShape = queryArg == null ? 0 : queryArg.hashCode();
+			} else if(queryArg instanceof String && ((String) queryArg).startsWith("{")
+					&& ((String) queryArg).matches(SqlMapper.REGEXP_ALL)) {
+				argShape = queryArg.hashCode(); /* 引用占位符会替换SQL片段中的'?' */
+			} else {
+				continue;
+			}
+			shape = SqlParameter.mixShape(SqlParameter.mixShape(shape, i), argShape);
+		}
+		return shape;
+	}
+	
+	/**
+	 * 计算子查询在查询组中的结构哈希, 组合其自身的结构哈希和连接关系
+	 * 
+	 * @param query 子查询
+	 * @param shape 子查询自身的结构哈希
+	 * @return 子查询在查询组中的结构哈希
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long childShapeOf(SqlQuery query, long shape) {
+		return SqlParameter.mixShape(shape, query.relation == null ? 0 : query.relation.ordinal() + 1);
+	}
+	
+	/**
+	 * 计算搜索参数一个部分的结构哈希, 没有或者子查询已被全部删除的查询组与没有该部分一致
+	 * 
+	 * @param query 部分的查询, 可以为null
+	 * @return 结构哈希, 没有时为0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long partShapeOf(SqlQuery query) {
+		if(query == null || query instanceof SqlQueryGroup && ((SqlQueryGroup) query).groupQueries.isEmpty()) {
+			return 0;
+		}
+		return query.currentShape();
+	}
+	
+	/**
+	 * 把一个值按顺序组合到结构哈希中, 使用64位的混合函数使各个位充分扩散
+	 * 
+	 * @param shape 已有的结构哈希
+	 * @param value 组合的值
+	 * @return 组合后的结构哈希
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long mixShape(long shape, long value) {
+		long h = shape * 0x9E3779B97F4A7C15L + value;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
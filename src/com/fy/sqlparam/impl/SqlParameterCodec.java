@@ -0,0 +1,945 @@
+package com.fy.sqlparam.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fy.sqlparam.impl.SqlParameter.SqlQuery;
+import com.fy.sqlparam.impl.SqlParameter.SqlQueryGroup;
+import com.fy.sqlparam.impl.SqlParameter.SqlQueryStrategy;
+import com.fy.sqlparam.param.ISqlParameterContext;
+import com.fy.sqlparam.param.ISqlQuery;
+import com.fy.sqlparam.param.ISqlQuery.SqlQueryRelation;
+import com.fy.sqlparam.param.ISqlQueryStrategy;
+
+/**
+ * 搜索参数的紧凑二进制编解码, 用于跨节点传输和作为缓存的键
+ * <br/> 按输出, 总数量, 条件, 排序, 分页的顺序把查询树平铺为先序序列, 每个节点以一个字节记录节点类型和连接关系,
+ * 	之后是查询策略, 属性名称和带类型标记的参数; 数量, 长度和整数使用变长编码.
+ * <br/> 查询策略按枚举名称, 连接关系按固定的编码写入, 不依赖枚举的声明顺序.
+ * <br/> 查询策略名称, 属性名称, 数组元素类型名称和上下文类名称放入名称字典, 第一次出现时写入内容, 之后只写入字典中的序号.
+ * <br/> 子查询的搜索参数嵌套写入并共用名称字典, 搜索参数上下文按类名称写入, 解码时通过其公开的无参构造函数创建.
+ * <br/> 解码时按实际读到的字节分配内存, 并限制嵌套深度, 损坏的编码抛出{@link IllegalArgumentException}.
+ * <br/> 解码后的搜索参数再次编码得到相同的字节, 按相同过程构建的搜索参数编码也相同, 见{@link SqlParameterKey}.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlParameterCodec {
+	
+	/**
+	 * 没有查询的节点
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int NODE_NULL = 0;
+	
+	/**
+	 * 单个查询的节点
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int NODE_QUERY = 1;
+	
+	/**
+	 * 查询组的节点
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int NODE_GROUP = 2;
+	
+	/**
+	 * 空查询条件的节点, 见{@link SqlParameter#query()}
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int NODE_EMPTY = 3;
+	
+	/**
+	 * 节点头中连接关系的位移, 低位为节点类型
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int RELATION_SHIFT = 2;
+	
+	/**
+	 * 搜索参数头中存在空查询条件的标记
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int FLAG_EMPTY = 1;
+	
+	/**
+	 * 参数的类型标记
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int TYPE_NULL = 0, TYPE_STRING = 1, TYPE_INTEGER = 2, TYPE_LONG = 3,
+			TYPE_DOUBLE = 4, TYPE_FLOAT = 5, TYPE_SHORT = 6, TYPE_BYTE = 7, TYPE_TRUE = 8,
+			TYPE_FALSE = 9, TYPE_CHARACTER = 10, TYPE_BIG_DECIMAL = 11, TYPE_BIG_INTEGER = 12,
+			TYPE_DATE = 13, TYPE_SQL_DATE = 14, TYPE_SQL_TIME = 15, TYPE_SQL_TIMESTAMP = 16,
+			TYPE_BYTES = 17, TYPE_ARRAY_ARG = 18, TYPE_PARAMETER = 19, TYPE_CONTEXT = 20;
+	
+	/**
+	 * 连接关系的编码, 0表示没有连接关系
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int RELATION_NONE = 0, RELATION_AND = 1, RELATION_OR = 2;
+	
+	/**
+	 * 解码时允许的最大嵌套深度, 查询组, 子查询的搜索参数和数组参数各算一层
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int MAX_DEPTH = 64;
+	
+	/**
+	 * 解码时一次分配的最大字节数, 更长的内容按实际读到的字节逐段分配
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int READ_CHUNK_BYTES = 8192;
+	
+	/**
+	 * 编码搜索参数
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @return 编码后的字节
+	 * @throws IllegalArgumentException 包含不支持编码的参数类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static byte[] encode(SqlParameter parameter) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try {
+			SqlParameterCodec.write(new DataOutputStream(bytes), parameter);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("编码搜索参数失败", e);
+		}
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * 解码搜索参数
+	 * 
+	 * @param bytes 编码后的字节, 不能为null
+	 * @return 搜索参数
+	 * @throws IllegalArgumentException 不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlParameter decode(byte[] bytes) {
+		if(bytes == null) {
+			throw new IllegalArgumentException("解码的字节不能为null");
+		}
+		try {
+			return SqlParameterCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("不是有效的搜索参数编码", e);
+		}
+	}
+	
+	/**
+	 * 写入搜索参数
+	 * 
+	 * @param out 写入的输出, 不能为null
+	 * @param parameter 搜索参数, 不能为null
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static void write(DataOutput out, SqlParameter parameter) throws IOException {
+		SqlParameterCodec.write(out, new HashMap<String, Integer>(), parameter);
+	}
+	
+	/**
+	 * 读取搜索参数
+	 * 
+	 * @param in 读取的输入, 不能为null
+	 * @return 搜索参数
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlParameter read(DataInput in) throws IOException {
+		return SqlParameterCodec.read(in, new ArrayList<String>(), 0);
+	}
+	
+	/**
+	 * 使用名称字典写入搜索参数
+	 * 
+	 * @param out 写入的输出
+	 * @param names 已写入的名称和其序号
+	 * @param parameter 搜索参数, 不能为null
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void write(DataOutput out, Map<String, Integer> names, SqlParameter parameter)
+			throws IOException {
+		if(parameter == null) {
+			throw new IllegalArgumentException("编码的搜索参数不能为null");
+		}
+		SqlQuery empty = parameter.getEmpty();
+		out.writeByte(empty != null ? FLAG_EMPTY : 0);
+		SqlParameterCodec.writeNode(out, names, parameter.getSelects(), empty);
+		SqlParameterCodec.writeNode(out, names, parameter.getWindowTotal(), empty);
+		SqlParameterCodec.writeNode(out, names, parameter.getConditions(), empty);
+		SqlParameterCodec.writeNode(out, names, parameter.getSorts(), empty);
+		SqlParameterCodec.writeNode(out, names, parameter.getLimit(), empty);
+	}
+	
+	/**
+	 * 使用名称字典读取搜索参数
+	 * 
+	 * @param in 读取的输入
+	 * @param names 已读取的名称, 按序号排列
+	 * @param depth 当前的嵌套深度
+	 * @return 搜索参数
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlParameter read(DataInput in, List<String> names, int depth) throws IOException {
+		SqlParameterCodec.checkDepth(depth);
+		int flags = in.readUnsignedByte();
+		if((flags & ~FLAG_EMPTY) != 0) {
+			throw new IOException(String.format("未知的搜索参数标记%d", flags));
+		}
+		SqlQuery[] empty = new SqlQuery[1];
+		SqlQuery selects = SqlParameterCodec.readNode(in, names, empty, depth);
+		SqlQuery windowTotal = SqlParameterCodec.readNode(in, names, empty, depth);
+		SqlQuery conditions = SqlParameterCodec.readNode(in, names, empty, depth);
+		SqlQuery sorts = SqlParameterCodec.readNode(in, names, empty, depth);
+		SqlQuery limit = SqlParameterCodec.readNode(in, names, empty, depth);
+		boolean hasEmpty = (flags & FLAG_EMPTY) != 0;
+		if(empty[0] != null && ! hasEmpty) {
+			throw new IOException("空查询条件节点没有对应的标记");
+		}
+		SqlQueryGroup conditionGroup = SqlParameterCodec.asGroup(conditions);
+		if(empty[0] == null && hasEmpty) {
+			// 已从条件中删除的空查询条件, 与删除后一样仍然记录所属的组, 可以被再次删除
+			empty[0] = SqlParameterCodec.newEmpty(null);
+			SqlQueryGroup belongGroup = conditionGroup != null ? conditionGroup
+					: SqlParameter.newQueryGroup(SqlQueryStrategy.EQ, null, new ArrayList<SqlQuery>(0));
+			belongGroup.addQuery(empty[0]);
+			belongGroup.removeQuery(empty[0]);
+		}
+		return SqlParameter.assemble(SqlParameterCodec.asGroup(selects), windowTotal,
+				conditionGroup, SqlParameterCodec.asGroup(sorts), limit, empty[0]);
+	}
+	
+	/**
+	 * 先序写入查询节点
+	 * 
+	 * @param out 写入的输出
+	 * @param names 已写入的名称和其序号
+	 * @param query 查询, 可以为null
+	 * @param empty 搜索参数的空查询条件, 可以为null
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeNode(DataOutput out, Map<String, Integer> names, ISqlQuery query,
+			SqlQuery empty) throws IOException {
+		if(query == null) {
+			out.writeByte(NODE_NULL);
+			return;
+		}
+		int relation = SqlParameterCodec.toRelationCode(query.getRelation());
+		if(query == empty) {
+			out.writeByte(NODE_EMPTY | relation << RELATION_SHIFT);
+			return;
+		}
+		if(query instanceof SqlQueryGroup) {
+			SqlQueryGroup queryGroup = (SqlQueryGroup) query;
+			out.writeByte(NODE_GROUP | relation << RELATION_SHIFT);
+			SqlParameterCodec.writeName(out, names, SqlParameterCodec.toStrategy(queryGroup.getUsingStrategy()).name());
+			SqlParameterCodec.writeVarInt(out, queryGroup.getQueries().size());
+			for(ISqlQuery groupQuery : queryGroup.getQueries()) {
+				SqlParameterCodec.writeNode(out, names, groupQuery, empty);
+			}
+			return;
+		}
+		out.writeByte(NODE_QUERY | relation << RELATION_SHIFT);
+		SqlParameterCodec.writeName(out, names, SqlParameterCodec.toStrategy(query.getUsingStrategy()).name());
+		SqlParameterCodec.writeName(out, names, query.getPropertyName());
+		Object[] queryArgs = query.getQueryArgs();
+		SqlParameterCodec.writeVarInt(out, queryArgs.length);
+		for(Object queryArg : queryArgs) {
+			SqlParameterCodec.writeValue(out, names, queryArg);
+		}
+	}
+	
+	/**
+	 * 读取先序写入的查询节点
+	 * 
+	 * @param in 读取的输入
+	 * @param names 已读取的名称, 按序号排列
+	 * @param empty 搜索参数的空查询条件, 读到空查询条件的节点时生成
+	 * @param depth 当前的嵌套深度
+	 * @return 查询, 没有查询时为null
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQuery readNode(DataInput in, List<String> names, SqlQuery[] empty, int depth)
+			throws IOException {
+		SqlParameterCodec.checkDepth(depth);
+		int header = in.readUnsignedByte();
+		SqlQueryRelation relation = SqlParameterCodec.toRelation(header >>> RELATION_SHIFT);
+		switch(header & ((1 << RELATION_SHIFT) - 1)) {
+			case NODE_NULL:
+				if(relation != null) {
+					throw new IOException("空节点不能有连接关系");
+				}
+				return null;
+			case NODE_EMPTY: {
+				if(empty[0] != null) {
+					throw new IOException("空查询条件节点重复出现");
+				}
+				empty[0] = SqlParameterCodec.newEmpty(relation);
+				return empty[0];
+			}
+			case NODE_GROUP: {
+				SqlQueryStrategy strategy = SqlParameterCodec.readStrategy(in, names);
+				int size = SqlParameterCodec.readVarInt(in);
+				List<SqlQuery> queries = new ArrayList<SqlQuery>(Math.min(size, 16));
+				for(int i = 0; i < size; i ++) {
+					SqlQuery query = SqlParameterCodec.readNode(in, names, empty, depth + 1);
+					if(query == null) {
+						throw new IOException("查询组中不能有空节点");
+					}
+					queries.add(query);
+				}
+				return SqlParameter.newQueryGroup(strategy, relation, queries);
+			}
+			default: {
+				SqlQueryStrategy strategy = SqlParameterCodec.readStrategy(in, names);
+				String propertyName = SqlParameterCodec.readName(in, names);
+				int size = SqlParameterCodec.readVarInt(in);
+				List<Object> queryArgs = new ArrayList<Object>(Math.min(size, 16));
+				for(int i = 0; i < size; i ++) {
+					queryArgs.add(SqlParameterCodec.readValue(in, names, depth + 1));
+				}
+				return SqlParameter.newQuery(propertyName, strategy, relation, queryArgs.toArray());
+			}
+		}
+	}
+	
+	/**
+	 * 写入带类型标记的参数
+	 * 
+	 * @param out 写入的输出
+	 * @param names 已写入的名称和其序号
+	 * @param value 参数
+	 * @throws IOException 写入失败则抛出异常
+	 * @throws IllegalArgumentException 不支持编码的参数类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeValue(DataOutput out, Map<String, Integer> names, Object value) throws IOException {
+		if(value == null) {
+			out.writeByte(TYPE_NULL);
+		} else if(value instanceof String) {
+			out.writeByte(TYPE_STRING);
+			SqlParameterCodec.writeString(out, (String) value);
+		} else if(value instanceof Integer) {
+			out.writeByte(TYPE_INTEGER);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag((Integer) value));
+		} else if(value instanceof Long) {
+			out.writeByte(TYPE_LONG);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag((Long) value));
+		} else if(value instanceof Double) {
+			out.writeByte(TYPE_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if(value instanceof Float) {
+			out.writeByte(TYPE_FLOAT);
+			out.writeFloat((Float) value);
+		} else if(value instanceof Short) {
+			out.writeByte(TYPE_SHORT);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag((Short) value));
+		} else if(value instanceof Byte) {
+			out.writeByte(TYPE_BYTE);
+			out.writeByte((Byte) value);
+		} else if(value instanceof Boolean) {
+			out.writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+		} else if(value instanceof Character) {
+			out.writeByte(TYPE_CHARACTER);
+			SqlParameterCodec.writeVarInt(out, (Character) value);
+		} else if(value instanceof BigDecimal) {
+			BigDecimal decimal = (BigDecimal) value;
+			out.writeByte(TYPE_BIG_DECIMAL);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag(decimal.scale()));
+			SqlParameterCodec.writeBytes(out, decimal.unscaledValue().toByteArray());
+		} else if(value instanceof BigInteger) {
+			out.writeByte(TYPE_BIG_INTEGER);
+			SqlParameterCodec.writeBytes(out, ((BigInteger) value).toByteArray());
+		} else if(value instanceof java.sql.Timestamp) {
+			out.writeByte(TYPE_SQL_TIMESTAMP);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag(((java.sql.Timestamp) value).getTime()));
+			SqlParameterCodec.writeVarInt(out, ((java.sql.Timestamp) value).getNanos());
+		} else if(value instanceof java.sql.Date) {
+			out.writeByte(TYPE_SQL_DATE);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag(((java.sql.Date) value).getTime()));
+		} else if(value instanceof java.sql.Time) {
+			out.writeByte(TYPE_SQL_TIME);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag(((java.sql.Time) value).getTime()));
+		} else if(value.getClass() == java.util.Date.class) {
+			out.writeByte(TYPE_DATE);
+			SqlParameterCodec.writeVarLong(out, SqlParameterCodec.zigZag(((java.util.Date) value).getTime()));
+		} else if(value instanceof byte[]) {
+			out.writeByte(TYPE_BYTES);
+			SqlParameterCodec.writeBytes(out, (byte[]) value);
+		} else if(value instanceof SqlArrayArg) {
+			SqlArrayArg arrayArg = (SqlArrayArg) value;
+			out.writeByte(TYPE_ARRAY_ARG);
+			SqlParameterCodec.writeName(out, names, arrayArg.getElementTypeName());
+			SqlParameterCodec.writeVarInt(out, arrayArg.getElements().length);
+			for(Object element : arrayArg.getElements()) {
+				SqlParameterCodec.writeValue(out, names, element);
+			}
+		} else if(value instanceof SqlParameter) {
+			out.writeByte(TYPE_PARAMETER);
+			SqlParameterCodec.write(out, names, (SqlParameter) value);
+		} else if(value instanceof ISqlParameterContext) {
+			out.writeByte(TYPE_CONTEXT);
+			SqlParameterCodec.writeName(out, names, value.getClass().getName());
+		} else {
+			throw new IllegalArgumentException(String.format("不支持编码的参数类型%s", value.getClass().getName()));
+		}
+	}
+	
+	/**
+	 * 读取带类型标记的参数
+	 * 
+	 * @param in 读取的输入
+	 * @param names 已读取的名称, 按序号排列
+	 * @param depth 当前的嵌套深度
+	 * @return 参数
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Object readValue(DataInput in, List<String> names, int depth) throws IOException {
+		int type = in.readUnsignedByte();
+		switch(type) {
+			case TYPE_NULL:
+				return null;
+			case TYPE_STRING:
+				return SqlParameterCodec.readString(in);
+			case TYPE_INTEGER:
+				return Integer.valueOf((int) SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_LONG:
+				return Long.valueOf(SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_DOUBLE:
+				return Double.valueOf(in.readDouble());
+			case TYPE_FLOAT:
+				return Float.valueOf(in.readFloat());
+			case TYPE_SHORT:
+				return Short.valueOf((short) SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_BYTE:
+				return Byte.valueOf(in.readByte());
+			case TYPE_TRUE:
+				return Boolean.TRUE;
+			case TYPE_FALSE:
+				return Boolean.FALSE;
+			case TYPE_CHARACTER:
+				return Character.valueOf((char) SqlParameterCodec.readVarInt(in));
+			case TYPE_BIG_DECIMAL: {
+				int scale = (int) SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in));
+				return new BigDecimal(new BigInteger(SqlParameterCodec.readBytes(in)), scale);
+			}
+			case TYPE_BIG_INTEGER:
+				return new BigInteger(SqlParameterCodec.readBytes(in));
+			case TYPE_SQL_TIMESTAMP: {
+				java.sql.Timestamp timestamp = new java.sql.Timestamp(
+						SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+				int nanos = SqlParameterCodec.readVarInt(in);
+				if(nanos > 999999999) {
+					throw new IOException(String.format("无效的纳秒数%d", nanos));
+				}
+				timestamp.setNanos(nanos);
+				return timestamp;
+			}
+			case TYPE_SQL_DATE:
+				return new java.sql.Date(SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_SQL_TIME:
+				return new java.sql.Time(SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_DATE:
+				return new java.util.Date(SqlParameterCodec.unZigZag(SqlParameterCodec.readVarLong(in)));
+			case TYPE_BYTES:
+				return SqlParameterCodec.readBytes(in);
+			case TYPE_ARRAY_ARG: {
+				String elementTypeName = SqlParameterCodec.readName(in, names);
+				int size = SqlParameterCodec.readVarInt(in);
+				List<Object> elements = new ArrayList<Object>(Math.min(size, 16));
+				for(int i = 0; i < size; i ++) {
+					elements.add(SqlParameterCodec.readValue(in, names, depth + 1));
+				}
+				return new SqlArrayArg(elementTypeName, elements.toArray());
+			}
+			case TYPE_PARAMETER:
+				return SqlParameterCodec.read(in, names, depth + 1);
+			case TYPE_CONTEXT:
+				return SqlParameterCodec.newContext(SqlParameterCodec.readName(in, names));
+			default:
+				throw new IOException(String.format("未知的参数类型标记%d", type));
+		}
+	}
+	
+	/**
+	 * 按类名称创建搜索参数上下文
+	 * <br/> 先不初始化地加载类并检查是否为搜索参数上下文类, 不会因为编码中的任意类名称执行其它类的静态初始化;
+	 * 	优先使用当前线程的上下文类加载器, 没有时使用加载此类的类加载器.
+	 * 
+	 * @param className 搜索参数上下文的类名称
+	 * @return 搜索参数上下文
+	 * @throws IOException 无法创建则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static ISqlParameterContext newContext(String className) throws IOException {
+		if(className == null) {
+			throw new IOException("搜索参数上下文的类名称不能为null");
+		}
+		try {
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			if(loader == null) {
+				loader = SqlParameterCodec.class.getClassLoader();
+			}
+			Class<?> contextClass = Class.forName(className, false, loader);
+			if(! ISqlParameterContext.class.isAssignableFrom(contextClass)) {
+				throw new IOException(String.format("%s不是搜索参数上下文类", className));
+			}
+			return (ISqlParameterContext) contextClass.getConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IOException(String.format("无法通过公开的无参构造函数创建搜索参数上下文%s", className), e);
+		}
+	}
+	
+	/**
+	 * 生成空查询条件, 与{@link SqlParameter#query()}生成的一致
+	 * 
+	 * @param relation 连接关系, 可以为null
+	 * @return 空查询条件
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQuery newEmpty(SqlQueryRelation relation) {
+		return SqlParameter.newQuery("1", SqlQueryStrategy.EQ, relation, new Object[] {"1"});
+	}
+	
+	/**
+	 * 查找查询策略实例对应的枚举
+	 * 
+	 * @param strategy 查询策略实例
+	 * @return 查询策略枚举
+	 * @throws IllegalArgumentException 不是内置的查询策略则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQueryStrategy toStrategy(ISqlQueryStrategy strategy) {
+		SqlQueryStrategy strategyEnum = SqlQueryStrategy.of(strategy);
+		if(strategyEnum == null) {
+			throw new IllegalArgumentException("不支持编码的查询策略");
+		}
+		return strategyEnum;
+	}
+	
+	/**
+	 * 通过名称字典读取查询策略
+	 * 
+	 * @param in 读取的输入
+	 * @param names 已读取的名称, 按序号排列
+	 * @return 查询策略枚举
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQueryStrategy readStrategy(DataInput in, List<String> names) throws IOException {
+		String name = SqlParameterCodec.readName(in, names);
+		if(name == null) {
+			throw new IOException("查询策略的名称不能为null");
+		}
+		try {
+			return SqlQueryStrategy.valueOf(name);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(String.format("未知的查询策略%s", name));
+		}
+	}
+	
+	/**
+	 * 获取连接关系的编码
+	 * 
+	 * @param relation 连接关系, 可以为null
+	 * @return 连接关系的编码
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int toRelationCode(SqlQueryRelation relation) {
+		if(relation == null) {
+			return RELATION_NONE;
+		}
+		switch(relation) {
+			case AND:
+				return RELATION_AND;
+			case OR:
+				return RELATION_OR;
+			default:
+				throw new IllegalArgumentException(String.format("不支持编码的连接关系%s", relation));
+		}
+	}
+	
+	/**
+	 * 获取编码对应的连接关系
+	 * 
+	 * @param code 连接关系的编码
+	 * @return 连接关系, 没有连接关系时为null
+	 * @throws IOException 未知的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQueryRelation toRelation(int code) throws IOException {
+		switch(code) {
+			case RELATION_NONE:
+				return null;
+			case RELATION_AND:
+				return SqlQueryRelation.AND;
+			case RELATION_OR:
+				return SqlQueryRelation.OR;
+			default:
+				throw new IOException(String.format("未知的连接关系%d", code));
+		}
+	}
+	
+	/**
+	 * 检查解码的嵌套深度
+	 * 
+	 * @param depth 当前的嵌套深度
+	 * @throws IOException 超过最大嵌套深度则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void checkDepth(int depth) throws IOException {
+		if(depth > MAX_DEPTH) {
+			throw new IOException(String.format("嵌套深度超过%d", MAX_DEPTH));
+		}
+	}
+	
+	/**
+	 * 通过名称字典写入可以为null的名称
+	 * <br/> 写入0表示null, 写入已有的序号加1表示字典中的名称, 写入字典大小加1表示新名称并紧接着写入内容.
+	 * 
+	 * @param out 写入的输出
+	 * @param names 已写入的名称和其序号
+	 * @param name 名称, 可以为null
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeName(DataOutput out, Map<String, Integer> names, String name) throws IOException {
+		if(name == null) {
+			SqlParameterCodec.writeVarInt(out, 0);
+			return;
+		}
+		Integer index = names.get(name);
+		if(index != null) {
+			SqlParameterCodec.writeVarInt(out, index + 1);
+			return;
+		}
+		index = names.size();
+		names.put(name, index);
+		SqlParameterCodec.writeVarInt(out, index + 1);
+		SqlParameterCodec.writeString(out, name);
+	}
+	
+	/**
+	 * 通过名称字典读取可以为null的名称
+	 * 
+	 * @param in 读取的输入
+	 * @param names 已读取的名称, 按序号排列
+	 * @return 名称, 可以为null
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static String readName(DataInput in, List<String> names) throws IOException {
+		int index = SqlParameterCodec.readVarInt(in);
+		if(index == 0) {
+			return null;
+		}
+		if(index <= names.size()) {
+			return names.get(index - 1);
+		}
+		if(index != names.size() + 1) {
+			throw new IOException(String.format("名称字典的序号%d不连续", index));
+		}
+		String name = SqlParameterCodec.readString(in);
+		if(name == null) {
+			throw new IOException("名称字典中的名称不能为null");
+		}
+		names.add(name);
+		return name;
+	}
+	
+	/**
+	 * 写入可以为null的字符串, 按UTF-8字节数加1写入长度, null写入0
+	 * 
+	 * @param out 写入的输出
+	 * @param value 字符串, 可以为null
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void writeString(DataOutput out, String value) throws IOException {
+		if(value == null) {
+			SqlParameterCodec.writeVarInt(out, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		SqlParameterCodec.writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+	
+	/**
+	 * 读取可以为null的字符串
+	 * 
+	 * @param in 读取的输入
+	 * @return 字符串, 可以为null
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static String readString(DataInput in) throws IOException {
+		int length = SqlParameterCodec.readVarInt(in);
+		if(length == 0) {
+			return null;
+		}
+		return new String(SqlParameterCodec.readFully(in, length - 1), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * 写入带长度的字节
+	 * 
+	 * @param out 写入的输出
+	 * @param bytes 字节
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+		SqlParameterCodec.writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * 读取带长度的字节
+	 * 
+	 * @param in 读取的输入
+	 * @return 字节
+	 * @throws IOException 读取失败或者不是有效的编码则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static byte[] readBytes(DataInput in) throws IOException {
+		return SqlParameterCodec.readFully(in, SqlParameterCodec.readVarInt(in));
+	}
+	
+	/**
+	 * 读取指定长度的字节, 长度超过{@link #READ_CHUNK_BYTES}时逐段读取, 不按编码中的长度一次分配
+	 * 
+	 * @param in 读取的输入
+	 * @param length 字节长度
+	 * @return 字节
+	 * @throws IOException 读取失败或者剩余的字节不足则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static byte[] readFully(DataInput in, int length) throws IOException {
+		if(length <= READ_CHUNK_BYTES) {
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return bytes;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(READ_CHUNK_BYTES);
+		byte[] chunk = new byte[READ_CHUNK_BYTES];
+		for(int remaining = length; remaining > 0; remaining -= chunk.length) {
+			if(remaining < chunk.length) {
+				chunk = new byte[remaining];
+			}
+			in.readFully(chunk);
+			bytes.write(chunk, 0, chunk.length);
+		}
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * 写入非负整数的变长编码, 每个字节的低7位为数据, 最高位表示后面还有字节
+	 * 
+	 * @param out 写入的输出
+	 * @param value 非负整数
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		SqlParameterCodec.writeVarLong(out, value & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * 读取非负整数的变长编码, 用于数量, 长度和序号
+	 * 
+	 * @param in 读取的输入
+	 * @return 非负整数
+	 * @throws IOException 读取失败或者超出整数范围则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int readVarInt(DataInput in) throws IOException {
+		long value = SqlParameterCodec.readVarLong(in);
+		if(value < 0 || value > Integer.MAX_VALUE) {
+			throw new IOException(String.format("变长整数%d超出范围", value));
+		}
+		return (int) value;
+	}
+	
+	/**
+	 * 写入长整数的变长编码, 按无符号处理
+	 * 
+	 * @param out 写入的输出
+	 * @param value 长整数
+	 * @throws IOException 写入失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void writeVarLong(DataOutput out, long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+	
+	/**
+	 * 读取长整数的变长编码
+	 * 
+	 * @param in 读取的输入
+	 * @return 长整数
+	 * @throws IOException 读取失败或者超过10个字节则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("变长整数超过10个字节");
+	}
+	
+	/**
+	 * 把有符号数映射为无符号数, 使绝对值小的负数也编码为短的变长整数
+	 * 
+	 * @param value 有符号数
+	 * @return 映射后的数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+	
+	/**
+	 * 还原{@link #zigZag(long)}映射的数
+	 * 
+	 * @param value 映射后的数
+	 * @return 有符号数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	/**
+	 * 把读取到的输出, 条件或排序节点转为查询组
+	 * 
+	 * @param query 读取到的节点, 可以为null
+	 * @return 查询组, 节点为null时返回null
+	 * @throws IOException 节点不是查询组则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQueryGroup asGroup(SqlQuery query) throws IOException {
+		if(query != null && ! (query instanceof SqlQueryGroup)) {
+			throw new IOException("输出, 条件和排序需要是查询组");
+		}
+		return (SqlQueryGroup) query;
+	}
+	
+	/**
+	 * 静态类不允许实例化
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private SqlParameterCodec() {}
+}
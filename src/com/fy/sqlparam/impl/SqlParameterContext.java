@@ -0,0 +1,504 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fy.sqlparam.impl.SqlParameter.SqlPart;
+import com.fy.sqlparam.map.ISqlMapEntry;
+import com.fy.sqlparam.map.ISqlMapMeta;
+import com.fy.sqlparam.map.ISqlPart;
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * SQL搜索参数上下文的基本实现, 可以继承后在构造函数上使用{@link com.fy.sqlparam.map.config.MapMetaConfig}配置, 例如:
+ * <p><code>@MapMetaConfig(...) public UserContext() { super(true); }</code></p>
+ * <br/> 调用{@link #freeze()}冻结后不能再添加内容, 映射元信息的名称固定下来: 名称通过{@link SqlNameTable}完美哈希得到连续编号,
+ * 	默认内容中的引用占位符<code>{#name}</code>也在冻结时一次解析为编号, 映射时不再需要正则匹配和字符串哈希.
+ * 	冻结后映射元信息和其SQL成员不应再修改; 可以通过{@link #getPropertyRef(String)}获取按编号使用的属性引用.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlParameterContext implements ISqlParameterContext {
+	
+	/**
+	 * 映射元信息, key是名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Map<String, ISqlMapMeta> mapMetaMap = new LinkedHashMap<String, ISqlMapMeta>();
+	
+	/**
+	 * 默认加入的SQL成员
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final List<ISqlPart> sqlParts = new ArrayList<ISqlPart>();
+	
+	/**
+	 * 默认加入的映射键值对
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final List<ISqlMapEntry> mapEntries = new ArrayList<ISqlMapEntry>();
+	
+	/**
+	 * 冻结后的映射元信息编号, 未冻结为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private volatile SqlFrozenMapMetas frozen;
+	
+	/**
+	 * 构造空的搜索参数上下文
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameterContext() {}
+	
+	/**
+	 * 构造搜索参数上下文, 按类的构造函数上的映射元信息配置初始化
+	 * 
+	 * @param isFreeze 初始化后是否冻结
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	protected SqlParameterContext(boolean isFreeze) {
+		MapMetaAnnoInitializor.initFor(this);
+		if(isFreeze) {
+			this.freeze();
+		}
+	}
+	
+	@Override
+	public void addDefaultMapMeta(ISqlMapMeta mapMeta) {
+		this.checkNotFrozen();
+		if(mapMeta == null || mapMeta.getName() == null) {
+			throw new IllegalArgumentException("添加的映射元信息和其名称不能为null");
+		}
+		this.mapMetaMap.put(mapMeta.getName(), mapMeta);
+	}
+	
+	@Override
+	public ISqlMapMeta getDefaultMapMetaByName(String name) {
+		SqlFrozenMapMetas frozen = this.frozen;
+		if(frozen == null) {
+			return this.mapMetaMap.get(name);
+		}
+		int id = frozen.names.getId(name);
+		return id == -1 ? null : frozen.mapMetas[id];
+	}
+	
+	@Override
+	public void addDefaultSqlPart(ISqlPart sqlPart) {
+		this.checkNotFrozen();
+		if(sqlPart == null) {
+			throw new IllegalArgumentException("添加的默认SQL成员不能为null");
+		}
+		this.sqlParts.add(sqlPart);
+	}
+	
+	@Override
+	public List<ISqlPart> getDefaultSqlParts() {
+		return Collections.unmodifiableList(this.sqlParts);
+	}
+	
+	@Override
+	public void addDefaultMapEntry(ISqlMapEntry mapEntry) {
+		this.checkNotFrozen();
+		if(mapEntry == null) {
+			throw new IllegalArgumentException("添加的默认映射键值对不能为null");
+		}
+		this.mapEntries.add(mapEntry);
+	}
+	
+	@Override
+	public List<ISqlMapEntry> getDefaultMapEntries() {
+		return Collections.unmodifiableList(this.mapEntries);
+	}
+	
+	/**
+	 * 冻结搜索参数上下文: 为映射元信息名称生成完美哈希的编号, 并解析默认内容中的引用占位符; 重复调用不做处理
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized void freeze() {
+		if(this.frozen != null) {
+			return;
+		}
+		this.frozen = new SqlFrozenMapMetas(this, this.mapMetaMap, this.sqlParts, this.mapEntries);
+	}
+	
+	/**
+	 * 是否已冻结
+	 * 
+	 * @return 已冻结返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public boolean isFrozen() {
+		return this.frozen != null;
+	}
+	
+	/**
+	 * 获取映射元信息的编号
+	 * 
+	 * @param name 映射元信息的名称
+	 * @return 编号, 范围为[0, 映射元信息数量), 没有该名称返回-1
+	 * @throws IllegalArgumentException 未冻结则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getMapMetaId(CharSequence name) {
+		return this.getFrozen().names.getId(name);
+	}
+	
+	/**
+	 * 根据编号获取映射元信息
+	 * 
+	 * @param id 映射元信息的编号
+	 * @return 映射元信息
+	 * @throws IllegalArgumentException 未冻结或编号超出范围则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public ISqlMapMeta getMapMetaById(int id) {
+		SqlFrozenMapMetas frozen = this.getFrozen();
+		if(id < 0 || id >= frozen.mapMetas.length) {
+			throw new IllegalArgumentException(String.format("搜索参数上下文中没有编号为%d的映射元信息", id));
+		}
+		return frozen.mapMetas[id];
+	}
+	
+	/**
+	 * 获取属性引用, 同一个名称总是返回同一个实例
+	 * 
+	 * @param name 属性(映射元信息)的名称
+	 * @return 属性引用
+	 * @throws IllegalArgumentException 未冻结或没有该名称的映射元信息则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlPropertyRef getPropertyRef(String name) {
+		SqlFrozenMapMetas frozen = this.getFrozen();
+		int id = frozen.names.getId(name);
+		if(id == -1) {
+			throw new IllegalArgumentException(String.format("搜索参数上下文中没有名称为%s的映射元信息", name));
+		}
+		return frozen.propertyRefs[id];
+	}
+	
+	/**
+	 * 获取映射元信息的数量
+	 * 
+	 * @return 映射元信息的数量
+	 * @throws IllegalArgumentException 未冻结则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getMapMetaCount() {
+		return this.getFrozen().mapMetas.length;
+	}
+	
+	/**
+	 * 获取冻结后的映射元信息编号
+	 * 
+	 * @return 冻结后的映射元信息编号, 未冻结返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlFrozenMapMetas getFrozenOrNull() {
+		return this.frozen;
+	}
+	
+	/**
+	 * 获取冻结后的映射元信息编号
+	 * 
+	 * @return 冻结后的映射元信息编号
+	 * @throws IllegalArgumentException 未冻结则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private SqlFrozenMapMetas getFrozen() {
+		SqlFrozenMapMetas frozen = this.frozen;
+		if(frozen == null) {
+			throw new IllegalArgumentException("搜索参数上下文未冻结, 没有映射元信息的编号");
+		}
+		return frozen;
+	}
+	
+	/**
+	 * 检查未冻结
+	 * 
+	 * @throws IllegalArgumentException 已冻结则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void checkNotFrozen() {
+		if(this.frozen != null) {
+			throw new IllegalArgumentException("搜索参数上下文已冻结, 不能再添加内容");
+		}
+	}
+	
+	/**
+	 * 冻结后的映射元信息编号, 构造后不可变
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static final class SqlFrozenMapMetas {
+		
+		/**
+		 * 映射元信息名称的名称表
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final SqlNameTable names;
+		
+		/**
+		 * 映射元信息, 下标即编号
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final ISqlMapMeta[] mapMetas;
+		
+		/**
+		 * 引用占位符的映射字符串, 下标即编号
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final String[] referenceMapStrs;
+		
+		/**
+		 * 属性引用, 下标即编号
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final SqlPropertyRef[] propertyRefs;
+		
+		/**
+		 * 只引用一个映射元信息的引用占位符, 下标即编号, 用于属性引用生成的SQL成员
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final SqlReferences[] propertyReferences;
+		
+		/**
+		 * 默认内容中已解析的引用占位符, key是SQL成员实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Map<ISqlPart, SqlReferences> compiledReferences = new IdentityHashMap<ISqlPart, SqlReferences>();
+		
+		/**
+		 * 生成映射元信息编号并解析默认内容中的引用占位符
+		 * 
+		 * @param paramContext 冻结的搜索参数上下文
+		 * @param mapMetaMap 映射元信息
+		 * @param sqlParts 默认加入的SQL成员
+		 * @param mapEntries 默认加入的映射键值对
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private SqlFrozenMapMetas(SqlParameterContext paramContext, Map<String, ISqlMapMeta> mapMetaMap,
+				List<ISqlPart> sqlParts, List<ISqlMapEntry> mapEntries) {
+			this.names = new SqlNameTable(mapMetaMap.keySet());
+			this.mapMetas = new ISqlMapMeta[this.names.size()];
+			this.referenceMapStrs = new String[this.names.size()];
+			this.propertyRefs = new SqlPropertyRef[this.names.size()];
+			this.propertyReferences = new SqlReferences[this.names.size()];
+			for(int id = 0; id < this.mapMetas.length; id ++) {
+				String name = this.names.getName(id);
+				this.mapMetas[id] = mapMetaMap.get(name);
+				this.referenceMapStrs[id] = new StringBuilder("\\{#").append(name).append("\\}").toString();
+				this.propertyRefs[id] = new SqlPropertyRef(paramContext, id, name);
+				this.propertyReferences[id] = new SqlReferences(1, new int[] {id}, new String[] {name});
+			}
+			for(ISqlMapMeta mapMeta : this.mapMetas) {
+				for(ISqlPart sqlPart : mapMeta.getSqlParts()) {
+					this.compile(sqlPart);
+				}
+			}
+			for(ISqlPart sqlPart : sqlParts) {
+				this.compile(sqlPart);
+			}
+			for(ISqlMapEntry mapEntry : mapEntries) {
+				this.compile(mapEntry.getSqlPart());
+			}
+		}
+		
+		/**
+		 * 获取SQL成员中的引用占位符, 已解析的(默认内容和属性引用生成的)直接使用, 其它的现场解析
+		 * 
+		 * @param sqlPart SQL成员
+		 * @return 引用占位符
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		SqlReferences getReferences(ISqlPart sqlPart) {
+			if(sqlPart instanceof SqlPart && ((SqlPart) sqlPart).references != null) {
+				return ((SqlPart) sqlPart).references;
+			}
+			SqlReferences references = this.compiledReferences.get(sqlPart);
+			if(references != null) {
+				return references;
+			}
+			return this.parseReferences(sqlPart.getContent());
+		}
+		
+		/**
+		 * 解析并记录默认内容的SQL成员中的引用占位符
+		 * 
+		 * @param sqlPart SQL成员
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void compile(ISqlPart sqlPart) {
+			if(sqlPart != null && sqlPart.getContent() != null) {
+				this.compiledReferences.put(sqlPart, this.parseReferences(sqlPart.getContent()));
+			}
+		}
+		
+		/**
+		 * 逐字符解析SQL内容中的引用占位符<code>{#name}</code>和<code>{#:name}</code>, 名称在名称表中直接查找
+		 * 
+		 * @param content SQL内容
+		 * @return 引用占位符
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private SqlReferences parseReferences(CharSequence content) {
+			int count = 0;
+			int[] ids = null;
+			String[] names = null;
+			int length = content.length();
+			for(int i = 0; i + 2 < length; i ++) {
+				if(content.charAt(i) != '{' || content.charAt(i + 1) != '#') {
+					continue;
+				}
+				int start = content.charAt(i + 2) == ':' ? i + 3 : i + 2;
+				int end = start;
+				while(end < length && SqlFrozenMapMetas.isWordChar(content.charAt(end))) {
+					end ++;
+				}
+				if(end == start || end == length || content.charAt(end) != '}') {
+					continue;
+				}
+				if(ids == null) {
+					ids = new int[4];
+					names = new String[4];
+				} else if(count == ids.length) {
+					ids = Arrays.copyOf(ids, count * 2);
+					names = Arrays.copyOf(names, count * 2);
+				}
+				int id = this.names.getId(content, start, end);
+				ids[count] = id;
+				names[count] = id == -1 ? content.subSequence(start, end).toString() : this.names.getName(id);
+				count ++;
+				i = end;
+			}
+			return count == 0 ? SqlReferences.NONE : new SqlReferences(count, ids, names);
+		}
+		
+		/**
+		 * 是否为名称可以包含的字符, 与正则表达式的\w一致
+		 * 
+		 * @param c 字符
+		 * @return 是返回<tt>true</tt>
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static boolean isWordChar(char c) {
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+		}
+	}
+	
+	/**
+	 * SQL成员中按出现顺序排列的引用占位符
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static final class SqlReferences {
+		
+		/**
+		 * 没有引用占位符
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		static final SqlReferences NONE = new SqlReferences(0, new int[0], new String[0]);
+		
+		/**
+		 * 引用占位符数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final int count;
+		
+		/**
+		 * 引用的映射元信息编号, 不在冻结的映射元信息中为-1
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final int[] ids;
+		
+		/**
+		 * 引用的映射元信息名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		final String[] names;
+		
+		/**
+		 * 构造引用占位符
+		 * 
+		 * @param count 引用占位符数量
+		 * @param ids 引用的映射元信息编号
+		 * @param names 引用的映射元信息名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private SqlReferences(int count, int[] ids, String[] names) {
+			this.count = count;
+			this.ids = ids;
+			this.names = names;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.fy.sqlparam.impl;
+
+import java.util.Arrays;
+
+/**
+ * 搜索参数的键, 以{@link SqlParameterCodec}的编码作为内容, 可以作为缓存的键
+ * <br/> 按相同过程构建的搜索参数得到相等的键; 键不包含搜索参数上下文和源SQL语句, 需要时由调用者组合.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlParameterKey {
+	
+	/**
+	 * 搜索参数的编码
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final byte[] bytes;
+	
+	/**
+	 * 预先计算的哈希值
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int hash;
+	
+	/**
+	 * 由搜索参数的编码构造键
+	 * 
+	 * @param bytes 搜索参数的编码, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameterKey(byte[] bytes) {
+		if(bytes == null) {
+			throw new IllegalArgumentException("搜索参数的键的编码不能为null");
+		}
+		this.bytes = bytes.clone();
+		this.hash = Arrays.hashCode(this.bytes);
+	}
+	
+	/**
+	 * 获取搜索参数的编码
+	 * 
+	 * @return 编码的副本
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public byte[] getBytes() {
+		return this.bytes.clone();
+	}
+	
+	/**
+	 * 解码为新的搜索参数
+	 * 
+	 * @return 搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameter toParameter() {
+		return SqlParameterCodec.decode(this.bytes);
+	}
+	
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(! (obj instanceof SqlParameterKey)) {
+			return false;
+		}
+		SqlParameterKey other = (SqlParameterKey) obj;
+		return this.hash == other.hash && Arrays.equals(this.bytes, other.bytes);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder hex = new StringBuilder(this.bytes.length * 2);
+		for(byte b : this.bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+	
+	/**
+	 * 生成搜索参数的键
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @return 搜索参数的键
+	 * @throws IllegalArgumentException 包含不支持编码的参数类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlParameterKey of(SqlParameter parameter) {
+		if(parameter == null) {
+			throw new IllegalArgumentException("生成键的搜索参数不能为null");
+		}
+		return new SqlParameterKey(SqlParameterCodec.encode(parameter));
+	}
+}
@@ -0,0 +1,115 @@
+package com.fy.sqlparam.impl;
+
+/**
+ * 属性引用, 由冻结的{@link SqlParameterContext}按名称一次生成, 携带映射元信息的连续编号
+ * <br/> 用于{@link SqlParameter.Query#to(SqlPropertyRef)}, {@link SqlParameter#markSelect(SqlPropertyRef)}和
+ * 	{@link SqlParameter#markOrderBy(SqlPropertyRef, boolean)}, 占位符在生成时已格式化, 构建和映射时按编号处理.
+ * <br/> 使用属性引用构建的查询与使用同名字符串构建的查询等价, 也可以用于其它同名映射元信息的搜索参数上下文.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlPropertyRef {
+	
+	/**
+	 * 生成此属性引用的搜索参数上下文
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlParameterContext paramContext;
+	
+	/**
+	 * 映射元信息的编号
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int id;
+	
+	/**
+	 * 属性名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String name;
+	
+	/**
+	 * 引用占位符, 即<code>{#name}</code>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String placeholder;
+	
+	/**
+	 * 构造属性引用, 只由搜索参数上下文生成
+	 * 
+	 * @param paramContext 生成此属性引用的搜索参数上下文
+	 * @param id 映射元信息的编号
+	 * @param name 属性名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	SqlPropertyRef(SqlParameterContext paramContext, int id, String name) {
+		this.paramContext = paramContext;
+		this.id = id;
+		this.name = name;
+		this.placeholder = new StringBuilder("{#").append(name).append("}").toString();
+	}
+	
+	/**
+	 * 获取生成此属性引用的搜索参数上下文
+	 * 
+	 * @return 搜索参数上下文
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameterContext getParamContext() {
+		return this.paramContext;
+	}
+	
+	/**
+	 * 获取映射元信息的编号
+	 * 
+	 * @return 在生成此属性引用的搜索参数上下文中的编号
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getId() {
+		return this.id;
+	}
+	
+	/**
+	 * 获取属性名称
+	 * 
+	 * @return 属性名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * 获取引用占位符
+	 * 
+	 * @return 引用占位符
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String getPlaceholder() {
+		return this.placeholder;
+	}
+	
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
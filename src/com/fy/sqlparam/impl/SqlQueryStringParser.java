@@ -0,0 +1,644 @@
+package com.fy.sqlparam.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fy.sqlparam.impl.SqlParameter.SqlQueryStrategy;
+import com.fy.sqlparam.map.config.FieldMapMeta;
+import com.fy.sqlparam.map.config.MapMetaConfig;
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * HTTP查询字符串解析器, 把查询字符串直接解析为搜索参数的查询条件, 排序和分页
+ * <br/> 支持的参数(其它参数忽略):
+ * <br/> <code>filter=属性:操作[:值]</code>, 可以重复, 按AND连接; 操作为eq, ne, lt, lte, gt, gte, like,
+ * 	in, nin(值用逗号分隔), between(两个值用逗号分隔), null, notnull(没有值). 值解码为字符串, 需要时由数据库驱动转换类型.
+ * <br/> <code>sort=[-]属性</code>, 可以重复或用逗号分隔, 带-前缀为降序, 否则为升序.
+ * <br/> <code>page=页码</code>和<code>size=每页数量</code>, 出现任意一个时设置分页; 每页数量不能超过构造时指定的上限,
+ * 	页码对应的偏移量不能超过int的范围, 否则抛出异常.
+ * <br/> 属性名称通过{@link SqlNameTable}在原字符序列上直接校验, 不在表中则抛出异常; 除了查询和值本身不创建其它对象,
+ * 	值只有包含百分号编码时才经过解码. 解析器不可变, 可以被多个线程共用.
+ * <br/> 例如: <p><code>filter=status:eq:1&amp;filter=createdAt:between:2020-01-01,2020-02-01&amp;sort=-id&amp;page=3</code></p>
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlQueryStringParser {
+	
+	/**
+	 * 查询条件的参数名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final String KEY_FILTER = "filter";
+	
+	/**
+	 * 排序的参数名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final String KEY_SORT = "sort";
+	
+	/**
+	 * 页码的参数名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final String KEY_PAGE = "page";
+	
+	/**
+	 * 每页数量的参数名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final String KEY_SIZE = "size";
+	
+	/**
+	 * 默认的每页数量上限
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_MAX_PAGE_SIZE = 1000;
+	
+	/**
+	 * 未指定每页数量时分页使用的每页数量, 与{@link SqlParameter#setPagination(int, int, int)}的默认值一致
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int DEFAULT_PAGE_SIZE = 10;
+	
+	/**
+	 * 可以查询和排序的属性名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final SqlNameTable propertyNames;
+	
+	/**
+	 * 每页数量上限
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxPageSize;
+	
+	/**
+	 * 使用搜索参数上下文类配置的可查询字段构造解析器
+	 * 
+	 * @param paramContextClass 搜索参数上下文类, 其构造函数上有{@link MapMetaConfig}注解
+	 * @throws IllegalArgumentException 没有映射元信息配置则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlQueryStringParser(Class<? extends ISqlParameterContext> paramContextClass) {
+		this(SqlQueryStringParser.getQueryFieldNames(paramContextClass), DEFAULT_MAX_PAGE_SIZE);
+	}
+	
+	/**
+	 * 使用指定的属性名称构造解析器, 每页数量上限为{@link #DEFAULT_MAX_PAGE_SIZE}
+	 * 
+	 * @param propertyNames 可以查询和排序的属性名称, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlQueryStringParser(SqlNameTable propertyNames) {
+		this(propertyNames, DEFAULT_MAX_PAGE_SIZE);
+	}
+	
+	/**
+	 * 使用指定的属性名称和每页数量上限构造解析器
+	 * 
+	 * @param propertyNames 可以查询和排序的属性名称, 不能为null
+	 * @param maxPageSize 每页数量上限, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlQueryStringParser(SqlNameTable propertyNames, int maxPageSize) {
+		if(propertyNames == null) {
+			throw new IllegalArgumentException("查询字符串解析器的属性名称表不能为null");
+		}
+		if(maxPageSize < 1) {
+			throw new IllegalArgumentException("查询字符串解析器的每页数量上限不能小于1");
+		}
+		this.propertyNames = propertyNames;
+		this.maxPageSize = maxPageSize;
+	}
+	
+	/**
+	 * 解析查询字符串为新的搜索参数
+	 * 
+	 * @param queryString 查询字符串, 不包含?, 不能为null
+	 * @return 搜索参数
+	 * @throws IllegalArgumentException 查询字符串格式错误或属性不可查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameter parse(CharSequence queryString) {
+		SqlParameter parameter = new SqlParameter();
+		this.parse(queryString, parameter);
+		return parameter;
+	}
+	
+	/**
+	 * 解析查询字符串加入到搜索参数
+	 * 
+	 * @param queryString 查询字符串, 不包含?, 不能为null
+	 * @param parameter 加入的搜索参数, 不能为null; 查询条件按AND加入, 排序追加在已有排序之后, 分页会覆盖
+	 * @throws IllegalArgumentException 查询字符串格式错误或属性不可查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public void parse(CharSequence queryString, SqlParameter parameter) {
+		if(queryString == null) {
+			throw new IllegalArgumentException("解析的查询字符串不能为null");
+		}
+		this.parse(queryString, false, parameter);
+	}
+	
+	/**
+	 * 解析字节形式的查询字符串为新的搜索参数
+	 * 
+	 * @param queryString 查询字符串的字节, 读取position到limit之间的内容且不改变position; 非ASCII字节按UTF-8解码
+	 * @return 搜索参数
+	 * @throws IllegalArgumentException 查询字符串格式错误或属性不可查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlParameter parse(ByteBuffer queryString) {
+		SqlParameter parameter = new SqlParameter();
+		this.parse(queryString, parameter);
+		return parameter;
+	}
+	
+	/**
+	 * 解析字节形式的查询字符串加入到搜索参数
+	 * 
+	 * @param queryString 查询字符串的字节, 读取position到limit之间的内容且不改变position; 非ASCII字节按UTF-8解码
+	 * @param parameter 加入的搜索参数, 不能为null; 查询条件按AND加入, 排序追加在已有排序之后, 分页会覆盖
+	 * @throws IllegalArgumentException 查询字符串格式错误或属性不可查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public void parse(ByteBuffer queryString, SqlParameter parameter) {
+		if(queryString == null) {
+			throw new IllegalArgumentException("解析的查询字符串不能为null");
+		}
+		this.parse(new ByteChars(queryString, queryString.position(), queryString.remaining()), true, parameter);
+	}
+	
+	/**
+	 * 按&amp;分隔逐个解析参数
+	 * 
+	 * @param chars 查询字符串
+	 * @param isBytes 字符是否为未解码的字节
+	 * @param parameter 加入的搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void parse(CharSequence chars, boolean isBytes, SqlParameter parameter) {
+		if(parameter == null) {
+			throw new IllegalArgumentException("解析查询字符串加入的搜索参数不能为null");
+		}
+		int page = -1;
+		int size = -1;
+		int length = chars.length();
+		int start = 0;
+		while(start < length) {
+			int end = SqlQueryStringParser.indexOf(chars, '&', start, length);
+			int equal = SqlQueryStringParser.indexOf(chars, '=', start, end);
+			int valueStart = equal < end ? equal + 1 : end;
+			if(SqlQueryStringParser.matches(chars, start, equal, KEY_FILTER)) {
+				this.parseFilter(chars, valueStart, end, isBytes, parameter);
+			} else if(SqlQueryStringParser.matches(chars, start, equal, KEY_SORT)) {
+				this.parseSort(chars, valueStart, end, parameter);
+			} else if(SqlQueryStringParser.matches(chars, start, equal, KEY_PAGE)) {
+				page = SqlQueryStringParser.parseInt(chars, valueStart, end, KEY_PAGE);
+			} else if(SqlQueryStringParser.matches(chars, start, equal, KEY_SIZE)) {
+				size = SqlQueryStringParser.parseInt(chars, valueStart, end, KEY_SIZE);
+			}
+			start = end + 1;
+		}
+		if(page != -1 || size != -1) {
+			if(size > this.maxPageSize) {
+				throw new IllegalArgumentException(String.format("查询字符串中的参数%s不能超过%d", KEY_SIZE, this.maxPageSize));
+			}
+			long offset = (long) (Math.max(page, 1) - 1) * (size == -1 ? DEFAULT_PAGE_SIZE : size);
+			if(offset > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException(String.format("查询字符串中的参数%s过大, 偏移量超出范围", KEY_PAGE));
+			}
+			parameter.setPagination(page, size, 0); /* 未指定的部分由分页的默认值处理 */
+		}
+	}
+	
+	/**
+	 * 解析一个查询条件: 属性:操作[:值]
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param isBytes 字符是否为未解码的字节
+	 * @param parameter 加入的搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void parseFilter(CharSequence chars, int start, int end, boolean isBytes, SqlParameter parameter) {
+		int propertyEnd = SqlQueryStringParser.indexOf(chars, ':', start, end);
+		if(propertyEnd == end) {
+			throw new IllegalArgumentException(String.format("查询条件%s缺少操作", chars.subSequence(start, end)));
+		}
+		String propertyName = this.getPropertyName(chars, start, propertyEnd);
+		int opStart = propertyEnd + 1;
+		int opEnd = SqlQueryStringParser.indexOf(chars, ':', opStart, end);
+		int valueStart = opEnd < end ? opEnd + 1 : -1;
+		SqlQueryStrategy strategy;
+		Object[] queryArgs;
+		if(SqlQueryStringParser.matches(chars, opStart, opEnd, "null")) {
+			strategy = SqlQueryStrategy.IS_NULL;
+			queryArgs = new Object[0];
+		} else if(SqlQueryStringParser.matches(chars, opStart, opEnd, "notnull")) {
+			strategy = SqlQueryStrategy.IS_NOT_NULL;
+			queryArgs = new Object[0];
+		} else {
+			if(valueStart == -1 || valueStart == end) {
+				throw new IllegalArgumentException(String.format("查询条件%s缺少值", chars.subSequence(start, end)));
+			}
+			if(SqlQueryStringParser.matches(chars, opStart, opEnd, "in")) {
+				strategy = SqlQueryStrategy.IN;
+				queryArgs = SqlQueryStringParser.decodeList(chars, valueStart, end, isBytes, -1);
+			} else if(SqlQueryStringParser.matches(chars, opStart, opEnd, "nin")) {
+				strategy = SqlQueryStrategy.NOT_IN;
+				queryArgs = SqlQueryStringParser.decodeList(chars, valueStart, end, isBytes, -1);
+			} else if(SqlQueryStringParser.matches(chars, opStart, opEnd, "between")) {
+				strategy = SqlQueryStrategy.BETWEEN;
+				queryArgs = SqlQueryStringParser.decodeList(chars, valueStart, end, isBytes, 2);
+			} else {
+				strategy = SqlQueryStringParser.getSingleValueStrategy(chars, opStart, opEnd);
+				queryArgs = new Object[] {SqlQueryStringParser.decode(chars, valueStart, end, isBytes)};
+			}
+		}
+		parameter.query(SqlParameter.newQuery(propertyName, strategy, null, queryArgs));
+	}
+	
+	/**
+	 * 解析排序: 用逗号分隔的[-]属性
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param parameter 加入的搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void parseSort(CharSequence chars, int start, int end, SqlParameter parameter) {
+		while(start < end) {
+			int itemEnd = SqlQueryStringParser.indexOf(chars, ',', start, end);
+			if(itemEnd > start) {
+				char sign = chars.charAt(start);
+				boolean isAsc = sign != '-';
+				int nameStart = sign == '-' || sign == '+' ? start + 1 : start;
+				parameter.markOrderBy(this.getPropertyName(chars, nameStart, itemEnd), isAsc);
+			}
+			start = itemEnd + 1;
+		}
+	}
+	
+	/**
+	 * 在原字符序列上校验属性名称, 返回名称表中的字符串实例
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @return 属性名称
+	 * @throws IllegalArgumentException 属性不可查询则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private String getPropertyName(CharSequence chars, int start, int end) {
+		int id = this.propertyNames.getId(chars, start, end);
+		if(id == -1) {
+			throw new IllegalArgumentException(String.format("查询字符串中的属性%s不可查询", chars.subSequence(start, end)));
+		}
+		return this.propertyNames.getName(id);
+	}
+	
+	/**
+	 * 获取只有一个值的操作对应的查询策略
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 操作的开始位置(包含)
+	 * @param end 操作的结束位置(不包含)
+	 * @return 查询策略
+	 * @throws IllegalArgumentException 不支持的操作则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlQueryStrategy getSingleValueStrategy(CharSequence chars, int start, int end) {
+		if(SqlQueryStringParser.matches(chars, start, end, "eq")) {
+			return SqlQueryStrategy.EQ;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "ne")) {
+			return SqlQueryStrategy.NOT_EQ;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "lt")) {
+			return SqlQueryStrategy.LESS_THAN;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "lte")) {
+			return SqlQueryStrategy.NOT_GREATER_THAN;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "gt")) {
+			return SqlQueryStrategy.GREATER_THAN;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "gte")) {
+			return SqlQueryStrategy.NOT_LESS_THAN;
+		}
+		if(SqlQueryStringParser.matches(chars, start, end, "like")) {
+			return SqlQueryStrategy.LIKE;
+		}
+		throw new IllegalArgumentException(String.format("查询字符串中的操作%s不支持", chars.subSequence(start, end)));
+	}
+	
+	/**
+	 * 解码用逗号分隔的多个值, 忽略空的值
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param isBytes 字符是否为未解码的字节
+	 * @param expectedCount 期望的值数量, 不限制为-1
+	 * @return 值数组
+	 * @throws IllegalArgumentException 没有值或数量不符合则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Object[] decodeList(CharSequence chars, int start, int end, boolean isBytes, int expectedCount) {
+		int count = 0;
+		for(int i = start; i <= end; i ++) {
+			if((i == end || chars.charAt(i) == ',') && i > start && chars.charAt(i - 1) != ',') {
+				count ++;
+			}
+		}
+		if(count == 0 || (expectedCount != -1 && count != expectedCount)) {
+			throw new IllegalArgumentException(String.format("查询字符串中的值%s数量不正确", chars.subSequence(start, end)));
+		}
+		Object[] values = new Object[count];
+		int index = 0;
+		while(start < end) {
+			int itemEnd = SqlQueryStringParser.indexOf(chars, ',', start, end);
+			if(itemEnd > start) {
+				values[index ++] = SqlQueryStringParser.decode(chars, start, itemEnd, isBytes);
+			}
+			start = itemEnd + 1;
+		}
+		return values;
+	}
+	
+	/**
+	 * 解码一个值, 没有百分号编码和+号时直接截取
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param isBytes 字符是否为未解码的字节
+	 * @return 值
+	 * @throws IllegalArgumentException 百分号编码格式错误则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static String decode(CharSequence chars, int start, int end, boolean isBytes) {
+		boolean isPlain = true;
+		for(int i = start; i < end && isPlain; i ++) {
+			char c = chars.charAt(i);
+			isPlain = c != '%' && c != '+' && ! (isBytes && c >= 0x80);
+		}
+		if(isPlain) {
+			return chars.subSequence(start, end).toString();
+		}
+		// 连续的字节(百分号编码或未解码的字节)按UTF-8整体解码
+		StringBuilder result = new StringBuilder(end - start);
+		byte[] pending = new byte[end - start];
+		int pendingCount = 0;
+		for(int i = start; i < end; i ++) {
+			char c = chars.charAt(i);
+			if(c == '%') {
+				if(i + 2 >= end || Character.digit(chars.charAt(i + 1), 16) == -1
+						|| Character.digit(chars.charAt(i + 2), 16) == -1) {
+					throw new IllegalArgumentException(String.format("查询字符串中的值%s的百分号编码不正确",
+							chars.subSequence(start, end)));
+				}
+				pending[pendingCount ++] = (byte) (Character.digit(chars.charAt(i + 1), 16) << 4
+						| Character.digit(chars.charAt(i + 2), 16));
+				i += 2;
+				continue;
+			}
+			if(isBytes && c >= 0x80) {
+				pending[pendingCount ++] = (byte) c;
+				continue;
+			}
+			if(pendingCount > 0) {
+				result.append(new String(pending, 0, pendingCount, StandardCharsets.UTF_8));
+				pendingCount = 0;
+			}
+			result.append(c == '+' ? ' ' : c);
+		}
+		if(pendingCount > 0) {
+			result.append(new String(pending, 0, pendingCount, StandardCharsets.UTF_8));
+		}
+		return result.toString();
+	}
+	
+	/**
+	 * 解析非负整数
+	 * 
+	 * @param chars 查询字符串
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param key 参数名称, 用于错误信息
+	 * @return 整数
+	 * @throws IllegalArgumentException 不是非负整数则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int parseInt(CharSequence chars, int start, int end, String key) {
+		if(start == end || end - start > 9) {
+			throw new IllegalArgumentException(String.format("查询字符串中的参数%s的值不正确", key));
+		}
+		int result = 0;
+		for(int i = start; i < end; i ++) {
+			char c = chars.charAt(i);
+			if(c < '0' || c > '9') {
+				throw new IllegalArgumentException(String.format("查询字符串中的参数%s的值不正确", key));
+			}
+			result = result * 10 + (c - '0');
+		}
+		return result;
+	}
+	
+	/**
+	 * 查找字符的位置
+	 * 
+	 * @param chars 字符序列
+	 * @param c 查找的字符
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @return 字符的位置, 找不到返回结束位置
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int indexOf(CharSequence chars, char c, int start, int end) {
+		for(int i = start; i < end; i ++) {
+			if(chars.charAt(i) == c) {
+				return i;
+			}
+		}
+		return end;
+	}
+	
+	/**
+	 * 判断字符序列中的一段是否与字符串相同
+	 * 
+	 * @param chars 字符序列
+	 * @param start 开始位置(包含)
+	 * @param end 结束位置(不包含)
+	 * @param str 比较的字符串
+	 * @return 相同返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static boolean matches(CharSequence chars, int start, int end, String str) {
+		if(end - start != str.length()) {
+			return false;
+		}
+		for(int i = 0; i < str.length(); i ++) {
+			if(chars.charAt(start + i) != str.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * 获取搜索参数上下文类配置的可查询字段名称
+	 * 
+	 * @param paramContextClass 搜索参数上下文类
+	 * @return 可查询字段名称的名称表
+	 * @throws IllegalArgumentException 没有映射元信息配置则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlNameTable getQueryFieldNames(Class<? extends ISqlParameterContext> paramContextClass) {
+		if(paramContextClass == null) {
+			throw new IllegalArgumentException("查询字符串解析器的搜索参数上下文类不能为null");
+		}
+		MapMetaConfig config = MapMetaAnnoInitializor.getConfig(paramContextClass);
+		if(config == null) {
+			throw new IllegalArgumentException(String.format("搜索参数上下文类%s没有映射元信息配置",
+					paramContextClass.getName()));
+		}
+		List<String> names = new ArrayList<String>();
+		for(FieldMapMeta queryFieldAnno : config.queryFields()) {
+			names.add(queryFieldAnno.name());
+		}
+		return new SqlNameTable(names);
+	}
+	
+	/**
+	 * 字节缓冲的字符序列视图, 每个字节作为一个字符(ISO-8859-1), 不复制内容
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class ByteChars implements CharSequence {
+		
+		/**
+		 * 字节缓冲
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ByteBuffer buffer;
+		
+		/**
+		 * 在字节缓冲中的开始位置
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int offset;
+		
+		/**
+		 * 字符数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final int length;
+		
+		/**
+		 * 构造字节缓冲的字符序列视图
+		 * 
+		 * @param buffer 字节缓冲
+		 * @param offset 开始位置
+		 * @param length 字符数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private ByteChars(ByteBuffer buffer, int offset, int length) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+		
+		@Override
+		public int length() {
+			return this.length;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			return (char) (this.buffer.get(this.offset + index) & 0xFF);
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new ByteChars(this.buffer, this.offset + start, end - start);
+		}
+		
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[this.length];
+			for(int i = 0; i < this.length; i ++) {
+				bytes[i] = this.buffer.get(this.offset + i);
+			}
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.fy.sqlparam.impl;
+
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.map.ISqlRenderer;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 通过映射上下文渲染的SQL渲染器
+ * <br/> 即{@link SqlMapContext#generateMapResult(String)}的渲染方式, 作为其它渲染器的对照基准.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlRenderer implements ISqlRenderer {
+	
+	/**
+	 * 渲染使用的方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlDialect dialect;
+	
+	/**
+	 * 构造使用MySQL方言的渲染器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlRenderer() {
+		this(SqlDialect.MYSQL.instance());
+	}
+	
+	/**
+	 * 构造使用指定方言的渲染器
+	 * 
+	 * @param dialect 渲染使用的方言, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlRenderer(ISqlDialect dialect) {
+		if(dialect == null) {
+			throw new IllegalArgumentException("SQL方言不能为null");
+		}
+		this.dialect = dialect;
+	}
+	
+	@Override
+	public ISqlMapResult render(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql) {
+		if(parameter == null) {
+			throw new IllegalArgumentException("搜索参数不能为null");
+		}
+		return parameter.generateMapContext(paramContext, new SqlMapper(this.dialect)).generateMapResult(rawSql);
+	}
+}
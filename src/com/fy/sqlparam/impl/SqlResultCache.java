@@ -0,0 +1,359 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlResultCache;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * SQL查询结果缓存实现
+ * <br/> 容量有限, 超出时淘汰最久未使用的结果. 每个结果按映射结果的{@link ISqlMapResult#getTableNames()}
+ * 	建立数据库表索引, 失效某张表时只淘汰使用了该表的结果.
+ * <br/> 可以指定下一级缓存(例如{@link SqlOffHeapResultCache}), 淘汰的结果会转存到下一级缓存,
+ * 	未命中时再从下一级缓存读取, 失效会同时作用于下一级缓存. 下一级缓存不接受的结果在淘汰时直接丢弃,
+ * 	例如{@link SqlOffHeapResultCache}只接受{@link SqlExecutor.SqlRow}的结果列表, 其它类型的结果只保留在本级.
+ * 	从下一级缓存命中的结果会复制为堆内的列表并重新放入本级, 返回的列表不受下一级缓存淘汰或失效的影响.
+ * <br/> 结果的键包含结果行映射器实例, 同一个映射结果通过不同的映射器得到的结果分别缓存, 转存时一并交给下一级缓存.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlResultCache implements ISqlResultCache {
+	
+	/**
+	 * 最多缓存的结果数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxEntries;
+	
+	/**
+	 * 下一级缓存, 可以为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlResultCache nextTier;
+	
+	/**
+	 * 缓存的结果, 按访问顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final LinkedHashMap<SqlMapResultKey, CacheEntry> entries;
+	
+	/**
+	 * 数据库表索引, key是小写的数据库表名称, value是使用了该表的结果的键
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Map<String, Set<SqlMapResultKey>> tableIndex = new HashMap<String, Set<SqlMapResultKey>>();
+	
+	/**
+	 * 发生失效的次数, 用于判断执行期间是否发生过失效
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long invalidationCount;
+	
+	/**
+	 * 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long hitCount;
+	
+	/**
+	 * 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long missCount;
+	
+	/**
+	 * 构造SQL查询结果缓存实例
+	 * 
+	 * @param maxEntries 最多缓存的结果数量, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlResultCache(int maxEntries) {
+		this(maxEntries, null);
+	}
+	
+	/**
+	 * 构造带下一级缓存的SQL查询结果缓存实例
+	 * 
+	 * @param maxEntries 最多缓存的结果数量, 不能小于1
+	 * @param nextTier 下一级缓存, 为null时没有下一级缓存; 淘汰的结果不被下一级缓存接受时直接丢弃
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlResultCache(int maxEntries, ISqlResultCache nextTier) {
+		if(maxEntries < 1) {
+			throw new IllegalArgumentException("SQL查询结果缓存的容量不能小于1");
+		}
+		this.maxEntries = maxEntries;
+		this.nextTier = nextTier;
+		this.entries = new LinkedHashMap<SqlMapResultKey, CacheEntry>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SqlMapResultKey, CacheEntry> eldest) {
+				if(this.size() <= SqlResultCache.this.maxEntries) {
+					return false;
+				}
+				SqlResultCache.this.unindex(eldest.getKey(), eldest.getValue());
+				SqlResultCache.this.demote(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+		};
+	}
+	
+	@Override
+	public synchronized <T> List<T> get(ISqlMapResult mapResult) {
+		return this.get(mapResult, null);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized <T> List<T> get(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) {
+		CacheEntry entry = this.entries.get(SqlMapResultKey.of(mapResult, rowMapper));
+		if(entry == null) {
+			List<T> rows = this.nextTier == null ? null : this.copyRows(this.nextTier.get(mapResult, rowMapper));
+			if(rows == null) {
+				this.missCount ++;
+				return null;
+			}
+			this.hitCount ++;
+			this.put(mapResult, rowMapper, rows);
+			return Collections.unmodifiableList(rows);
+		}
+		this.hitCount ++;
+		return (List<T>) entry.rows;
+	}
+	
+	@Override
+	public synchronized void put(ISqlMapResult mapResult, List<?> rows) {
+		this.put(mapResult, null, rows);
+	}
+	
+	@Override
+	public synchronized void put(ISqlMapResult mapResult, ISqlRowMapper<?> rowMapper, List<?> rows) {
+		if(rows == null) {
+			throw new IllegalArgumentException("缓存的结果列表不能为null");
+		}
+		SqlMapResultKey key = SqlMapResultKey.of(mapResult, rowMapper);
+		CacheEntry entry = new CacheEntry(Collections.unmodifiableList(rows), mapResult.getTableNames());
+		CacheEntry oldEntry = this.entries.put(key, entry);
+		if(oldEntry != null) {
+			this.unindex(key, oldEntry);
+		}
+		for(String tableName : entry.tableNames) {
+			String indexName = tableName.toLowerCase();
+			Set<SqlMapResultKey> keys = this.tableIndex.get(indexName);
+			if(keys == null) {
+				keys = new HashSet<SqlMapResultKey>();
+				this.tableIndex.put(indexName, keys);
+			}
+			keys.add(key);
+		}
+	}
+	
+	@Override
+	public <T> List<T> query(ISqlExecutor executor, ISqlMapResult mapResult,
+			ISqlRowMapper<T> rowMapper) throws SQLException {
+		if(executor == null) {
+			throw new IllegalArgumentException("执行查询的SQL执行器不能为null");
+		}
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		long lastInvalidationCount;
+		synchronized(this) {
+			List<T> rows = this.get(mapResult, rowMapper);
+			if(rows != null) {
+				return rows;
+			}
+			lastInvalidationCount = this.invalidationCount;
+		}
+		List<T> rows = executor.query(mapResult, rowMapper);
+		synchronized(this) {
+			// 执行期间发生过失效, 结果可能已经过期, 不缓存
+			if(lastInvalidationCount == this.invalidationCount) {
+				this.put(mapResult, rowMapper, rows);
+			}
+		}
+		return rows;
+	}
+	
+	@Override
+	public synchronized int invalidate(String tableName) {
+		if(tableName == null) {
+			return 0;
+		}
+		this.invalidationCount ++;
+		int count = this.nextTier == null ? 0 : this.nextTier.invalidate(tableName);
+		Set<SqlMapResultKey> keys = this.tableIndex.remove(tableName.toLowerCase());
+		if(keys == null) {
+			return count;
+		}
+		for(SqlMapResultKey key : keys) {
+			CacheEntry entry = this.entries.remove(key);
+			if(entry == null) {
+				continue;
+			}
+			this.unindex(key, entry);
+			count ++;
+		}
+		return count;
+	}
+	
+	@Override
+	public synchronized void invalidateAll() {
+		this.invalidationCount ++;
+		this.entries.clear();
+		this.tableIndex.clear();
+		if(this.nextTier != null) {
+			this.nextTier.invalidateAll();
+		}
+	}
+	
+	@Override
+	public synchronized int size() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * 获取命中缓存的次数
+	 * 
+	 * @return 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+	
+	/**
+	 * 获取未命中缓存的次数
+	 * 
+	 * @return 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+	
+	/**
+	 * 缓存的结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class CacheEntry {
+		
+		/**
+		 * 结果列表, 不可修改
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final List<?> rows;
+		
+		/**
+		 * 结果使用的数据库表名称
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final Set<String> tableNames;
+		
+		private CacheEntry(List<?> rows, Set<String> tableNames) {
+			this.rows = rows;
+			this.tableNames = tableNames;
+		}
+	}
+	
+	/**
+	 * 把淘汰的结果转存到下一级缓存, 下一级缓存不接受(例如不支持的结果类型或不区分映射器)时结果被丢弃
+	 * 
+	 * @param key 结果的键
+	 * @param entry 缓存的结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void demote(SqlMapResultKey key, CacheEntry entry) {
+		if(this.nextTier == null) {
+			return;
+		}
+		this.nextTier.put(new SqlMapContext.SqlMapResult(key.getSql(), key.getArgObjs(), null, entry.tableNames),
+				(ISqlRowMapper<?>) key.getOwner(), entry.rows);
+	}
+	
+	/**
+	 * 把下一级缓存返回的结果列表复制为堆内的列表
+	 * <br/> 下一级缓存的列表可能在读取期间被淘汰或失效(例如{@link SqlOffHeapResultCache}的列表会抛出{@link IllegalStateException}),
+	 * 	此时视为未命中.
+	 * 
+	 * @param rows 下一级缓存返回的结果列表, 可以为null
+	 * @return 复制的结果列表, 未命中或复制期间被淘汰返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private <T> List<T> copyRows(List<T> rows) {
+		if(rows == null) {
+			return null;
+		}
+		try {
+			return new ArrayList<T>(rows);
+		} catch (IllegalStateException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 从数据库表索引中移除结果的键
+	 * 
+	 * @param key 结果的键
+	 * @param entry 缓存的结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void unindex(SqlMapResultKey key, CacheEntry entry) {
+		for(String tableName : entry.tableNames) {
+			String indexName = tableName.toLowerCase();
+			Set<SqlMapResultKey> keys = this.tableIndex.get(indexName);
+			if(keys == null) {
+				continue;
+			}
+			keys.remove(key);
+			if(keys.isEmpty()) {
+				this.tableIndex.remove(indexName);
+			}
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 可输出字段与结果集列的对应关系
+ * <br/> 按可输出字段的数据库字段名称推断结果集的列名称: 有别名时使用别名, 否则使用去掉表别名后的字段名称;
+ * 	也可以直接使用字段名称作为列名称, 不区分大小写和下划线.
+ * <br/> 同一组列名称(即同一种语句形态)只解析一次列的位置, 之后直接使用缓存.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public final class SqlSelectColumns {
+	
+	/**
+	 * 匹配数据库字段名称末尾别名的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Pattern REGEXP_ALIAS = Pattern.compile("(?i)\\s(?:AS\\s+)?[`\"\\[]?(\\w+)[`\"\\]]?\\s*$");
+	
+	/**
+	 * 匹配数据库字段名称的正则表达式, 可以带表别名
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Pattern REGEXP_COLUMN = Pattern.compile("^(?:[`\"\\[]?\\w+[`\"\\]]?\\.)*[`\"\\[]?(\\w+)[`\"\\]]?$");
+	
+	/**
+	 * 字段名称数组, 按配置的顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String[] fieldNames;
+	
+	/**
+	 * 按字段顺序推断的列名称, 无法推断时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String[] columnLabels;
+	
+	/**
+	 * 已解析的列的位置, key是结果集的所有列名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ConcurrentMap<String, int[]> resolvedIndexes = new ConcurrentHashMap<String, int[]>();
+	
+	/**
+	 * 构造可输出字段与结果集列的对应关系
+	 * 
+	 * @param selectFields 可输出字段, key是字段名称, value是对应的数据库字段名称, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlSelectColumns(Map<String, String> selectFields) {
+		if(selectFields == null) {
+			throw new IllegalArgumentException("可输出字段不能为null");
+		}
+		this.fieldNames = selectFields.keySet().toArray(new String[selectFields.size()]);
+		this.columnLabels = new String[this.fieldNames.length];
+		for(int i = 0; i < this.fieldNames.length; i ++) {
+			this.columnLabels[i] = SqlSelectColumns.getColumnLabel(selectFields.get(this.fieldNames[i]));
+		}
+	}
+	
+	/**
+	 * 生成搜索参数上下文类配置的可输出字段与结果集列的对应关系
+	 * 
+	 * @param paramContextClass 搜索参数上下文类, 其构造函数上有{@link com.fy.sqlparam.map.config.MapMetaConfig}注解
+	 * @return 可输出字段与结果集列的对应关系
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlSelectColumns of(Class<? extends ISqlParameterContext> paramContextClass) {
+		if(paramContextClass == null) {
+			throw new IllegalArgumentException("搜索参数上下文类不能为null");
+		}
+		return new SqlSelectColumns(MapMetaAnnoInitializor.getSelectFields(paramContextClass));
+	}
+	
+	/**
+	 * 获取字段名称数组
+	 * 
+	 * @return 字段名称数组的副本, 按配置的顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String[] getFieldNames() {
+		return this.fieldNames.clone();
+	}
+	
+	/**
+	 * 获取字段的数量
+	 * 
+	 * @return 字段的数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getFieldCount() {
+		return this.fieldNames.length;
+	}
+	
+	/**
+	 * 查找字段名称的位置
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 字段的位置, 找不到返回-1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int indexOfField(String fieldName) {
+		for(int i = 0; i < this.fieldNames.length; i ++) {
+			if(this.fieldNames[i].equals(fieldName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * 解析每个字段在结果集中的列的位置
+	 * 
+	 * @param metaData 结果集元信息
+	 * @return 按字段顺序的列的位置(从1开始), 结果集中没有的字段为0; 返回的数组不能修改
+	 * @throws SQLException 读取元信息失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int[] resolve(ResultSetMetaData metaData) throws SQLException {
+		String[] resultLabels = SqlExecutor.getColumnLabels(metaData);
+		String shapeKey = Arrays.toString(resultLabels);
+		int[] indexes = this.resolvedIndexes.get(shapeKey);
+		if(indexes != null) {
+			return indexes;
+		}
+		indexes = new int[this.fieldNames.length];
+		for(int i = 0; i < this.fieldNames.length; i ++) {
+			indexes[i] = SqlSelectColumns.findColumn(resultLabels, this.columnLabels[i]);
+			if(indexes[i] == 0) {
+				indexes[i] = SqlSelectColumns.findColumn(resultLabels, this.fieldNames[i]);
+			}
+		}
+		int[] existIndexes = this.resolvedIndexes.putIfAbsent(shapeKey, indexes);
+		return existIndexes == null ? indexes : existIndexes;
+	}
+	
+	/**
+	 * 推断数据库字段名称在结果集中的列名称
+	 * 
+	 * @param dbFieldName 数据库字段名称, 可以带表别名或列别名
+	 * @return 列名称, 无法推断(例如是表达式)时返回null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static String getColumnLabel(String dbFieldName) {
+		if(dbFieldName == null) {
+			return null;
+		}
+		String trimmed = dbFieldName.trim();
+		Matcher aliasMatcher = REGEXP_ALIAS.matcher(trimmed);
+		// CASE表达式的结尾不是别名
+		if(aliasMatcher.find() && ! "END".equalsIgnoreCase(aliasMatcher.group(1))) {
+			return aliasMatcher.group(1);
+		}
+		Matcher columnMatcher = REGEXP_COLUMN.matcher(trimmed);
+		if(columnMatcher.matches()) {
+			return columnMatcher.group(1);
+		}
+		return null;
+	}
+	
+	/**
+	 * 在结果集的列名称中查找列, 不区分大小写和下划线
+	 * 
+	 * @param resultLabels 结果集的列名称
+	 * @param label 查找的列名称, 可以为null
+	 * @return 列的位置, 从1开始, 找不到返回0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static int findColumn(String[] resultLabels, String label) {
+		if(label == null) {
+			return 0;
+		}
+		for(int i = 0; i < resultLabels.length; i ++) {
+			if(resultLabels[i].equalsIgnoreCase(label)) {
+				return i + 1;
+			}
+		}
+		String normalizedLabel = label.replace("_", "");
+		for(int i = 0; i < resultLabels.length; i ++) {
+			if(resultLabels[i].replace("_", "").equalsIgnoreCase(normalizedLabel)) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,320 @@
+package com.fy.sqlparam.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.map.ISqlRenderer;
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 影子渲染的SQL渲染器
+ * <br/> 请求总是使用主渲染器的结果; 按采样比例对一部分请求再用候选渲染器渲染,
+ * 	比较SQL语句和参数对象是否一致, 并统计两者的耗时, 用于上线新渲染器前的验证.
+ * <br/> 搜索参数不是线程安全的, 采样的请求在请求线程中通过{@link SqlParameterCodec#encode(SqlParameter)}取得不可变的快照,
+ * 	解码快照, 候选渲染和比较都在线程执行器中执行, 请求线程只多出一次编码的耗时.
+ * 	只支持{@link SqlParameter}的搜索参数, 其它实现或包含不支持编码的参数时跳过该次采样.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlShadowRenderer implements ISqlRenderer {
+	
+	/**
+	 * 主渲染器, 请求使用其结果
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlRenderer primary;
+	
+	/**
+	 * 候选渲染器, 只在采样时渲染用于比较
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlRenderer candidate;
+	
+	/**
+	 * 采样比例, 范围[0, 1]
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final double sampleRate;
+	
+	/**
+	 * 执行结果比较的线程执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Executor executor;
+	
+	/**
+	 * 完成比较的采样次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong comparedCount = new AtomicLong();
+	
+	/**
+	 * 结果不一致的次数, 包含候选渲染器抛出异常的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong mismatchCount = new AtomicLong();
+	
+	/**
+	 * 跳过的采样次数, 即搜索参数不支持编码或线程执行器拒绝执行比较的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong skippedCount = new AtomicLong();
+	
+	/**
+	 * 完成比较的采样中主渲染器的总耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong primaryNanos = new AtomicLong();
+	
+	/**
+	 * 完成比较的采样中候选渲染器的总耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong candidateNanos = new AtomicLong();
+	
+	/**
+	 * 最近一次不一致的描述, 没有不一致时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private volatile String lastMismatch;
+	
+	/**
+	 * 构造影子渲染的SQL渲染器
+	 * 
+	 * @param primary 主渲染器, 不能为null
+	 * @param candidate 候选渲染器, 不能为null
+	 * @param sampleRate 采样比例, 范围[0, 1]
+	 * @param executor 执行结果比较的线程执行器, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlShadowRenderer(ISqlRenderer primary, ISqlRenderer candidate, double sampleRate, Executor executor) {
+		if(primary == null || candidate == null) {
+			throw new IllegalArgumentException("影子渲染的主渲染器和候选渲染器不能为null");
+		}
+		if(! (sampleRate >= 0 && sampleRate <= 1)) {
+			throw new IllegalArgumentException("影子渲染的采样比例需要在0到1之间");
+		}
+		if(executor == null) {
+			throw new IllegalArgumentException("影子渲染的线程执行器不能为null");
+		}
+		this.primary = primary;
+		this.candidate = candidate;
+		this.sampleRate = sampleRate;
+		this.executor = executor;
+	}
+	
+	@Override
+	public ISqlMapResult render(final ISqlParameter parameter, final ISqlParameterContext paramContext,
+			final String rawSql) {
+		if(this.sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+			return this.primary.render(parameter, paramContext, rawSql);
+		}
+		if(! (parameter instanceof SqlParameter)) {
+			this.skippedCount.incrementAndGet();
+			return this.primary.render(parameter, paramContext, rawSql);
+		}
+		// 搜索参数可能在返回后被请求线程修改, 候选渲染使用编码的快照
+		final byte[] snapshot;
+		try {
+			snapshot = SqlParameterCodec.encode((SqlParameter) parameter);
+		} catch (IllegalArgumentException e) {
+			this.skippedCount.incrementAndGet();
+			return this.primary.render(parameter, paramContext, rawSql);
+		}
+		long startNanos = System.nanoTime();
+		final ISqlMapResult expected = this.primary.render(parameter, paramContext, rawSql);
+		final long primaryElapsed = System.nanoTime() - startNanos;
+		try {
+			this.executor.execute(new Runnable() {
+				
+				@Override
+				public void run() {
+					SqlShadowRenderer.this.renderCandidate(snapshot, paramContext, rawSql, expected, primaryElapsed);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.skippedCount.incrementAndGet();
+		}
+		return expected;
+	}
+	
+	/**
+	 * 获取完成比较的采样次数
+	 * 
+	 * @return 完成比较的采样次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getComparedCount() {
+		return this.comparedCount.get();
+	}
+	
+	/**
+	 * 获取结果不一致的次数
+	 * 
+	 * @return 结果不一致的次数, 包含候选渲染器抛出异常的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getMismatchCount() {
+		return this.mismatchCount.get();
+	}
+	
+	/**
+	 * 获取跳过的采样次数
+	 * 
+	 * @return 跳过的采样次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getSkippedCount() {
+		return this.skippedCount.get();
+	}
+	
+	/**
+	 * 获取完成比较的采样中主渲染器的总耗时
+	 * 
+	 * @return 总耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getPrimaryNanos() {
+		return this.primaryNanos.get();
+	}
+	
+	/**
+	 * 获取完成比较的采样中候选渲染器的总耗时
+	 * 
+	 * @return 总耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getCandidateNanos() {
+		return this.candidateNanos.get();
+	}
+	
+	/**
+	 * 获取最近一次不一致的描述
+	 * 
+	 * @return 包含两者的SQL语句和参数对象的描述, 没有不一致时为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getLastMismatch() {
+		return this.lastMismatch;
+	}
+	
+	/**
+	 * 解码搜索参数的快照, 用候选渲染器渲染并与主渲染器的结果比较
+	 * 
+	 * @param snapshot 搜索参数编码后的快照
+	 * @param paramContext 搜索参数上下文
+	 * @param rawSql 源SQL语句
+	 * @param expected 主渲染器的结果
+	 * @param primaryElapsed 主渲染器的耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void renderCandidate(byte[] snapshot, ISqlParameterContext paramContext, String rawSql,
+			ISqlMapResult expected, long primaryElapsed) {
+		SqlParameter parameter = SqlParameterCodec.decode(snapshot);
+		ISqlMapResult actual = null;
+		RuntimeException candidateEx = null;
+		long startNanos = System.nanoTime();
+		try {
+			actual = this.candidate.render(parameter, paramContext, rawSql);
+		} catch (RuntimeException e) {
+			candidateEx = e;
+		}
+		this.compare(expected, primaryElapsed, actual, candidateEx, System.nanoTime() - startNanos);
+	}
+	
+	/**
+	 * 比较主渲染器和候选渲染器的结果并统计耗时
+	 * 
+	 * @param expected 主渲染器的结果
+	 * @param primaryElapsed 主渲染器的耗时, 单位纳秒
+	 * @param actual 候选渲染器的结果, 候选渲染器抛出异常时为null
+	 * @param candidateEx 候选渲染器抛出的异常, 没有异常时为null
+	 * @param candidateElapsed 候选渲染器的耗时, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void compare(ISqlMapResult expected, long primaryElapsed, ISqlMapResult actual,
+			RuntimeException candidateEx, long candidateElapsed) {
+		this.comparedCount.incrementAndGet();
+		this.primaryNanos.addAndGet(primaryElapsed);
+		this.candidateNanos.addAndGet(candidateElapsed);
+		if(candidateEx != null) {
+			this.mismatchCount.incrementAndGet();
+			this.lastMismatch = String.format("expected: %s %s, candidate failed: %s", expected.getSql(),
+					Arrays.deepToString(expected.getArgObjs()), candidateEx);
+		} else if(! SqlShadowRenderer.isSame(expected, actual)) {
+			this.mismatchCount.incrementAndGet();
+			this.lastMismatch = String.format("expected: %s %s, candidate: %s %s", expected.getSql(),
+					Arrays.deepToString(expected.getArgObjs()), actual == null ? null : actual.getSql(),
+					actual == null ? null : Arrays.deepToString(actual.getArgObjs()));
+		}
+	}
+	
+	/**
+	 * 比较两个映射结果的SQL语句和参数对象是否一致, 参数对象数组为null与空数组视为一致
+	 * 
+	 * @param one 映射结果
+	 * @param other 另一个映射结果
+	 * @return 一致返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static boolean isSame(ISqlMapResult one, ISqlMapResult other) {
+		if(one == null || other == null) {
+			return one == other;
+		}
+		if(one.getSql() == null ? other.getSql() != null : ! one.getSql().equals(other.getSql())) {
+			return false;
+		}
+		Object[] oneArgObjs = one.getArgObjs();
+		Object[] otherArgObjs = other.getArgObjs();
+		if(oneArgObjs == null || oneArgObjs.length == 0) {
+			return otherArgObjs == null || otherArgObjs.length == 0;
+		}
+		return Arrays.deepEquals(oneArgObjs, otherArgObjs);
+	}
+}
@@ -0,0 +1,207 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 合并相同查询的SQL执行器
+ * <br/> 并发执行SQL语句, 参数对象数组和结果行映射器实例都相同的查询时, 只有第一个请求真正执行,
+ * 	其它请求等待并得到同一个结果, 结果列表不可修改.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlSingleFlightExecutor implements ISqlExecutor {
+	
+	/**
+	 * 真正执行查询的SQL执行器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ISqlExecutor delegate;
+	
+	/**
+	 * 正在执行的查询, key是映射结果的键和结果行映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final ConcurrentMap<FlightKey, CompletableFuture<List<?>>> inFlights =
+			new ConcurrentHashMap<FlightKey, CompletableFuture<List<?>>>();
+	
+	/**
+	 * 真正执行的查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong executedCount = new AtomicLong();
+	
+	/**
+	 * 通过共享结果节省的查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong savedCount = new AtomicLong();
+	
+	/**
+	 * 构造合并相同查询的SQL执行器实例
+	 * 
+	 * @param delegate 真正执行查询的SQL执行器, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlSingleFlightExecutor(ISqlExecutor delegate) {
+		if(delegate == null) {
+			throw new IllegalArgumentException("合并相同查询的SQL执行器的被代理执行器不能为null");
+		}
+		this.delegate = delegate;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> List<T> query(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException {
+		SqlExecutor.checkQueryArgs(mapResult, rowMapper);
+		FlightKey key = new FlightKey(SqlMapResultKey.of(mapResult), rowMapper);
+		CompletableFuture<List<?>> flight = new CompletableFuture<List<?>>();
+		CompletableFuture<List<?>> existFlight = this.inFlights.putIfAbsent(key, flight);
+		// 已有相同的查询在执行, 等待其结果
+		if(existFlight != null) {
+			this.savedCount.incrementAndGet();
+			return (List<T>) SqlSingleFlightExecutor.await(existFlight);
+		}
+		// 由当前请求执行, 完成后移除使之后的请求重新执行
+		try {
+			this.executedCount.incrementAndGet();
+			List<T> result = Collections.unmodifiableList(this.delegate.query(mapResult, rowMapper));
+			flight.complete(result);
+			return result;
+		} catch (SQLException | RuntimeException e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.inFlights.remove(key, flight);
+		}
+	}
+	
+	/**
+	 * 获取真正执行的查询次数
+	 * 
+	 * @return 真正执行的查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getExecutedCount() {
+		return this.executedCount.get();
+	}
+	
+	/**
+	 * 获取通过共享结果节省的查询次数
+	 * 
+	 * @return 节省的查询次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getSavedCount() {
+		return this.savedCount.get();
+	}
+	
+	/**
+	 * 获取当前正在执行的查询数量
+	 * 
+	 * @return 正在执行的查询数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getInFlightCount() {
+		return this.inFlights.size();
+	}
+	
+	/**
+	 * 正在执行的查询的键
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class FlightKey {
+		
+		/**
+		 * 映射结果的键
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final SqlMapResultKey mapResultKey;
+		
+		/**
+		 * 结果行映射器, 按实例区分
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlRowMapper<?> rowMapper;
+		
+		private FlightKey(SqlMapResultKey mapResultKey, ISqlRowMapper<?> rowMapper) {
+			this.mapResultKey = mapResultKey;
+			this.rowMapper = rowMapper;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * this.mapResultKey.hashCode() + System.identityHashCode(this.rowMapper);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(! (obj instanceof FlightKey)) {
+				return false;
+			}
+			FlightKey other = (FlightKey) obj;
+			return this.rowMapper == other.rowMapper && this.mapResultKey.equals(other.mapResultKey);
+		}
+	}
+	
+	/**
+	 * 等待其它请求执行的结果
+	 * 
+	 * @param flight 正在执行的查询的异步结果
+	 * @return 查询结果
+	 * @throws SQLException 执行失败或等待被中断则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static List<?> await(CompletableFuture<List<?>> flight) throws SQLException {
+		try {
+			return flight.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("等待相同查询的执行结果时被中断", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new SQLException("相同查询执行失败", cause);
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一个数据库连接的预编译语句缓存
+ * <br/> 按SQL语句缓存预编译语句, 再次使用时清除上次绑定的参数; 容量有限, 超出时关闭最久未使用的语句.
+ * <br/> 数据库连接不能被并发使用, 缓存的使用者需要保证同一时间只有一个线程在使用取得的语句.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlStatementCache implements AutoCloseable {
+	
+	/**
+	 * 所属的数据库连接
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Connection connection;
+	
+	/**
+	 * 最多缓存的语句数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int maxStatements;
+	
+	/**
+	 * 缓存的语句, 按访问顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final LinkedHashMap<String, PreparedStatement> statements;
+	
+	/**
+	 * 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long hitCount;
+	
+	/**
+	 * 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private long missCount;
+	
+	/**
+	 * 构造预编译语句缓存实例
+	 * 
+	 * @param connection 所属的数据库连接, 不能为null
+	 * @param maxStatements 最多缓存的语句数量, 不能小于1
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlStatementCache(Connection connection, int maxStatements) {
+		if(connection == null) {
+			throw new IllegalArgumentException("预编译语句缓存的数据库连接不能为null");
+		}
+		if(maxStatements < 1) {
+			throw new IllegalArgumentException("预编译语句缓存的容量不能小于1");
+		}
+		this.connection = connection;
+		this.maxStatements = maxStatements;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if(this.size() <= SqlStatementCache.this.maxStatements) {
+					return false;
+				}
+				SqlCursor.closeQuietly(eldest.getValue());
+				return true;
+			}
+		};
+	}
+	
+	/**
+	 * 获取SQL语句的预编译语句, 有缓存时清除其参数后返回, 否则预编译并缓存
+	 * 
+	 * @param sql SQL语句, 不能为null
+	 * @return 预编译语句, 使用后不要关闭
+	 * @throws SQLException 预编译失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized PreparedStatement prepare(String sql) throws SQLException {
+		if(sql == null) {
+			throw new IllegalArgumentException("预编译的SQL语句不能为null");
+		}
+		PreparedStatement statement = this.statements.get(sql);
+		if(statement != null) {
+			try {
+				if(! statement.isClosed()) {
+					statement.clearParameters();
+					this.hitCount ++;
+					return statement;
+				}
+			} catch (SQLException e) {
+				// 语句已不可用, 重新预编译
+			}
+			this.statements.remove(sql);
+			SqlCursor.closeQuietly(statement);
+		}
+		this.missCount ++;
+		statement = this.connection.prepareStatement(sql);
+		this.statements.put(sql, statement);
+		return statement;
+	}
+	
+	/**
+	 * 移除并关闭SQL语句的预编译语句, 用于执行失败后避免继续使用状态未知的语句
+	 * 
+	 * @param sql SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized void evict(String sql) {
+		SqlCursor.closeQuietly(this.statements.remove(sql));
+	}
+	
+	/**
+	 * 获取缓存的语句数量
+	 * 
+	 * @return 缓存的语句数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized int size() {
+		return this.statements.size();
+	}
+	
+	/**
+	 * 获取命中缓存的次数
+	 * 
+	 * @return 命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+	
+	/**
+	 * 获取未命中缓存的次数
+	 * 
+	 * @return 未命中缓存的次数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+	
+	/**
+	 * 获取命中率
+	 * 
+	 * @return 命中次数占总次数的比例, 还没有使用过时返回0
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public synchronized double getHitRate() {
+		long total = this.hitCount + this.missCount;
+		return total == 0 ? 0 : (double) this.hitCount / total;
+	}
+	
+	/**
+	 * 关闭所有缓存的语句, 不会关闭数据库连接
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	@Override
+	public synchronized void close() {
+		for(PreparedStatement statement : this.statements.values()) {
+			SqlCursor.closeQuietly(statement);
+		}
+		this.statements.clear();
+	}
+}
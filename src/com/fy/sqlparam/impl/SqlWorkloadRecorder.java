@@ -0,0 +1,361 @@
+package com.fy.sqlparam.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 搜索参数的负载录制器
+ * <br/> 把搜索参数, 搜索参数上下文类和源SQL语句追加写入内存映射的二进制日志, 用于{@link SqlWorkloadReplayer}回放.
+ * <br/> 请求线程只负责编码并放入有界的无锁环形缓冲, 缓冲已满时丢弃记录而不阻塞; 由后台线程按顺序写入日志文件.
+ * 	日志文件写满后的记录同样丢弃, 丢弃次数可通过{@link #getDroppedCount()}获取.
+ * <br/> 日志格式: 文件头(魔数, 版本), 之后每条记录为长度加内容(录制时间, 上下文类名称, 源SQL语句, 搜索参数编码), 长度为0表示结束.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlWorkloadRecorder implements AutoCloseable {
+	
+	/**
+	 * 日志文件的魔数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static final int MAGIC = 0x53515752;
+	
+	/**
+	 * 日志格式的版本
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static final int VERSION = 2;
+	
+	/**
+	 * 默认的环形缓冲大小
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final int DEFAULT_RING_SIZE = 4096;
+	
+	/**
+	 * 写入线程没有记录可写时的等待时间, 单位纳秒
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final long IDLE_PARK_NANOS = 1000000L;
+	
+	/**
+	 * 写入线程的计数, 用于线程命名
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final AtomicLong WRITER_COUNT = new AtomicLong();
+	
+	/**
+	 * 日志文件的通道
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final FileChannel channel;
+	
+	/**
+	 * 日志文件的内存映射, 只由写入线程访问
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final MappedByteBuffer buffer;
+	
+	/**
+	 * 环形缓冲, 空的槽为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicReferenceArray<byte[]> ring;
+	
+	/**
+	 * 环形缓冲大小减1, 大小为2的幂
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final int ringMask;
+	
+	/**
+	 * 下一个放入的序号, 由请求线程竞争推进
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	
+	/**
+	 * 下一个取出的序号, 只由写入线程推进
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong head = new AtomicLong();
+	
+	/**
+	 * 写入日志的记录数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong recordedCount = new AtomicLong();
+	
+	/**
+	 * 丢弃的记录数量, 包括缓冲已满和日志文件已满
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final AtomicLong droppedCount = new AtomicLong();
+	
+	/**
+	 * 后台写入线程
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Thread writer;
+	
+	/**
+	 * 是否已关闭
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private volatile boolean closed;
+	
+	/**
+	 * 构造使用默认环形缓冲大小的录制器
+	 * 
+	 * @param path 日志文件路径, 已存在时覆盖
+	 * @param capacityBytes 日志文件的最大字节数
+	 * @throws IOException 无法创建或映射日志文件则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlWorkloadRecorder(Path path, int capacityBytes) throws IOException {
+		this(path, capacityBytes, DEFAULT_RING_SIZE);
+	}
+	
+	/**
+	 * 构造录制器
+	 * 
+	 * @param path 日志文件路径, 已存在时覆盖
+	 * @param capacityBytes 日志文件的最大字节数, 至少能写入文件头和结束标记
+	 * @param ringSize 环形缓冲大小, 向上取整为2的幂
+	 * @throws IOException 无法创建或映射日志文件则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlWorkloadRecorder(Path path, int capacityBytes, int ringSize) throws IOException {
+		if(path == null) {
+			throw new IllegalArgumentException("录制的日志文件路径不能为null");
+		}
+		if(capacityBytes < 12) {
+			throw new IllegalArgumentException("录制的日志文件大小至少为12字节");
+		}
+		if(ringSize < 1 || ringSize > (1 << 30)) {
+			throw new IllegalArgumentException("录制的环形缓冲大小需要在1到2^30之间");
+		}
+		int size = Integer.highestOneBit(ringSize);
+		size = size < ringSize ? size << 1 : size;
+		this.ring = new AtomicReferenceArray<byte[]>(size);
+		this.ringMask = size - 1;
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			this.buffer = this.channel.map(MapMode.READ_WRITE, 0, capacityBytes);
+		} catch (IOException e) {
+			this.channel.close();
+			throw e;
+		}
+		this.buffer.putInt(MAGIC);
+		this.buffer.putInt(VERSION);
+		this.buffer.limit(capacityBytes - 4); /* 保留结束标记的位置 */
+		this.writer = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				SqlWorkloadRecorder.this.drain();
+			}
+		}, "sql-workload-recorder-" + WRITER_COUNT.incrementAndGet());
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+	
+	/**
+	 * 录制一次渲染的输入, 不会阻塞
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContextClass 搜索参数上下文类, 回放时需要能通过公开的无参构造函数创建
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @return 放入缓冲返回<tt>true</tt>, 已关闭或缓冲已满丢弃返回<tt>false</tt>
+	 * @throws IllegalArgumentException 搜索参数包含不支持编码的参数类型则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public boolean record(SqlParameter parameter, Class<? extends ISqlParameterContext> paramContextClass,
+			String rawSql) {
+		if(paramContextClass == null || rawSql == null) {
+			throw new IllegalArgumentException("录制的搜索参数上下文类和源SQL语句不能为null");
+		}
+		if(this.closed) {
+			return false;
+		}
+		byte[] entry = SqlWorkloadRecorder.encodeEntry(parameter, paramContextClass.getName(), rawSql);
+		long sequence;
+		do {
+			sequence = this.tail.get();
+			if(sequence - this.head.get() > this.ringMask) {
+				this.droppedCount.incrementAndGet();
+				return false;
+			}
+		} while(! this.tail.compareAndSet(sequence, sequence + 1));
+		this.ring.lazySet((int) sequence & this.ringMask, entry);
+		return true;
+	}
+	
+	/**
+	 * 获取写入日志的记录数量
+	 * 
+	 * @return 写入日志的记录数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getRecordedCount() {
+		return this.recordedCount.get();
+	}
+	
+	/**
+	 * 获取丢弃的记录数量
+	 * 
+	 * @return 缓冲已满和日志文件已满而丢弃的记录数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+	
+	/**
+	 * 写完缓冲中的记录, 写入结束标记并刷新到磁盘后关闭日志文件
+	 * 
+	 * @throws IOException 刷新或关闭日志文件失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	@Override
+	public void close() throws IOException {
+		if(this.closed) {
+			return;
+		}
+		this.closed = true;
+		LockSupport.unpark(this.writer);
+		boolean interrupted = false;
+		while(this.writer.isAlive()) {
+			try {
+				this.writer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		try {
+			this.buffer.limit(this.buffer.capacity());
+			this.buffer.putInt(0);
+			this.buffer.force();
+		} finally {
+			this.channel.close();
+			if(interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * 写入线程: 按序号取出缓冲中的记录写入日志, 关闭后写完剩余记录再退出
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private void drain() {
+		long sequence = this.head.get();
+		while(true) {
+			int index = (int) sequence & this.ringMask;
+			byte[] entry = this.ring.get(index);
+			if(entry == null) {
+				// 已占用序号的记录可能还未放入, 关闭后要等到全部放入
+				if(this.closed && sequence == this.tail.get()) {
+					return;
+				}
+				if(sequence == this.tail.get()) {
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				} else {
+					Thread.yield();
+				}
+				continue;
+			}
+			this.ring.lazySet(index, null);
+			this.head.lazySet(++ sequence);
+			if(this.buffer.remaining() < 4 + entry.length) {
+				this.droppedCount.incrementAndGet();
+				continue;
+			}
+			this.buffer.putInt(entry.length);
+			this.buffer.put(entry);
+			this.recordedCount.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * 编码一条记录的内容
+	 * 
+	 * @param parameter 搜索参数
+	 * @param paramContextClassName 搜索参数上下文类名称
+	 * @param rawSql 源SQL语句
+	 * @return 记录的内容
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static byte[] encodeEntry(SqlParameter parameter, String paramContextClassName, String rawSql) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeLong(System.currentTimeMillis());
+			SqlParameterCodec.writeString(out, paramContextClassName);
+			SqlParameterCodec.writeString(out, rawSql);
+			SqlParameterCodec.write(out, parameter);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("编码录制的记录失败", e);
+		}
+		return bytes.toByteArray();
+	}
+}
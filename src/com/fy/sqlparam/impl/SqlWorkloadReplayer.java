@@ -0,0 +1,407 @@
+package com.fy.sqlparam.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.map.ISqlRenderer;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 负载回放器
+ * <br/> 读取{@link SqlWorkloadRecorder}录制的日志, 按指定的并发数把其中的搜索参数交给渲染器渲染,
+ * 	可选地再交给执行器执行, 统计吞吐量和耗时直方图.
+ * <br/> 每次回放前在计时之外解码出新的搜索参数, 计时只包含渲染和执行; 同一个上下文类只创建一个实例.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlWorkloadReplayer {
+	
+	/**
+	 * 回放线程的计数, 用于线程命名
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final AtomicLong REPLAYER_COUNT = new AtomicLong();
+	
+	/**
+	 * 日志中的记录
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final List<Entry> entries;
+	
+	/**
+	 * 构造回放器, 读取日志中的全部记录
+	 * 
+	 * @param path 日志文件路径
+	 * @throws IOException 读取失败或者不是有效的日志则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlWorkloadReplayer(Path path) throws IOException {
+		if(path == null) {
+			throw new IllegalArgumentException("回放的日志文件路径不能为null");
+		}
+		Map<String, ISqlParameterContext> paramContexts = new HashMap<String, ISqlParameterContext>();
+		List<Entry> entries = new ArrayList<Entry>();
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.remaining() < 8 || buffer.getInt() != SqlWorkloadRecorder.MAGIC) {
+				throw new IOException("不是有效的负载日志文件");
+			}
+			int version = buffer.getInt();
+			if(version != SqlWorkloadRecorder.VERSION) {
+				throw new IOException(String.format("不支持的负载日志版本%d", version));
+			}
+			while(buffer.remaining() >= 4) {
+				int length = buffer.getInt();
+				if(length == 0) {
+					break;
+				}
+				if(length < 0 || length > buffer.remaining()) {
+					throw new IOException("负载日志的记录不完整");
+				}
+				byte[] bytes = new byte[length];
+				buffer.get(bytes);
+				entries.add(SqlWorkloadReplayer.decodeEntry(bytes, paramContexts));
+			}
+		}
+		this.entries = Collections.unmodifiableList(entries);
+	}
+	
+	/**
+	 * 获取日志中的记录数量
+	 * 
+	 * @return 记录数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public int getEntryCount() {
+		return this.entries.size();
+	}
+	
+	/**
+	 * 只渲染回放日志
+	 * 
+	 * @param renderer 渲染器, 不能为null
+	 * @param concurrency 并发数
+	 * @param iterations 回放整个日志的次数
+	 * @return 回放报告
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Report replay(ISqlRenderer renderer, int concurrency, int iterations) {
+		return this.replay(renderer, concurrency, iterations, null);
+	}
+	
+	/**
+	 * 渲染并执行回放日志
+	 * 
+	 * @param renderer 渲染器, 不能为null
+	 * @param concurrency 并发数
+	 * @param iterations 回放整个日志的次数
+	 * @param executor 执行渲染结果的执行器, 为null时只渲染
+	 * @return 回放报告, 渲染或执行失败的次数计入报告而不中断回放
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public Report replay(final ISqlRenderer renderer, int concurrency, int iterations, final ISqlExecutor executor) {
+		if(renderer == null) {
+			throw new IllegalArgumentException("回放的渲染器不能为null");
+		}
+		if(concurrency < 1 || iterations < 1) {
+			throw new IllegalArgumentException("回放的并发数和次数至少为1");
+		}
+		final long total = (long) this.entries.size() * iterations;
+		final AtomicLong next = new AtomicLong();
+		final AtomicLong failedCount = new AtomicLong();
+		final SqlLatencyHistogram histogram = new SqlLatencyHistogram();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final CountDownLatch doneLatch = new CountDownLatch(concurrency);
+		String threadPrefix = "sql-workload-replayer-" + REPLAYER_COUNT.incrementAndGet() + "-";
+		for(int i = 0; i < concurrency; i ++) {
+			Thread thread = new Thread(new Runnable() {
+				
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+						long index;
+						while((index = next.getAndIncrement()) < total) {
+							Entry entry = SqlWorkloadReplayer.this.entries.get(
+									(int) (index % SqlWorkloadReplayer.this.entries.size()));
+							if(! SqlWorkloadReplayer.replayOne(entry, renderer, executor, histogram)) {
+								failedCount.incrementAndGet();
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						doneLatch.countDown();
+					}
+				}
+			}, threadPrefix + (i + 1));
+			thread.setDaemon(true);
+			thread.start();
+		}
+		long startNanos = System.nanoTime();
+		startLatch.countDown();
+		try {
+			doneLatch.await();
+		} catch (InterruptedException e) {
+			next.set(total); /* 让回放线程尽快结束 */
+			Thread.currentThread().interrupt();
+		}
+		return new Report(System.nanoTime() - startNanos, failedCount.get(), histogram);
+	}
+	
+	/**
+	 * 回放一条记录
+	 * 
+	 * @param entry 记录
+	 * @param renderer 渲染器
+	 * @param executor 执行器, 可以为null
+	 * @param histogram 耗时直方图
+	 * @return 成功返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static boolean replayOne(Entry entry, ISqlRenderer renderer, ISqlExecutor executor,
+			SqlLatencyHistogram histogram) {
+		SqlParameter parameter = SqlParameterCodec.decode(entry.parameterBytes);
+		long startNanos = System.nanoTime();
+		try {
+			ISqlMapResult mapResult = renderer.render(parameter, entry.paramContext, entry.rawSql);
+			if(executor != null) {
+				executor.query(mapResult, SqlExecutor.SqlRow.mapper());
+			}
+		} catch (RuntimeException e) {
+			return false;
+		} catch (SQLException e) {
+			return false;
+		} finally {
+			histogram.record(System.nanoTime() - startNanos);
+		}
+		return true;
+	}
+	
+	/**
+	 * 解码一条记录
+	 * 
+	 * @param bytes 记录的内容
+	 * @param paramContexts 已创建的搜索参数上下文, 按类名称共用
+	 * @return 记录
+	 * @throws IOException 不是有效的记录则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static Entry decodeEntry(byte[] bytes, Map<String, ISqlParameterContext> paramContexts)
+			throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		in.readLong(); /* 录制时间, 回放时不使用 */
+		String paramContextClassName = SqlParameterCodec.readString(in);
+		String rawSql = SqlParameterCodec.readString(in);
+		if(paramContextClassName == null || rawSql == null) {
+			throw new IOException("负载日志的记录缺少上下文类或源SQL语句");
+		}
+		ISqlParameterContext paramContext = paramContexts.get(paramContextClassName);
+		if(paramContext == null) {
+			paramContext = SqlParameterCodec.newContext(paramContextClassName);
+			paramContexts.put(paramContextClassName, paramContext);
+		}
+		int offset = bytes.length - in.available();
+		byte[] parameterBytes = new byte[bytes.length - offset];
+		System.arraycopy(bytes, offset, parameterBytes, 0, parameterBytes.length);
+		SqlParameterCodec.decode(parameterBytes); /* 提前校验, 不在回放时才发现 */
+		return new Entry(paramContext, rawSql, parameterBytes);
+	}
+	
+	/**
+	 * 日志中的一条记录
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final class Entry {
+		
+		/**
+		 * 搜索参数上下文
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final ISqlParameterContext paramContext;
+		
+		/**
+		 * 源SQL语句
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final String rawSql;
+		
+		/**
+		 * 搜索参数的编码
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final byte[] parameterBytes;
+		
+		/**
+		 * 构造一条记录
+		 * 
+		 * @param paramContext 搜索参数上下文
+		 * @param rawSql 源SQL语句
+		 * @param parameterBytes 搜索参数的编码
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private Entry(ISqlParameterContext paramContext, String rawSql, byte[] parameterBytes) {
+			this.paramContext = paramContext;
+			this.rawSql = rawSql;
+			this.parameterBytes = parameterBytes;
+		}
+	}
+	
+	/**
+	 * 回放报告
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static final class Report {
+		
+		/**
+		 * 回放的总耗时, 单位纳秒
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final long elapsedNanos;
+		
+		/**
+		 * 失败次数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final long failedCount;
+		
+		/**
+		 * 每次回放的耗时直方图
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private final SqlLatencyHistogram histogram;
+		
+		/**
+		 * 构造回放报告
+		 * 
+		 * @param elapsedNanos 回放的总耗时
+		 * @param failedCount 失败次数
+		 * @param histogram 每次回放的耗时直方图
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private Report(long elapsedNanos, long failedCount, SqlLatencyHistogram histogram) {
+			this.elapsedNanos = elapsedNanos;
+			this.failedCount = failedCount;
+			this.histogram = histogram;
+		}
+		
+		/**
+		 * 获取回放的总耗时
+		 * 
+		 * @return 总耗时, 单位纳秒
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+		
+		/**
+		 * 获取回放次数
+		 * 
+		 * @return 回放次数, 包括失败的次数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public long getCount() {
+			return this.histogram.getCount();
+		}
+		
+		/**
+		 * 获取失败次数
+		 * 
+		 * @return 渲染或执行抛出异常的次数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public long getFailedCount() {
+			return this.failedCount;
+		}
+		
+		/**
+		 * 获取吞吐量
+		 * 
+		 * @return 每秒回放次数
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public double getThroughput() {
+			return this.elapsedNanos == 0 ? 0 : this.getCount() * 1e9 / this.elapsedNanos;
+		}
+		
+		/**
+		 * 获取每次回放的耗时直方图
+		 * 
+		 * @return 耗时直方图
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public SqlLatencyHistogram getHistogram() {
+			return this.histogram;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("throughput=%.1f/s, failed=%d, elapsed=%.1fms, %s", this.getThroughput(),
+					this.failedCount, this.elapsedNanos / 1e6, this.histogram);
+		}
+	}
+}
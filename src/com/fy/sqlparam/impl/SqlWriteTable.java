@@ -0,0 +1,328 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fy.sqlparam.map.ISqlDialect;
+import com.fy.sqlparam.map.config.FieldMapMeta;
+import com.fy.sqlparam.map.config.MapMetaConfig;
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 可写入的数据库表
+ * <br/> 由搜索参数上下文配置的基本表和字段得到: 基本表的第一张表是写入的表,
+ * 	直接对应这张表的列且没有依赖关联表的字段是可写入的字段. 用于生成参数化的INSERT和UPDATE语句.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlWriteTable {
+	
+	/**
+	 * 匹配基本表SQL片段中第一张表的名称和别名的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Pattern REGEXP_FIRST_TABLE = Pattern.compile(
+			"^\\s*([A-Za-z_][\\w.$]*)(?:\\s+(?:(?i)AS\\s+)?([A-Za-z_]\\w*))?");
+	
+	/**
+	 * 匹配带有可选表别名的列名称的正则表达式
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Pattern REGEXP_COLUMN = Pattern.compile("^\\s*(?:([A-Za-z_][\\w$]*)\\.)?([A-Za-z_]\\w*)\\s*$");
+	
+	/**
+	 * 表名称后可能出现的关键字, 不作为表别名
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final Set<String> ALIAS_KEYWORDS = new HashSet<String>(Arrays.asList(
+			"LEFT", "RIGHT", "INNER", "OUTER", "FULL", "CROSS", "NATURAL", "JOIN", "WHERE", "ON", "USING"));
+	
+	/**
+	 * 数据库表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final String tableName;
+	
+	/**
+	 * 可写入的字段, key是字段名称, value是列名称, 按配置的顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private final Map<String, String> columns;
+	
+	/**
+	 * 构造可写入的数据库表实例
+	 * 
+	 * @param tableName 数据库表名称, 不能为null或空
+	 * @param columns 可写入的字段, key是字段名称, value是列名称, 不能为null或空
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public SqlWriteTable(String tableName, Map<String, String> columns) {
+		if(tableName == null || tableName.isEmpty()) {
+			throw new IllegalArgumentException("可写入的数据库表名称不能为null或空");
+		}
+		if(columns == null || columns.isEmpty()) {
+			throw new IllegalArgumentException(String.format("数据库表%s没有可写入的字段", tableName));
+		}
+		this.tableName = tableName;
+		this.columns = Collections.unmodifiableMap(new LinkedHashMap<String, String>(columns));
+	}
+	
+	/**
+	 * 由搜索参数上下文类的配置生成可写入的数据库表
+	 * 
+	 * @param paramContextClass 搜索参数上下文类, 其构造函数上有{@link MapMetaConfig}注解
+	 * @return 可写入的数据库表
+	 * @throws IllegalArgumentException 没有配置或者无法从配置中得到表和字段则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static SqlWriteTable of(Class<? extends ISqlParameterContext> paramContextClass) {
+		MapMetaConfig configAnno = MapMetaAnnoInitializor.getConfig(paramContextClass);
+		if(configAnno == null) {
+			throw new IllegalArgumentException(String.format("搜索参数上下文类%s没有映射元信息配置",
+					paramContextClass.getName()));
+		}
+		Matcher tableMatcher = REGEXP_FIRST_TABLE.matcher(configAnno.baseTables());
+		if(! tableMatcher.find()) {
+			throw new IllegalArgumentException(String.format("无法从基本表%s中得到写入的表",
+					configAnno.baseTables()));
+		}
+		String tableName = configAnno.baseTableNames().length > 0
+				? configAnno.baseTableNames()[0] : tableMatcher.group(1);
+		String alias = tableMatcher.group(2);
+		if(alias != null && ALIAS_KEYWORDS.contains(alias.toUpperCase())) {
+			alias = null;
+		}
+		Map<String, String> columns = new LinkedHashMap<String, String>();
+		List<FieldMapMeta> fieldAnnos = new ArrayList<FieldMapMeta>(Arrays.asList(configAnno.queryFields()));
+		fieldAnnos.addAll(Arrays.asList(configAnno.selectFields()));
+		for(FieldMapMeta fieldAnno : fieldAnnos) {
+			if(columns.containsKey(fieldAnno.name()) || fieldAnno.dependencyNames().length > 0) {
+				continue;
+			}
+			Matcher columnMatcher = REGEXP_COLUMN.matcher(fieldAnno.value());
+			if(! columnMatcher.matches()) {
+				continue;
+			}
+			String qualifier = columnMatcher.group(1);
+			if(qualifier != null && ! qualifier.equalsIgnoreCase(alias) && ! qualifier.equalsIgnoreCase(tableName)) {
+				continue;
+			}
+			columns.put(fieldAnno.name(), columnMatcher.group(2));
+		}
+		return new SqlWriteTable(tableName, columns);
+	}
+	
+	/**
+	 * 获取数据库表名称
+	 * 
+	 * @return 数据库表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getTableName() {
+		return this.tableName;
+	}
+	
+	/**
+	 * 获取可写入的字段名称
+	 * 
+	 * @return 可写入的字段名称, 按配置的顺序排列
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String[] getFieldNames() {
+		return this.columns.keySet().toArray(new String[this.columns.size()]);
+	}
+	
+	/**
+	 * 获取字段对应的列名称
+	 * 
+	 * @param fieldName 字段名称
+	 * @return 列名称
+	 * @throws IllegalArgumentException 不是可写入的字段则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String getColumnName(String fieldName) {
+		String columnName = this.columns.get(fieldName);
+		if(columnName == null) {
+			throw new IllegalArgumentException(String.format("字段%s不是数据库表%s可写入的字段",
+					fieldName, this.tableName));
+		}
+		return columnName;
+	}
+	
+	/**
+	 * 生成参数化的INSERT语句, 参数按字段的顺序排列
+	 * 
+	 * @param fieldNames 写入的字段名称, 不能为空
+	 * @return INSERT语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String generateInsertSql(String...fieldNames) {
+		SqlWriteTable.checkFieldNames(fieldNames);
+		StringBuilder sql = new StringBuilder("INSERT INTO ").append(this.tableName).append(" (");
+		this.appendColumnNames(sql, fieldNames);
+		sql.append(") VALUES (")
+			.append(SqlWriteTable.generatePlaceholders(fieldNames.length))
+			.append(")");
+		return sql.toString();
+	}
+	
+	/**
+	 * 生成按键字段更新的参数化UPDATE语句, 参数先是更新的字段, 再是键字段
+	 * 
+	 * @param fieldNames 更新的字段名称, 不能为空
+	 * @param keyFieldNames 作为条件的键字段名称, 不能为空
+	 * @return UPDATE语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String generateUpdateSql(String[] fieldNames, String[] keyFieldNames) {
+		SqlWriteTable.checkFieldNames(fieldNames);
+		SqlWriteTable.checkFieldNames(keyFieldNames);
+		StringBuilder sql = new StringBuilder("UPDATE ").append(this.tableName).append(" SET ");
+		for(int i = 0; i < fieldNames.length; i ++) {
+			if(i > 0) {
+				sql.append(", ");
+			}
+			sql.append(this.getColumnName(fieldNames[i])).append(" = ?");
+		}
+		sql.append(" WHERE ");
+		for(int i = 0; i < keyFieldNames.length; i ++) {
+			if(i > 0) {
+				sql.append(" AND ");
+			}
+			sql.append(this.getColumnName(keyFieldNames[i])).append(" = ?");
+		}
+		return sql.toString();
+	}
+	
+	/**
+	 * 按方言生成多行插入或更新的参数化语句, 参数按行排列, 每行按字段的顺序排列
+	 * 
+	 * @param dialect 生成语句使用的方言, 不能为null
+	 * @param fieldNames 写入的字段名称, 需要包含键字段, 不能为空
+	 * @param keyFieldNames 判断冲突的键字段名称, 不能为空
+	 * @param rowCount 一个语句包含的行数, 不能小于1
+	 * @return 插入或更新的语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public String generateUpsertSql(ISqlDialect dialect, String[] fieldNames, String[] keyFieldNames, int rowCount) {
+		if(dialect == null) {
+			throw new IllegalArgumentException("SQL方言不能为null");
+		}
+		if(rowCount < 1) {
+			throw new IllegalArgumentException("一个语句包含的行数不能小于1");
+		}
+		SqlWriteTable.checkFieldNames(fieldNames);
+		SqlWriteTable.checkFieldNames(keyFieldNames);
+		if(! Arrays.asList(fieldNames).containsAll(Arrays.asList(keyFieldNames))) {
+			throw new IllegalArgumentException("插入或更新的字段需要包含所有键字段");
+		}
+		return dialect.generateUpsertSql(this.tableName, this.toColumnNames(fieldNames),
+				this.toColumnNames(keyFieldNames), rowCount);
+	}
+	
+	/**
+	 * 把字段名称转换为列名称
+	 * 
+	 * @param fieldNames 字段名称
+	 * @return 按顺序排列的列名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private String[] toColumnNames(String[] fieldNames) {
+		String[] columnNames = new String[fieldNames.length];
+		for(int i = 0; i < fieldNames.length; i ++) {
+			columnNames[i] = this.getColumnName(fieldNames[i]);
+		}
+		return columnNames;
+	}
+	
+	/**
+	 * 拼接字段对应的列名称, 以逗号分隔
+	 * 
+	 * @param sql 拼接到的SQL
+	 * @param fieldNames 字段名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void appendColumnNames(StringBuilder sql, String[] fieldNames) {
+		for(int i = 0; i < fieldNames.length; i ++) {
+			if(i > 0) {
+				sql.append(", ");
+			}
+			sql.append(this.getColumnName(fieldNames[i]));
+		}
+	}
+	
+	/**
+	 * 生成以逗号分隔的参数占位符
+	 * 
+	 * @param count 参数数量
+	 * @return 参数占位符
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static String generatePlaceholders(int count) {
+		StringBuilder placeholders = new StringBuilder(count * 3);
+		for(int i = 0; i < count; i ++) {
+			if(i > 0) {
+				placeholders.append(", ");
+			}
+			placeholders.append("?");
+		}
+		return placeholders.toString();
+	}
+	
+	/**
+	 * 检查字段名称数组
+	 * 
+	 * @param fieldNames 字段名称数组
+	 * @throws IllegalArgumentException 为null或空则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void checkFieldNames(String[] fieldNames) {
+		if(fieldNames == null || fieldNames.length == 0) {
+			throw new IllegalArgumentException("生成写入语句的字段名称不能为null或空");
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.fy.sqlparam.map;
+
+/**
+ * SQL方言
+ * <br/> 生成SQL时与数据库相关的部分由方言决定, 在映射上下文生成时确定, 同一个映射上下文只使用一个方言.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlDialect {
+	
+	/**
+	 * 获取方言的名称
+	 * 
+	 * @return 方言的名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String getName();
+	
+	/**
+	 * 拼接分页的SQL片段
+	 * 
+	 * @param sqlPiece 拼接到的SQL片段
+	 * @param start 起点, 从0开始
+	 * @param count 数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void appendLimit(StringBuilder sqlPiece, int start, int count);
+	
+	/**
+	 * 获取恒为真的条件, 用于没有查询条件时的占位
+	 * 
+	 * @return 恒为真的条件SQL片段
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String getTruePredicate();
+	
+	/**
+	 * 是否支持数组参数, 支持时大集合的IN查询可以作为一个数组参数绑定
+	 * 
+	 * @return 支持返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	boolean isArrayParameterSupported();
+	
+	/**
+	 * 是否支持在UPDATE和DELETE语句末尾限制影响的行数
+	 * 
+	 * @return 支持返回<tt>true</tt>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	boolean isWriteLimitSupported();
+	
+	/**
+	 * 拼接限制UPDATE和DELETE影响行数的SQL片段, 仅在{@link #isWriteLimitSupported()}为<tt>true</tt>时使用
+	 * 
+	 * @param sqlPiece 拼接到的SQL片段
+	 * @param count 最多影响的行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	void appendWriteLimit(StringBuilder sqlPiece, int count);
+	
+	/**
+	 * 生成多行插入或更新的参数化语句, 键列冲突的行更新其余的列
+	 * <br/> 参数按行排列, 每行按列名称的顺序排列.
+	 * 
+	 * @param tableName 数据库表名称
+	 * @param columnNames 写入的列名称, 包含键列
+	 * @param keyColumnNames 判断冲突的键列名称
+	 * @param rowCount 一个语句包含的行数
+	 * @return 插入或更新的语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String generateUpsertSql(String tableName, String[] columnNames, String[] keyColumnNames, int rowCount);
+	
+	/**
+	 * 生成创建会话临时表的SQL语句
+	 * 
+	 * @param tableName 临时表名称
+	 * @param columnDefinitions 列定义, 例如"v bigint"
+	 * @return 创建会话临时表的SQL语句
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String generateCreateTempTableSql(String tableName, String columnDefinitions);
+}
@@ -1,5 +1,8 @@
 package com.fy.sqlparam.map;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * SQL映射结果
  * 
@@ -27,4 +30,29 @@ public interface ISqlMapResult {
 	 * @since 1.0.0
 	 */
 	Object[] getArgObjs();
-}
+	
+	/**
+	 * 获取生成SQL语句时处理过的所有映射元信息的名称, 包括字段和关联表, 默认返回空集合
+	 * 
+	 * @return 映射元信息名称集合, 不可修改, 没有则返回空集合
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default Set<String> getMapMetaNames() {
+		return Collections.emptySet();
+	}
+	
+	/**
+	 * 获取SQL语句实际使用的数据库表名称, 包括基本表和加入的关联表
+	 * <br/> 默认返回空集合, 此时按数据库表失效的缓存只能通过全部失效淘汰该结果.
+	 * 
+	 * @return 数据库表名称集合, 不可修改, 没有则返回空集合
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default Set<String> getTableNames() {
+		return Collections.emptySet();
+	}
+}
\ No newline at end of file
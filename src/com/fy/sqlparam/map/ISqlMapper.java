@@ -1,23 +1,35 @@
-package com.fy.sqlparam.map;
-
-/**
- * SQL映射器
- * 
- * @author linjie
- * @since 1.0.0
- */
-public interface ISqlMapper {
-
-	/**
-	 * 映射SQL生成映射结果
-	 * 
-	 * @param mapContext 需要处理的映射上下文, 不能为null
-	 * @param sqlPart 需要处理的目标SQL成员, 不能为null
-	 * @return SQL映射结果, 不会为null
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	void map(ISqlMapContext mapContext, ISqlPart sqlPart);
-}
+package com.fy.sqlparam.map;
+
+/**
+ * SQL映射器
+ * 
+ * @author linjie
+ * @since 1.0.0
+ */
+public interface ISqlMapper {
+
+	/**
+	 * 映射SQL生成映射结果
+	 * 
+	 * @param mapContext 需要处理的映射上下文, 不能为null
+	 * @param sqlPart 需要处理的目标SQL成员, 不能为null
+	 * @return SQL映射结果, 不会为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	void map(ISqlMapContext mapContext, ISqlPart sqlPart);
+	
+	/**
+	 * 获取生成SQL使用的方言, 默认返回null, 即使用MySQL方言
+	 * 
+	 * @return SQL方言, 为null时使用MySQL方言
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlDialect getDialect() {
+		return null;
+	}
+}
 	
\ No newline at end of file
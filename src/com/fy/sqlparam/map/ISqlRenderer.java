@@ -0,0 +1,27 @@
+package com.fy.sqlparam.map;
+
+import com.fy.sqlparam.param.ISqlParameter;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * SQL渲染器
+ * <br/> 把搜索参数按上下文和源SQL语句渲染为映射结果, 不同的实现对相同的输入需要得到相同的SQL语句和参数对象.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public interface ISqlRenderer {
+	
+	/**
+	 * 渲染搜索参数生成映射结果
+	 * 
+	 * @param parameter 搜索参数, 不能为null
+	 * @param paramContext 搜索参数上下文, 不能为null
+	 * @param rawSql 源SQL语句, 不能为null
+	 * @return 映射结果, 不会为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	ISqlMapResult render(ISqlParameter parameter, ISqlParameterContext paramContext, String rawSql);
+}
@@ -1,268 +1,361 @@
-package com.fy.sqlparam.map.config;
-
-import java.lang.annotation.Documented;
-import java.lang.annotation.ElementType;
-import java.lang.annotation.Retention;
-import java.lang.annotation.RetentionPolicy;
-import java.lang.annotation.Target;
-import java.lang.reflect.Constructor;
-
-import com.fy.sqlparam.impl.SqlMapper;
-import com.fy.sqlparam.impl.SqlMapContext.SqlJoinStrategy;
-import com.fy.sqlparam.impl.SqlMapContext.SqlMapMeta;
-import com.fy.sqlparam.impl.SqlMapContext.SqlPartType;
-import com.fy.sqlparam.impl.SqlMapper.SqlMapEntry;
-import com.fy.sqlparam.impl.SqlParameter.SqlPart;
-import com.fy.sqlparam.param.ISqlParameterContext;
-
-/**
- * 提供映射元信息的配置
- * 
- * @author linjie
- * @since 1.0.0
- */
-@Documented
-@Target(ElementType.CONSTRUCTOR)
-@Retention(RetentionPolicy.RUNTIME)
-public @interface MapMetaConfig {
-	
-	/**
-	 * 基本表的SQL语句片段, 包括FROM表和一定会关联查询的表
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	String baseTables();
-	
-	/**
-	 * 包含的可查询字段
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	FieldMapMeta[] queryFields();
-	
-	/**
-	 * 包含的可输出字段
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	FieldMapMeta[] selectFields() default {};
-	
-	/**
-	 * 包含的关联表, 可以没有
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	TableMapMeta[] joinTables() default {};
-	
-	/**
-	 * 包含的默认查询, 所有查询到会加上的查询条件
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	Query[] defaultQueries() default {};
-	
-	/**
-	 * 辅助类: 通过该类可以初始化一个搜索参数上下文的默认加入内容
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	public static class MapMetaAnnoInitializor {
-		
-		/**
-		 * 为一个搜索参数上下文实例初始化映射元信息和默认加入内容(SQL成员和映射键值对)
-		 * 
-		 * @param paramContext 搜索参数上下文实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		public static void initFor(ISqlParameterContext paramContext) {
-			for(Constructor<?> constructor : paramContext.getClass().getConstructors()) {
-				MapMetaConfig configAnno = constructor.getAnnotation(MapMetaConfig.class);
-				if(configAnno != null) {
-					// 基本表信息的映射内容
-					String baseTablesSql = configAnno.baseTables();
-					SqlMapEntry mapEntry = MapMetaAnnoInitializor.generateMapEntry(SqlMapper.REGEXP_BASE_TABLES, baseTablesSql);
-					paramContext.addDefaultMapEntry(mapEntry);
-					
-					FieldMapMeta[] selectFieldAnnoes = configAnno.selectFields();
-					FieldMapMeta[] queryFieldAnnoes = configAnno.queryFields();
-					TableMapMeta[] joinTableAnnoes = configAnno.joinTables();
-					Query[] defaultQueryAnnoes = configAnno.defaultQueries();
-					// 可输出字段的映射内容
-					for(FieldMapMeta selectFieldAnno : selectFieldAnnoes) {
-						String fieldName = selectFieldAnno.name();
-						String dbFieldName = selectFieldAnno.value();
-						String[] dependentMapMetaNames = selectFieldAnno.dependencyNames();
-						Query[] triggleQueryAnnoes = selectFieldAnno.triggleQueries();
-						
-						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
-								fieldName, SqlPartType.SELECT.name());
-						SqlPart dbFieldSqlPart = MapMetaAnnoInitializor.generateSqlPart4DbField(
-								fieldName, dbFieldName, dependentMapMetaNames);
-						mapMeta.addSqlPart(dbFieldSqlPart);
-						paramContext.addDefaultMapMeta(mapMeta);
-						
-						for(Query triggleQueryAnno : triggleQueryAnnoes) {
-							String conditionSql = triggleQueryAnno.value();
-							boolean isAnd = triggleQueryAnno.isAnd();
-							String[] triggleDependentMapMetaNames = triggleQueryAnno.denpendencyNames();
-							
-							SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(
-									conditionSql, isAnd, triggleDependentMapMetaNames);
-							mapMeta.addSqlPart(sqlPart);
-						}
-					}
-					// 可查询字段的映射内容
-					for(FieldMapMeta queryFieldAnno : queryFieldAnnoes) {
-						String fieldName = queryFieldAnno.name();
-						String dbFieldName = queryFieldAnno.value();
-						String[] dependentMapMetaNames = queryFieldAnno.dependencyNames();
-						Query[] triggleQueryAnnoes = queryFieldAnno.triggleQueries();
-						
-						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
-								fieldName, null);
-						SqlPart dbFieldSqlPart = MapMetaAnnoInitializor.generateSqlPart4DbField(
-								fieldName, dbFieldName, dependentMapMetaNames);
-						mapMeta.addSqlPart(dbFieldSqlPart);
-						paramContext.addDefaultMapMeta(mapMeta);
-						
-						for(Query triggleQueryAnno : triggleQueryAnnoes) {
-							String conditionSql = triggleQueryAnno.value();
-							boolean isAnd = triggleQueryAnno.isAnd();
-							String[] triggleDependentMapMetaNames = triggleQueryAnno.denpendencyNames();
-							
-							SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(
-									conditionSql, isAnd, triggleDependentMapMetaNames);
-							mapMeta.addSqlPart(sqlPart);
-						}
-					}
-					// 关联表信息的映射内容
-					for(TableMapMeta joinTableAnno : joinTableAnnoes) {
-						String tableMetaName = joinTableAnno.name();
-						String joinTableSql = joinTableAnno.value();
-						String[] dependentMapMetaNames = joinTableAnno.dependencyNames();
-						
-						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
-								tableMetaName, SqlPartType.FROM_TABLES.name());
-						mapMeta.addSqlPart(MapMetaAnnoInitializor.generateSqlPart4JoinTables(joinTableSql,
-								dependentMapMetaNames));
-						paramContext.addDefaultMapMeta(mapMeta);
-					}
-					// 默认就会搜索的内容
-					for(Query defaultQueryAnno : defaultQueryAnnoes) {
-						String conditionSql = defaultQueryAnno.value();
-						boolean isAnd = defaultQueryAnno.isAnd();
-						String[] defaultDependentMapMetaNames = defaultQueryAnno.denpendencyNames();
-						
-						SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(conditionSql,
-								isAnd, defaultDependentMapMetaNames);
-						paramContext.addDefaultSqlPart(sqlPart);
-					}
-					break;
-				}
-			}
-		}
-		
-		/**
-		 * 辅助方法: 生成一个映射元信息实例
-		 * 
-		 * @param name 映射元信息的名称
-		 * @return 映射元信息实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static SqlMapMeta generateMapMeta(String name, String acceptTypes) {
-			return new SqlMapMeta(name, acceptTypes);
-		}
-		
-		/**
-		 * 生成一个引用类型的SQL映射键值对
-		 * 
-		 * @param key 键
-		 * @param value 值
-		 * @return SQL映射键值对实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static SqlMapEntry generateMapEntry(String key, String value) {
-			return new SqlMapEntry(key, new SqlPart(null, new StringBuilder(value)));
-		}
-		
-		/**
-		 * 为数据库字段生成一个SQL成员, 并指定依赖的关联表的映射元信息名称
-		 * 
-		 * @param fieldName 字段名称, 是查询使用的属性名称
-		 * @param dbFieldName 数据库字段名称, 对应的字段名称引用会替换为此值, 包括数据库表别名
-		 * @param dependentMapMetaNames 依赖的关联表的映射元信息名称
-		 * @return SQL成员实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static SqlPart generateSqlPart4DbField(String fieldName, 
-				String dbFieldName, String[] dependentMapMetaNames) {
-			SqlPart result = new SqlPart(null /* 作无类型静态映射 */, new StringBuilder(dbFieldName));
-			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
-				for(String dependentMapMetaName : dependentMapMetaNames) {
-					result.addDependentMapMetaName(dependentMapMetaName);
-				}
-			}
-			return result;
-		}
-		
-		/**
-		 * 为关联表生成一个SQL成员, 并指定依赖的其它关联表的映射元信息名称
-		 * 
-		 * @param joinTableSql 关联表的SQL语句
-		 * @param dependentMapMetaNames 依赖的其它关联表的映射元信息名称
-		 * @return SQL成员实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static SqlPart generateSqlPart4JoinTables(String joinTableSql,
-				String[] dependentMapMetaNames) {
-			SqlPart result = new SqlPart(SqlPartType.FROM_TABLES.name(), new StringBuilder(joinTableSql));
-			result.setUsingJoinStrategy(SqlJoinStrategy.JOIN_JOINTABLES.instance());
-			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
-				for(String dependentMapMetaName : dependentMapMetaNames) {
-					result.addDependentMapMetaName(dependentMapMetaName);
-				}
-			}
-			return result;
-		}
-		
-		/**
-		 * 为查询条件生成一个SQL成员, 并指定依赖的关联表的映射元信息名称
-		 * 
-		 * @param conditionSql 查询条件的SQL内容
-		 * @param isAnd 连接的逻辑关系是否为AND, <tt>true</tt>为AND, <tt>false为OR</tt>
-		 * @param dependentMapMetaNames 依赖的关联表的映射元信息名称
-		 * @return SQL成员实例
-		 * 
-		 * @author linjie
-		 * @since 1.0.0
-		 */
-		private static SqlPart generateSqlPart4QueryContent(String conditionSql, boolean isAnd,
-				String[] dependentMapMetaNames) {
-			SqlPart result = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder(conditionSql));
-			result.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
-			result.putExtra("isAnd", isAnd);
-			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
-				for(String dependentMapMetaName : dependentMapMetaNames) {
-					result.addDependentMapMetaName(dependentMapMetaName);
-				}
-			}
-			return result;
-		}
-	}
-}
+package com.fy.sqlparam.map.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fy.sqlparam.impl.SqlMapper;
+import com.fy.sqlparam.impl.SqlMapContext.SqlJoinStrategy;
+import com.fy.sqlparam.impl.SqlMapContext.SqlMapMeta;
+import com.fy.sqlparam.impl.SqlMapContext.SqlPartType;
+import com.fy.sqlparam.impl.SqlMapper.SqlMapEntry;
+import com.fy.sqlparam.impl.SqlParameter.SqlPart;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 提供映射元信息的配置
+ * 
+ * @author linjie
+ * @since 1.0.0
+ */
+@Documented
+@Target(ElementType.CONSTRUCTOR)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MapMetaConfig {
+	
+	/**
+	 * 基本表的SQL语句片段, 包括FROM表和一定会关联查询的表
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	String baseTables();
+	
+	/**
+	 * 基本表的SQL语句片段中使用的数据库表名称, 用于按表失效缓存等, 不指定时从基本表的SQL语句片段中提取
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String[] baseTableNames() default {};
+	
+	/**
+	 * 包含的可查询字段
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	FieldMapMeta[] queryFields();
+	
+	/**
+	 * 包含的可输出字段
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	FieldMapMeta[] selectFields() default {};
+	
+	/**
+	 * 包含的关联表, 可以没有
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	TableMapMeta[] joinTables() default {};
+	
+	/**
+	 * 包含的默认查询, 所有查询到会加上的查询条件
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	Query[] defaultQueries() default {};
+	
+	/**
+	 * 辅助类: 通过该类可以初始化一个搜索参数上下文的默认加入内容
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	public static class MapMetaAnnoInitializor {
+		
+		/**
+		 * 为一个搜索参数上下文实例初始化映射元信息和默认加入内容(SQL成员和映射键值对)
+		 * 
+		 * @param paramContext 搜索参数上下文实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		public static void initFor(ISqlParameterContext paramContext) {
+			for(Constructor<?> constructor : paramContext.getClass().getConstructors()) {
+				MapMetaConfig configAnno = constructor.getAnnotation(MapMetaConfig.class);
+				if(configAnno != null) {
+					// 基本表信息的映射内容
+					String baseTablesSql = configAnno.baseTables();
+					SqlMapEntry mapEntry = MapMetaAnnoInitializor.generateMapEntry(SqlMapper.REGEXP_BASE_TABLES, baseTablesSql);
+					mapEntry.getSqlPart().putExtra("tableNames", MapMetaAnnoInitializor.getTableNames(
+							configAnno.baseTableNames(), baseTablesSql));
+					paramContext.addDefaultMapEntry(mapEntry);
+					
+					FieldMapMeta[] selectFieldAnnoes = configAnno.selectFields();
+					FieldMapMeta[] queryFieldAnnoes = configAnno.queryFields();
+					TableMapMeta[] joinTableAnnoes = configAnno.joinTables();
+					Query[] defaultQueryAnnoes = configAnno.defaultQueries();
+					// 可输出字段的映射内容
+					for(FieldMapMeta selectFieldAnno : selectFieldAnnoes) {
+						String fieldName = selectFieldAnno.name();
+						String dbFieldName = selectFieldAnno.value();
+						String[] dependentMapMetaNames = selectFieldAnno.dependencyNames();
+						Query[] triggleQueryAnnoes = selectFieldAnno.triggleQueries();
+						
+						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
+								fieldName, SqlPartType.SELECT.name());
+						SqlPart dbFieldSqlPart = MapMetaAnnoInitializor.generateSqlPart4DbField(
+								fieldName, dbFieldName, dependentMapMetaNames);
+						mapMeta.addSqlPart(dbFieldSqlPart);
+						paramContext.addDefaultMapMeta(mapMeta);
+						
+						for(Query triggleQueryAnno : triggleQueryAnnoes) {
+							String conditionSql = triggleQueryAnno.value();
+							boolean isAnd = triggleQueryAnno.isAnd();
+							String[] triggleDependentMapMetaNames = triggleQueryAnno.denpendencyNames();
+							
+							SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(
+									conditionSql, isAnd, triggleDependentMapMetaNames);
+							mapMeta.addSqlPart(sqlPart);
+						}
+					}
+					// 可查询字段的映射内容
+					for(FieldMapMeta queryFieldAnno : queryFieldAnnoes) {
+						String fieldName = queryFieldAnno.name();
+						String dbFieldName = queryFieldAnno.value();
+						String[] dependentMapMetaNames = queryFieldAnno.dependencyNames();
+						Query[] triggleQueryAnnoes = queryFieldAnno.triggleQueries();
+						
+						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
+								fieldName, null);
+						SqlPart dbFieldSqlPart = MapMetaAnnoInitializor.generateSqlPart4DbField(
+								fieldName, dbFieldName, dependentMapMetaNames);
+						mapMeta.addSqlPart(dbFieldSqlPart);
+						paramContext.addDefaultMapMeta(mapMeta);
+						
+						for(Query triggleQueryAnno : triggleQueryAnnoes) {
+							String conditionSql = triggleQueryAnno.value();
+							boolean isAnd = triggleQueryAnno.isAnd();
+							String[] triggleDependentMapMetaNames = triggleQueryAnno.denpendencyNames();
+							
+							SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(
+									conditionSql, isAnd, triggleDependentMapMetaNames);
+							mapMeta.addSqlPart(sqlPart);
+						}
+					}
+					// 关联表信息的映射内容
+					for(TableMapMeta joinTableAnno : joinTableAnnoes) {
+						String tableMetaName = joinTableAnno.name();
+						String joinTableSql = joinTableAnno.value();
+						String[] dependentMapMetaNames = joinTableAnno.dependencyNames();
+						String[] tableNames = MapMetaAnnoInitializor.getTableNames(
+								joinTableAnno.tableNames(), joinTableSql);
+						
+						SqlMapMeta mapMeta = MapMetaAnnoInitializor.generateMapMeta(
+								tableMetaName, SqlPartType.FROM_TABLES.name());
+						mapMeta.addSqlPart(MapMetaAnnoInitializor.generateSqlPart4JoinTables(joinTableSql,
+								dependentMapMetaNames, tableNames));
+						paramContext.addDefaultMapMeta(mapMeta);
+					}
+					// 默认就会搜索的内容
+					for(Query defaultQueryAnno : defaultQueryAnnoes) {
+						String conditionSql = defaultQueryAnno.value();
+						boolean isAnd = defaultQueryAnno.isAnd();
+						String[] defaultDependentMapMetaNames = defaultQueryAnno.denpendencyNames();
+						
+						SqlPart sqlPart = MapMetaAnnoInitializor.generateSqlPart4QueryContent(conditionSql,
+								isAnd, defaultDependentMapMetaNames);
+						paramContext.addDefaultSqlPart(sqlPart);
+					}
+					break;
+				}
+			}
+		}
+		
+		/**
+		 * 获取搜索参数上下文类构造函数上的映射元信息配置
+		 * 
+		 * @param paramContextClass 搜索参数上下文类
+		 * @return 映射元信息配置, 没有配置返回null
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public static MapMetaConfig getConfig(Class<? extends ISqlParameterContext> paramContextClass) {
+			for(Constructor<?> constructor : paramContextClass.getConstructors()) {
+				MapMetaConfig configAnno = constructor.getAnnotation(MapMetaConfig.class);
+				if(configAnno != null) {
+					return configAnno;
+				}
+			}
+			return null;
+		}
+		
+		/**
+		 * 获取搜索参数上下文类配置的可输出字段
+		 * 
+		 * @param paramContextClass 搜索参数上下文类, 其构造函数上有{@link MapMetaConfig}注解
+		 * @return 可输出字段, key是字段名称, value是对应的数据库字段名称, 按配置的顺序排列; 没有配置返回空映射
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		public static Map<String, String> getSelectFields(Class<? extends ISqlParameterContext> paramContextClass) {
+			Map<String, String> result = new LinkedHashMap<String, String>();
+			for(Constructor<?> constructor : paramContextClass.getConstructors()) {
+				MapMetaConfig configAnno = constructor.getAnnotation(MapMetaConfig.class);
+				if(configAnno != null) {
+					for(FieldMapMeta selectFieldAnno : configAnno.selectFields()) {
+						result.put(selectFieldAnno.name(), selectFieldAnno.value());
+					}
+					break;
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * 辅助方法: 生成一个映射元信息实例
+		 * 
+		 * @param name 映射元信息的名称
+		 * @return 映射元信息实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static SqlMapMeta generateMapMeta(String name, String acceptTypes) {
+			return new SqlMapMeta(name, acceptTypes);
+		}
+		
+		/**
+		 * 生成一个引用类型的SQL映射键值对
+		 * 
+		 * @param key 键
+		 * @param value 值
+		 * @return SQL映射键值对实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static SqlMapEntry generateMapEntry(String key, String value) {
+			return new SqlMapEntry(key, new SqlPart(null, new StringBuilder(value)));
+		}
+		
+		/**
+		 * 为数据库字段生成一个SQL成员, 并指定依赖的关联表的映射元信息名称
+		 * 
+		 * @param fieldName 字段名称, 是查询使用的属性名称
+		 * @param dbFieldName 数据库字段名称, 对应的字段名称引用会替换为此值, 包括数据库表别名
+		 * @param dependentMapMetaNames 依赖的关联表的映射元信息名称
+		 * @return SQL成员实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static SqlPart generateSqlPart4DbField(String fieldName, 
+				String dbFieldName, String[] dependentMapMetaNames) {
+			SqlPart result = new SqlPart(null /* 作无类型静态映射 */, new StringBuilder(dbFieldName));
+			MapMetaAnnoInitializor.putSubQueryTableNames(result, dbFieldName);
+			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
+				for(String dependentMapMetaName : dependentMapMetaNames) {
+					result.addDependentMapMetaName(dependentMapMetaName);
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * 为关联表生成一个SQL成员, 并指定依赖的其它关联表的映射元信息名称
+		 * 
+		 * @param joinTableSql 关联表的SQL语句
+		 * @param dependentMapMetaNames 依赖的其它关联表的映射元信息名称
+		 * @param tableNames 关联表的SQL语句中使用的数据库表名称
+		 * @return SQL成员实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static SqlPart generateSqlPart4JoinTables(String joinTableSql,
+				String[] dependentMapMetaNames, String[] tableNames) {
+			SqlPart result = new SqlPart(SqlPartType.FROM_TABLES.name(), new StringBuilder(joinTableSql));
+			result.setUsingJoinStrategy(SqlJoinStrategy.JOIN_JOINTABLES.instance());
+			result.putExtra("tableNames", tableNames);
+			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
+				for(String dependentMapMetaName : dependentMapMetaNames) {
+					result.addDependentMapMetaName(dependentMapMetaName);
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * 获取表关联的SQL语句片段使用的数据库表名称, 优先使用配置指定的
+		 * 
+		 * @param assignedTableNames 配置指定的数据库表名称
+		 * @param tablesSql 表关联的SQL语句片段
+		 * @return 数据库表名称数组
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static String[] getTableNames(String[] assignedTableNames, String tablesSql) {
+			if(assignedTableNames != null && assignedTableNames.length > 0) {
+				return assignedTableNames;
+			}
+			return SqlMapper.extractTableNames(tablesSql);
+		}
+		
+		/**
+		 * 字段或查询条件的SQL内容中有子查询时, 把子查询使用的数据库表名称记录到SQL成员的额外参数"tableNames"
+		 * 
+		 * @param sqlPart SQL成员
+		 * @param sql 字段或查询条件的SQL内容
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static void putSubQueryTableNames(SqlPart sqlPart, String sql) {
+			String[] tableNames = SqlMapper.extractTableNames(sql, false);
+			if(tableNames.length > 0) {
+				sqlPart.putExtra("tableNames", tableNames);
+			}
+		}
+		
+		/**
+		 * 为查询条件生成一个SQL成员, 并指定依赖的关联表的映射元信息名称
+		 * 
+		 * @param conditionSql 查询条件的SQL内容
+		 * @param isAnd 连接的逻辑关系是否为AND, <tt>true</tt>为AND, <tt>false为OR</tt>
+		 * @param dependentMapMetaNames 依赖的关联表的映射元信息名称
+		 * @return SQL成员实例
+		 * 
+		 * @author linjie
+		 * @since 1.0.0
+		 */
+		private static SqlPart generateSqlPart4QueryContent(String conditionSql, boolean isAnd,
+				String[] dependentMapMetaNames) {
+			SqlPart result = new SqlPart(SqlPartType.WHERE.name(), new StringBuilder(conditionSql));
+			result.setUsingJoinStrategy(SqlJoinStrategy.JOIN_CONDITIONS.instance());
+			result.putExtra("isAnd", isAnd);
+			MapMetaAnnoInitializor.putSubQueryTableNames(result, conditionSql);
+			if(dependentMapMetaNames != null && dependentMapMetaNames.length > 0) {
+				for(String dependentMapMetaName : dependentMapMetaNames) {
+					result.addDependentMapMetaName(dependentMapMetaName);
+				}
+			}
+			return result;
+		}
+	}
+}
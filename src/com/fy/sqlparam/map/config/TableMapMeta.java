@@ -43,4 +43,14 @@ public @interface TableMapMeta {
 	 * @since 1.0.0
 	 */
 	String[] dependencyNames() default {};
-}
+	
+	/**
+	 * 关联语句中使用的数据库表名称, 用于按表失效缓存等, 不指定时从关联语句中提取
+	 * 
+	 * @return 数据库表名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	String[] tableNames() default {};
+}
\ No newline at end of file
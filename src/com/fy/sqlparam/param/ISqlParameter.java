@@ -1,124 +1,169 @@
-package com.fy.sqlparam.param;
-
-import com.fy.sqlparam.map.ISqlMapContext;
-import com.fy.sqlparam.map.ISqlMapper;
-
-/**
- * SQL搜索参数
- * 
- * @author linjie
- * @since 1.0.0
- */
-public interface ISqlParameter {
-	
-	/**
-	 * 添加查询条件, 如果这不是第一个查询条件则默认使用AND关系连接
-	 * 
-	 * @param query 添加的查询条件, 不能为null
-	 * @return 条件查询实例, <strong>注意是这里返回的是所有查询实例的根, 如果在此返回查询实例上使用连接, 则是WHERE条件下的第一层条件.</strong>
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery query(ISqlQuery query);
-	
-	/**
-	 * 获取一个空的查询条件, 用与后续条件判断拼接查询条件
-	 * 
-	 * @return 条件查询实例,  此查询没有意义
-	 * 
-	 * @author linjie
-	 * @since 1.0.2
-	 */
-	ISqlQuery query();
-	
-	/**
-	 * 标记某个属性进行排序
-	 * 
-	 * @param propertyName 属性名称, 不能为null
-	 * @param isAsc 是否是正序排序, 为<tt>false</tt>则为逆序排序
-	 * @return 排序查询实例, 属于当前排序字段
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery markOrderBy(String propertyName, boolean isAsc);
-	
-	/**
-	 * 标记某个属性需要输出
-	 * 
-	 * @param propertyName 属性名称, 不能为null
-	 * @return 需要输出查询实例, 属于当前输出字段
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery markSelect(String propertyName);
-	
-	/**
-	 * 设置查询分页
-	 * 
-	 * @param page 第几页, 不能小于1, 小于的情况下按1处理
-	 * @param count 一页包含的数量, 不能小于0, 小于的情况下按10处理
-	 * @param offset 起点偏移数, 不能小于0, 小于的情况下按0处理
-	 * @return 分页查询实例
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery setPagination(int page, int count, int offset);
-	
-	/**
-	 * 删除查询
-	 * 
-	 * @param queryIndex 删除的查询条件索引, 不能为null
-	 * 
-	 * @author linjie
-	 * @since 1.0.1
-	 */
-	void deleteQuery(ISqlQuery query);
-	
-	/**
-	 * 删除所有条件查询
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	void deleteConditions();
-	
-	/**
-	 * 删除所有排序查询
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	void deleteSorts();
-	
-	/**
-	 * 删除分页的查询
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	void deletePagination();
-	
-	/**
-	 * 清除所有查询条件, 包含排序和分页
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	void clear();
-	
-	/**
-	 * 生成映射上下文实例
-	 * 
-	 * @param paramContext 指定生成的映射上下文所属的搜索参数上下文, 不能为null
-	 * @param sqlMapper 指定生成的映射上下文所使用的映射处理器, 不能为null
-	 * @return 映射上下文实例
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlMapContext generateMapContext(ISqlParameterContext paramContext, ISqlMapper sqlMapper);
-}
+package com.fy.sqlparam.param;
+
+import com.fy.sqlparam.map.ISqlMapContext;
+import com.fy.sqlparam.map.ISqlMapper;
+
+/**
+ * SQL搜索参数
+ * 
+ * @author linjie
+ * @since 1.0.0
+ */
+public interface ISqlParameter {
+	
+	/**
+	 * 添加查询条件, 如果这不是第一个查询条件则默认使用AND关系连接
+	 * 
+	 * @param query 添加的查询条件, 不能为null
+	 * @return 条件查询实例, <strong>注意是这里返回的是所有查询实例的根, 如果在此返回查询实例上使用连接, 则是WHERE条件下的第一层条件.</strong>
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery query(ISqlQuery query);
+	
+	/**
+	 * 获取一个空的查询条件, 用与后续条件判断拼接查询条件
+	 * 
+	 * @return 条件查询实例,  此查询没有意义
+	 * 
+	 * @author linjie
+	 * @since 1.0.2
+	 */
+	ISqlQuery query();
+	
+	/**
+	 * 标记某个属性进行排序
+	 * 
+	 * @param propertyName 属性名称, 不能为null
+	 * @param isAsc 是否是正序排序, 为<tt>false</tt>则为逆序排序
+	 * @return 排序查询实例, 属于当前排序字段
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery markOrderBy(String propertyName, boolean isAsc);
+	
+	/**
+	 * 标记某个属性需要输出
+	 * 
+	 * @param propertyName 属性名称, 不能为null
+	 * @return 需要输出查询实例, 属于当前输出字段
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery markSelect(String propertyName);
+	
+	/**
+	 * 设置查询分页
+	 * 
+	 * @param page 第几页, 不能小于1, 小于的情况下按1处理
+	 * @param count 一页包含的数量, 不能小于0, 小于的情况下按10处理
+	 * @param offset 起点偏移数, 不能小于0, 小于的情况下按0处理
+	 * @return 分页查询实例
+	 * @throws IllegalArgumentException 计算得到的偏移量((page - 1) * count + offset)超出int的范围则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery setPagination(int page, int count, int offset);
+	
+	/**
+	 * 标记输出满足条件的总数量
+	 * <br/> 在输出字段中加入窗口函数COUNT(*) OVER(), 其在分页之前计算, 每一行都带有满足条件的总数量, 
+	 * 	需要数据库支持窗口函数. 输出的字段名称见{@link com.fy.sqlparam.impl.SqlParameter#WINDOW_TOTAL_LABEL}.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @return 输出总数量的查询实例, 只有一个
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlQuery markWindowTotal() {
+		throw new UnsupportedOperationException("搜索参数不支持输出总数量");
+	}
+	
+	/**
+	 * 删除查询
+	 * 
+	 * @param queryIndex 删除的查询条件索引, 不能为null
+	 * 
+	 * @author linjie
+	 * @since 1.0.1
+	 */
+	void deleteQuery(ISqlQuery query);
+	
+	/**
+	 * 删除所有条件查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	void deleteConditions();
+	
+	/**
+	 * 删除所有排序查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	void deleteSorts();
+	
+	/**
+	 * 删除分页的查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	void deletePagination();
+	
+	/**
+	 * 删除输出总数量的查询, 默认不支持, 抛出{@link UnsupportedOperationException}
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default void deleteWindowTotal() {
+		throw new UnsupportedOperationException("搜索参数不支持输出总数量");
+	}
+	
+	/**
+	 * 清除所有查询条件, 包含排序和分页
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	void clear();
+	
+	/**
+	 * 获取搜索参数的结构哈希
+	 * <br/> 在构建查询时增量维护, 不包含子查询时获取的时间复杂度为O(1); 包含子查询时每次获取都重新计算子查询所在的分支,
+	 * 	代价与这些分支中的查询数量(包括子查询的搜索参数中的查询)成正比.
+	 * <br/> 包含属性名称, 查询策略, 连接关系, 嵌套结构和参数个数,
+	 * 	以及直接写入SQL语句的参数(排序方向, 表名称, 引用占位符, 子查询), 不包含参数值.
+	 * <br/> 结构哈希相同的搜索参数对同一个上下文和源SQL语句生成相同的SQL语句(分页的数值除外), 可以在渲染前作为缓存的键;
+	 * 	哈希不依赖对象地址, 不同进程中计算的结果一致.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @return 64位的结构哈希
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default long getShapeHash() {
+		throw new UnsupportedOperationException("搜索参数不支持结构哈希");
+	}
+	
+	/**
+	 * 生成映射上下文实例
+	 * 
+	 * @param paramContext 指定生成的映射上下文所属的搜索参数上下文, 不能为null
+	 * @param sqlMapper 指定生成的映射上下文所使用的映射处理器, 不能为null
+	 * @return 映射上下文实例
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlMapContext generateMapContext(ISqlParameterContext paramContext, ISqlMapper sqlMapper);
+}
@@ -1,157 +1,225 @@
-package com.fy.sqlparam.param;
-
-import java.util.Collection;
-
-/**
- * 查询方法, 提供快速生成查询实例的接口
- * 
- * @author linjie
- * @since 1.0.1
- */
-public interface ISqlQueryMethod {
-
-	/**
-	 * 查询属性等于某个值
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery eq(Object target);
-
-	/**
-	 * 	查询属性不等于某个值
-	 * 	
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery notEq(Object target);
-
-	/**
-	 * 查询属性在某个集合中
-	 * 
-	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery in(Collection<?> targets);
-
-	/**
-	 * 查询属性不在某个集合中
-	 * 
-	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery notIn(Collection<?> targets);
-
-	/**
-	 * 查询属性模糊匹配某个值
-	 * 
-	 * @param target 模糊匹配指定的字符串, 格式是中like查询的格式
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery like(String target);
-
-	/**
-	 * 查询属性在某个范围内
-	 * 
-	 * @param from 范围起点, 不能为null
-	 * @param to 范围终点, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery between(Object from, Object to);
-
-	/**
-	 * 查询属性小于某个值
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery lessThan(Object target);
-
-	/**
-	 * 查询属性不小于(大于等于)某个值
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery notLessThan(Object target);
-
-	/**
-	 * 查询属性大于某个值
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery greaterThan(Object target);
-
-	/**
-	 * 查询属性不大于(小于等于)某个值
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery notGreaterThan(Object target);
-
-	/**
-	 * 查询属性的值为NULL
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery isNull();
-
-	/**
-	 * 查询属性的值不为NULL
-	 * 
-	 * @param target 目标值, 不能为null
-	 * @return 查询实例, 通过{@link ISqlParameter #query(String, ISqlQuery)}
-	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
-	 * 
-	 * @author linjie
-	 * @since 1.0.0
-	 */
-	ISqlQuery isNotNull();
-}
+package com.fy.sqlparam.param;
+
+import java.util.Collection;
+
+/**
+ * 查询方法, 提供快速生成查询实例的接口
+ * 
+ * @author linjie
+ * @since 1.0.1
+ */
+public interface ISqlQueryMethod {
+
+	/**
+	 * 查询属性等于某个值
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery eq(Object target);
+
+	/**
+	 * 	查询属性不等于某个值
+	 * 	
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery notEq(Object target);
+
+	/**
+	 * 查询属性在某个集合中
+	 * 
+	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery in(Collection<?> targets);
+
+	/**
+	 * 查询属性不在某个集合中
+	 * 
+	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery notIn(Collection<?> targets);
+
+	/**
+	 * 查询属性在某个集合中, 集合作为一个数组参数绑定, 生成<tt>= ANY(?)</tt>
+	 * <br/> 不论集合多大都只有一个参数, 需要数据库和驱动支持数组参数, 例如PostgreSQL和H2.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @param targets 目标集合, 不能为null或空, 集合中的null会被去掉
+	 * @param elementTypeName 数组元素的数据库类型名称, 例如"bigint", 不能为null或空
+	 * @return 查询实例, 通过{@link ISqlParameter #query(ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlQuery inArray(Collection<?> targets, String elementTypeName) {
+		throw new UnsupportedOperationException("查询方法不支持数组参数");
+	}
+
+	/**
+	 * 查询属性在某张表的某一列中, 生成<tt>IN (SELECT 列 FROM 表)</tt>
+	 * <br/> 一般用于先把大量的值写入会话临时表再查询.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @param tableName 表名称, 只能包含字母, 数字, 下划线和'.', 不能为null
+	 * @param columnName 列名称, 只能包含字母, 数字和下划线, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #query(ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlQuery inTable(String tableName, String columnName) {
+		throw new UnsupportedOperationException("查询方法不支持表查询");
+	}
+
+	/**
+	 * 查询属性模糊匹配某个值
+	 * 
+	 * @param target 模糊匹配指定的字符串, 格式是中like查询的格式
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery like(String target);
+
+	/**
+	 * 查询属性在某个范围内
+	 * 
+	 * @param from 范围起点, 不能为null
+	 * @param to 范围终点, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery between(Object from, Object to);
+
+	/**
+	 * 查询属性小于某个值
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery lessThan(Object target);
+
+	/**
+	 * 查询属性不小于(大于等于)某个值
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery notLessThan(Object target);
+
+	/**
+	 * 查询属性大于某个值
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery greaterThan(Object target);
+
+	/**
+	 * 查询属性不大于(小于等于)某个值
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery notGreaterThan(Object target);
+
+	/**
+	 * 查询属性的值为NULL
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #addQueryByAnd(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery isNull();
+
+	/**
+	 * 查询属性的值不为NULL
+	 * 
+	 * @param target 目标值, 不能为null
+	 * @return 查询实例, 通过{@link ISqlParameter #query(String, ISqlQuery)}
+	 * 	或{@link ISqlParameter #addQueryByOr(String, ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.0
+	 */
+	ISqlQuery isNotNull();
+
+	/**
+	 * 查询属性在子查询的结果中
+	 * <br/> 子查询通过其自身的搜索参数上下文生成嵌套的SELECT语句, 其中的参数对象按顺序拼接进当前查询条件中,
+	 * 	整个条件在同一条SQL语句中执行.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @param subParameter 子查询的搜索参数, 不能为null
+	 * @param subParamContext 子查询使用的搜索参数上下文, 不能为null
+	 * @param rawSql 子查询的源SQL模板, 不能为null或空, 一般只输出一个字段
+	 * @return 查询实例, 通过{@link ISqlParameter #query(ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlQuery inSubQuery(ISqlParameter subParameter, ISqlParameterContext subParamContext, String rawSql) {
+		throw new UnsupportedOperationException("查询方法不支持子查询");
+	}
+
+	/**
+	 * 子查询存在结果
+	 * <br/> 子查询通过其自身的搜索参数上下文生成嵌套的SELECT语句, 其中的参数对象按顺序拼接进当前查询条件中.
+	 * 	查询的属性名称不参与生成SQL, 需要关联外部查询的条件直接写在子查询的源SQL模板中.
+	 * <br/> 默认不支持, 抛出{@link UnsupportedOperationException}.
+	 * 
+	 * @param subParameter 子查询的搜索参数, 不能为null
+	 * @param subParamContext 子查询使用的搜索参数上下文, 不能为null
+	 * @param rawSql 子查询的源SQL模板, 不能为null或空
+	 * @return 查询实例, 通过{@link ISqlParameter #query(ISqlQuery)}加入到搜索参数中使用
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	default ISqlQuery exists(ISqlParameter subParameter, ISqlParameterContext subParamContext, String rawSql) {
+		throw new UnsupportedOperationException("查询方法不支持子查询");
+	}
+}
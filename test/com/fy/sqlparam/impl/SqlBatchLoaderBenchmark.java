@@ -0,0 +1,223 @@
+package com.fy.sqlparam.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fy.sqlparam.exec.ISqlExecutor;
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.impl.SqlParameterRenderTest.TestContext;
+import com.fy.sqlparam.map.ISqlMapResult;
+
+/**
+ * 合并加载器的计时基准, 不依赖测试框架, 直接运行main方法
+ * <br/> 使用模拟的SQL执行器, 每次查询固定等待一段时间作为数据库往返, 返回每个参数对应的一行;
+ * 	比较多个线程并发逐个等值查询和通过{@link SqlBatchLoader}合并查询的往返次数和耗时, 合并后往返次数没有减少时抛出{@link AssertionError}.
+ * <br/> 参数依次为: 线程数量, 每个线程的查询次数, 模拟往返的毫秒数, 时间窗口的毫秒数, 批次上限.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBatchLoaderBenchmark {
+	
+	/**
+	 * 测试使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String RAW_SQL = "SELECT u.id, u.name FROM {BASE_TABLES} WHERE {CONDITIONS}";
+	
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		int lookupsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		long roundTripMillis = args.length > 2 ? Long.parseLong(args[2]) : 2;
+		long windowMillis = args.length > 3 ? Long.parseLong(args[3]) : 1;
+		int maxBatchSize = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+		
+		final TestContext paramContext = new TestContext();
+		final StubExecutor executor = new StubExecutor(roundTripMillis);
+		
+		// 逐个等值查询
+		long startNanos = System.nanoTime();
+		SqlBatchLoaderBenchmark.runConcurrently(threads, lookupsPerThread, new Lookup() {
+			
+			@Override
+			public void lookup(long key) throws Exception {
+				SqlParameter parameter = new SqlParameter();
+				parameter.query(Query.to("id").eq(key));
+				ISqlMapResult mapResult = parameter.generateMapContext(paramContext, new SqlMapper())
+						.generateMapResult(RAW_SQL);
+				executor.query(mapResult, KEY_MAPPER);
+			}
+		});
+		long directNanos = System.nanoTime() - startNanos;
+		long directRoundTrips = executor.roundTrips.getAndSet(0);
+		
+		// 合并查询
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+		try {
+			final SqlBatchLoader<Long> loader = new SqlBatchLoader<Long>(executor, paramContext, RAW_SQL,
+					"id", "id", KEY_MAPPER, windowMillis, maxBatchSize, scheduler);
+			startNanos = System.nanoTime();
+			SqlBatchLoaderBenchmark.runConcurrently(threads, lookupsPerThread, new Lookup() {
+				
+				@Override
+				public void lookup(long key) throws Exception {
+					Future<List<Long>> future = loader.load(key);
+					List<Long> rows = future.get(10, TimeUnit.SECONDS);
+					if(rows.size() != 1 || rows.get(0).longValue() != key) {
+						throw new AssertionError(String.format("键%d的结果不正确: %s", key, rows));
+					}
+				}
+			});
+		} finally {
+			scheduler.shutdownNow();
+		}
+		long batchNanos = System.nanoTime() - startNanos;
+		long batchRoundTrips = executor.roundTrips.get();
+		
+		long lookups = (long) threads * lookupsPerThread;
+		System.out.println(String.format("lookups=%d threads=%d roundTrip=%dms window=%dms maxBatch=%d",
+				lookups, threads, roundTripMillis, windowMillis, maxBatchSize));
+		System.out.println(String.format("direct: roundTrips=%d elapsed=%.1fms", directRoundTrips, directNanos / 1e6));
+		System.out.println(String.format("batch:  roundTrips=%d elapsed=%.1fms", batchRoundTrips, batchNanos / 1e6));
+		if(batchRoundTrips >= directRoundTrips) {
+			throw new AssertionError("合并查询没有减少往返次数");
+		}
+	}
+	
+	/**
+	 * 读取结果行中id列的映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final ISqlRowMapper<Long> KEY_MAPPER = new ISqlRowMapper<Long>() {
+		
+		@Override
+		public Long mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+			return Long.valueOf(((Number) resultSet.getObject("id")).longValue());
+		}
+	};
+	
+	/**
+	 * 多个线程同时开始, 每个线程查询各自不同的键
+	 * 
+	 * @param threads 线程数量
+	 * @param lookupsPerThread 每个线程的查询次数
+	 * @param lookup 一次查询
+	 * @throws Exception 查询失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void runConcurrently(int threads, final int lookupsPerThread, final Lookup lookup)
+			throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+			for(int t = 0; t < threads; t ++) {
+				final long baseKey = (long) t * lookupsPerThread;
+				futures.add(pool.submit(new java.util.concurrent.Callable<Void>() {
+					
+					@Override
+					public Void call() throws Exception {
+						start.await();
+						for(int i = 0; i < lookupsPerThread; i ++) {
+							lookup.lookup(baseKey + i);
+						}
+						return null;
+					}
+				}));
+			}
+			start.countDown();
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	/**
+	 * 一次按键查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private interface Lookup {
+		
+		void lookup(long key) throws Exception;
+	}
+	
+	/**
+	 * 模拟的SQL执行器, 每次查询等待固定的往返时间, 为每个参数返回一行, id列即参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static class StubExecutor implements ISqlExecutor {
+		
+		private final long roundTripMillis;
+		
+		private final AtomicLong roundTrips = new AtomicLong();
+		
+		private StubExecutor(long roundTripMillis) {
+			this.roundTripMillis = roundTripMillis;
+		}
+		
+		@Override
+		public <T> List<T> query(ISqlMapResult mapResult, ISqlRowMapper<T> rowMapper) throws SQLException {
+			this.roundTrips.incrementAndGet();
+			try {
+				Thread.sleep(this.roundTripMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("模拟的查询被中断", e);
+			}
+			Object[] argObjs = mapResult.getArgObjs();
+			List<T> rows = new ArrayList<T>(argObjs.length);
+			for(int i = 0; i < argObjs.length; i ++) {
+				rows.add(rowMapper.mapRow(StubExecutor.newRow(argObjs[i]), i));
+			}
+			return rows;
+		}
+		
+		/**
+		 * 生成只有id列的结果行, 只支持按列名称读取
+		 * 
+		 * @param id id列的值
+		 * @return 结果行
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static ResultSet newRow(final Object id) {
+			return (ResultSet) Proxy.newProxyInstance(StubExecutor.class.getClassLoader(),
+					new Class<?>[] {ResultSet.class}, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if("getObject".equals(method.getName()) && args.length == 1 && "id".equals(args[0])) {
+						return id;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+	}
+}
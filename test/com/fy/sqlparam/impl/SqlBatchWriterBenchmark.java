@@ -0,0 +1,203 @@
+package com.fy.sqlparam.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * 批量写入执行器插入或更新的计时基准, 不依赖测试框架, 直接运行main方法
+ * <br/> 使用模拟的数据源, 每次往返(执行一批或执行一个语句)固定等待一段时间, 每个语句再按语句数量等待一段时间作为数据库逐条执行的开销;
+ * 	按各个方言和每个语句包含的行数写入同样的行, 输出往返次数, 语句数量, 耗时和每秒行数, 多行语句没有减少语句数量时抛出{@link AssertionError}.
+ * <br/> 只衡量模拟数据源自身的开销模型, 各个方言生成的SQL语句没有在真实的数据库中执行, 不能说明方言语法在数据库中是否可用.
+ * <br/> 参数依次为: 行数, 模拟往返的微秒数, 每个语句的微秒数.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlBatchWriterBenchmark {
+	
+	/**
+	 * 比较的每个语句包含的行数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int[] ROWS_PER_STATEMENT = {1, 10, 100};
+	
+	public static void main(String[] args) throws Exception {
+		int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		long roundTripMicros = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+		long statementMicros = args.length > 2 ? Long.parseLong(args[2]) : 20;
+		
+		Map<String, String> columns = new LinkedHashMap<String, String>();
+		columns.put("id", "id");
+		columns.put("name", "name");
+		columns.put("amount", "amount");
+		SqlWriteTable writeTable = new SqlWriteTable("t_account", columns);
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(rowCount);
+		for(int i = 0; i < rowCount; i ++) {
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put("id", Long.valueOf(i));
+			row.put("name", "name" + i);
+			row.put("amount", Double.valueOf(i * 1.5));
+			rows.add(row);
+		}
+		
+		System.out.println(String.format("rows=%d roundTrip=%dus statement=%dus", rowCount, roundTripMicros,
+				statementMicros));
+		for(SqlDialect dialect : SqlDialect.values()) {
+			long singleRowStatements = -1;
+			for(int rowsPerStatement : ROWS_PER_STATEMENT) {
+				StubDatabase database = new StubDatabase(roundTripMicros, statementMicros);
+				SqlBatchWriter writer = new SqlBatchWriter(database.dataSource(), writeTable,
+						SqlBatchWriter.DEFAULT_BATCH_SIZE, dialect.instance(), rowsPerStatement);
+				// 先写入一次预热, 再计时
+				writer.upsert(rows.subList(0, Math.min(rowCount, 1000)), "id");
+				database.reset();
+				long startNanos = System.nanoTime();
+				writer.upsert(rows, "id");
+				long elapsedNanos = System.nanoTime() - startNanos;
+				System.out.println(String.format("%-10s rowsPerStatement=%-4d roundTrips=%-6d statements=%-6d "
+						+ "elapsed=%.1fms rows/s=%.0f", dialect.instance().getName(), rowsPerStatement,
+						database.roundTrips, database.statements, elapsedNanos / 1e6, rowCount * 1e9 / elapsedNanos));
+				if(singleRowStatements < 0) {
+					singleRowStatements = database.statements;
+				} else if(database.statements >= singleRowStatements) {
+					throw new AssertionError(String.format("%s的多行语句没有减少语句数量", dialect.instance().getName()));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 模拟的数据库, 统计往返次数和执行的语句数量, 并按次数等待模拟的耗时
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static class StubDatabase {
+		
+		private final long roundTripNanos;
+		
+		private final long statementNanos;
+		
+		private long roundTrips;
+		
+		private long statements;
+		
+		private StubDatabase(long roundTripMicros, long statementMicros) {
+			this.roundTripNanos = roundTripMicros * 1000;
+			this.statementNanos = statementMicros * 1000;
+		}
+		
+		private void reset() {
+			this.roundTrips = 0;
+			this.statements = 0;
+		}
+		
+		/**
+		 * 模拟一次往返执行指定数量的语句
+		 * 
+		 * @param statementCount 语句数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void execute(int statementCount) {
+			this.roundTrips ++;
+			this.statements += statementCount;
+			long waitNanos = this.roundTripNanos + this.statementNanos * statementCount;
+			long deadline = System.nanoTime() + waitNanos;
+			while(waitNanos > 0) {
+				LockSupport.parkNanos(waitNanos);
+				waitNanos = deadline - System.nanoTime();
+			}
+		}
+		
+		private DataSource dataSource() {
+			return SqlBatchWriterBenchmark.newProxy(DataSource.class, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if("getConnection".equals(method.getName())) {
+						return StubDatabase.this.connection();
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+		
+		private Connection connection() {
+			return SqlBatchWriterBenchmark.newProxy(Connection.class, new InvocationHandler() {
+				
+				private boolean autoCommit = true;
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if("prepareStatement".equals(name)) {
+						return StubDatabase.this.statement();
+					}
+					if("getAutoCommit".equals(name)) {
+						return Boolean.valueOf(this.autoCommit);
+					}
+					if("setAutoCommit".equals(name)) {
+						this.autoCommit = ((Boolean) args[0]).booleanValue();
+						return null;
+					}
+					if("commit".equals(name) || "rollback".equals(name) || "close".equals(name)) {
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+		
+		private PreparedStatement statement() {
+			return SqlBatchWriterBenchmark.newProxy(PreparedStatement.class, new InvocationHandler() {
+				
+				private int batchedStatements;
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if("setObject".equals(name) || "close".equals(name)) {
+						return null;
+					}
+					if("addBatch".equals(name)) {
+						this.batchedStatements ++;
+						return null;
+					}
+					if("executeBatch".equals(name)) {
+						int[] updateCounts = new int[this.batchedStatements];
+						Arrays.fill(updateCounts, 1);
+						StubDatabase.this.execute(this.batchedStatements);
+						this.batchedStatements = 0;
+						return updateCounts;
+					}
+					if("executeUpdate".equals(name)) {
+						StubDatabase.this.execute(1);
+						return Integer.valueOf(1);
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T newProxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlBatchWriterBenchmark.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+}
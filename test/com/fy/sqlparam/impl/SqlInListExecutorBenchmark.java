@@ -0,0 +1,344 @@
+package com.fy.sqlparam.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import com.fy.sqlparam.exec.ISqlRowMapper;
+import com.fy.sqlparam.impl.SqlInListExecutor.InListMode;
+import com.fy.sqlparam.impl.SqlParameterRenderTest.TestContext;
+
+/**
+ * 大集合IN查询执行器的计时基准, 不依赖测试框架, 直接运行main方法
+ * <br/> 使用模拟的数据源, 每次往返固定等待一段时间, 查询再按绑定的占位符数量等待一段时间作为数据库解析大量占位符的开销,
+ * 	查询为每个不同的绑定值返回一行. 比较普通的IN查询和分块, 数组参数, 临时表三种方式的往返次数, 占位符数量和耗时,
+ * 	集合中包含重复的值, 任意方式返回的行数与去重后的值数量不一致(例如重复的值分到不同分块)时抛出{@link AssertionError}.
+ * <br/> 只衡量模拟数据源自身的开销模型, 生成的SQL语句没有在真实的数据库中执行.
+ * <br/> 参数依次为: 值的数量, 模拟往返的微秒数, 每个占位符的微秒数, 分块大小, 分块查询的线程数量.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlInListExecutorBenchmark {
+	
+	/**
+	 * 测试使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String RAW_SQL = "SELECT u.id FROM {BASE_TABLES} WHERE {CONDITIONS}";
+	
+	public static void main(String[] args) throws Exception {
+		int targetCount = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		long roundTripMicros = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+		long placeholderMicros = args.length > 2 ? Long.parseLong(args[2]) : 2;
+		int chunkSize = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+		
+		// 每10个值重复一次, 分块方式需要去重
+		List<Object> targets = new ArrayList<Object>(targetCount + targetCount / 10);
+		for(int i = 0; i < targetCount; i ++) {
+			targets.add(Long.valueOf(i));
+			if(i % 10 == 0) {
+				targets.add(Long.valueOf(i));
+			}
+		}
+		Collections.shuffle(targets, new java.util.Random(42));
+		int distinctCount = new LinkedHashSet<Object>(targets).size();
+		
+		System.out.println(String.format("targets=%d distinct=%d roundTrip=%dus placeholder=%dus chunk=%d threads=%d",
+				targets.size(), distinctCount, roundTripMicros, placeholderMicros, chunkSize, threads));
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			TestContext paramContext = new TestContext();
+			// 阈值不小于集合大小时按普通的IN查询执行
+			SqlInListExecutorBenchmark.run("PLAIN", targets, Integer.MAX_VALUE, InListMode.CHUNK, chunkSize,
+					paramContext, pool, roundTripMicros, placeholderMicros, distinctCount);
+			for(InListMode mode : InListMode.values()) {
+				SqlInListExecutorBenchmark.run(mode.name(), targets, chunkSize, mode, chunkSize,
+						paramContext, pool, roundTripMicros, placeholderMicros, distinctCount);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	/**
+	 * 按一种方式预热后计时执行一次查询并输出统计
+	 * 
+	 * @param label 输出的名称
+	 * @param targets 目标集合
+	 * @param threshold 使用执行方式的集合数量阈值
+	 * @param mode 超过阈值时的执行方式
+	 * @param chunkSize 分块大小
+	 * @param paramContext 搜索参数上下文
+	 * @param pool 分块查询的线程执行器
+	 * @param roundTripMicros 模拟往返的微秒数
+	 * @param placeholderMicros 每个占位符的微秒数
+	 * @param expectedRows 期望返回的行数
+	 * @throws SQLException 执行失败则抛出异常
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void run(String label, List<Object> targets, int threshold, InListMode mode, int chunkSize,
+			TestContext paramContext, ExecutorService pool, long roundTripMicros, long placeholderMicros,
+			int expectedRows) throws SQLException {
+		StubDatabase database = new StubDatabase(roundTripMicros, placeholderMicros);
+		SqlInListExecutor executor = new SqlInListExecutor(database.dataSource(), pool, mode, threshold,
+				chunkSize, SqlDialect.POSTGRESQL.instance());
+		// 先执行一次预热, 再计时
+		executor.queryIn(new SqlParameter(), paramContext, RAW_SQL, "id", targets, "bigint", ID_MAPPER);
+		database.reset();
+		long startNanos = System.nanoTime();
+		List<Long> rows = executor.queryIn(new SqlParameter(), paramContext, RAW_SQL, "id", targets, "bigint",
+				ID_MAPPER);
+		long elapsedNanos = System.nanoTime() - startNanos;
+		System.out.println(String.format("%-10s roundTrips=%-6d placeholders=%-8d rows=%-8d elapsed=%.1fms", label,
+				database.roundTrips.get(), database.placeholders.get(), rows.size(), elapsedNanos / 1e6));
+		if(rows.size() != expectedRows) {
+			throw new AssertionError(String.format("%s返回%d行, 期望%d行", label, rows.size(), expectedRows));
+		}
+	}
+	
+	/**
+	 * 读取结果行中第一列的映射器
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final ISqlRowMapper<Long> ID_MAPPER = new ISqlRowMapper<Long>() {
+		
+		@Override
+		public Long mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+			return (Long) resultSet.getObject(1);
+		}
+	};
+	
+	/**
+	 * 模拟的数据库, 统计往返次数和绑定的占位符数量, 并按次数等待模拟的耗时
+	 * <br/> 查询为每个不同的绑定值返回一行, 数组参数按元素展开, 临时表的查询返回同一个连接写入的值.
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static class StubDatabase {
+		
+		private final long roundTripNanos;
+		
+		private final long placeholderNanos;
+		
+		private final AtomicLong roundTrips = new AtomicLong();
+		
+		private final AtomicLong placeholders = new AtomicLong();
+		
+		private StubDatabase(long roundTripMicros, long placeholderMicros) {
+			this.roundTripNanos = roundTripMicros * 1000;
+			this.placeholderNanos = placeholderMicros * 1000;
+		}
+		
+		private void reset() {
+			this.roundTrips.set(0);
+			this.placeholders.set(0);
+		}
+		
+		/**
+		 * 模拟一次往返, 解析指定数量的占位符
+		 * 
+		 * @param placeholderCount 占位符数量
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private void execute(int placeholderCount) {
+			this.roundTrips.incrementAndGet();
+			this.placeholders.addAndGet(placeholderCount);
+			long waitNanos = this.roundTripNanos + this.placeholderNanos * placeholderCount;
+			long deadline = System.nanoTime() + waitNanos;
+			while(waitNanos > 0) {
+				LockSupport.parkNanos(waitNanos);
+				waitNanos = deadline - System.nanoTime();
+			}
+		}
+		
+		private DataSource dataSource() {
+			return SqlInListExecutorBenchmark.newProxy(DataSource.class, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if("getConnection".equals(method.getName())) {
+						return StubDatabase.this.connection();
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+		
+		private Connection connection() {
+			// 写入临时表的值, 同一个连接上的查询返回这些值
+			final List<Object> tempTableValues = new ArrayList<Object>();
+			return SqlInListExecutorBenchmark.newProxy(Connection.class, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if("prepareStatement".equals(name)) {
+						return StubDatabase.this.statement((Connection) proxy, (String) args[0], tempTableValues);
+					}
+					if("createStatement".equals(name)) {
+						return StubDatabase.this.plainStatement();
+					}
+					if("createArrayOf".equals(name)) {
+						return StubDatabase.array((Object[]) args[1]);
+					}
+					if("close".equals(name)) {
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+		
+		private Statement plainStatement() {
+			return SqlInListExecutorBenchmark.newProxy(Statement.class, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if("execute".equals(name)) {
+						StubDatabase.this.execute(0);
+						return Boolean.FALSE;
+					}
+					if("close".equals(name)) {
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+		
+		private PreparedStatement statement(final Connection connection, final String sql,
+				final List<Object> tempTableValues) {
+			final boolean isInsert = sql.startsWith("INSERT");
+			return SqlInListExecutorBenchmark.newProxy(PreparedStatement.class, new InvocationHandler() {
+				
+				private final List<Object> boundValues = new ArrayList<Object>();
+				
+				private int placeholderCount;
+				
+				private int batchedRows;
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+					String name = method.getName();
+					if("setObject".equals(name)) {
+						this.boundValues.add(args[1]);
+						this.placeholderCount ++;
+						return null;
+					}
+					if("setArray".equals(name)) {
+						this.boundValues.addAll(Arrays.asList((Object[]) ((Array) args[1]).getArray()));
+						this.placeholderCount ++;
+						return null;
+					}
+					if("getConnection".equals(name)) {
+						return connection;
+					}
+					if("addBatch".equals(name)) {
+						this.batchedRows ++;
+						return null;
+					}
+					if("executeBatch".equals(name)) {
+						tempTableValues.addAll(this.boundValues);
+						StubDatabase.this.execute(this.placeholderCount);
+						int[] updateCounts = new int[this.batchedRows];
+						Arrays.fill(updateCounts, 1);
+						this.boundValues.clear();
+						this.placeholderCount = 0;
+						this.batchedRows = 0;
+						return updateCounts;
+					}
+					if("executeQuery".equals(name) && ! isInsert) {
+						StubDatabase.this.execute(this.placeholderCount);
+						// 表中每个值只有一行, 重复的值只匹配一次
+						Set<Object> rowValues = new LinkedHashSet<Object>(this.boundValues);
+						rowValues.addAll(tempTableValues);
+						return StubDatabase.resultSet(new ArrayList<Object>(rowValues));
+					}
+					if("close".equals(name) || "cancel".equals(name)) {
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+		
+		private static Array array(final Object[] elements) {
+			return SqlInListExecutorBenchmark.newProxy(Array.class, new InvocationHandler() {
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if("getArray".equals(method.getName())) {
+						return elements;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+		
+		/**
+		 * 生成每个值一行的结果集, 只支持按列序号读取第一列
+		 * 
+		 * @param rowValues 每行的值
+		 * @return 结果集
+		 * 
+		 * @author linjie
+		 * @since 1.0.4
+		 */
+		private static ResultSet resultSet(final List<Object> rowValues) {
+			return SqlInListExecutorBenchmark.newProxy(ResultSet.class, new InvocationHandler() {
+				
+				private int index = -1;
+				
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					String name = method.getName();
+					if("next".equals(name)) {
+						return Boolean.valueOf(++ this.index < rowValues.size());
+					}
+					if("getObject".equals(name) && Integer.valueOf(1).equals(args[0])) {
+						return rowValues.get(this.index);
+					}
+					if("close".equals(name)) {
+						return null;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T newProxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlInListExecutorBenchmark.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+}
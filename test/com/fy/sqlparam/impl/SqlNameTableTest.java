@@ -0,0 +1,122 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 名称表的测试, 不依赖测试框架, 直接运行main方法, 失败时抛出{@link AssertionError}
+ * <br/> 按不同的名称数量构建名称表, 检查每个名称都查到构造时的编号, 在更长的字符序列中按范围查找也能查到,
+ * 	不在表中的名称(包括表中名称的前缀和只差一个字符的名称)返回-1.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlNameTableTest {
+	
+	/**
+	 * 检查的名称数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final int[] NAME_COUNTS = {0, 1, 2, 3, 10, 100, 1000, 20000};
+	
+	public static void main(String[] args) {
+		for(int nameCount : NAME_COUNTS) {
+			SqlNameTableTest.testNameCount(nameCount);
+		}
+		SqlNameTableTest.testDuplicateNames();
+		System.out.println("SqlNameTableTest OK");
+	}
+	
+	/**
+	 * 按指定的名称数量构建名称表并检查查找结果
+	 * 
+	 * @param nameCount 名称数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testNameCount(int nameCount) {
+		Random random = new Random(nameCount);
+		List<String> names = new ArrayList<String>(nameCount);
+		for(int i = 0; i < nameCount; i ++) {
+			names.add(SqlNameTableTest.randomName(random, i));
+		}
+		SqlNameTable nameTable = new SqlNameTable(names);
+		SqlNameTableTest.assertEquals("名称数量", nameCount, nameTable.size());
+		for(int id = 0; id < nameCount; id ++) {
+			String name = names.get(id);
+			SqlNameTableTest.assertEquals("名称" + name + "的编号", id, nameTable.getId(name));
+			SqlNameTableTest.assertEquals("编号" + id + "的名称", name, nameTable.getName(id));
+			// 在更长的字符序列中按范围查找
+			String chars = "filter=" + name + ":eq:1";
+			SqlNameTableTest.assertEquals("范围中的名称" + name + "的编号", id,
+					nameTable.getId(chars, 7, 7 + name.length()));
+			SqlNameTableTest.assertEquals("名称" + name + "的StringBuilder编号", id,
+					nameTable.getId(new StringBuilder(name)));
+		}
+		for(int i = 0; i < nameCount; i ++) {
+			String name = names.get(i);
+			SqlNameTableTest.assertUnknown(nameTable, name + "_x");
+			SqlNameTableTest.assertUnknown(nameTable, name.substring(0, name.length() - 1));
+			char last = name.charAt(name.length() - 1);
+			SqlNameTableTest.assertUnknown(nameTable, name.substring(0, name.length() - 1) + (char) (last + 1));
+		}
+		SqlNameTableTest.assertUnknown(nameTable, "");
+		SqlNameTableTest.assertUnknown(nameTable, "unknown");
+		SqlNameTableTest.assertEquals("null的编号", -1, nameTable.getId(null));
+	}
+	
+	/**
+	 * 重复的名称只编号一次, 按第一次出现的顺序编号
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testDuplicateNames() {
+		SqlNameTable nameTable = new SqlNameTable(Arrays.asList("b", "a", "b", "c", "a"));
+		SqlNameTableTest.assertEquals("名称数量", 3, nameTable.size());
+		SqlNameTableTest.assertEquals("名称b的编号", 0, nameTable.getId("b"));
+		SqlNameTableTest.assertEquals("名称a的编号", 1, nameTable.getId("a"));
+		SqlNameTableTest.assertEquals("名称c的编号", 2, nameTable.getId("c"));
+		SqlNameTable emptyTable = new SqlNameTable(Collections.<String>emptyList());
+		SqlNameTableTest.assertUnknown(emptyTable, "a");
+	}
+	
+	/**
+	 * 生成随机的名称, 带有序号保证不重复, 以小写字母结尾
+	 * <br/> 同一个序号只有一个名称, 所以去掉最后一个字母或替换最后一个字母得到的名称都不在表中.
+	 * 
+	 * @param random 随机数
+	 * @param index 序号
+	 * @return 名称
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static String randomName(Random random, int index) {
+		StringBuilder name = new StringBuilder();
+		int prefixLength = 1 + random.nextInt(12);
+		for(int i = 0; i < prefixLength; i ++) {
+			name.append((char) ('a' + random.nextInt(26)));
+		}
+		return name.append(index).append((char) ('a' + random.nextInt(25))).toString();
+	}
+	
+	private static void assertUnknown(SqlNameTable nameTable, String name) {
+		int id = nameTable.getId(name);
+		if(id != -1) {
+			throw new AssertionError(String.format("不在表中的名称%s查到了编号%d", name, id));
+		}
+	}
+	
+	private static void assertEquals(String what, Object expected, Object actual) {
+		if(expected == null ? actual != null : ! expected.equals(actual)) {
+			throw new AssertionError(String.format("%s不一致, 期望: %s, 实际: %s", what, expected, actual));
+		}
+	}
+}
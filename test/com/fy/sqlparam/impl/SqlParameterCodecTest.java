@@ -0,0 +1,163 @@
+package com.fy.sqlparam.impl;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.impl.SqlParameterRenderTest.TestContext;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.param.ISqlQuery;
+
+/**
+ * 搜索参数编解码的测试, 不依赖测试框架, 直接运行main方法, 失败时抛出{@link AssertionError}
+ * <br/> 每个用例检查编码, 解码, 再编码得到相同的字节, 且解码后的搜索参数生成相同的SQL语句和参数对象.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlParameterCodecTest {
+	
+	/**
+	 * 测试使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String RAW_SQL = "SELECT u.id {SELECT} FROM {BASE_TABLES} {EXTRA_TABLES} WHERE {CONDITIONS} {ORDER_BY} {LIMIT}";
+	
+	/**
+	 * 子查询使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String SUB_RAW_SQL = "SELECT u.id FROM {BASE_TABLES} WHERE {CONDITIONS}";
+	
+	public static void main(String[] args) {
+		SqlParameterCodecTest.testBasic();
+		SqlParameterCodecTest.testGroupsAndArray();
+		SqlParameterCodecTest.testSubQuery();
+		SqlParameterCodecTest.testEmptyCondition();
+		SqlParameterCodecTest.testTruncated();
+		System.out.println("SqlParameterCodecTest OK");
+	}
+	
+	/**
+	 * 输出字段, 等值条件, 排序和分页
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testBasic() {
+		SqlParameter parameter = new SqlParameter();
+		parameter.markSelect("name");
+		parameter.query(Query.to("id").eq(Integer.valueOf(5)));
+		parameter.markOrderBy("id", false);
+		parameter.setPagination(2, 10, 0);
+		SqlParameterCodecTest.assertRoundTrip("基本查询", parameter);
+	}
+	
+	/**
+	 * 嵌套的AND/OR查询组, 不同类型的参数, 数组参数和窗口总数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testGroupsAndArray() {
+		SqlParameter parameter = new SqlParameter();
+		parameter.query(Query.to("id").eq(Long.valueOf(1))
+				.or(Query.to("id").in(Arrays.asList(Integer.valueOf(2), Long.valueOf(3), "x"))))
+				.and(Query.to("name").between(new Timestamp(123456789L), new java.util.Date(5)))
+				.and(Query.to("id").inArray(Arrays.asList(Integer.valueOf(1), Integer.valueOf(2)), "int"))
+				.and(Query.to("name").isNotNull());
+		parameter.markWindowTotal();
+		SqlParameterCodecTest.assertRoundTrip("查询组和数组参数", parameter);
+	}
+	
+	/**
+	 * 属性在子查询中和子查询存在结果, 子查询自身带有条件
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testSubQuery() {
+		SqlParameter inner = new SqlParameter();
+		inner.query(Query.to("name").eq("n1")).or(Query.to("id").greaterThan(Integer.valueOf(10)));
+		SqlParameter parameter = new SqlParameter();
+		parameter.query(Query.to("id").inSubQuery(inner, new TestContext(), SUB_RAW_SQL));
+		parameter.query(Query.to("id").exists(inner, new TestContext(), SUB_RAW_SQL));
+		SqlParameterCodecTest.assertRoundTrip("子查询", parameter);
+	}
+	
+	/**
+	 * 空查询条件, 以及条件全部删除后剩下的空查询组
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testEmptyCondition() {
+		SqlParameter empty = new SqlParameter();
+		empty.query();
+		SqlParameterCodecTest.assertRoundTrip("空查询条件", empty);
+		
+		SqlParameter emptied = new SqlParameter();
+		ISqlQuery query = Query.to("id").isNull();
+		emptied.query(query);
+		emptied.deleteQuery(query);
+		SqlParameterCodecTest.assertRoundTrip("删除后的空查询组", emptied);
+	}
+	
+	/**
+	 * 截断的编码在解码时抛出{@link IllegalArgumentException}
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testTruncated() {
+		SqlParameter parameter = new SqlParameter();
+		parameter.query(Query.to("name").like("a%")).and(Query.to("id").in(Arrays.asList(Integer.valueOf(1))));
+		byte[] bytes = SqlParameterCodec.encode(parameter);
+		for(int length = 0; length < bytes.length; length ++) {
+			try {
+				SqlParameterCodec.decode(Arrays.copyOf(bytes, length));
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+			throw new AssertionError(String.format("截断为%d字节的编码没有被拒绝", length));
+		}
+	}
+	
+	/**
+	 * 检查编码, 解码, 再编码得到相同的字节, 且解码后生成相同的SQL语句和参数对象
+	 * 
+	 * @param what 用例名称, 用于错误信息
+	 * @param parameter 搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static void assertRoundTrip(String what, SqlParameter parameter) {
+		byte[] bytes = SqlParameterCodec.encode(parameter);
+		SqlParameter decoded = SqlParameterCodec.decode(bytes);
+		byte[] reencoded = SqlParameterCodec.encode(decoded);
+		if(! Arrays.equals(bytes, reencoded)) {
+			throw new AssertionError(String.format("%s再次编码的字节不一致, 期望: %s, 实际: %s", what,
+					Arrays.toString(bytes), Arrays.toString(reencoded)));
+		}
+		ISqlMapResult expected = SqlParameterCodecTest.render(parameter);
+		ISqlMapResult actual = SqlParameterCodecTest.render(decoded);
+		SqlParameterCodecTest.assertEquals(what + "的SQL", expected.getSql(), actual.getSql());
+		SqlParameterCodecTest.assertEquals(what + "的参数", Arrays.deepToString(expected.getArgObjs()),
+				Arrays.deepToString(actual.getArgObjs()));
+	}
+	
+	private static ISqlMapResult render(SqlParameter parameter) {
+		return parameter.generateMapContext(new TestContext(), new SqlMapper()).generateMapResult(RAW_SQL);
+	}
+	
+	private static void assertEquals(String what, Object expected, Object actual) {
+		if(expected == null ? actual != null : ! expected.equals(actual)) {
+			throw new AssertionError(String.format("%s不一致, 期望: %s, 实际: %s", what, expected, actual));
+		}
+	}
+}
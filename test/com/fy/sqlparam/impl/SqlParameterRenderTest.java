@@ -0,0 +1,121 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.map.ISqlMapEntry;
+import com.fy.sqlparam.map.ISqlMapMeta;
+import com.fy.sqlparam.map.ISqlMapResult;
+import com.fy.sqlparam.map.ISqlPart;
+import com.fy.sqlparam.map.config.FieldMapMeta;
+import com.fy.sqlparam.map.config.MapMetaConfig;
+import com.fy.sqlparam.map.config.MapMetaConfig.MapMetaAnnoInitializor;
+import com.fy.sqlparam.param.ISqlParameterContext;
+
+/**
+ * 搜索参数渲染的测试, 不依赖测试框架, 直接运行main方法, 失败时抛出{@link AssertionError}
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlParameterRenderTest {
+	
+	/**
+	 * 测试使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String RAW_SQL = "SELECT u.id FROM {BASE_TABLES} WHERE {CONDITIONS}";
+	
+	public static void main(String[] args) {
+		SqlParameterRenderTest.testRenderTwiceWithReferenceArg();
+		System.out.println("SqlParameterRenderTest OK");
+	}
+	
+	/**
+	 * 同一个搜索参数渲染两次, 引用占位符参数在两次渲染中都被格式化为字段, 不会残留为<code>?</code>
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testRenderTwiceWithReferenceArg() {
+		TestContext paramContext = new TestContext();
+		SqlParameter parameter = new SqlParameter();
+		parameter.query(Query.to("id").eq("{#name}"));
+		ISqlMapResult first = parameter.generateMapContext(paramContext, new SqlMapper()).generateMapResult(RAW_SQL);
+		ISqlMapResult second = parameter.generateMapContext(paramContext, new SqlMapper()).generateMapResult(RAW_SQL);
+		SqlParameterRenderTest.assertEquals("SQL", first.getSql(), second.getSql());
+		SqlParameterRenderTest.assertEquals("参数", Arrays.toString(first.getArgObjs()), Arrays.toString(second.getArgObjs()));
+		if(! second.getSql().contains("u.id = u.name")) {
+			throw new AssertionError("第二次渲染没有格式化引用占位符: " + second.getSql());
+		}
+		if(second.getArgObjs().length != 0) {
+			throw new AssertionError("第二次渲染残留了参数: " + Arrays.toString(second.getArgObjs()));
+		}
+	}
+	
+	private static void assertEquals(String what, Object expected, Object actual) {
+		if(expected == null ? actual != null : ! expected.equals(actual)) {
+			throw new AssertionError(String.format("%s不一致, 期望: %s, 实际: %s", what, expected, actual));
+		}
+	}
+	
+	/**
+	 * 测试使用的搜索参数上下文
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	public static class TestContext implements ISqlParameterContext {
+		
+		private final Map<String, ISqlMapMeta> mapMetaMap = new HashMap<String, ISqlMapMeta>();
+		
+		private final List<ISqlPart> sqlParts = new ArrayList<ISqlPart>();
+		
+		private final List<ISqlMapEntry> mapEntries = new ArrayList<ISqlMapEntry>();
+		
+		@MapMetaConfig(baseTables = "t_user u", 
+			queryFields = {
+				@FieldMapMeta(name = "id", value = "u.id"),
+				@FieldMapMeta(name = "name", value = "u.name")
+			})
+		public TestContext() {
+			MapMetaAnnoInitializor.initFor(this);
+		}
+		
+		@Override
+		public void addDefaultMapMeta(ISqlMapMeta mapMeta) {
+			this.mapMetaMap.put(mapMeta.getName(), mapMeta);
+		}
+		
+		@Override
+		public ISqlMapMeta getDefaultMapMetaByName(String name) {
+			return this.mapMetaMap.get(name);
+		}
+		
+		@Override
+		public void addDefaultSqlPart(ISqlPart sqlPart) {
+			this.sqlParts.add(sqlPart);
+		}
+		
+		@Override
+		public List<ISqlPart> getDefaultSqlParts() {
+			return this.sqlParts;
+		}
+		
+		@Override
+		public void addDefaultMapEntry(ISqlMapEntry mapEntry) {
+			this.mapEntries.add(mapEntry);
+		}
+		
+		@Override
+		public List<ISqlMapEntry> getDefaultMapEntries() {
+			return this.mapEntries;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package com.fy.sqlparam.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.fy.sqlparam.impl.SqlParameter.Query;
+import com.fy.sqlparam.impl.SqlParameterRenderTest.TestContext;
+import com.fy.sqlparam.param.ISqlQuery;
+
+/**
+ * 搜索参数结构哈希的测试, 不依赖测试框架, 直接运行main方法, 失败时抛出{@link AssertionError}
+ * <br/> 按种子随机构建搜索参数(包含查询组, 删除的查询, 子查询, 排序和分页), 检查结构哈希相同时生成的SQL语句相同,
+ * 	以及增量维护的结构哈希与重新构建(编码后解码)的搜索参数的结构哈希相同.
+ * <br/> 参数为随机构建的搜索参数数量.
+ * 
+ * @author linjie
+ * @since 1.0.4
+ */
+public class SqlParameterShapeTest {
+	
+	/**
+	 * 测试使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String RAW_SQL = "SELECT u.id {SELECT} FROM {BASE_TABLES} {EXTRA_TABLES} WHERE {CONDITIONS} {ORDER_BY} {LIMIT}";
+	
+	/**
+	 * 子查询使用的原始SQL
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static final String SUB_RAW_SQL = "SELECT u.id FROM {BASE_TABLES} WHERE {CONDITIONS}";
+	
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		SqlParameterShapeTest.testEqualShapeEqualSql(count);
+		SqlParameterShapeTest.testIncrementalMatchesRebuild(count);
+		SqlParameterShapeTest.testSubQueryChangedAfterAdded();
+		System.out.println("SqlParameterShapeTest OK");
+	}
+	
+	/**
+	 * 结构哈希相同的搜索参数生成相同的SQL语句
+	 * 
+	 * @param count 随机构建的搜索参数数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testEqualShapeEqualSql(int count) {
+		TestContext paramContext = new TestContext();
+		Map<Long, String> sqlByShape = new HashMap<Long, String>();
+		for(long seed = 0; seed < count; seed ++) {
+			SqlParameter parameter = SqlParameterShapeTest.build(new Random(seed));
+			long shape = parameter.getShapeHash();
+			String sql = parameter.generateMapContext(paramContext, new SqlMapper()).generateMapResult(RAW_SQL).getSql();
+			String previousSql = sqlByShape.get(Long.valueOf(shape));
+			if(previousSql == null) {
+				sqlByShape.put(Long.valueOf(shape), sql);
+			} else if(! previousSql.equals(sql)) {
+				throw new AssertionError(String.format("种子%d的结构哈希相同但SQL语句不同: %s, %s", seed, previousSql, sql));
+			}
+		}
+		if(sqlByShape.size() < 2) {
+			throw new AssertionError("随机构建的搜索参数只有一种结构");
+		}
+	}
+	
+	/**
+	 * 增量维护的结构哈希与重新构建的搜索参数的结构哈希相同
+	 * 
+	 * @param count 随机构建的搜索参数数量
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testIncrementalMatchesRebuild(int count) {
+		for(long seed = 0; seed < count; seed ++) {
+			SqlParameter parameter = SqlParameterShapeTest.build(new Random(seed));
+			SqlParameter rebuilt = SqlParameterCodec.decode(SqlParameterCodec.encode(parameter));
+			if(parameter.getShapeHash() != rebuilt.getShapeHash()) {
+				throw new AssertionError(String.format("种子%d增量维护的结构哈希与重新构建的不一致", seed));
+			}
+		}
+	}
+	
+	/**
+	 * 子查询加入后再修改子查询的搜索参数, 结构哈希随之变化, 并与重新构建的一致
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	static void testSubQueryChangedAfterAdded() {
+		SqlParameter inner = new SqlParameter();
+		inner.query(Query.to("name").eq("n1"));
+		SqlParameter parameter = new SqlParameter();
+		parameter.query(Query.to("id").inSubQuery(inner, new TestContext(), SUB_RAW_SQL));
+		long before = parameter.getShapeHash();
+		inner.query(Query.to("id").isNotNull());
+		long after = parameter.getShapeHash();
+		if(before == after) {
+			throw new AssertionError("子查询的搜索参数修改后结构哈希没有变化");
+		}
+		if(after != SqlParameterCodec.decode(SqlParameterCodec.encode(parameter)).getShapeHash()) {
+			throw new AssertionError("子查询的搜索参数修改后结构哈希与重新构建的不一致");
+		}
+	}
+	
+	/**
+	 * 随机构建搜索参数
+	 * 
+	 * @param random 随机数
+	 * @return 搜索参数
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static SqlParameter build(Random random) {
+		SqlParameter parameter = new SqlParameter();
+		if(random.nextBoolean()) {
+			parameter.markSelect("name");
+		}
+		int queryCount = random.nextInt(3);
+		for(int i = 0; i < queryCount; i ++) {
+			if(random.nextInt(4) == 0) {
+				// 先加入再删除的查询, 结构哈希需要随之恢复
+				ISqlQuery deleted = SqlParameterShapeTest.leaf(random);
+				parameter.query(deleted);
+				parameter.query(SqlParameterShapeTest.tree(random, 2));
+				parameter.deleteQuery(deleted);
+			} else {
+				parameter.query(SqlParameterShapeTest.tree(random, 2));
+			}
+		}
+		if(random.nextInt(5) == 0) {
+			SqlParameter inner = new SqlParameter();
+			inner.query(SqlParameterShapeTest.tree(random, 1));
+			parameter.query(Query.to("id").inSubQuery(inner, new TestContext(), SUB_RAW_SQL));
+		}
+		if(random.nextBoolean()) {
+			parameter.markOrderBy(random.nextBoolean() ? "id" : "name", random.nextBoolean());
+		}
+		if(random.nextBoolean()) {
+			// 分页的数值直接写入SQL语句但不在结构哈希中, 使用固定的分页
+			parameter.setPagination(2, 10, 0);
+		}
+		return parameter;
+	}
+	
+	/**
+	 * 随机构建嵌套的查询组
+	 * 
+	 * @param random 随机数
+	 * @param depth 剩余的嵌套深度
+	 * @return 查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static ISqlQuery tree(Random random, int depth) {
+		ISqlQuery query = depth > 0 && random.nextInt(3) == 0
+				? SqlParameterShapeTest.tree(random, depth - 1) : SqlParameterShapeTest.leaf(random);
+		int siblingCount = random.nextInt(3);
+		for(int i = 0; i < siblingCount; i ++) {
+			ISqlQuery sibling = depth > 0 && random.nextInt(3) == 0
+					? SqlParameterShapeTest.tree(random, depth - 1) : SqlParameterShapeTest.leaf(random);
+			query = random.nextBoolean() ? query.and(sibling) : query.or(sibling);
+		}
+		return query;
+	}
+	
+	/**
+	 * 随机构建单个查询, 参数值随机, 不影响结构
+	 * 
+	 * @param random 随机数
+	 * @return 查询
+	 * 
+	 * @author linjie
+	 * @since 1.0.4
+	 */
+	private static ISqlQuery leaf(Random random) {
+		String propertyName = random.nextBoolean() ? "id" : "name";
+		switch(random.nextInt(6)) {
+		case 0:
+			return Query.to(propertyName).eq(Integer.valueOf(random.nextInt(100)));
+		case 1:
+			List<Object> targets = new ArrayList<Object>();
+			int targetCount = 1 + random.nextInt(3);
+			for(int i = 0; i < targetCount; i ++) {
+				targets.add(Integer.valueOf(random.nextInt(9)));
+			}
+			return Query.to(propertyName).in(targets);
+		case 2:
+			return Query.to(propertyName).between(Integer.valueOf(random.nextInt(5)), Integer.valueOf(random.nextInt(5)));
+		case 3:
+			return Query.to(propertyName).isNull();
+		case 4:
+			// 引用占位符直接写入SQL语句
+			return Query.to(propertyName).eq(random.nextBoolean() ? "{#id}" : "v" + random.nextInt(3));
+		default:
+			return Query.to(propertyName).like("x%");
+		}
+	}
+}